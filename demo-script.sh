@@ -34,7 +34,7 @@ get_all_operations() {
     
     if [ "$total_elements" = "0" ]; then
         echo "No operations found yet (service may still be starting up)"
-        echo "   Operations will appear after the first monitoring cycle (up to 5 minutes)"
+        echo "   Operations will appear after the first monitoring cycle (a few minutes)"
     else
         echo "Found $total_elements operations:"
         echo "$response" | jq '.content[] | {id, applianceId, operationType, processedAt}' 2>/dev/null || echo "$response"
@@ -77,7 +77,9 @@ show_performance_metrics() {
     
     if [ -f "$LOG_FILE" ]; then
         # Throughput calculations
-        total_processed=$(grep "Successfully processed appliance" "$LOG_FILE" | wc -l | tr -d ' ')
+        # Per-appliance success lines are sampled, so count from the per-cycle summaries
+        total_processed=$(grep "Remediation summary:" "$LOG_FILE" | \
+            awk -F'summary: ' '{split($2, f, " "); sum+=f[1]} END {print sum+0}')
         completed_cycles=$(grep "Collection cycle completed" "$LOG_FILE" | wc -l | tr -d ' ')
         
         echo "   Throughput:"
@@ -91,7 +93,7 @@ show_performance_metrics() {
         fi
         
         # Success rates
-        successful=$(grep "Successfully processed appliance" "$LOG_FILE" | wc -l | tr -d ' ')
+        successful=$total_processed
         failed=$(grep "Failed to process appliance" "$LOG_FILE" | wc -l | tr -d ' ')
         total_processing=$((successful + failed))
         
@@ -124,7 +126,7 @@ show_service_info() {
     echo "6. Service Information:"
     echo "   Health Endpoint: $BASE_URL/actuator/health"
     echo "   Operations API:  $API_URL/operations"
-    echo "   Monitoring:      Every 5 minutes"
+    echo "   Monitoring:      Adaptive cadence (30s to 5 minutes)"
     echo "   Processing:      Immediate async processing"
     echo
     echo "Current Status:"
@@ -148,7 +150,7 @@ main() {
     echo "=== Demo Complete ==="
     echo
     echo "Tips:"
-    echo "   - Operations appear after stale appliances are detected (every 5 minutes)"
+    echo "   - Operations appear after stale appliances are detected (each collection cycle)"
     echo "   - Each appliance gets 2 operations: DRAIN followed by REMEDIATE"
     echo "   - Check application logs to see real-time processing"
     echo "   - Use 'curl $API_URL/operations' to check for new operations"
@@ -1,17 +1,19 @@
 package com.octtools.appliance.client;
 
+import com.octtools.appliance.logging.LogSampler;
 import com.octtools.appliance.model.api.AppliancePageResponse;
 import com.octtools.appliance.model.api.DrainRequest;
 import com.octtools.appliance.model.api.DrainResponse;
 import com.octtools.appliance.model.api.RemediateRequest;
 import com.octtools.appliance.model.api.RemediateResponse;
+import com.octtools.appliance.tracing.RemediationTrace;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.time.Instant;
@@ -28,28 +30,49 @@ public class ApplianceApiClient {
     private static final long PROCESSING_RETRY_DELAY_MS = 500;
     private static final double COLLECTION_BACKOFF_MULTIPLIER = 1.5;
     private static final double PROCESSING_BACKOFF_MULTIPLIER = 1.1;
+    private static final int SUCCESS_LOG_LINES_PER_SECOND = 10;
+    private static final String DRAIN_OPERATION = "drain";
+    private static final String REMEDIATE_OPERATION = "remediate";
+    private static final String GET_APPLIANCES_OPERATION = "get_appliances";
+    private static final String OUTCOME_NOT_FOUND = "not_found";
 
-    private final WebClient webClient;
+    private final ApplianceBackends backends;
+    private final RetryBudget retryBudget;
+    private final PageFetchHedging pageFetchHedging;
     private final String actorEmail;
     private final int timeoutSeconds;
+    // Per-appliance success lines are sampled; RemediationProcessor logs per-cycle totals
+    private final LogSampler drainLogSampler = new LogSampler(SUCCESS_LOG_LINES_PER_SECOND);
+    private final LogSampler remediateLogSampler = new LogSampler(SUCCESS_LOG_LINES_PER_SECOND);
 
     public ApplianceApiClient(
-            WebClient webClient,
+            ApplianceBackends backends,
+            RetryBudget retryBudget,
+            PageFetchHedging pageFetchHedging,
             @Value(API_TIMEOUT_SECONDS) int timeoutSeconds,
             @Value(PROCESSING_ACTOR_EMAIL) String actorEmail) {
         
-        validateInputs(webClient, timeoutSeconds, actorEmail);
+        validateInputs(backends, retryBudget, pageFetchHedging, timeoutSeconds, actorEmail);
         
-        this.webClient = webClient;
+        this.backends = backends;
+        this.retryBudget = retryBudget;
+        this.pageFetchHedging = pageFetchHedging;
         this.actorEmail = actorEmail;
         this.timeoutSeconds = timeoutSeconds;
         
-        log.info("Initialized ApplianceApiClient");
+        log.info("Initialized ApplianceApiClient for backends {}", backends.names());
     }
 
-    private void validateInputs(WebClient webClient, int timeoutSeconds, String actorEmail) {
-        if (webClient == null) {
-            throw new IllegalArgumentException("WebClient cannot be null");
+    private void validateInputs(ApplianceBackends backends, RetryBudget retryBudget, PageFetchHedging pageFetchHedging,
+                                int timeoutSeconds, String actorEmail) {
+        if (backends == null) {
+            throw new IllegalArgumentException("ApplianceBackends cannot be null");
+        }
+        if (retryBudget == null) {
+            throw new IllegalArgumentException("RetryBudget cannot be null");
+        }
+        if (pageFetchHedging == null) {
+            throw new IllegalArgumentException("PageFetchHedging cannot be null");
         }
         if (timeoutSeconds <= 0) {
             throw new IllegalArgumentException("Timeout must be positive");
@@ -59,29 +82,22 @@ public class ApplianceApiClient {
         }
     }
 
-    // Retry: 5 attempts, 0.5s delay, 1.5x multiplier (retry all exceptions for collection endpoint)
+    // Retry: 5 attempts, 0.5s delay, 1.5x multiplier (retry all exceptions for collection endpoint, within the retry budget).
+    // Every attempt waits for the backend's rate limit; a null backend means the first configured one
     @Retryable(
+            noRetryFor = {RetryBudgetExhaustedException.class},
             maxAttempts = MAX_RETRY_ATTEMPTS,
             backoff = @Backoff(delay = COLLECTION_RETRY_DELAY_MS, multiplier = COLLECTION_BACKOFF_MULTIPLIER)
     )
-    public AppliancePageResponse getAppliances(String after, int pageSize) {
+    public AppliancePageResponse getAppliances(String backend, String after, int pageSize) {
+        ApplianceBackend target = backends.get(backend);
+        retryBudget.beforeAttempt(GET_APPLIANCES_OPERATION);
+        target.acquireRequestPermit();
         Instant startTime = Instant.now();
-        log.info("Fetching appliances with after: {}, pageSize: {}", after, pageSize);
+        log.info("Fetching appliances from {} with after: {}, pageSize: {}", target.getName(), after, pageSize);
 
         try {
-            var uriBuilder = webClient.get()
-                    .uri(uriBuilder1 -> {
-                        var builder = uriBuilder1.path("/api/1.0/appliances")
-                                .queryParam("first", pageSize);
-                        if (after != null) {
-                            builder.queryParam("after", after);
-                        }
-                        return builder.build();
-                    });
-
-            AppliancePageResponse response = uriBuilder
-                    .retrieve()
-                    .bodyToMono(AppliancePageResponse.class)
+            AppliancePageResponse response = pageFetchHedging.hedge(() -> requestPage(target, after, pageSize), target::tryAcquireRequestPermit)
                     .timeout(Duration.ofSeconds(timeoutSeconds))
                     .block();
 
@@ -97,7 +113,8 @@ public class ApplianceApiClient {
 
         } catch (WebClientResponseException e) {
             long latencyMs = Duration.between(startTime, Instant.now()).toMillis();
-            log.warn("Failed to fetch appliances (attempt will retry): status={}, response={}", e.getStatusCode(), e.getResponseBodyAsString());
+            log.warn("Failed to fetch appliances from {} (attempt will retry): status={}, response={}",
+                    target.getName(), e.getStatusCode(), e.getResponseBodyAsString());
 
             // Emit API metrics
             log.debug("METRIC: api.get_appliances.latency.ms={}", latencyMs);
@@ -108,22 +125,40 @@ public class ApplianceApiClient {
         }
     }
 
-    // Retry: 5 attempts, 0.5s delay, 1.1x multiplier (don't retry 404s)
+    private Mono<AppliancePageResponse> requestPage(ApplianceBackend target, String after, int pageSize) {
+        return target.getWebClient().get()
+                .uri(uriBuilder -> {
+                    var builder = uriBuilder.path("/api/1.0/appliances")
+                            .queryParam("first", pageSize);
+                    if (after != null) {
+                        builder.queryParam("after", after);
+                    }
+                    return builder.build();
+                })
+                .retrieve()
+                .bodyToMono(AppliancePageResponse.class);
+    }
+
+    // Retry: 5 attempts, 0.5s delay, 1.1x multiplier (don't retry 404s, retries limited by the retry budget)
     @Retryable(
-            noRetryFor = {WebClientResponseException.NotFound.class},
+            noRetryFor = {WebClientResponseException.NotFound.class, RetryBudgetExhaustedException.class},
             maxAttempts = MAX_RETRY_ATTEMPTS,
             backoff = @Backoff(delay = PROCESSING_RETRY_DELAY_MS, multiplier = PROCESSING_BACKOFF_MULTIPLIER)
     )
-    public DrainResponse drainAppliance(String applianceId) {
+    public DrainResponse drainAppliance(String backend, String applianceId) {
+        ApplianceBackend target = backends.get(backend);
+        retryBudget.beforeAttempt(DRAIN_OPERATION);
+        target.acquireRequestPermit();
         Instant startTime = Instant.now();
-        log.debug("Draining appliance: {}", applianceId);
+        long attemptStartNanos = System.nanoTime();
+        String outcome = RemediationTrace.OUTCOME_ERROR;
 
         try {
             DrainRequest request = new DrainRequest();
             request.setReason(String.format("Appliance %s detected as stale - automated drain", applianceId));
             request.setActor(actorEmail);
 
-            DrainResponse response = webClient.post()
+            DrainResponse response = target.getWebClient().post()
                     .uri("/api/1.0/appliances/{id}/drain", applianceId)
                     .bodyValue(request)
                     .retrieve()
@@ -132,16 +167,20 @@ public class ApplianceApiClient {
                     .block();
 
             long latencyMs = Duration.between(startTime, Instant.now()).toMillis();
-            log.info("Successfully drained appliance {}: drainId={}", applianceId, 
-                    response != null ? response.getDrainId() : null);
+            if (drainLogSampler.tryAcquire()) {
+                log.info("Successfully drained appliance {}: drainId={}", applianceId, 
+                        response != null ? response.getDrainId() : null);
+            }
             
-            // Emit API metrics
+            // Emit API metrics; only the line above is sampled
             log.debug("METRIC: api.drain_appliance.latency.ms={}", latencyMs);
             log.debug("METRIC: api.drain_appliance.success.ratio=1");
             
+            outcome = RemediationTrace.OUTCOME_OK;
             return response;
             
         } catch (WebClientResponseException.NotFound e) {
+            outcome = OUTCOME_NOT_FOUND;
             long latencyMs = Duration.between(startTime, Instant.now()).toMillis();
             log.warn("Appliance {} no longer exists, skipping drain", applianceId);
             
@@ -151,6 +190,7 @@ public class ApplianceApiClient {
             
             throw e;
         } catch (WebClientResponseException e) {
+            outcome = String.valueOf(e.getStatusCode().value());
             long latencyMs = Duration.between(startTime, Instant.now()).toMillis();
             log.warn("Failed to drain appliance {} (will retry): status={}, response={}", 
                     applianceId, e.getStatusCode(), e.getResponseBodyAsString());
@@ -161,25 +201,32 @@ public class ApplianceApiClient {
             log.debug("METRIC: api.drain_appliance.failure.count=1");
             
             throw e;
+        } finally {
+            // Each retry re-enters this method, so every attempt gets its own span
+            RemediationTrace.recordAttempt(DRAIN_OPERATION, attemptStartNanos, outcome);
         }
     }
 
-    // Retry: 5 attempts, 0.5s delay, 1.1x multiplier (don't retry 404s)
+    // Retry: 5 attempts, 0.5s delay, 1.1x multiplier (don't retry 404s, retries limited by the retry budget)
     @Retryable(
-            noRetryFor = {WebClientResponseException.NotFound.class},
+            noRetryFor = {WebClientResponseException.NotFound.class, RetryBudgetExhaustedException.class},
             maxAttempts = MAX_RETRY_ATTEMPTS,
             backoff = @Backoff(delay = PROCESSING_RETRY_DELAY_MS, multiplier = PROCESSING_BACKOFF_MULTIPLIER)
     )
-    public RemediateResponse remediateAppliance(String applianceId) {
+    public RemediateResponse remediateAppliance(String backend, String applianceId) {
+        ApplianceBackend target = backends.get(backend);
+        retryBudget.beforeAttempt(REMEDIATE_OPERATION);
+        target.acquireRequestPermit();
         Instant startTime = Instant.now();
-        log.debug("Remediating appliance: {}", applianceId);
+        long attemptStartNanos = System.nanoTime();
+        String outcome = RemediationTrace.OUTCOME_ERROR;
         
         try {
             RemediateRequest request = new RemediateRequest();
             request.setReason(String.format("Appliance %s remediation after drain", applianceId));
             request.setActor(actorEmail);
 
-            RemediateResponse response = webClient.post()
+            RemediateResponse response = target.getWebClient().post()
                     .uri("/api/1.0/appliances/{id}/remediate", applianceId)
                     .bodyValue(request)
                     .retrieve()
@@ -188,18 +235,22 @@ public class ApplianceApiClient {
                     .block();
 
             long latencyMs = Duration.between(startTime, Instant.now()).toMillis();
-            log.info("Successfully remediated appliance {}: remediationId={}, result={}", 
-                    applianceId, 
-                    response != null ? response.getRemediationId() : null,
-                    response != null ? response.getRemediationResult() : null);
+            if (remediateLogSampler.tryAcquire()) {
+                log.info("Successfully remediated appliance {}: remediationId={}, result={}", 
+                        applianceId, 
+                        response != null ? response.getRemediationId() : null,
+                        response != null ? response.getRemediationResult() : null);
+            }
             
-            // Emit API metrics
+            // Emit API metrics; only the line above is sampled
             log.debug("METRIC: api.remediate_appliance.latency.ms={}", latencyMs);
             log.debug("METRIC: api.remediate_appliance.success.ratio=1");
             
+            outcome = RemediationTrace.OUTCOME_OK;
             return response;
             
         } catch (WebClientResponseException.NotFound e) {
+            outcome = OUTCOME_NOT_FOUND;
             long latencyMs = Duration.between(startTime, Instant.now()).toMillis();
             log.warn("Appliance {} no longer exists, skipping remediation", applianceId);
             
@@ -209,6 +260,7 @@ public class ApplianceApiClient {
             
             throw e;
         } catch (WebClientResponseException e) {
+            outcome = String.valueOf(e.getStatusCode().value());
             long latencyMs = Duration.between(startTime, Instant.now()).toMillis();
             log.warn("Failed to remediate appliance {} (attempt will retry): status={}, response={}", 
                     applianceId, e.getStatusCode(), e.getResponseBodyAsString());
@@ -219,6 +271,8 @@ public class ApplianceApiClient {
             log.debug("METRIC: api.remediate_appliance.failure.count=1");
             
             throw e;
+        } finally {
+            RemediationTrace.recordAttempt(REMEDIATE_OPERATION, attemptStartNanos, outcome);
         }
     }
 }
@@ -0,0 +1,95 @@
+package com.octtools.appliance.client;
+
+import lombok.Builder;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.Semaphore;
+
+// One appliance API deployment (typically a region) with its own client, connection pool, request rate and share
+// of the processing executor
+public class ApplianceBackend {
+
+    private final String name;
+    private final WebClient webClient;
+    private final ConnectionProvider connectionProvider;
+    private final Integer pageSize;
+    private final RequestRateLimiter rateLimiter;
+    private final int maxInFlight;
+    private final Semaphore processingSlots;
+
+    // pageSize null follows the shared, runtime-tunable page size; maxInFlight 0 leaves processing unbounded
+    @Builder
+    public ApplianceBackend(String name, WebClient webClient, ConnectionProvider connectionProvider, Integer pageSize,
+                            double maxRequestsPerSecond, int maxInFlight) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Backend name cannot be null or empty");
+        }
+        if (pageSize != null && pageSize <= 0) {
+            throw new IllegalArgumentException("Page size of backend " + name + " must be positive, got: " + pageSize);
+        }
+        if (maxInFlight < 0) {
+            throw new IllegalArgumentException("Max in-flight of backend " + name + " must not be negative, got: " + maxInFlight);
+        }
+        this.name = name;
+        this.webClient = webClient;
+        this.connectionProvider = connectionProvider;
+        this.pageSize = pageSize;
+        this.rateLimiter = new RequestRateLimiter(maxRequestsPerSecond);
+        this.maxInFlight = maxInFlight;
+        this.processingSlots = maxInFlight > 0 ? new Semaphore(maxInFlight) : null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public WebClient getWebClient() {
+        return webClient;
+    }
+
+    public Integer getPageSize() {
+        return pageSize;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    // Blocks until this backend's rate limit allows another request
+    public void acquireRequestPermit() {
+        rateLimiter.acquire();
+    }
+
+    // Non-blocking, for hedged requests that fire on a timer thread and are dropped when the rate limit is reached
+    public boolean tryAcquireRequestPermit() {
+        return rateLimiter.tryAcquire();
+    }
+
+    // Bulkhead: appliances of this backend queued or running in the shared executor stay within maxInFlight, so a
+    // slow region cannot take every thread and queue slot from the others
+    public boolean tryAcquireProcessingSlot() {
+        return processingSlots == null || processingSlots.tryAcquire();
+    }
+
+    public void releaseProcessingSlot() {
+        if (processingSlots != null) {
+            processingSlots.release();
+        }
+    }
+
+    // Appliances this backend can still start under its bulkhead; unlimited without one
+    public int freeProcessingSlots() {
+        return processingSlots == null ? Integer.MAX_VALUE : processingSlots.availablePermits();
+    }
+
+    public int getInFlight() {
+        return processingSlots == null ? 0 : maxInFlight - processingSlots.availablePermits();
+    }
+
+    void dispose() {
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+    }
+}
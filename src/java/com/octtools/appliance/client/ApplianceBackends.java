@@ -0,0 +1,56 @@
+package com.octtools.appliance.client;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// The configured appliance API backends in configuration order. The first one also serves appliances that carry
+// no backend, such as tasks queued before backends were configured.
+public class ApplianceBackends implements AutoCloseable {
+
+    // Name of the single backend built from appliance.api.* when appliance.backends is empty
+    public static final String DEFAULT_BACKEND = "default";
+
+    private final Map<String, ApplianceBackend> backends = new LinkedHashMap<>();
+    private final ApplianceBackend primary;
+
+    public ApplianceBackends(List<ApplianceBackend> backends) {
+        if (backends == null || backends.isEmpty()) {
+            throw new IllegalArgumentException("At least one appliance backend is required");
+        }
+        for (ApplianceBackend backend : backends) {
+            if (this.backends.putIfAbsent(backend.getName(), backend) != null) {
+                throw new IllegalArgumentException("Duplicate appliance backend name: " + backend.getName());
+            }
+        }
+        this.primary = backends.get(0);
+    }
+
+    public List<ApplianceBackend> all() {
+        return List.copyOf(backends.values());
+    }
+
+    public List<String> names() {
+        return List.copyOf(backends.keySet());
+    }
+
+    public int size() {
+        return backends.size();
+    }
+
+    public ApplianceBackend get(String name) {
+        if (name == null) {
+            return primary;
+        }
+        ApplianceBackend backend = backends.get(name);
+        if (backend == null) {
+            throw new IllegalArgumentException("Unknown appliance backend: " + name);
+        }
+        return backend;
+    }
+
+    @Override
+    public void close() {
+        backends.values().forEach(ApplianceBackend::dispose);
+    }
+}
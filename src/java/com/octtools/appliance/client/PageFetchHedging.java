@@ -0,0 +1,190 @@
+package com.octtools.appliance.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static com.octtools.appliance.config.ConfigProperties.API_HEDGING_BUDGET_RATIO;
+import static com.octtools.appliance.config.ConfigProperties.API_HEDGING_ENABLED;
+import static com.octtools.appliance.config.ConfigProperties.API_HEDGING_MIN_DELAY_MS;
+import static com.octtools.appliance.config.ConfigProperties.API_HEDGING_MIN_SAMPLES;
+import static com.octtools.appliance.config.ConfigProperties.API_HEDGING_PERCENTILE;
+import static com.octtools.appliance.config.ConfigProperties.API_HEDGING_SAMPLE_SIZE;
+
+// Pagination is serial, so one slow page stalls the whole scan. When a page request has been outstanding longer
+// than a high percentile of recent page latencies, a second identical request is sent and the first response wins.
+// Each page request earns budget-ratio of a hedge token, so hedges stay a bounded fraction of page traffic.
+@Component
+@Slf4j
+public class PageFetchHedging {
+
+    private static final double MAX_HEDGE_TOKENS = 10;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final int minSamples;
+    private final long minDelayNanos;
+    private final double budgetRatio;
+
+    // Ring of the most recent request latencies. A first request cancelled by a faster hedge counts the time it had
+    // taken, a lower bound on its latency; a cancelled hedge counts nothing, as it started late and would read fast.
+    private final long[] latencyNanos;
+    private int sampleCount;
+    private int nextSample;
+    private double hedgeTokens;
+
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+    private final Counter hedgesDenied;
+
+    public PageFetchHedging(
+            MeterRegistry meterRegistry,
+            @Value(API_HEDGING_ENABLED) boolean enabled,
+            @Value(API_HEDGING_PERCENTILE) double percentile,
+            @Value(API_HEDGING_SAMPLE_SIZE) int sampleSize,
+            @Value(API_HEDGING_MIN_SAMPLES) int minSamples,
+            @Value(API_HEDGING_MIN_DELAY_MS) long minDelayMs,
+            @Value(API_HEDGING_BUDGET_RATIO) double budgetRatio) {
+
+        validateInputs(percentile, sampleSize, minSamples, minDelayMs, budgetRatio);
+
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMs);
+        this.budgetRatio = budgetRatio;
+        this.latencyNanos = new long[sampleSize];
+
+        this.hedgesSent = meterRegistry.counter("api.page.hedges", "result", "sent");
+        this.hedgesWon = meterRegistry.counter("api.page.hedges", "result", "won");
+        this.hedgesDenied = meterRegistry.counter("api.page.hedges", "result", "denied");
+        Gauge.builder("api.page.hedge.delay.ms", this, h -> h.hedgeDelay().map(Duration::toMillis).orElse(0L))
+                .register(meterRegistry);
+
+        log.info("Initialized PageFetchHedging with enabled={}, percentile={}, sampleSize={}, minSamples={}, minDelay={}ms, budgetRatio={}",
+                enabled, percentile, sampleSize, minSamples, minDelayMs, budgetRatio);
+    }
+
+    private void validateInputs(double percentile, int sampleSize, int minSamples, long minDelayMs, double budgetRatio) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("Hedging percentile must be in (0, 1), got: " + percentile);
+        }
+        if (sampleSize <= 0) {
+            throw new IllegalArgumentException("Hedging sample size must be positive, got: " + sampleSize);
+        }
+        if (minSamples <= 0 || minSamples > sampleSize) {
+            throw new IllegalArgumentException("Hedging min samples must be in [1, sample size], got: " + minSamples);
+        }
+        if (minDelayMs < 0) {
+            throw new IllegalArgumentException("Hedging min delay must not be negative, got: " + minDelayMs);
+        }
+        if (budgetRatio < 0 || budgetRatio > 1) {
+            throw new IllegalArgumentException("Hedging budget ratio must be in [0, 1], got: " + budgetRatio);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public <T> Mono<T> hedge(Supplier<Mono<T>> request) {
+        return hedge(request, () -> true);
+    }
+
+    // Subscribes to request once, and again after the hedge delay if the first is still outstanding and hedgePermit
+    // grants the backend's rate limit. Errors come from the first request only: a failed hedge defers to it, so retry
+    // behaviour is unchanged.
+    public <T> Mono<T> hedge(Supplier<Mono<T>> request, BooleanSupplier hedgePermit) {
+        if (!enabled) {
+            return request.get();
+        }
+
+        Mono<T> primary = timed(request, true);
+        Duration delay = depositAndGetDelay();
+        if (delay == null) {
+            return primary;
+        }
+
+        Mono<T> hedged = Mono.delay(delay).flatMap(tick -> {
+            if (!tryAcquireHedge()) {
+                hedgesDenied.increment();
+                return Mono.<T>never();
+            }
+            if (!hedgePermit.getAsBoolean()) {
+                refundHedge();
+                hedgesDenied.increment();
+                return Mono.<T>never();
+            }
+            hedgesSent.increment();
+            log.debug("METRIC: api.get_appliances.hedge.count=1");
+            return timed(request, false)
+                    .doOnNext(response -> hedgesWon.increment())
+                    .onErrorResume(e -> Mono.never());
+        });
+        return Mono.firstWithSignal(primary, hedged);
+    }
+
+    // Hedge after this long, or empty while there are too few samples to know what slow looks like
+    public Optional<Duration> hedgeDelay() {
+        long[] samples;
+        synchronized (latencyNanos) {
+            if (sampleCount < minSamples) {
+                return Optional.empty();
+            }
+            samples = Arrays.copyOf(latencyNanos, sampleCount);
+        }
+        Arrays.sort(samples);
+        int index = Math.min(samples.length - 1, (int) Math.ceil(percentile * samples.length) - 1);
+        return Optional.of(Duration.ofNanos(Math.max(minDelayNanos, samples[index])));
+    }
+
+    private Duration depositAndGetDelay() {
+        synchronized (latencyNanos) {
+            hedgeTokens = Math.min(MAX_HEDGE_TOKENS, hedgeTokens + budgetRatio);
+        }
+        return hedgeDelay().orElse(null);
+    }
+
+    private boolean tryAcquireHedge() {
+        synchronized (latencyNanos) {
+            if (hedgeTokens < 1) {
+                return false;
+            }
+            hedgeTokens--;
+            return true;
+        }
+    }
+
+    private void refundHedge() {
+        synchronized (latencyNanos) {
+            hedgeTokens = Math.min(MAX_HEDGE_TOKENS, hedgeTokens + 1);
+        }
+    }
+
+    private <T> Mono<T> timed(Supplier<Mono<T>> request, boolean recordCancelled) {
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            Mono<T> timed = request.get().doOnSuccess(response -> recordLatency(System.nanoTime() - startNanos));
+            return recordCancelled ? timed.doOnCancel(() -> recordLatency(System.nanoTime() - startNanos)) : timed;
+        });
+    }
+
+    void recordLatency(long nanos) {
+        synchronized (latencyNanos) {
+            latencyNanos[nextSample] = nanos;
+            nextSample = (nextSample + 1) % latencyNanos.length;
+            sampleCount = Math.min(sampleCount + 1, latencyNanos.length);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.octtools.appliance.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// Paces calls to one backend at a fixed rate by handing out evenly spaced start slots; callers sleep until theirs.
+// A rate of 0 disables the limit.
+public class RequestRateLimiter {
+
+    private final long intervalNanos;
+    private final LongSupplier nanoTime;
+    private long nextSlotNanos;
+
+    public RequestRateLimiter(double requestsPerSecond) {
+        this(requestsPerSecond, System::nanoTime);
+    }
+
+    RequestRateLimiter(double requestsPerSecond, LongSupplier nanoTime) {
+        if (requestsPerSecond < 0) {
+            throw new IllegalArgumentException("Requests per second must not be negative, got: " + requestsPerSecond);
+        }
+        this.intervalNanos = requestsPerSecond == 0 ? 0 : Math.round(TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        this.nanoTime = nanoTime;
+        this.nextSlotNanos = nanoTime.getAsLong();
+    }
+
+    public boolean isEnabled() {
+        return intervalNanos > 0;
+    }
+
+    public void acquire() {
+        long waitNanos = reserve();
+        if (waitNanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a request slot", e);
+        }
+    }
+
+    // Takes the next slot only if it has already started, for optional requests that should be skipped, not delayed
+    public synchronized boolean tryAcquire() {
+        if (intervalNanos == 0) {
+            return true;
+        }
+        long now = nanoTime.getAsLong();
+        if (nextSlotNanos > now) {
+            return false;
+        }
+        nextSlotNanos = now + intervalNanos;
+        return true;
+    }
+
+    // Nanoseconds until the caller's slot. An idle limiter does not bank slots, so there are no bursts after a pause
+    synchronized long reserve() {
+        if (intervalNanos == 0) {
+            return 0;
+        }
+        long now = nanoTime.getAsLong();
+        long slot = Math.max(now, nextSlotNanos);
+        nextSlotNanos = slot + intervalNanos;
+        return slot - now;
+    }
+}
@@ -0,0 +1,168 @@
+package com.octtools.appliance.client;
+
+import com.octtools.appliance.logging.LogSampler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.support.RetrySynchronizationManager;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static com.octtools.appliance.config.ConfigProperties.API_RETRY_BUDGET_MIN_RETRIES;
+import static com.octtools.appliance.config.ConfigProperties.API_RETRY_BUDGET_RATIO;
+import static com.octtools.appliance.config.ConfigProperties.API_RETRY_BUDGET_WINDOW_SECONDS;
+
+// Caps retries across all API calls at a fraction of recent first attempts, so a brownout upstream cannot be
+// amplified into several times the normal request rate. Counts are kept in one-second buckets over a sliding window.
+@Component
+@Slf4j
+public class RetryBudget {
+
+    private static final int DENIAL_LOG_LINES_PER_SECOND = 1;
+
+    private final double ratio;
+    private final int minRetriesPerWindow;
+    private final LongSupplier nanoTime;
+    private final Bucket[] buckets;
+    private final Counter requestCounter;
+    private final Counter allowedCounter;
+    private final Counter deniedCounter;
+    private final LogSampler denialLogSampler = new LogSampler(DENIAL_LOG_LINES_PER_SECOND);
+
+    @Autowired
+    public RetryBudget(
+            MeterRegistry meterRegistry,
+            @Value(API_RETRY_BUDGET_RATIO) double ratio,
+            @Value(API_RETRY_BUDGET_WINDOW_SECONDS) int windowSeconds,
+            @Value(API_RETRY_BUDGET_MIN_RETRIES) int minRetriesPerWindow) {
+        this(meterRegistry, ratio, windowSeconds, minRetriesPerWindow, System::nanoTime);
+    }
+
+    RetryBudget(MeterRegistry meterRegistry, double ratio, int windowSeconds, int minRetriesPerWindow, LongSupplier nanoTime) {
+        validateInputs(ratio, windowSeconds, minRetriesPerWindow);
+
+        this.ratio = ratio;
+        this.minRetriesPerWindow = minRetriesPerWindow;
+        this.nanoTime = nanoTime;
+        this.buckets = new Bucket[windowSeconds];
+        for (int i = 0; i < windowSeconds; i++) {
+            buckets[i] = new Bucket();
+        }
+
+        this.requestCounter = meterRegistry.counter("api.retry.budget.requests");
+        this.allowedCounter = meterRegistry.counter("api.retry.budget.retries", "result", "allowed");
+        this.deniedCounter = meterRegistry.counter("api.retry.budget.retries", "result", "denied");
+        Gauge.builder("api.retry.budget.usage", this, RetryBudget::usage).register(meterRegistry);
+
+        log.info("Initialized RetryBudget with ratio={}, window={}s, minRetriesPerWindow={}",
+                ratio, windowSeconds, minRetriesPerWindow);
+    }
+
+    private void validateInputs(double ratio, int windowSeconds, int minRetriesPerWindow) {
+        if (ratio < 0) {
+            throw new IllegalArgumentException("Retry budget ratio must not be negative, got: " + ratio);
+        }
+        if (windowSeconds <= 0) {
+            throw new IllegalArgumentException("Retry budget window must be positive, got: " + windowSeconds);
+        }
+        if (minRetriesPerWindow < 0) {
+            throw new IllegalArgumentException("Minimum retries per window must not be negative, got: " + minRetriesPerWindow);
+        }
+    }
+
+    // Called at the top of every @Retryable API method. The first attempt adds to the budget; a retry spends it,
+    // or fails fast with RetryBudgetExhaustedException, which the methods exclude from retrying.
+    public void beforeAttempt(String operation) {
+        RetryContext context = RetrySynchronizationManager.getContext();
+        if (context == null || context.getRetryCount() == 0) {
+            recordRequest();
+            return;
+        }
+        if (!tryAcquireRetry()) {
+            if (denialLogSampler.tryAcquire()) {
+                log.warn("Retry budget exhausted ({}% used), failing {} fast after {} attempt(s)",
+                        Math.round(usage() * 100), operation, context.getRetryCount());
+            }
+            log.debug("METRIC: api.retry_budget.denied.count=1");
+            throw new RetryBudgetExhaustedException(operation, context.getLastThrowable());
+        }
+    }
+
+    public void recordRequest() {
+        requestCounter.increment();
+        synchronized (buckets) {
+            currentBucket().requests++;
+        }
+    }
+
+    public boolean tryAcquireRetry() {
+        synchronized (buckets) {
+            Bucket bucket = currentBucket();
+            Window window = window();
+            if (window.retries >= allowedRetries(window)) {
+                deniedCounter.increment();
+                return false;
+            }
+            bucket.retries++;
+        }
+        allowedCounter.increment();
+        return true;
+    }
+
+    // Retries in the window as a fraction of what the budget allows; 1.0 means further retries are denied
+    public double usage() {
+        synchronized (buckets) {
+            Window window = window();
+            long allowed = allowedRetries(window);
+            return allowed > 0 ? Math.min(1.0, (double) window.retries / allowed) : 1.0;
+        }
+    }
+
+    private long allowedRetries(Window window) {
+        return Math.max(minRetriesPerWindow, (long) (window.requests * ratio));
+    }
+
+    private Window window() {
+        long nowSecond = currentSecond();
+        long requests = 0;
+        long retries = 0;
+        for (Bucket bucket : buckets) {
+            // A slot holding a second older than the window has had no activity since it wrapped
+            if (bucket.epochSecond > nowSecond - buckets.length) {
+                requests += bucket.requests;
+                retries += bucket.retries;
+            }
+        }
+        return new Window(requests, retries);
+    }
+
+    private Bucket currentBucket() {
+        long second = currentSecond();
+        Bucket bucket = buckets[(int) Math.floorMod(second, (long) buckets.length)];
+        if (bucket.epochSecond != second) {
+            bucket.epochSecond = second;
+            bucket.requests = 0;
+            bucket.retries = 0;
+        }
+        return bucket;
+    }
+
+    private long currentSecond() {
+        return TimeUnit.NANOSECONDS.toSeconds(nanoTime.getAsLong());
+    }
+
+    private static final class Bucket {
+        private long epochSecond = Long.MIN_VALUE;
+        private long requests;
+        private long retries;
+    }
+
+    private record Window(long requests, long retries) {
+    }
+}
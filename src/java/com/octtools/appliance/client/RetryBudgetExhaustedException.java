@@ -0,0 +1,9 @@
+package com.octtools.appliance.client;
+
+// Thrown instead of a retry that the shared retry budget denied; carries the failure that would have been retried
+public class RetryBudgetExhaustedException extends RuntimeException {
+
+    public RetryBudgetExhaustedException(String operation, Throwable lastFailure) {
+        super("Retry budget exhausted, not retrying " + operation, lastFailure);
+    }
+}
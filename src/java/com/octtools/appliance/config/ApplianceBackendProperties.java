@@ -0,0 +1,15 @@
+package com.octtools.appliance.config;
+
+import lombok.Data;
+
+// One entry of appliance.backends; unset values fall back to the appliance.api.* settings
+@Data
+public class ApplianceBackendProperties {
+    private String name;
+    private String baseUrl;
+    private String authHeader;
+    private Integer pageSize;
+    private Integer maxConnections;
+    private double maxRequestsPerSecond;
+    private int maxInFlight;
+}
@@ -8,10 +8,116 @@ public final class ConfigProperties {
     public static final String API_PAGE_SIZE = "${appliance.api.page-size}";
     public static final String API_TIMEOUT_SECONDS = "${appliance.api.timeout-seconds}";
     
+    // Connection Pool Configuration
+    public static final String API_POOL_MAX_CONNECTIONS = "${appliance.api.pool.max-connections}";
+    public static final String API_POOL_PENDING_ACQUIRE_MAX_COUNT = "${appliance.api.pool.pending-acquire-max-count}";
+    public static final String API_POOL_PENDING_ACQUIRE_TIMEOUT_MS = "${appliance.api.pool.pending-acquire-timeout-ms}";
+    public static final String API_POOL_MAX_IDLE_TIME_SECONDS = "${appliance.api.pool.max-idle-time-seconds}";
+    public static final String API_POOL_MAX_LIFE_TIME_SECONDS = "${appliance.api.pool.max-life-time-seconds}";
+    public static final String API_POOL_EVICT_IN_BACKGROUND_SECONDS = "${appliance.api.pool.evict-in-background-seconds}";
+    public static final String API_POOL_METRICS_ENABLED = "${appliance.api.pool.metrics-enabled}";
+    public static final String API_POOL_HTTP2_ENABLED = "${appliance.api.pool.http2-enabled}";
+    
+    // Retry Budget Configuration
+    public static final String API_RETRY_BUDGET_RATIO = "${appliance.api.retry-budget.ratio}";
+    public static final String API_RETRY_BUDGET_WINDOW_SECONDS = "${appliance.api.retry-budget.window-seconds}";
+    public static final String API_RETRY_BUDGET_MIN_RETRIES = "${appliance.api.retry-budget.min-retries-per-window}";
+    
+    // Page Fetch Hedging Configuration
+    public static final String API_HEDGING_ENABLED = "${appliance.api.hedging.enabled}";
+    public static final String API_HEDGING_PERCENTILE = "${appliance.api.hedging.percentile}";
+    public static final String API_HEDGING_SAMPLE_SIZE = "${appliance.api.hedging.sample-size}";
+    public static final String API_HEDGING_MIN_SAMPLES = "${appliance.api.hedging.min-samples}";
+    public static final String API_HEDGING_MIN_DELAY_MS = "${appliance.api.hedging.min-delay-ms}";
+    public static final String API_HEDGING_BUDGET_RATIO = "${appliance.api.hedging.budget-ratio}";
+    
     // Processing Configuration
     public static final String PROCESSING_ACTOR_EMAIL = "${appliance.processing.actor-email}";
     public static final String PROCESSING_STALE_THRESHOLD_MINUTES = "${appliance.processing.stale-threshold-minutes}";
     public static final String PROCESSING_THREAD_POOL_SIZE = "${appliance.processing.thread-pool-size}";
+    public static final String PROCESSING_MAX_THREAD_POOL_SIZE = "${appliance.processing.max-thread-pool-size}";
+    public static final String PROCESSING_QUEUE_CAPACITY = "${appliance.processing.queue-capacity}";
+    public static final String PROCESSING_MODE = "${appliance.processing.mode}";
+    public static final String PROCESSING_RECORD_MODE = "${appliance.processing.record-mode}";
+    
+    // Instance Identity
+    public static final String INSTANCE_ID = "#{@instanceId}";
+    
+    // Monitoring Cadence Configuration
+    public static final String MONITORING_MAX_DETECTION_LATENCY_MINUTES = "${appliance.monitoring.max-detection-latency-minutes}";
+    public static final String MONITORING_MIN_INTERVAL_SECONDS = "${appliance.monitoring.min-interval-seconds}";
+    public static final String MONITORING_MAX_INTERVAL_SECONDS = "${appliance.monitoring.max-interval-seconds}";
+    public static final String MONITORING_RESUME_DELAY_SECONDS = "${appliance.monitoring.resume.delay-seconds}";
+    public static final String MONITORING_RESUME_MAX_ATTEMPTS = "${appliance.monitoring.resume.max-attempts}";
+    public static final String BACKPRESSURE_HIGH_WATER_MARK = "${appliance.monitoring.backpressure.high-water-mark}";
+    public static final String BACKPRESSURE_LOW_WATER_MARK = "${appliance.monitoring.backpressure.low-water-mark}";
+    public static final String BACKPRESSURE_MAX_WAIT_SECONDS = "${appliance.monitoring.backpressure.max-wait-seconds}";
+    public static final String BACKPRESSURE_POLL_INTERVAL_MS = "${appliance.monitoring.backpressure.poll-interval-ms}";
+    public static final String TIMING_WHEEL_ENABLED = "${appliance.monitoring.timing-wheel.enabled}";
+    public static final String TIMING_WHEEL_TICK_MILLIS = "${appliance.monitoring.timing-wheel.tick-millis}";
+    public static final String TIMING_WHEEL_WHEEL_SIZE = "${appliance.monitoring.timing-wheel.wheel-size}";
+    
+    // Operation Storage Configuration
+    public static final String STORAGE_BACKEND = "${appliance.storage.backend}";
+    public static final String STORAGE_MAPPED_LOG_DIRECTORY = "${appliance.storage.mapped-log.directory}";
+    public static final String STORAGE_MAPPED_LOG_SEGMENT_SIZE_MB = "${appliance.storage.mapped-log.segment-size-mb}";
+    
+    // Query Cache Configuration
+    public static final String CACHE_MAX_OPERATION_ENTRIES = "${appliance.cache.max-operation-entries}";
+    public static final String CACHE_MAX_PAGE_ENTRIES = "${appliance.cache.max-page-entries}";
+    public static final String CACHE_TTL_SECONDS = "${appliance.cache.ttl-seconds}";
+    public static final String CACHE_REFRESH_INTERVAL_MS = "${appliance.cache.refresh-interval-ms}";
+    
+    // Reactive Read Path Configuration
+    public static final String READS_POOL_SIZE = "${appliance.reads.pool-size}";
+    public static final String READS_MAX_QUEUED = "${appliance.reads.max-queued}";
+    public static final String READS_CONNECTION_TIMEOUT_MS = "${appliance.reads.connection-timeout-ms}";
+    public static final String DATASOURCE_URL = "${spring.datasource.url}";
+    public static final String DATASOURCE_USERNAME = "${spring.datasource.username}";
+    public static final String DATASOURCE_PASSWORD = "${spring.datasource.password:}";
+    
+    // Operation Summary Configuration
+    public static final String SUMMARIES_LEADERBOARD_SIZE = "${appliance.summaries.leaderboard-size}";
+    
+    // Activity Statistics Configuration
+    public static final String STATS_RETENTION_MINUTES = "${appliance.stats.retention-minutes}";
+    
+    // Retention Configuration
+    public static final String RETENTION_ENABLED = "${appliance.retention.enabled}";
+    public static final String RETENTION_MAX_AGE_HOURS = "${appliance.retention.max-age-hours}";
+    public static final String RETENTION_BATCH_SIZE = "${appliance.retention.batch-size}";
+    public static final String RETENTION_MAX_BATCHES_PER_RUN = "${appliance.retention.max-batches-per-run}";
+    public static final String RETENTION_INTERVAL_SECONDS = "${appliance.retention.interval-seconds}";
+    public static final String RETENTION_ARCHIVE_DIR = "${appliance.retention.archive-dir}";
+
+    // Tracing Configuration
+    public static final String TRACING_ENABLED = "${appliance.tracing.enabled}";
+    public static final String TRACING_BUFFER_SIZE = "${appliance.tracing.buffer-size}";
+
+    // Startup Configuration
+    public static final String STARTUP_WARMUP_ENABLED = "${appliance.startup.warmup.enabled}";
+    public static final String STARTUP_WARMUP_PAGES = "${appliance.startup.warmup.pages}";
+    
+    // Leader Election Configuration
+    public static final String LEADER_ELECTION_ENABLED = "${appliance.leader-election.enabled}";
+    public static final String LEADER_ELECTION_LEASE_NAME = "${appliance.leader-election.lease-name}";
+    public static final String LEADER_ELECTION_LEASE_DURATION_SECONDS = "${appliance.leader-election.lease-duration-seconds}";
+    public static final String LEADER_ELECTION_RENEW_INTERVAL_SECONDS = "${appliance.leader-election.renew-interval-seconds}";
+    
+    // Work Queue Configuration
+    public static final String TASK_QUEUE_BATCH_SIZE = "${appliance.task-queue.batch-size}";
+    public static final String TASK_QUEUE_POLL_INTERVAL_MS = "${appliance.task-queue.poll-interval-ms}";
+    public static final String TASK_QUEUE_LEASE_SECONDS = "${appliance.task-queue.lease-seconds}";
+    public static final String TASK_QUEUE_MAX_ATTEMPTS = "${appliance.task-queue.max-attempts}";
+    
+    // Health Configuration
+    public static final String HEALTH_REFRESH_INTERVAL_SECONDS = "${appliance.health.refresh-interval-seconds}";
+    public static final String HEALTH_QUEUE_DEGRADED_RATIO = "${appliance.health.executor.queue-degraded-ratio}";
+    public static final String HEALTH_COLLECTION_MAX_AGE_SECONDS = "${appliance.health.collection.max-age-seconds}";
+    public static final String HEALTH_API_MIN_REQUESTS = "${appliance.health.api.min-requests}";
+    public static final String HEALTH_API_ERROR_RATE_DEGRADED = "${appliance.health.api.error-rate-degraded}";
+    public static final String HEALTH_API_LATENCY_DEGRADED_FACTOR = "${appliance.health.api.latency-degraded-factor}";
+    public static final String HEALTH_DB_WRITE_LATENCY_DEGRADED_MS = "${appliance.health.db.write-latency-degraded-ms}";
     
     private ConfigProperties() {
         // Utility class - prevent instantiation
@@ -0,0 +1,16 @@
+package com.octtools.appliance.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class InstanceConfig {
+
+    // The default instance id contains ${random.uuid}, which yields a new value on every resolution; resolving it once
+    // here gives leader election and task claiming the same identity for this instance
+    @Bean
+    public String instanceId(@Value("${appliance.instance-id}") String instanceId) {
+        return instanceId;
+    }
+}
@@ -1,5 +1,6 @@
 package com.octtools.appliance.config;
 
+import com.octtools.appliance.client.ApplianceBackends;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.TaskScheduler;
@@ -8,10 +9,13 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 @Configuration
 public class SchedulingConfig {
 
+    private static final int BASE_POOL_SIZE = 5;
+
     @Bean
-    public TaskScheduler taskScheduler() {
+    public TaskScheduler taskScheduler(ApplianceBackends applianceBackends) {
         ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
-        scheduler.setPoolSize(5);
+        // One extra thread per backend, since every backend's collection cycle holds a thread while it runs
+        scheduler.setPoolSize(BASE_POOL_SIZE + applianceBackends.size());
         scheduler.setThreadNamePrefix("scheduler-");
         scheduler.setThreadPriority(Thread.MAX_PRIORITY); // Highest priority to prevent starvation
         scheduler.initialize();
@@ -0,0 +1,20 @@
+package com.octtools.appliance.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StartupConfig {
+
+    private static final String APPLICATION_PACKAGE = "com.octtools.appliance";
+
+    // With spring.main.lazy-initialization, keep our own beans eager so scheduling, leader election and
+    // config validation still happen at startup; framework beans they don't need (springdoc, actuator
+    // endpoints, ...) are only created on first use
+    @Bean
+    public static LazyInitializationExcludeFilter applicationBeansEager() {
+        return (beanName, beanDefinition, beanType) ->
+                beanType != null && beanType.getPackageName().startsWith(APPLICATION_PACKAGE);
+    }
+}
@@ -0,0 +1,94 @@
+package com.octtools.appliance.config;
+
+import com.octtools.appliance.repository.JdbcOperationReader;
+import com.octtools.appliance.repository.JpaOperationStore;
+import com.octtools.appliance.repository.MappedLogOperationStore;
+import com.octtools.appliance.repository.OperationReader;
+import com.octtools.appliance.repository.OperationRepository;
+import com.octtools.appliance.repository.OperationStore;
+import com.octtools.appliance.repository.StoreOperationReader;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+import static com.octtools.appliance.config.ConfigProperties.DATASOURCE_PASSWORD;
+import static com.octtools.appliance.config.ConfigProperties.DATASOURCE_URL;
+import static com.octtools.appliance.config.ConfigProperties.DATASOURCE_USERNAME;
+import static com.octtools.appliance.config.ConfigProperties.READS_CONNECTION_TIMEOUT_MS;
+import static com.octtools.appliance.config.ConfigProperties.READS_POOL_SIZE;
+import static com.octtools.appliance.config.ConfigProperties.STORAGE_BACKEND;
+import static com.octtools.appliance.config.ConfigProperties.STORAGE_MAPPED_LOG_DIRECTORY;
+import static com.octtools.appliance.config.ConfigProperties.STORAGE_MAPPED_LOG_SEGMENT_SIZE_MB;
+
+@Configuration
+@Slf4j
+public class StorageConfig {
+
+    private static final String BACKEND_JPA = "jpa";
+    private static final String BACKEND_MAPPED_LOG = "mapped-log";
+    private static final String READ_POOL_NAME = "operation-reads";
+
+    // close() is inferred as the destroy method, so the mapped log is flushed on shutdown
+    @Bean
+    public OperationStore operationStore(
+            OperationRepository operationRepository,
+            @Value(STORAGE_BACKEND) String backend,
+            @Value(STORAGE_MAPPED_LOG_DIRECTORY) String mappedLogDirectory,
+            @Value(STORAGE_MAPPED_LOG_SEGMENT_SIZE_MB) int segmentSizeMb) {
+
+        log.info("Using '{}' operation storage backend", backend);
+        switch (backend) {
+            case BACKEND_JPA:
+                return new JpaOperationStore(operationRepository);
+            case BACKEND_MAPPED_LOG:
+                if (segmentSizeMb <= 0 || segmentSizeMb > 1024) {
+                    throw new IllegalArgumentException("Segment size must be between 1 and 1024 MB, got: " + segmentSizeMb);
+                }
+                return new MappedLogOperationStore(Paths.get(mappedLogDirectory), segmentSizeMb * 1024 * 1024);
+            default:
+                throw new IllegalArgumentException("Storage backend must be '" + BACKEND_JPA + "' or '" + BACKEND_MAPPED_LOG + "', got: " + backend);
+        }
+    }
+
+    // Reads for the reactive operations endpoints. Only the JPA backend reads from the database; it gets a separate
+    // read-only pool rather than a second DataSource bean, which would replace the auto-configured write pool
+    @Bean
+    public OperationReader operationReader(
+            OperationStore operationStore,
+            MeterRegistry meterRegistry,
+            @Value(STORAGE_BACKEND) String backend,
+            @Value(DATASOURCE_URL) String url,
+            @Value(DATASOURCE_USERNAME) String username,
+            @Value(DATASOURCE_PASSWORD) String password,
+            @Value(READS_POOL_SIZE) int poolSize,
+            @Value(READS_CONNECTION_TIMEOUT_MS) long connectionTimeoutMs) {
+
+        if (!BACKEND_JPA.equals(backend)) {
+            return new StoreOperationReader(operationStore);
+        }
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("Read pool size must be positive, got: " + poolSize);
+        }
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(READ_POOL_NAME);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setReadOnly(true);
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(poolSize);
+        config.setConnectionTimeout(connectionTimeoutMs);
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        log.info("Using read-only '{}' pool with {} connections for reactive operation reads", READ_POOL_NAME, poolSize);
+        return new JdbcOperationReader(new HikariDataSource(config));
+    }
+}
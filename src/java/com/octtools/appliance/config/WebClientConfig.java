@@ -1,43 +1,227 @@
 package com.octtools.appliance.config;
 
+import com.octtools.appliance.client.ApplianceBackend;
+import com.octtools.appliance.client.ApplianceBackends;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
-import static com.octtools.appliance.config.ConfigProperties.API_BASE_URL;
 import static com.octtools.appliance.config.ConfigProperties.API_AUTH_HEADER;
+import static com.octtools.appliance.config.ConfigProperties.API_BASE_URL;
+import static com.octtools.appliance.config.ConfigProperties.API_POOL_EVICT_IN_BACKGROUND_SECONDS;
+import static com.octtools.appliance.config.ConfigProperties.API_POOL_HTTP2_ENABLED;
+import static com.octtools.appliance.config.ConfigProperties.API_POOL_MAX_CONNECTIONS;
+import static com.octtools.appliance.config.ConfigProperties.API_POOL_MAX_IDLE_TIME_SECONDS;
+import static com.octtools.appliance.config.ConfigProperties.API_POOL_MAX_LIFE_TIME_SECONDS;
+import static com.octtools.appliance.config.ConfigProperties.API_POOL_METRICS_ENABLED;
+import static com.octtools.appliance.config.ConfigProperties.API_POOL_PENDING_ACQUIRE_MAX_COUNT;
+import static com.octtools.appliance.config.ConfigProperties.API_POOL_PENDING_ACQUIRE_TIMEOUT_MS;
 
 @Configuration
+@Slf4j
 public class WebClientConfig {
 
+    // Every appliance API exchange, tagged by backend and outcome; read by the pipeline health check
+    public static final String API_REQUESTS_METER = "api.requests";
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_CLIENT_ERROR = "client_error";
+    public static final String OUTCOME_SERVER_ERROR = "server_error";
+    public static final String OUTCOME_IO_ERROR = "io_error";
+
     // HTTP Client Timeout Constants
     private static final int CONNECTION_TIMEOUT_MILLIS = 5000;
     private static final int RESPONSE_TIMEOUT_SECONDS = 5;
     private static final int READ_TIMEOUT_SECONDS = 5;
 
-    @Bean
-    public WebClient applianceApiWebClient(
+    private static final String CONNECTION_POOL_NAME = "appliance-api";
+    private static final String BACKENDS_PROPERTY = "appliance.backends";
+
+    // Collapse per-appliance paths so HTTP client metrics keep a bounded set of uri tags
+    private static final Pattern APPLIANCE_ID_SEGMENT = Pattern.compile("/appliances/[^/?]+/");
+
+    @Bean(destroyMethod = "close")
+    public ApplianceBackends applianceBackends(
+            Environment environment,
+            MeterRegistry meterRegistry,
             @Value(API_BASE_URL) String baseUrl,
-            @Value(API_AUTH_HEADER) String authHeader) {
-        
-        HttpClient httpClient = HttpClient.create()
+            @Value(API_AUTH_HEADER) String authHeader,
+            @Value(API_POOL_MAX_CONNECTIONS) int maxConnections,
+            @Value(API_POOL_PENDING_ACQUIRE_MAX_COUNT) int pendingAcquireMaxCount,
+            @Value(API_POOL_PENDING_ACQUIRE_TIMEOUT_MS) long pendingAcquireTimeoutMs,
+            @Value(API_POOL_MAX_IDLE_TIME_SECONDS) long maxIdleTimeSeconds,
+            @Value(API_POOL_MAX_LIFE_TIME_SECONDS) long maxLifeTimeSeconds,
+            @Value(API_POOL_EVICT_IN_BACKGROUND_SECONDS) long evictInBackgroundSeconds,
+            @Value(API_POOL_METRICS_ENABLED) boolean metricsEnabled,
+            @Value(API_POOL_HTTP2_ENABLED) boolean http2Enabled) {
+
+        List<ApplianceBackendProperties> configured = Binder.get(environment)
+                .bind(BACKENDS_PROPERTY, Bindable.listOf(ApplianceBackendProperties.class))
+                .orElse(List.of());
+        if (configured.isEmpty()) {
+            // No backends listed: monitor the single appliance.api deployment, as before backends were configurable
+            ApplianceBackendProperties single = new ApplianceBackendProperties();
+            single.setName(ApplianceBackends.DEFAULT_BACKEND);
+            configured = List.of(single);
+        }
+
+        List<ApplianceBackend> backends = new ArrayList<>();
+        List<ConnectionProvider> providers = new ArrayList<>();
+        try {
+            for (ApplianceBackendProperties properties : configured) {
+                if (properties.getName() == null || properties.getName().isBlank()) {
+                    throw new IllegalArgumentException("Every entry of " + BACKENDS_PROPERTY + " needs a name");
+                }
+                String poolName = ApplianceBackends.DEFAULT_BACKEND.equals(properties.getName())
+                        ? CONNECTION_POOL_NAME : CONNECTION_POOL_NAME + "-" + properties.getName();
+                ConnectionProvider provider = connectionProvider(poolName,
+                        properties.getMaxConnections() != null ? properties.getMaxConnections() : maxConnections,
+                        pendingAcquireMaxCount, pendingAcquireTimeoutMs, maxIdleTimeSeconds, maxLifeTimeSeconds,
+                        evictInBackgroundSeconds, metricsEnabled);
+                providers.add(provider);
+                WebClient webClient = webClient(provider, meterRegistry, properties.getName(),
+                        properties.getBaseUrl() != null ? properties.getBaseUrl() : baseUrl,
+                        properties.getAuthHeader() != null ? properties.getAuthHeader() : authHeader,
+                        metricsEnabled, http2Enabled);
+                backends.add(ApplianceBackend.builder()
+                        .name(properties.getName())
+                        .webClient(webClient)
+                        .connectionProvider(provider)
+                        .pageSize(properties.getPageSize())
+                        .maxRequestsPerSecond(properties.getMaxRequestsPerSecond())
+                        .maxInFlight(properties.getMaxInFlight())
+                        .build());
+                log.info("Configured appliance backend '{}' with pageSize={}, maxRequestsPerSecond={}, maxInFlight={}",
+                        properties.getName(), properties.getPageSize() != null ? properties.getPageSize() : "shared",
+                        properties.getMaxRequestsPerSecond(), properties.getMaxInFlight());
+            }
+            return new ApplianceBackends(backends);
+        } catch (RuntimeException e) {
+            // A bad entry fails startup; release the pools already opened for the entries before it
+            providers.forEach(ConnectionProvider::dispose);
+            throw e;
+        }
+    }
+
+    ConnectionProvider connectionProvider(String poolName, int maxConnections, int pendingAcquireMaxCount,
+                                          long pendingAcquireTimeoutMs, long maxIdleTimeSeconds,
+                                          long maxLifeTimeSeconds, long evictInBackgroundSeconds,
+                                          boolean metricsEnabled) {
+
+        validatePoolInputs(maxConnections, pendingAcquireMaxCount, pendingAcquireTimeoutMs,
+                maxIdleTimeSeconds, maxLifeTimeSeconds, evictInBackgroundSeconds);
+
+        // Pool metrics (active, idle, pending, acquire time) are registered in Micrometer's global registry
+        ConnectionProvider provider = ConnectionProvider.builder(poolName)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofSeconds(maxIdleTimeSeconds))
+                .maxLifeTime(Duration.ofSeconds(maxLifeTimeSeconds))
+                .evictInBackground(Duration.ofSeconds(evictInBackgroundSeconds))
+                .metrics(metricsEnabled)
+                .lifo()
+                .build();
+
+        log.info("Initialized connection pool '{}' with maxConnections={}, pendingAcquireMaxCount={}, "
+                        + "pendingAcquireTimeout={}ms, maxIdleTime={}s, maxLifeTime={}s, metrics={}",
+                poolName, maxConnections, pendingAcquireMaxCount, pendingAcquireTimeoutMs,
+                maxIdleTimeSeconds, maxLifeTimeSeconds, metricsEnabled);
+        return provider;
+    }
+
+    private WebClient webClient(ConnectionProvider connectionProvider, MeterRegistry meterRegistry, String backend,
+                                String baseUrl, String authHeader, boolean metricsEnabled, boolean http2Enabled) {
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, CONNECTION_TIMEOUT_MILLIS)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
                 .responseTimeout(Duration.ofSeconds(RESPONSE_TIMEOUT_SECONDS))
+                .metrics(metricsEnabled, WebClientConfig::toUriTag)
                 .doOnConnected(conn -> 
                     conn.addHandlerLast(new ReadTimeoutHandler(READ_TIMEOUT_SECONDS, TimeUnit.SECONDS)));
+
+        if (http2Enabled) {
+            // h2c via HTTP/1.1 upgrade; connections stay on HTTP/1.1 when the upstream does not accept it
+            httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
         
         return WebClient.builder()
                 .baseUrl(baseUrl)
                 .defaultHeader("Authorization", authHeader)
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(recordApiRequests(meterRegistry, backend))
                 .build();
     }
+
+    // Timed to the response status, so body decoding is left out. Exchanges cancelled before a response,
+    // such as the losing request of a hedged page fetch, are not recorded
+    static ExchangeFilterFunction recordApiRequests(MeterRegistry meterRegistry, String backend) {
+        return (request, next) -> {
+            long startNanos = System.nanoTime();
+            return next.exchange(request)
+                    .doOnSuccess(response -> recordApiRequest(meterRegistry, backend, outcome(response.statusCode()), startNanos))
+                    .doOnError(e -> recordApiRequest(meterRegistry, backend, OUTCOME_IO_ERROR, startNanos));
+        };
+    }
+
+    private static void recordApiRequest(MeterRegistry meterRegistry, String backend, String outcome, long startNanos) {
+        meterRegistry.timer(API_REQUESTS_METER, "backend", backend, "outcome", outcome)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String outcome(HttpStatusCode status) {
+        if (status.is5xxServerError()) {
+            return OUTCOME_SERVER_ERROR;
+        }
+        return status.is4xxClientError() ? OUTCOME_CLIENT_ERROR : OUTCOME_SUCCESS;
+    }
+
+    static String toUriTag(String uri) {
+        int queryStart = uri.indexOf('?');
+        String path = queryStart >= 0 ? uri.substring(0, queryStart) : uri;
+        return APPLIANCE_ID_SEGMENT.matcher(path).replaceFirst("/appliances/{id}/");
+    }
+
+    private void validatePoolInputs(int maxConnections, int pendingAcquireMaxCount, long pendingAcquireTimeoutMs,
+                                    long maxIdleTimeSeconds, long maxLifeTimeSeconds, long evictInBackgroundSeconds) {
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("Max connections must be positive, got: " + maxConnections);
+        }
+        if (pendingAcquireMaxCount <= 0) {
+            throw new IllegalArgumentException("Pending acquire max count must be positive, got: " + pendingAcquireMaxCount);
+        }
+        if (pendingAcquireTimeoutMs <= 0) {
+            throw new IllegalArgumentException("Pending acquire timeout must be positive, got: " + pendingAcquireTimeoutMs);
+        }
+        if (maxIdleTimeSeconds <= 0) {
+            throw new IllegalArgumentException("Max idle time must be positive, got: " + maxIdleTimeSeconds);
+        }
+        if (maxLifeTimeSeconds < maxIdleTimeSeconds) {
+            throw new IllegalArgumentException("Max life time must not be shorter than max idle time, got: " + maxLifeTimeSeconds);
+        }
+        if (evictInBackgroundSeconds <= 0) {
+            throw new IllegalArgumentException("Background eviction interval must be positive, got: " + evictInBackgroundSeconds);
+        }
+    }
 }
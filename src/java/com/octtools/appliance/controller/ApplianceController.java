@@ -0,0 +1,40 @@
+package com.octtools.appliance.controller;
+
+import com.octtools.appliance.model.ApplianceSummary;
+import com.octtools.appliance.service.ApplianceSummaryService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/appliances")
+public class ApplianceController {
+
+    private final ApplianceSummaryService summaryService;
+
+    public ApplianceController(ApplianceSummaryService summaryService) {
+        this.summaryService = summaryService;
+    }
+
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<ApplianceSummary> getSummary(@PathVariable String id) {
+        return summaryService.getSummary(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/most-remediated")
+    public List<ApplianceSummary> getMostRemediated(@RequestParam(defaultValue = "10") int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+
+        // Only the tracked leaderboard is ranked, so larger limits are capped to it
+        return summaryService.getMostRemediated(Math.min(limit, summaryService.getLeaderboardSize()));
+    }
+}
@@ -1,18 +1,26 @@
 package com.octtools.appliance.controller;
 
 import com.octtools.appliance.model.Operation;
-import com.octtools.appliance.repository.OperationRepository;
+import com.octtools.appliance.model.OperationQuery;
+import com.octtools.appliance.repository.OperationReader;
+import com.octtools.appliance.service.OperationQueryCache;
+import com.octtools.appliance.service.OperationRetentionService;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1")
@@ -20,18 +28,26 @@ public class OperationController {
     
     // API Constants
     private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_QUERY_APPLIANCE_IDS = 1000;
+    private static final int DEFAULT_LIMIT_PER_APPLIANCE = 20;
     
-    private final OperationRepository operationRepository;
+    private final OperationQueryCache operationQueryCache;
+    private final OperationRetentionService retentionService;
+    private final OperationReader operationReader;
 
-    public OperationController(OperationRepository operationRepository) {
-        this.operationRepository = operationRepository;
+    public OperationController(OperationQueryCache operationQueryCache, OperationRetentionService retentionService,
+                               OperationReader operationReader) {
+        this.operationQueryCache = operationQueryCache;
+        this.retentionService = retentionService;
+        this.operationReader = operationReader;
     }
 
     @GetMapping("/operations")
     public Page<Operation> getAllOperations(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(required = false) String applianceId) {
+            @RequestParam(required = false) String applianceId,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
         
         // Validate input parameters
         if (page < 0) {
@@ -43,13 +59,12 @@ public class OperationController {
         
         // Limit page size to prevent performance issues and potential abuse
         int limitedSize = Math.min(size, MAX_PAGE_SIZE);
-        Pageable pageable = PageRequest.of(page, limitedSize);
         
-        if (applianceId != null && !applianceId.trim().isEmpty()) {
-            return operationRepository.findByApplianceIdOrderByProcessedAtDesc(applianceId.trim(), pageable);
-        } else {
-            return operationRepository.findAllByOrderByProcessedAtDesc(pageable);
+        String applianceFilter = applianceId != null && !applianceId.trim().isEmpty() ? applianceId.trim() : null;
+        if (includeArchived) {
+            return retentionService.findPageIncludingArchive(applianceFilter, page, limitedSize);
         }
+        return operationQueryCache.findPage(applianceFilter, page, limitedSize);
     }
 
     @GetMapping("/operations/{id}")
@@ -59,8 +74,42 @@ public class OperationController {
             return ResponseEntity.badRequest().build();
         }
         
-        Optional<Operation> operation = operationRepository.findById(id);
+        Optional<Operation> operation = operationQueryCache.findById(id);
         return operation.map(ResponseEntity::ok)
                       .orElse(ResponseEntity.notFound().build());
     }
+
+    // Latest operations for many appliances in one round-trip, keyed by appliance id in request order.
+    // Ad hoc incident lookups, so this bypasses the page cache and reads through the read pool
+    @PostMapping("/operations/query")
+    public ResponseEntity<Map<String, List<Operation>>> queryOperations(@RequestBody OperationQuery query) {
+        if (query.getApplianceIds() == null || query.getApplianceIds().isEmpty()
+                || query.getApplianceIds().size() > MAX_QUERY_APPLIANCE_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (query.getLimitPerAppliance() != null && query.getLimitPerAppliance() <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (query.getFrom() != null && query.getTo() != null && !query.getFrom().isBefore(query.getTo())) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Set<String> applianceIds = new LinkedHashSet<>();
+        for (String applianceId : query.getApplianceIds()) {
+            if (applianceId == null || applianceId.trim().isEmpty()) {
+                return ResponseEntity.badRequest().build();
+            }
+            applianceIds.add(applianceId.trim());
+        }
+        int limit = query.getLimitPerAppliance() != null
+                ? Math.min(query.getLimitPerAppliance(), MAX_PAGE_SIZE)
+                : DEFAULT_LIMIT_PER_APPLIANCE;
+
+        Map<String, List<Operation>> found = operationReader.findLatestByApplianceIds(
+                applianceIds, query.getFrom(), query.getTo(), limit);
+        // Every requested appliance gets an entry, empty when it has no operations in range
+        Map<String, List<Operation>> grouped = new LinkedHashMap<>();
+        applianceIds.forEach(applianceId -> grouped.put(applianceId, found.getOrDefault(applianceId, List.of())));
+        return ResponseEntity.ok(grouped);
+    }
 }
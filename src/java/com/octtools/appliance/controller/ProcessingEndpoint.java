@@ -0,0 +1,66 @@
+package com.octtools.appliance.controller;
+
+import com.octtools.appliance.logging.AuditLog;
+import com.octtools.appliance.model.ProcessingSettings;
+import com.octtools.appliance.service.ProcessingTuner;
+import org.springframework.boot.actuate.endpoint.SecurityContext;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// GET /actuator/processing shows the live settings; POST with any subset of the fields changes them
+@Component
+@Endpoint(id = "processing")
+public class ProcessingEndpoint {
+
+    private static final String ERROR_MESSAGE = "message";
+
+    private final ProcessingTuner tuner;
+
+    public ProcessingEndpoint(ProcessingTuner tuner) {
+        this.tuner = tuner;
+    }
+
+    @ReadOperation
+    public ProcessingSettings settings() {
+        return tuner.current();
+    }
+
+    // A rejected change returns 400 with the reason in the body; the default error page would leave it out
+    @WriteOperation
+    public WebEndpointResponse<Object> update(
+            SecurityContext securityContext,
+            @Nullable Integer threadPoolSize,
+            @Nullable Integer maxThreadPoolSize,
+            @Nullable Integer queueCapacity,
+            @Nullable Integer pageSize,
+            @Nullable Integer staleThresholdMinutes) {
+
+        ProcessingSettings change = ProcessingSettings.builder()
+                .threadPoolSize(threadPoolSize)
+                .maxThreadPoolSize(maxThreadPoolSize)
+                .queueCapacity(queueCapacity)
+                .pageSize(pageSize)
+                .staleThresholdMinutes(staleThresholdMinutes)
+                .build();
+        if (change.equals(new ProcessingSettings())) {
+            return badRequest("No settings to change");
+        }
+
+        try {
+            return new WebEndpointResponse<>(tuner.apply(change,
+                    AuditLog.actor(securityContext != null ? securityContext.getPrincipal() : null)));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+    }
+
+    private static WebEndpointResponse<Object> badRequest(String message) {
+        return new WebEndpointResponse<>(Map.of(ERROR_MESSAGE, message), WebEndpointResponse.STATUS_BAD_REQUEST);
+    }
+}
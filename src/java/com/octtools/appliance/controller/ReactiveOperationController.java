@@ -0,0 +1,72 @@
+package com.octtools.appliance.controller;
+
+import com.octtools.appliance.model.Operation;
+import com.octtools.appliance.service.ReactiveOperationQueries;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.RejectedExecutionException;
+
+// Same contract as OperationController, but the request thread is released while the read runs
+@RestController
+@RequestMapping("/api/v1/reactive")
+public class ReactiveOperationController {
+
+    // API Constants
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ReactiveOperationQueries operationQueries;
+
+    public ReactiveOperationController(ReactiveOperationQueries operationQueries) {
+        this.operationQueries = operationQueries;
+    }
+
+    @GetMapping("/operations")
+    public Mono<Page<Operation>> getAllOperations(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String applianceId,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+
+        // Validate input parameters
+        if (page < 0) {
+            throw new IllegalArgumentException("Page number cannot be negative");
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+
+        int limitedSize = Math.min(size, MAX_PAGE_SIZE);
+
+        String applianceFilter = applianceId != null && !applianceId.trim().isEmpty() ? applianceId.trim() : null;
+        Mono<Page<Operation>> result = includeArchived
+                ? operationQueries.findPageIncludingArchive(applianceFilter, page, limitedSize)
+                : operationQueries.findPage(applianceFilter, page, limitedSize);
+        return result.onErrorMap(RejectedExecutionException.class, this::overloaded);
+    }
+
+    @GetMapping("/operations/{id}")
+    public Mono<ResponseEntity<Operation>> getOperation(@PathVariable Long id) {
+        // Validate path parameter
+        if (id == null || id <= 0) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        return operationQueries.findById(id)
+                .map(operation -> operation.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build()))
+                .onErrorMap(RejectedExecutionException.class, this::overloaded);
+    }
+
+    // The read queue is full: tell clients to back off rather than failing with a 500
+    private ResponseStatusException overloaded(RejectedExecutionException e) {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many concurrent operation reads", e);
+    }
+}
@@ -0,0 +1,71 @@
+package com.octtools.appliance.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import com.octtools.appliance.logging.AuditLog;
+import com.octtools.appliance.model.StalenessPolicySettings;
+import com.octtools.appliance.model.StalenessRule;
+import com.octtools.appliance.service.StalenessPolicyService;
+import org.springframework.boot.actuate.endpoint.web.annotation.RestControllerEndpoint;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+
+// GET /actuator/staleness-rules shows the live staleness rules; PUT replaces all of them without a restart. An
+// actuator endpoint rather than an /api/v1 controller so it is off unless exposed, and then can sit on the management
+// port. The global threshold is changed through /actuator/processing.
+@Component
+@RestControllerEndpoint(id = "staleness-rules")
+public class StalenessRulesEndpoint {
+
+    private static final String ERROR_MESSAGE = "message";
+    private static final TypeReference<List<StalenessRule>> RULE_LIST = new TypeReference<>() { };
+
+    private final StalenessPolicyService stalenessPolicies;
+    // A misspelt field would otherwise turn a narrow rule into a catch-all for its status
+    private final ObjectMapper strictMapper;
+
+    public StalenessRulesEndpoint(StalenessPolicyService stalenessPolicies, ObjectMapper objectMapper) {
+        this.stalenessPolicies = stalenessPolicies;
+        this.strictMapper = objectMapper.copy().enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    @GetMapping
+    public StalenessPolicySettings getRules() {
+        return settings();
+    }
+
+    // A rejected set returns 400 with the reason, naming the offending rule by its index
+    @PutMapping
+    public ResponseEntity<Object> replaceRules(@RequestBody List<Map<String, Object>> rules, Principal principal) {
+        try {
+            stalenessPolicies.replaceRules(strictMapper.convertValue(rules, RULE_LIST), AuditLog.actor(principal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(ERROR_MESSAGE, reason(e)));
+        }
+        return ResponseEntity.ok(settings());
+    }
+
+    // Jackson's own message names internal classes, so an unknown field is reported by rule index instead
+    private static String reason(IllegalArgumentException e) {
+        if (e.getCause() instanceof UnrecognizedPropertyException unknown && !unknown.getPath().isEmpty()) {
+            return "Unknown field '" + unknown.getPropertyName() + "' in staleness rule " + unknown.getPath().get(0).getIndex();
+        }
+        return e.getMessage();
+    }
+
+    private StalenessPolicySettings settings() {
+        return StalenessPolicySettings.builder()
+                .defaultThresholdMinutes(stalenessPolicies.getDefaultThresholdMinutes())
+                .rules(stalenessPolicies.current().getRules())
+                .build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.octtools.appliance.controller;
+
+import com.octtools.appliance.model.ActivityBucket;
+import com.octtools.appliance.service.ActivityTimeSeries;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/stats")
+public class StatsController {
+
+    private static final Map<String, Integer> RESOLUTION_MINUTES = Map.of("1m", 1, "5m", 5, "1h", 60);
+
+    private final ActivityTimeSeries activityTimeSeries;
+
+    public StatsController(ActivityTimeSeries activityTimeSeries) {
+        this.activityTimeSeries = activityTimeSeries;
+    }
+
+    @GetMapping("/timeseries")
+    public ResponseEntity<List<ActivityBucket>> getTimeSeries(
+            @RequestParam(defaultValue = "1m") String resolution,
+            @RequestParam(defaultValue = "60") int points) {
+
+        Integer resolutionMinutes = RESOLUTION_MINUTES.get(resolution);
+        if (resolutionMinutes == null || points <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // Never ask for more buckets than retention can fill
+        int maxPoints = (activityTimeSeries.getRetentionMinutes() + resolutionMinutes - 1) / resolutionMinutes;
+        return ResponseEntity.ok(activityTimeSeries.query(resolutionMinutes, Math.min(points, maxPoints)));
+    }
+}
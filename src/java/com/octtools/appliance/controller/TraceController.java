@@ -0,0 +1,36 @@
+package com.octtools.appliance.controller;
+
+import com.octtools.appliance.model.PhaseLatency;
+import com.octtools.appliance.model.RemediationTraceSummary;
+import com.octtools.appliance.tracing.RemediationTracer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/traces")
+public class TraceController {
+
+    private final RemediationTracer tracer;
+
+    public TraceController(RemediationTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @GetMapping("/slowest")
+    public ResponseEntity<List<RemediationTraceSummary>> getSlowestTraces(@RequestParam(defaultValue = "20") int limit) {
+        if (limit <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(tracer.slowest(Math.min(limit, tracer.getBufferSize())));
+    }
+
+    @GetMapping("/phases")
+    public ResponseEntity<List<PhaseLatency>> getPhaseBreakdown() {
+        return ResponseEntity.ok(tracer.phaseBreakdown());
+    }
+}
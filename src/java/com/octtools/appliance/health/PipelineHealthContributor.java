@@ -0,0 +1,255 @@
+package com.octtools.appliance.health;
+
+import com.octtools.appliance.config.WebClientConfig;
+import com.octtools.appliance.service.ApplianceMonitorService;
+import com.octtools.appliance.service.LeaderElectionService;
+import com.octtools.appliance.service.RemediationProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.CompositeHealthContributor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthContributor;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.NamedContributor;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.octtools.appliance.config.ConfigProperties.HEALTH_API_ERROR_RATE_DEGRADED;
+import static com.octtools.appliance.config.ConfigProperties.HEALTH_API_LATENCY_DEGRADED_FACTOR;
+import static com.octtools.appliance.config.ConfigProperties.HEALTH_API_MIN_REQUESTS;
+import static com.octtools.appliance.config.ConfigProperties.HEALTH_COLLECTION_MAX_AGE_SECONDS;
+import static com.octtools.appliance.config.ConfigProperties.HEALTH_DB_WRITE_LATENCY_DEGRADED_MS;
+import static com.octtools.appliance.config.ConfigProperties.HEALTH_QUEUE_DEGRADED_RATIO;
+import static com.octtools.appliance.config.ConfigProperties.HEALTH_REFRESH_INTERVAL_SECONDS;
+
+// Saturation of the monitoring pipeline as /actuator/health/pipeline/{executor,collection,api,database}.
+// Everything is computed on a schedule and the indicators return the last result, so frequent probes cost nothing.
+// API and database figures cover the time since the previous refresh.
+@Component
+@Slf4j
+public class PipelineHealthContributor implements CompositeHealthContributor {
+
+    // Still serving, but saturated or slow; ordered between DOWN and UP by management.endpoint.health.status.order
+    public static final Status DEGRADED = new Status("DEGRADED");
+
+    // Weight of each window in the API latency baseline; while latency is degraded the baseline adapts ten times slower
+    private static final double BASELINE_WEIGHT = 0.1;
+    private static final double DEGRADED_BASELINE_WEIGHT = 0.01;
+
+    private final RemediationProcessor remediationProcessor;
+    private final ApplianceMonitorService monitorService;
+    private final LeaderElectionService leaderElection;
+    private final MeterRegistry meterRegistry;
+    private final double queueDegradedRatio;
+    private final Duration maxCycleAge;
+    private final int apiMinRequests;
+    private final double apiErrorRateDegraded;
+    private final double apiLatencyDegradedFactor;
+    private final long dbWriteLatencyDegradedMs;
+    private final Map<String, HealthContributor> indicators = new LinkedHashMap<>();
+    private final Instant startedAt = Instant.now();
+
+    private volatile Health executorHealth = notComputed();
+    private volatile Health collectionHealth = notComputed();
+    private volatile Health apiHealth = notComputed();
+    private volatile Health databaseHealth = notComputed();
+
+    // Cumulative meter totals at the previous refresh
+    private long lastRefreshNanos = System.nanoTime();
+    private long apiRequests;
+    private long apiErrors;
+    private double apiTotalMs;
+    private long dbWrites;
+    private double dbTotalMs;
+    private double apiBaselineMs;
+
+    public PipelineHealthContributor(
+            RemediationProcessor remediationProcessor,
+            ApplianceMonitorService monitorService,
+            LeaderElectionService leaderElection,
+            MeterRegistry meterRegistry,
+            @Value(HEALTH_QUEUE_DEGRADED_RATIO) double queueDegradedRatio,
+            @Value(HEALTH_COLLECTION_MAX_AGE_SECONDS) long maxCycleAgeSeconds,
+            @Value(HEALTH_API_MIN_REQUESTS) int apiMinRequests,
+            @Value(HEALTH_API_ERROR_RATE_DEGRADED) double apiErrorRateDegraded,
+            @Value(HEALTH_API_LATENCY_DEGRADED_FACTOR) double apiLatencyDegradedFactor,
+            @Value(HEALTH_DB_WRITE_LATENCY_DEGRADED_MS) long dbWriteLatencyDegradedMs) {
+
+        validateInputs(queueDegradedRatio, maxCycleAgeSeconds, apiMinRequests, apiErrorRateDegraded,
+                apiLatencyDegradedFactor, dbWriteLatencyDegradedMs);
+
+        this.remediationProcessor = remediationProcessor;
+        this.monitorService = monitorService;
+        this.leaderElection = leaderElection;
+        this.meterRegistry = meterRegistry;
+        this.queueDegradedRatio = queueDegradedRatio;
+        this.maxCycleAge = Duration.ofSeconds(maxCycleAgeSeconds);
+        this.apiMinRequests = apiMinRequests;
+        this.apiErrorRateDegraded = apiErrorRateDegraded;
+        this.apiLatencyDegradedFactor = apiLatencyDegradedFactor;
+        this.dbWriteLatencyDegradedMs = dbWriteLatencyDegradedMs;
+
+        indicators.put("executor", (HealthIndicator) () -> executorHealth);
+        indicators.put("collection", (HealthIndicator) () -> collectionHealth);
+        indicators.put("api", (HealthIndicator) () -> apiHealth);
+        indicators.put("database", (HealthIndicator) () -> databaseHealth);
+
+        log.info("Initialized PipelineHealthContributor with queueDegradedRatio={}, maxCycleAge={}s, apiMinRequests={}, "
+                        + "apiErrorRateDegraded={}, apiLatencyDegradedFactor={}, dbWriteLatencyDegraded={}ms",
+                queueDegradedRatio, maxCycleAgeSeconds, apiMinRequests, apiErrorRateDegraded,
+                apiLatencyDegradedFactor, dbWriteLatencyDegradedMs);
+    }
+
+    private void validateInputs(double queueDegradedRatio, long maxCycleAgeSeconds, int apiMinRequests,
+                                double apiErrorRateDegraded, double apiLatencyDegradedFactor, long dbWriteLatencyDegradedMs) {
+        if (queueDegradedRatio <= 0 || queueDegradedRatio > 1) {
+            throw new IllegalArgumentException("Queue degraded ratio must be in (0, 1], got: " + queueDegradedRatio);
+        }
+        if (maxCycleAgeSeconds <= 0) {
+            throw new IllegalArgumentException("Max collection cycle age must be positive, got: " + maxCycleAgeSeconds);
+        }
+        if (apiMinRequests <= 0) {
+            throw new IllegalArgumentException("API min requests must be positive, got: " + apiMinRequests);
+        }
+        if (apiErrorRateDegraded <= 0 || apiErrorRateDegraded > 1) {
+            throw new IllegalArgumentException("API error rate threshold must be in (0, 1], got: " + apiErrorRateDegraded);
+        }
+        if (apiLatencyDegradedFactor <= 1) {
+            throw new IllegalArgumentException("API latency degraded factor must be greater than 1, got: " + apiLatencyDegradedFactor);
+        }
+        if (dbWriteLatencyDegradedMs <= 0) {
+            throw new IllegalArgumentException("DB write latency threshold must be positive, got: " + dbWriteLatencyDegradedMs);
+        }
+    }
+
+    @Scheduled(fixedDelayString = HEALTH_REFRESH_INTERVAL_SECONDS, timeUnit = TimeUnit.SECONDS)
+    public synchronized void refresh() {
+        long nowNanos = System.nanoTime();
+        long windowMs = TimeUnit.NANOSECONDS.toMillis(nowNanos - lastRefreshNanos);
+        lastRefreshNanos = nowNanos;
+
+        executorHealth = checkExecutor();
+        collectionHealth = checkCollection();
+        apiHealth = checkApi(windowMs);
+        databaseHealth = checkDatabase(windowMs);
+    }
+
+    @Override
+    public HealthContributor getContributor(String name) {
+        return indicators.get(name);
+    }
+
+    @Override
+    public Iterator<NamedContributor<HealthContributor>> iterator() {
+        return indicators.entrySet().stream()
+                .map(entry -> NamedContributor.of(entry.getKey(), entry.getValue()))
+                .iterator();
+    }
+
+    private Health checkExecutor() {
+        int queueDepth = remediationProcessor.getQueueDepth();
+        int queueCapacity = remediationProcessor.getQueueCapacity();
+        double queueUtilization = (double) queueDepth / queueCapacity;
+        return Health.status(queueUtilization >= queueDegradedRatio ? DEGRADED : Status.UP)
+                .withDetail("queueDepth", queueDepth)
+                .withDetail("queueCapacity", queueCapacity)
+                .withDetail("queueUtilization", round(queueUtilization))
+                .withDetail("activeThreads", remediationProcessor.getActiveThreads())
+                .withDetail("threadPoolSize", remediationProcessor.getThreadPoolSize())
+                .build();
+    }
+
+    private Health checkCollection() {
+        // Followers do not collect, so there is no cycle to be late
+        if (!leaderElection.isLeader()) {
+            return Health.up().withDetail("role", "follower").build();
+        }
+        Instant lastSuccess = monitorService.getLastSuccessfulCycleAt().orElse(null);
+        // Before the first cycle completes, startup counts as the last success
+        Duration age = Duration.between(lastSuccess != null ? lastSuccess : startedAt, Instant.now());
+        return Health.status(age.compareTo(maxCycleAge) > 0 ? Status.DOWN : Status.UP)
+                .withDetail("role", "leader")
+                .withDetail("lastSuccessfulCycle", lastSuccess != null ? lastSuccess.toString() : "none")
+                .withDetail("secondsSinceLastSuccess", age.toSeconds())
+                .withDetail("maxAgeSeconds", maxCycleAge.toSeconds())
+                .withDetail("resumePending", monitorService.isResumePending())
+                .build();
+    }
+
+    private Health checkApi(long windowMs) {
+        long requests = 0;
+        long errors = 0;
+        double totalMs = 0;
+        for (Timer timer : meterRegistry.find(WebClientConfig.API_REQUESTS_METER).timers()) {
+            requests += timer.count();
+            totalMs += timer.totalTime(TimeUnit.MILLISECONDS);
+            String outcome = timer.getId().getTag("outcome");
+            // 4xx are answers (a 404 means the appliance is gone), not signs of an unhealthy upstream
+            if (WebClientConfig.OUTCOME_SERVER_ERROR.equals(outcome) || WebClientConfig.OUTCOME_IO_ERROR.equals(outcome)) {
+                errors += timer.count();
+            }
+        }
+        long windowRequests = requests - apiRequests;
+        long windowErrors = errors - apiErrors;
+        double windowTotalMs = totalMs - apiTotalMs;
+        apiRequests = requests;
+        apiErrors = errors;
+        apiTotalMs = totalMs;
+
+        Health.Builder health = Health.up();
+        double errorRate = windowRequests > 0 ? (double) windowErrors / windowRequests : 0;
+        double meanMs = windowRequests > 0 ? windowTotalMs / windowRequests : 0;
+        if (windowRequests >= apiMinRequests) {
+            boolean slow = apiBaselineMs > 0 && meanMs >= apiLatencyDegradedFactor * apiBaselineMs;
+            if (errorRate >= apiErrorRateDegraded) {
+                health.status(DEGRADED).withDetail("reason", "error rate above " + apiErrorRateDegraded);
+            } else if (slow) {
+                health.status(DEGRADED).withDetail("reason", "latency above " + apiLatencyDegradedFactor + "x baseline");
+            }
+            double weight = apiBaselineMs == 0 ? 1 : slow ? DEGRADED_BASELINE_WEIGHT : BASELINE_WEIGHT;
+            apiBaselineMs += weight * (meanMs - apiBaselineMs);
+        }
+        return health
+                .withDetail("windowSeconds", windowMs / 1000)
+                .withDetail("requests", windowRequests)
+                .withDetail("errorRate", round(errorRate))
+                .withDetail("meanLatencyMs", round(meanMs))
+                .withDetail("baselineLatencyMs", round(apiBaselineMs))
+                .build();
+    }
+
+    private Health checkDatabase(long windowMs) {
+        Timer saveTimer = meterRegistry.find(RemediationProcessor.OPERATION_SAVE_METER).timer();
+        long writes = saveTimer != null ? saveTimer.count() : 0;
+        double totalMs = saveTimer != null ? saveTimer.totalTime(TimeUnit.MILLISECONDS) : 0;
+        long windowWrites = writes - dbWrites;
+        double meanMs = windowWrites > 0 ? (totalMs - dbTotalMs) / windowWrites : 0;
+        dbWrites = writes;
+        dbTotalMs = totalMs;
+
+        return Health.status(meanMs >= dbWriteLatencyDegradedMs ? DEGRADED : Status.UP)
+                .withDetail("windowSeconds", windowMs / 1000)
+                .withDetail("writes", windowWrites)
+                .withDetail("meanWriteLatencyMs", round(meanMs))
+                .withDetail("maxWriteLatencyMs", saveTimer != null ? round(saveTimer.max(TimeUnit.MILLISECONDS)) : 0)
+                .build();
+    }
+
+    private static Health notComputed() {
+        return Health.unknown().withDetail("reason", "not computed yet").build();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,23 @@
+package com.octtools.appliance.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.Principal;
+
+// Runtime configuration changes and who made them, one AUDIT: line each. The logger is routed past the discarding
+// async appenders by logback-spring.xml, so changes are never dropped from the log.
+public final class AuditLog {
+
+    public static final Logger AUDIT = LoggerFactory.getLogger("com.octtools.appliance.audit");
+
+    private static final String ANONYMOUS = "anonymous";
+
+    private AuditLog() {
+    }
+
+    // The authenticated principal when Spring Security protects the endpoint, anonymous otherwise
+    public static String actor(Principal principal) {
+        return principal != null ? principal.getName() : ANONYMOUS;
+    }
+}
@@ -0,0 +1,40 @@
+package com.octtools.appliance.logging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Caps a hot-path log line at a fixed number of lines per second; callers skip the line when it returns false.
+// Only for success/debug lines whose totals are reported elsewhere - warnings and errors are never sampled.
+public final class LogSampler {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int linesPerSecond;
+    private final LongSupplier nanoTime;
+    private final AtomicLong windowStart;
+    private final AtomicLong windowCount = new AtomicLong();
+
+    public LogSampler(int linesPerSecond) {
+        this(linesPerSecond, System::nanoTime);
+    }
+
+    LogSampler(int linesPerSecond, LongSupplier nanoTime) {
+        if (linesPerSecond <= 0) {
+            throw new IllegalArgumentException("Lines per second must be positive, got: " + linesPerSecond);
+        }
+        this.linesPerSecond = linesPerSecond;
+        this.nanoTime = nanoTime;
+        this.windowStart = new AtomicLong(nanoTime.getAsLong());
+    }
+
+    public boolean tryAcquire() {
+        long now = nanoTime.getAsLong();
+        long start = windowStart.get();
+        // Racing threads may let a few extra lines through at a window boundary, which is fine for logging
+        if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            windowCount.set(0);
+        }
+        return windowCount.incrementAndGet() <= linesPerSecond;
+    }
+}
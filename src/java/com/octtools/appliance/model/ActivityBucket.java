@@ -0,0 +1,24 @@
+package com.octtools.appliance.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class ActivityBucket {
+    private Instant start;
+    private long drains;
+    private long remediations;
+    private Map<String, Long> remediationsByResult;
+    private long failures;
+    private long queueFullRejections;
+    private long processed;
+    private double averageLatencyMs;
+}
@@ -1,5 +1,6 @@
 package com.octtools.appliance.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -16,4 +17,12 @@ public class Appliance {
     
     @JsonProperty("lastHeardFromOn")
     private String lastHeardFromOn;  // ISO-8601 string as per API spec
+
+    // Name of the backend the appliance was collected from; set locally, not part of the API payload
+    @JsonIgnore
+    private String backend;
+
+    public Appliance(String id, String opStatus, String lastHeardFromOn) {
+        this(id, opStatus, lastHeardFromOn, null);
+    }
 }
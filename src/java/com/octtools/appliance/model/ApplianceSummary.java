@@ -0,0 +1,21 @@
+package com.octtools.appliance.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class ApplianceSummary {
+    private String applianceId;
+    private long drainCount;
+    private long remediateCount;
+    private Instant lastDrainAt;
+    private Instant lastRemediateAt;
+    private String lastRemediationResult;
+}
@@ -1,27 +1,20 @@
 package com.octtools.appliance.model;
 
-import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
-import jakarta.persistence.Id;
-import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.Instant;
 
-@Entity
-@Table(name = "operations")
+// API and event representation; storage backends keep the compact form (see OperationRecord)
 @Data
 @NoArgsConstructor
 @Builder
 @AllArgsConstructor
 public class Operation {
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     private String applianceId;
+    private String backend;
     private String operationType;
     private Instant processedAt;
     private String drainId;
@@ -0,0 +1,21 @@
+package com.octtools.appliance.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+// Body of a bulk operations query; from is inclusive, to is exclusive, and either may be omitted
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class OperationQuery {
+    private List<String> applianceIds;
+    private Instant from;
+    private Instant to;
+    private Integer limitPerAppliance;
+}
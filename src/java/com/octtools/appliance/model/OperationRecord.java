@@ -0,0 +1,44 @@
+package com.octtools.appliance.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Compact row for an Operation. Upstream values that fit a typed column (UUID ids, ISO-8601 durations,
+// known results) are stored typed; the *Text columns hold anything else verbatim and are null otherwise
+@Entity
+@Table(name = "operations", indexes = {
+    @Index(name = "idx_operations_processed_at", columnList = "processed_at"),
+    @Index(name = "idx_operations_appliance_processed_at", columnList = "appliance_id, processed_at")
+})
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class OperationRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String applianceId;
+    private String backend;
+    private byte typeCode;
+    private Instant processedAt;
+    private UUID drainId;
+    private String drainIdText;
+    private Long drainTimeMillis;
+    private String drainTimeText;
+    private UUID remediationId;
+    private String remediationIdText;
+    private byte resultCode;
+    private String resultText;
+}
@@ -0,0 +1,35 @@
+package com.octtools.appliance.model;
+
+// Stored by code, so codes must never be reused or renumbered
+public enum OperationType {
+    DRAIN(1),
+    REMEDIATE(2),
+    REMEDIATION_CYCLE(3);
+
+    private final byte code;
+
+    OperationType(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public boolean includesDrain() {
+        return this == DRAIN || this == REMEDIATION_CYCLE;
+    }
+
+    public boolean includesRemediation() {
+        return this == REMEDIATE || this == REMEDIATION_CYCLE;
+    }
+
+    public static OperationType fromCode(byte code) {
+        for (OperationType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation type code: " + code);
+    }
+}
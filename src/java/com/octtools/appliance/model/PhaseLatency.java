@@ -0,0 +1,18 @@
+package com.octtools.appliance.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class PhaseLatency {
+    private String phase;
+    private long spans;
+    private double totalMs;
+    private double averageMs;
+    private double shareOfTotal;  // Fraction of all traced time spent in this phase
+}
@@ -0,0 +1,19 @@
+package com.octtools.appliance.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Runtime-tunable processing settings; in a change request, null fields keep their current value
+@Data
+@NoArgsConstructor
+@Builder(toBuilder = true)
+@AllArgsConstructor
+public class ProcessingSettings {
+    private Integer threadPoolSize;
+    private Integer maxThreadPoolSize;
+    private Integer queueCapacity;
+    private Integer pageSize;
+    private Integer staleThresholdMinutes;
+}
@@ -0,0 +1,26 @@
+package com.octtools.appliance.model;
+
+// Results the upstream API is known to return; anything else is stored verbatim. Codes must never be reused
+public enum RemediationResult {
+    SUCCESS(1),
+    FAILURE(2);
+
+    private final byte code;
+
+    RemediationResult(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public static RemediationResult fromCode(byte code) {
+        for (RemediationResult result : values()) {
+            if (result.code == code) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Unknown remediation result code: " + code);
+    }
+}
@@ -0,0 +1,14 @@
+package com.octtools.appliance.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RemediationTask {
+    private Long id;
+    private Appliance appliance;
+    private int attempts;            // Claims so far, including the current one
+}
@@ -0,0 +1,21 @@
+package com.octtools.appliance.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class RemediationTraceSummary {
+    private String applianceId;
+    private Instant startedAt;
+    private double totalMs;
+    private String outcome;      // "success", "failure" or "rejected"
+    private List<TraceSpan> spans;
+}
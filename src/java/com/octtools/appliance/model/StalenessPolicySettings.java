@@ -0,0 +1,18 @@
+package com.octtools.appliance.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Live staleness rules and the global threshold LIVE appliances without a matching rule fall back to
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class StalenessPolicySettings {
+    private Integer defaultThresholdMinutes;
+    private List<StalenessRule> rules;
+}
@@ -0,0 +1,20 @@
+package com.octtools.appliance.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One entry of appliance.processing.staleness-rules. A rule applies to appliances with its status (LIVE when unset)
+// whose ID starts with idPrefix and matches the idPattern glob, each when set; thresholdMinutes unset follows the global
+// stale threshold.
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class StalenessRule {
+    private String status;
+    private String idPrefix;
+    private String idPattern;
+    private Integer thresholdMinutes;
+}
@@ -0,0 +1,17 @@
+package com.octtools.appliance.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class TraceSpan {
+    private String phase;
+    private double offsetMs;     // From detection start
+    private double durationMs;
+    private String outcome;      // "ok", HTTP status, "not_found" or "error"; null for phases that cannot fail
+}
@@ -0,0 +1,103 @@
+package com.octtools.appliance.repository;
+
+import com.octtools.appliance.model.Operation;
+import com.octtools.appliance.model.OperationRecord;
+import com.octtools.appliance.model.OperationType;
+import com.octtools.appliance.model.RemediationResult;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+
+// Lossless conversion between Operation and its compact stored form: a value is only stored typed when
+// converting it back reproduces the original string exactly
+final class CompactOperationCodec {
+
+    static final byte RESULT_NONE = 0;
+    static final byte RESULT_OTHER = -1;
+
+    private CompactOperationCodec() {
+        // Utility class - prevent instantiation
+    }
+
+    static OperationRecord toRecord(Operation operation) {
+        UUID drainId = toUuid(operation.getDrainId());
+        Long drainTimeMillis = toMillis(operation.getEstimatedTimeToDrain());
+        UUID remediationId = toUuid(operation.getRemediationId());
+        byte resultCode = resultCode(operation.getRemediationResult());
+
+        return OperationRecord.builder()
+                .id(operation.getId())
+                .applianceId(operation.getApplianceId())
+                .backend(operation.getBackend())
+                .typeCode(OperationType.valueOf(operation.getOperationType()).getCode())
+                .processedAt(operation.getProcessedAt())
+                .drainId(drainId)
+                .drainIdText(drainId == null ? operation.getDrainId() : null)
+                .drainTimeMillis(drainTimeMillis)
+                .drainTimeText(drainTimeMillis == null ? operation.getEstimatedTimeToDrain() : null)
+                .remediationId(remediationId)
+                .remediationIdText(remediationId == null ? operation.getRemediationId() : null)
+                .resultCode(resultCode)
+                .resultText(resultCode == RESULT_OTHER ? operation.getRemediationResult() : null)
+                .build();
+    }
+
+    static Operation toOperation(OperationRecord record) {
+        return Operation.builder()
+                .id(record.getId())
+                .applianceId(record.getApplianceId())
+                .backend(record.getBackend())
+                .operationType(OperationType.fromCode(record.getTypeCode()).name())
+                .processedAt(record.getProcessedAt())
+                .drainId(record.getDrainId() != null ? record.getDrainId().toString() : record.getDrainIdText())
+                .estimatedTimeToDrain(record.getDrainTimeMillis() != null
+                        ? Duration.ofMillis(record.getDrainTimeMillis()).toString() : record.getDrainTimeText())
+                .remediationId(record.getRemediationId() != null ? record.getRemediationId().toString() : record.getRemediationIdText())
+                .remediationResult(resultName(record.getResultCode(), record.getResultText()))
+                .build();
+    }
+
+    static UUID toUuid(String value) {
+        if (value == null || value.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(value);
+            return uuid.toString().equals(value) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    static Long toMillis(String isoDuration) {
+        if (isoDuration == null) {
+            return null;
+        }
+        try {
+            long millis = Duration.parse(isoDuration).toMillis();
+            return Duration.ofMillis(millis).toString().equals(isoDuration) ? millis : null;
+        } catch (DateTimeParseException | ArithmeticException e) {
+            return null;
+        }
+    }
+
+    static byte resultCode(String result) {
+        if (result == null) {
+            return RESULT_NONE;
+        }
+        for (RemediationResult known : RemediationResult.values()) {
+            if (known.name().equals(result)) {
+                return known.getCode();
+            }
+        }
+        return RESULT_OTHER;
+    }
+
+    static String resultName(byte code, String text) {
+        if (code == RESULT_NONE) {
+            return null;
+        }
+        return code == RESULT_OTHER ? text : RemediationResult.fromCode(code).name();
+    }
+}
@@ -0,0 +1,141 @@
+package com.octtools.appliance.repository;
+
+import com.octtools.appliance.model.Operation;
+import com.octtools.appliance.model.OperationRecord;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+// Reads the operations table written by the JPA backend through its own read-only pool, so read traffic neither
+// waits for nor holds the connections processing threads write through. Rows map through the same codec as JPA.
+public class JdbcOperationReader implements OperationReader, AutoCloseable {
+
+    // Keeps IN lists well under the bind-parameter limits of common databases
+    static final int IN_LIST_BATCH_SIZE = 500;
+
+    private static final String COLUMNS = "id, appliance_id, backend, type_code, processed_at, drain_id, drain_id_text, "
+            + "drain_time_millis, drain_time_text, remediation_id, remediation_id_text, result_code, result_text";
+
+    private static final String SELECT_BY_ID_SQL = "SELECT " + COLUMNS + " FROM operations WHERE id = ?";
+
+    private static final String SELECT_PAGE_SQL =
+            "SELECT " + COLUMNS + " FROM operations ORDER BY processed_at DESC OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+
+    private static final String SELECT_APPLIANCE_PAGE_SQL =
+            "SELECT " + COLUMNS + " FROM operations WHERE appliance_id = ? "
+            + "ORDER BY processed_at DESC OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM operations";
+
+    private static final String SELECT_APPLIANCES_SQL = "SELECT " + COLUMNS + " FROM operations WHERE appliance_id IN (:applianceIds)";
+
+    private static final String APPLIANCES_ORDER_BY = " ORDER BY appliance_id, processed_at DESC, id DESC";
+
+    private static final String COUNT_APPLIANCE_SQL = "SELECT COUNT(*) FROM operations WHERE appliance_id = ?";
+
+    private static final RowMapper<Operation> OPERATION_ROW_MAPPER = (rs, rowNum) -> CompactOperationCodec.toOperation(
+            OperationRecord.builder()
+                    .id(rs.getLong("id"))
+                    .applianceId(rs.getString("appliance_id"))
+                    .backend(rs.getString("backend"))
+                    .typeCode(rs.getByte("type_code"))
+                    .processedAt(toInstant(rs.getObject("processed_at", OffsetDateTime.class)))
+                    .drainId(rs.getObject("drain_id", UUID.class))
+                    .drainIdText(rs.getString("drain_id_text"))
+                    .drainTimeMillis(rs.getObject("drain_time_millis", Long.class))
+                    .drainTimeText(rs.getString("drain_time_text"))
+                    .remediationId(rs.getObject("remediation_id", UUID.class))
+                    .remediationIdText(rs.getString("remediation_id_text"))
+                    .resultCode(rs.getByte("result_code"))
+                    .resultText(rs.getString("result_text"))
+                    .build());
+
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public JdbcOperationReader(HikariDataSource dataSource) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public Optional<Operation> findById(Long id) {
+        return jdbcTemplate.query(SELECT_BY_ID_SQL, OPERATION_ROW_MAPPER, id).stream().findFirst();
+    }
+
+    @Override
+    public Page<Operation> findByApplianceId(String applianceId, Pageable pageable) {
+        List<Operation> content = jdbcTemplate.query(SELECT_APPLIANCE_PAGE_SQL, OPERATION_ROW_MAPPER,
+                applianceId, pageable.getOffset(), pageable.getPageSize());
+        Long total = jdbcTemplate.queryForObject(COUNT_APPLIANCE_SQL, Long.class, applianceId);
+        return new PageImpl<>(content, pageable, total != null ? total : 0);
+    }
+
+    @Override
+    public Page<Operation> findAll(Pageable pageable) {
+        List<Operation> content = jdbcTemplate.query(SELECT_PAGE_SQL, OPERATION_ROW_MAPPER,
+                pageable.getOffset(), pageable.getPageSize());
+        Long total = jdbcTemplate.queryForObject(COUNT_SQL, Long.class);
+        return new PageImpl<>(content, pageable, total != null ? total : 0);
+    }
+
+    // One ordered walk of the (appliance_id, processed_at) index per batch. H2 evaluates ROW_NUMBER() far slower than
+    // it scans, so the per-appliance limit is applied while reading and rows past it are skipped without mapping
+    @Override
+    public Map<String, List<Operation>> findLatestByApplianceIds(Collection<String> applianceIds, Instant from, Instant to,
+                                                                 int limitPerAppliance) {
+        StringBuilder sql = new StringBuilder(SELECT_APPLIANCES_SQL);
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (from != null) {
+            sql.append(" AND processed_at >= :from");
+            params.addValue("from", from.atOffset(ZoneOffset.UTC));
+        }
+        if (to != null) {
+            sql.append(" AND processed_at < :to");
+            params.addValue("to", to.atOffset(ZoneOffset.UTC));
+        }
+        sql.append(APPLIANCES_ORDER_BY);
+
+        Map<String, List<Operation>> latest = new LinkedHashMap<>();
+        RowCallbackHandler collector = rs -> {
+            List<Operation> operations = latest.computeIfAbsent(rs.getString("appliance_id"), key -> new ArrayList<>());
+            if (operations.size() < limitPerAppliance) {
+                operations.add(OPERATION_ROW_MAPPER.mapRow(rs, rs.getRow()));
+            }
+        };
+        List<String> ids = List.copyOf(applianceIds);
+        for (int start = 0; start < ids.size(); start += IN_LIST_BATCH_SIZE) {
+            params.addValue("applianceIds", ids.subList(start, Math.min(start + IN_LIST_BATCH_SIZE, ids.size())));
+            namedJdbcTemplate.query(sql.toString(), params, collector);
+        }
+        return latest;
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+
+    private static Instant toInstant(OffsetDateTime value) {
+        return value != null ? value.toInstant() : null;
+    }
+}
@@ -0,0 +1,65 @@
+package com.octtools.appliance.repository;
+
+import com.octtools.appliance.model.Operation;
+import com.octtools.appliance.model.OperationRecord;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class JpaOperationStore implements OperationStore {
+
+    private final OperationRepository operationRepository;
+
+    public JpaOperationStore(OperationRepository operationRepository) {
+        this.operationRepository = operationRepository;
+    }
+
+    @Override
+    public Operation save(Operation operation) {
+        OperationRecord saved = operationRepository.save(CompactOperationCodec.toRecord(operation));
+        operation.setId(saved.getId());
+        return operation;
+    }
+
+    @Override
+    public Optional<Operation> findById(Long id) {
+        return operationRepository.findById(id).map(CompactOperationCodec::toOperation);
+    }
+
+    @Override
+    public Page<Operation> findByApplianceId(String applianceId, Pageable pageable) {
+        return operationRepository.findByApplianceIdOrderByProcessedAtDesc(applianceId, pageable)
+                .map(CompactOperationCodec::toOperation);
+    }
+
+    @Override
+    public Page<Operation> findAll(Pageable pageable) {
+        return operationRepository.findAllByOrderByProcessedAtDesc(pageable).map(CompactOperationCodec::toOperation);
+    }
+
+    // With the JPA backend StorageConfig serves bulk reads from JdbcOperationReader, which skips rows past each
+    // appliance's limit without mapping them; going through JPA would load every row as an entity first
+    @Override
+    public Map<String, List<Operation>> findLatestByApplianceIds(Collection<String> applianceIds, Instant from, Instant to,
+                                                                 int limitPerAppliance) {
+        throw new UnsupportedOperationException("Bulk operation reads for the JPA backend go through JdbcOperationReader");
+    }
+
+    @Override
+    public List<Operation> findProcessedBefore(Instant cutoff, int limit) {
+        return operationRepository.findByProcessedAtBeforeOrderByProcessedAtAsc(cutoff, PageRequest.of(0, limit)).stream()
+                .map(CompactOperationCodec::toOperation)
+                .toList();
+    }
+
+    @Override
+    public void deleteAllById(List<Long> ids) {
+        operationRepository.deleteAllByIdInBatch(ids);
+    }
+}
@@ -0,0 +1,52 @@
+package com.octtools.appliance.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Repository
+public class LeaderLeaseRepository {
+
+    // Take the lease if we already hold it or the current holder let it expire; single statement so it is atomic
+    private static final String ACQUIRE_OR_RENEW_SQL =
+            "UPDATE leader_lease "
+            + "SET acquired_at = CASE WHEN owner_id = ? THEN acquired_at ELSE ? END, owner_id = ?, expires_at = ? "
+            + "WHERE lease_name = ? AND (owner_id = ? OR expires_at <= ?)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO leader_lease (lease_name, owner_id, acquired_at, expires_at) VALUES (?, ?, ?, ?)";
+
+    private static final String RELEASE_SQL =
+            "UPDATE leader_lease SET expires_at = 0 WHERE lease_name = ? AND owner_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LeaderLeaseRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean tryAcquire(String leaseName, String ownerId, Instant now, Duration leaseDuration) {
+        long nowMs = now.toEpochMilli();
+        long expiresAtMs = now.plus(leaseDuration).toEpochMilli();
+
+        int updated = jdbcTemplate.update(ACQUIRE_OR_RENEW_SQL,
+                ownerId, nowMs, ownerId, expiresAtMs, leaseName, ownerId, nowMs);
+        if (updated > 0) {
+            return true;
+        }
+
+        // No row yet, or another instance holds a live lease
+        try {
+            return jdbcTemplate.update(INSERT_SQL, leaseName, ownerId, nowMs, expiresAtMs) > 0;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    public void release(String leaseName, String ownerId) {
+        jdbcTemplate.update(RELEASE_SQL, leaseName, ownerId);
+    }
+}
@@ -0,0 +1,660 @@
+package com.octtools.appliance.repository;
+
+import com.octtools.appliance.model.Operation;
+import com.octtools.appliance.model.OperationRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Append-only operation log in fixed-size memory-mapped segments. Only record locations are kept on heap;
+// operations are decoded from the mapping on read. Insertion order stands in for processedAt order, since
+// operations are stamped immediately before they are saved.
+@Slf4j
+public class MappedLogOperationStore implements OperationStore, AutoCloseable {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    // Record layout: [int bodyLength][int crc32(body)][body]; body starts with a record type byte and the operation id
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final byte TYPE_PUT_STRINGS = 1;
+    private static final byte TYPE_DELETE = 2;
+    private static final byte TYPE_PUT = 3;
+    // TYPE_PUT followed by the appliance backend; earlier TYPE_PUT records decode with no backend
+    private static final byte TYPE_PUT_BACKEND = 4;
+    private static final byte VALUE_ABSENT = 0;
+    private static final byte VALUE_TYPED = 1;
+    private static final byte VALUE_TEXT = 2;
+    private static final long NOT_STORED = -1L;
+
+    private final Path directory;
+    private final int segmentSizeBytes;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final LocationIndex locations = new LocationIndex();
+    private final Map<String, IdList> idsByAppliance = new HashMap<>();
+    private Segment activeSegment;
+    private long nextId = 1;
+    private long liveCount;
+
+    public MappedLogOperationStore(Path directory, int segmentSizeBytes) {
+        if (segmentSizeBytes <= RECORD_HEADER_BYTES) {
+            throw new IllegalArgumentException("Segment size must exceed the record header, got: " + segmentSizeBytes);
+        }
+        this.directory = directory;
+        this.segmentSizeBytes = segmentSizeBytes;
+
+        try {
+            Files.createDirectories(directory);
+            recover();
+            if (activeSegment == null) {
+                activeSegment = createSegment(1);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open operation log in " + directory, e);
+        }
+
+        log.info("Opened operation log in {} with {} segments, {} live operations, nextId={}",
+                directory.toAbsolutePath(), segments.size(), liveCount, nextId);
+    }
+
+    @Override
+    public Operation save(Operation operation) {
+        lock.writeLock().lock();
+        try {
+            long id = nextId;
+            operation.setId(id);
+            long location = append(encodePut(operation));
+            nextId++;
+            index(id, operation.getApplianceId(), location);
+            return operation;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Operation> findById(Long id) {
+        lock.readLock().lock();
+        try {
+            long location = locations.get(id);
+            return location == NOT_STORED ? Optional.empty() : Optional.of(read(location));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Page<Operation> findByApplianceId(String applianceId, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            IdList ids = idsByAppliance.get(applianceId);
+            if (ids == null) {
+                return new PageImpl<>(List.of(), pageable, 0);
+            }
+            List<Operation> content = new ArrayList<>(pageable.getPageSize());
+            long toSkip = pageable.getOffset();
+            for (int i = ids.size - 1; i >= 0 && content.size() < pageable.getPageSize(); i--) {
+                long location = locations.get(ids.ids[i]);
+                if (location == NOT_STORED) {
+                    continue;
+                }
+                if (toSkip > 0) {
+                    toSkip--;
+                } else {
+                    content.add(read(location));
+                }
+            }
+            return new PageImpl<>(content, pageable, ids.live);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Page<Operation> findAll(Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            // Deletions come from retention and so cluster at the oldest ids; a newest-first walk rarely meets them
+            List<Operation> content = new ArrayList<>(pageable.getPageSize());
+            long toSkip = pageable.getOffset();
+            for (long id = nextId - 1; id >= locations.base && content.size() < pageable.getPageSize(); id--) {
+                long location = locations.get(id);
+                if (location == NOT_STORED) {
+                    continue;
+                }
+                if (toSkip > 0) {
+                    toSkip--;
+                } else {
+                    content.add(read(location));
+                }
+            }
+            return new PageImpl<>(content, pageable, liveCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<String, List<Operation>> findLatestByApplianceIds(Collection<String> applianceIds, Instant from, Instant to,
+                                                                 int limitPerAppliance) {
+        lock.readLock().lock();
+        try {
+            Map<String, List<Operation>> latest = new LinkedHashMap<>();
+            for (String applianceId : applianceIds) {
+                IdList ids = idsByAppliance.get(applianceId);
+                if (ids == null) {
+                    continue;
+                }
+                List<Operation> operations = new ArrayList<>();
+                for (int i = ids.size - 1; i >= 0 && operations.size() < limitPerAppliance; i--) {
+                    long location = locations.get(ids.ids[i]);
+                    if (location == NOT_STORED) {
+                        continue;
+                    }
+                    Operation operation = read(location);
+                    Instant processedAt = operation.getProcessedAt();
+                    if ((from != null || to != null) && processedAt == null) {
+                        continue;
+                    }
+                    // Walking newest first, so nothing further back can be in range
+                    if (from != null && processedAt.isBefore(from)) {
+                        break;
+                    }
+                    if (to == null || processedAt.isBefore(to)) {
+                        operations.add(operation);
+                    }
+                }
+                if (!operations.isEmpty()) {
+                    latest.put(applianceId, operations);
+                }
+            }
+            return latest;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Operation> findProcessedBefore(Instant cutoff, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Operation> expired = new ArrayList<>(Math.min(limit, 1024));
+            for (long id = locations.base; id < nextId && expired.size() < limit; id++) {
+                long location = locations.get(id);
+                if (location == NOT_STORED) {
+                    continue;
+                }
+                Operation operation = read(location);
+                if (operation.getProcessedAt() == null) {
+                    continue;
+                }
+                if (!operation.getProcessedAt().isBefore(cutoff)) {
+                    break;
+                }
+                expired.add(operation);
+            }
+            return expired;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteAllById(List<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                if (locations.get(id) != NOT_STORED) {
+                    append(encodeDelete(id));
+                    unindex(id);
+                }
+            }
+            dropDeadSegments();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : segments.values()) {
+                segment.buffer.force();
+                segment.channel.close();
+            }
+            segments.clear();
+            log.info("Closed operation log in {}", directory.toAbsolutePath());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close operation log in " + directory, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(this::isSegmentFile).sorted().toList();
+        }
+
+        for (Path file : files) {
+            Segment segment = openSegment(file);
+            segments.put(segment.number, segment);
+            scan(segment);
+            activeSegment = segment;
+        }
+    }
+
+    private void scan(Segment segment) {
+        int position = 0;
+        int capacity = segment.buffer.capacity();
+        while (position + RECORD_HEADER_BYTES <= capacity) {
+            int bodyLength = segment.buffer.getInt(position);
+            if (bodyLength <= 0 || position + RECORD_HEADER_BYTES + bodyLength > capacity) {
+                break;
+            }
+            byte[] body = new byte[bodyLength];
+            segment.buffer.get(position + RECORD_HEADER_BYTES, body);
+            if (crc(body) != segment.buffer.getInt(position + 4)) {
+                log.warn("Checksum mismatch in {} at offset {}, truncating log there", segment.path, position);
+                break;
+            }
+            replay(segment, position, body);
+            position += RECORD_HEADER_BYTES + bodyLength;
+        }
+        segment.writePosition = position;
+    }
+
+    private void replay(Segment segment, int offset, byte[] body) {
+        if (body[0] == TYPE_PUT_BACKEND || body[0] == TYPE_PUT || body[0] == TYPE_PUT_STRINGS) {
+            Operation operation = decode(body);
+            index(operation.getId(), operation.getApplianceId(), location(segment.number, offset));
+            nextId = Math.max(nextId, operation.getId() + 1);
+        } else if (body[0] == TYPE_DELETE) {
+            long deletedId = decodeDeletedId(body);
+            unindex(deletedId);
+            // The put may sit in a dropped segment; its ID must still never be handed out again, as it can be archived
+            nextId = Math.max(nextId, deletedId + 1);
+        }
+    }
+
+    private void index(long id, String applianceId, long location) {
+        locations.set(id, location);
+        segments.get(segmentNumber(location)).liveRecords++;
+        idsByAppliance.computeIfAbsent(applianceId, key -> new IdList()).add(id, locations);
+        liveCount++;
+    }
+
+    private void unindex(long id) {
+        long location = locations.get(id);
+        if (location == NOT_STORED) {
+            return;
+        }
+        String applianceId = read(location).getApplianceId();
+        locations.clear(id);
+        segments.get(segmentNumber(location)).liveRecords--;
+        liveCount--;
+
+        IdList ids = idsByAppliance.get(applianceId);
+        if (ids != null && --ids.live == 0) {
+            idsByAppliance.remove(applianceId);
+        }
+    }
+
+    // A tombstone always follows its put, so removing dead segments strictly from the oldest end
+    // can never resurrect an operation on recovery
+    private void dropDeadSegments() {
+        while (segments.size() > 1) {
+            Segment oldest = segments.firstEntry().getValue();
+            if (oldest == activeSegment || oldest.liveRecords > 0) {
+                return;
+            }
+            segments.remove(oldest.number);
+            try {
+                oldest.channel.close();
+                Files.deleteIfExists(oldest.path);
+                log.debug("Deleted fully archived log segment {}", oldest.path);
+            } catch (IOException e) {
+                log.warn("Failed to delete log segment {}: {}", oldest.path, e.getMessage());
+            }
+        }
+    }
+
+    private long append(byte[] body) {
+        int recordBytes = RECORD_HEADER_BYTES + body.length;
+        if (recordBytes > segmentSizeBytes) {
+            throw new IllegalArgumentException("Operation record of " + recordBytes + " bytes exceeds segment size " + segmentSizeBytes);
+        }
+        if (activeSegment.writePosition + recordBytes > segmentSizeBytes) {
+            rollSegment();
+        }
+
+        int offset = activeSegment.writePosition;
+        MappedByteBuffer buffer = activeSegment.buffer;
+        buffer.putInt(offset + 4, crc(body));
+        buffer.put(offset + RECORD_HEADER_BYTES, body);
+        // Length goes in last: a write torn before this point reads back as the end of the log
+        buffer.putInt(offset, body.length);
+        activeSegment.writePosition += recordBytes;
+        return location(activeSegment.number, offset);
+    }
+
+    private void rollSegment() {
+        activeSegment.buffer.force();
+        try {
+            activeSegment = createSegment(activeSegment.number + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create log segment in " + directory, e);
+        }
+    }
+
+    private Segment createSegment(long number) throws IOException {
+        Path file = directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Segment segment = new Segment(number, file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSizeBytes));
+        segments.put(number, segment);
+        return segment;
+    }
+
+    private Segment openSegment(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        long number = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(number, file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+    }
+
+    private boolean isSegmentFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private Operation read(long location) {
+        Segment segment = segments.get(segmentNumber(location));
+        int offset = segmentOffset(location);
+        byte[] body = new byte[segment.buffer.getInt(offset)];
+        segment.buffer.get(offset + RECORD_HEADER_BYTES, body);
+        return decode(body);
+    }
+
+    private static long location(long segmentNumber, int offset) {
+        return (segmentNumber << 32) | offset;
+    }
+
+    private static long segmentNumber(long location) {
+        return location >>> 32;
+    }
+
+    private static int segmentOffset(long location) {
+        return (int) location;
+    }
+
+    private static int crc(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    // Same compact form as the JPA row: typed values where they round-trip exactly, verbatim text otherwise
+    private static byte[] encodePut(Operation operation) {
+        OperationRecord record = CompactOperationCodec.toRecord(operation);
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(TYPE_PUT_BACKEND);
+            out.writeLong(record.getId());
+            out.writeByte(record.getTypeCode());
+            Instant processedAt = record.getProcessedAt();
+            out.writeBoolean(processedAt != null);
+            if (processedAt != null) {
+                out.writeLong(processedAt.getEpochSecond());
+                out.writeInt(processedAt.getNano());
+            }
+            writeString(out, record.getApplianceId());
+            writeUuid(out, record.getDrainId(), record.getDrainIdText());
+            if (record.getDrainTimeMillis() != null) {
+                out.writeByte(VALUE_TYPED);
+                out.writeLong(record.getDrainTimeMillis());
+            } else {
+                writeText(out, record.getDrainTimeText());
+            }
+            writeUuid(out, record.getRemediationId(), record.getRemediationIdText());
+            out.writeByte(record.getResultCode());
+            if (record.getResultCode() == CompactOperationCodec.RESULT_OTHER) {
+                writeString(out, record.getResultText());
+            }
+            writeString(out, record.getBackend());
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] encodeDelete(long id) {
+        return ByteBuffer.allocate(1 + Long.BYTES).put(TYPE_DELETE).putLong(id).array();
+    }
+
+    private static Operation decode(byte[] body) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+            byte type = in.readByte();
+            if (type == TYPE_PUT_STRINGS) {
+                return decodeStrings(in);
+            }
+            OperationRecord record = new OperationRecord();
+            record.setId(in.readLong());
+            record.setTypeCode(in.readByte());
+            if (in.readBoolean()) {
+                record.setProcessedAt(Instant.ofEpochSecond(in.readLong(), in.readInt()));
+            }
+            record.setApplianceId(readString(in));
+            byte drainIdTag = in.readByte();
+            if (drainIdTag == VALUE_TYPED) {
+                record.setDrainId(new UUID(in.readLong(), in.readLong()));
+            } else if (drainIdTag == VALUE_TEXT) {
+                record.setDrainIdText(readString(in));
+            }
+            byte drainTimeTag = in.readByte();
+            if (drainTimeTag == VALUE_TYPED) {
+                record.setDrainTimeMillis(in.readLong());
+            } else if (drainTimeTag == VALUE_TEXT) {
+                record.setDrainTimeText(readString(in));
+            }
+            byte remediationIdTag = in.readByte();
+            if (remediationIdTag == VALUE_TYPED) {
+                record.setRemediationId(new UUID(in.readLong(), in.readLong()));
+            } else if (remediationIdTag == VALUE_TEXT) {
+                record.setRemediationIdText(readString(in));
+            }
+            record.setResultCode(in.readByte());
+            if (record.getResultCode() == CompactOperationCodec.RESULT_OTHER) {
+                record.setResultText(readString(in));
+            }
+            if (type == TYPE_PUT_BACKEND) {
+                record.setBackend(readString(in));
+            }
+            return CompactOperationCodec.toOperation(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Records written before the compact format
+    private static Operation decodeStrings(DataInputStream in) throws IOException {
+        Operation operation = new Operation();
+        operation.setId(in.readLong());
+        if (in.readBoolean()) {
+            operation.setProcessedAt(Instant.ofEpochSecond(in.readLong(), in.readInt()));
+        }
+        operation.setApplianceId(readString(in));
+        operation.setOperationType(readString(in));
+        operation.setDrainId(readString(in));
+        operation.setEstimatedTimeToDrain(readString(in));
+        operation.setRemediationId(readString(in));
+        operation.setRemediationResult(readString(in));
+        return operation;
+    }
+
+    private static long decodeDeletedId(byte[] body) {
+        return ByteBuffer.wrap(body, 1, Long.BYTES).getLong();
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID uuid, String text) throws IOException {
+        if (uuid != null) {
+            out.writeByte(VALUE_TYPED);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else {
+            writeText(out, text);
+        }
+    }
+
+    private static void writeText(DataOutputStream out, String text) throws IOException {
+        if (text == null) {
+            out.writeByte(VALUE_ABSENT);
+        } else {
+            out.writeByte(VALUE_TEXT);
+            writeString(out, text);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class Segment {
+        private final long number;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int writePosition;
+        private long liveRecords;
+
+        private Segment(long number, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.number = number;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+
+    // Dense id -> location table; ids are assigned sequentially, and the dead prefix left by retention is
+    // dropped whenever the table has to grow
+    private static final class LocationIndex {
+        private long base = 1;
+        private long[] slots = new long[1024];
+        private int size;
+
+        long get(long id) {
+            long index = id - base;
+            return index < 0 || index >= size ? NOT_STORED : slots[(int) index];
+        }
+
+        void set(long id, long location) {
+            if (size == 0) {
+                base = id;
+            }
+            long index = id - base;
+            while (index >= slots.length) {
+                compactOrGrow();
+                index = id - base;
+            }
+            for (int i = size; i < index; i++) {
+                slots[i] = NOT_STORED;
+            }
+            slots[(int) index] = location;
+            size = Math.max(size, (int) index + 1);
+        }
+
+        void clear(long id) {
+            long index = id - base;
+            if (index >= 0 && index < size) {
+                slots[(int) index] = NOT_STORED;
+            }
+        }
+
+        private void compactOrGrow() {
+            int deadPrefix = 0;
+            while (deadPrefix < size && slots[deadPrefix] == NOT_STORED) {
+                deadPrefix++;
+            }
+            int remaining = size - deadPrefix;
+            long[] target = remaining > slots.length / 2 ? new long[slots.length * 2] : slots;
+            System.arraycopy(slots, deadPrefix, target, 0, remaining);
+            Arrays.fill(target, remaining, target.length, NOT_STORED);
+            slots = target;
+            base += deadPrefix;
+            size = remaining;
+        }
+    }
+
+    // Ids of one appliance in insertion order; deleted ids are skipped on read and dropped when the list grows
+    private static final class IdList {
+        private long[] ids = new long[4];
+        private int size;
+        private long live;
+
+        void add(long id, LocationIndex locations) {
+            if (size == ids.length) {
+                int kept = 0;
+                for (int i = 0; i < size; i++) {
+                    if (locations.get(ids[i]) != NOT_STORED) {
+                        ids[kept++] = ids[i];
+                    }
+                }
+                size = kept;
+                if (size > ids.length / 2) {
+                    ids = Arrays.copyOf(ids, ids.length * 2);
+                }
+            }
+            ids[size++] = id;
+            live++;
+        }
+    }
+}
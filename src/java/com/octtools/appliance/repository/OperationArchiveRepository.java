@@ -0,0 +1,246 @@
+package com.octtools.appliance.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.octtools.appliance.model.Operation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static com.octtools.appliance.config.ConfigProperties.RETENTION_ARCHIVE_DIR;
+
+@Repository
+@Slf4j
+public class OperationArchiveRepository {
+
+    private static final String FILE_PREFIX = "operations-";
+    private static final String FILE_SUFFIX = ".jsonl.gz";
+    private static final String INDEX_SUFFIX = ".index.json";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    // Hour partitions; the name sorts chronologically so newest-first reads are a reverse walk
+    private static final DateTimeFormatter PARTITION_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH").withZone(ZoneOffset.UTC);
+
+    private static final Comparator<Operation> NEWEST_FIRST = Comparator
+            .comparing(Operation::getProcessedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Operation::getId, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final ObjectMapper objectMapper;
+    private final Path archiveDir;
+
+    // Operation counts per partition and appliance, mirrored in a sidecar index file next to each partition, so
+    // counts and skipping whole partitions need no archive reads. Values are replaced, never mutated.
+    private final ConcurrentSkipListMap<String, PartitionIndex> partitionIndexes = new ConcurrentSkipListMap<>();
+
+    public OperationArchiveRepository(ObjectMapper objectMapper, @Value(RETENTION_ARCHIVE_DIR) String archiveDir) {
+        if (archiveDir == null || archiveDir.trim().isEmpty()) {
+            throw new IllegalArgumentException("Archive directory cannot be null or empty");
+        }
+        this.objectMapper = objectMapper;
+        this.archiveDir = Paths.get(archiveDir);
+        loadPartitionIndexes();
+    }
+
+    private void loadPartitionIndexes() {
+        if (!Files.isDirectory(archiveDir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(archiveDir)) {
+            files.map(this::partitionOf)
+                    .filter(Objects::nonNull)
+                    .forEach(partition -> partitionIndexes.put(partition, loadIndex(partition)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to scan archive directory " + archiveDir, e);
+        }
+        log.info("Loaded {} archive partitions from {}", partitionIndexes.size(), archiveDir.toAbsolutePath());
+    }
+
+    // The index records the partition size it covers; a missing index (archives written before indexes existed) or a
+    // stale one (a crash between appending and rewriting it) is rebuilt from the partition once
+    private PartitionIndex loadIndex(String partition) {
+        Path indexFile = indexFileFor(partition);
+        try {
+            long archiveBytes = Files.size(fileFor(partition));
+            if (Files.exists(indexFile)) {
+                PartitionIndex index = objectMapper.readValue(indexFile.toFile(), PartitionIndex.class);
+                if (index.archiveBytes() == archiveBytes) {
+                    return index;
+                }
+            }
+            log.info("Rebuilding index of archive partition {}", partition);
+            PartitionIndex index = PartitionIndex.EMPTY.plus(readPartition(partition), archiveBytes);
+            writeIndex(partition, index);
+            return index;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load index of archive partition " + partition, e);
+        }
+    }
+
+    // Each call appends one gzip member per partition; concatenated members read back as a single stream
+    public synchronized void append(List<Operation> operations) {
+        Map<String, List<Operation>> byPartition = new TreeMap<>();
+        for (Operation operation : operations) {
+            byPartition.computeIfAbsent(PARTITION_FORMAT.format(operation.getProcessedAt()), p -> new ArrayList<>()).add(operation);
+        }
+
+        try {
+            Files.createDirectories(archiveDir);
+            for (Map.Entry<String, List<Operation>> entry : byPartition.entrySet()) {
+                String partition = entry.getKey();
+                writeMember(fileFor(partition), entry.getValue());
+                PartitionIndex index = partitionIndexes.getOrDefault(partition, PartitionIndex.EMPTY)
+                        .plus(entry.getValue(), Files.size(fileFor(partition)));
+                writeIndex(partition, index);
+                partitionIndexes.put(partition, index);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to operation archive in " + archiveDir, e);
+        }
+    }
+
+    private void writeMember(Path file, List<Operation> operations) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+             GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            for (Operation operation : operations) {
+                gzip.write(objectMapper.writeValueAsBytes(operation));
+                gzip.write('\n');
+            }
+        }
+    }
+
+    // Written beside the partition and moved into place, so a reader never sees a half-written index
+    private void writeIndex(String partition, PartitionIndex index) throws IOException {
+        Path indexFile = indexFileFor(partition);
+        Path tempFile = indexFile.resolveSibling(indexFile.getFileName() + TEMP_SUFFIX);
+        objectMapper.writeValue(tempFile.toFile(), index);
+        Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public long count() {
+        return partitionIndexes.values().stream().mapToLong(PartitionIndex::operations).sum();
+    }
+
+    public long count(String applianceId) {
+        if (applianceId == null) {
+            return count();
+        }
+        return partitionIndexes.values().stream().mapToLong(index -> index.count(applianceId)).sum();
+    }
+
+    // Newest-first slice of archived operations, optionally for one appliance; only partitions up to the slice are read
+    public List<Operation> find(String applianceId, long offset, int limit) {
+        List<Operation> result = new ArrayList<>(limit);
+        long toSkip = offset;
+
+        for (Map.Entry<String, PartitionIndex> entry : partitionIndexes.descendingMap().entrySet()) {
+            String partition = entry.getKey();
+            // Partitions wholly inside the offset, or without the appliance, are skipped without reading them
+            long matching = applianceId == null ? entry.getValue().operations() : entry.getValue().count(applianceId);
+            if (toSkip >= matching) {
+                toSkip -= matching;
+                continue;
+            }
+
+            List<Operation> operations = readPartition(partition);
+            if (applianceId != null) {
+                operations.removeIf(op -> !applianceId.equals(op.getApplianceId()));
+            }
+            operations.sort(NEWEST_FIRST);
+
+            for (Operation operation : operations) {
+                if (toSkip > 0) {
+                    toSkip--;
+                } else if (result.size() < limit) {
+                    result.add(operation);
+                }
+            }
+            if (result.size() >= limit) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private List<Operation> readPartition(String partition) {
+        Path file = fileFor(partition);
+        List<Operation> operations = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    operations.add(parse(line));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archive partition " + file, e);
+        }
+        return operations;
+    }
+
+    private Operation parse(String line) throws JsonProcessingException {
+        return objectMapper.readValue(line, Operation.class);
+    }
+
+    private Path fileFor(String partition) {
+        return archiveDir.resolve(FILE_PREFIX + partition + FILE_SUFFIX);
+    }
+
+    private Path indexFileFor(String partition) {
+        return archiveDir.resolve(FILE_PREFIX + partition + INDEX_SUFFIX);
+    }
+
+    private String partitionOf(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(FILE_PREFIX) || !name.endsWith(FILE_SUFFIX)) {
+            return null;
+        }
+        return name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length());
+    }
+
+    // Sidecar index of one partition: its size when indexed, its operation count and the count per appliance
+    record PartitionIndex(long archiveBytes, long operations, Map<String, Long> appliances) {
+
+        static final PartitionIndex EMPTY = new PartitionIndex(0, 0, Map.of());
+
+        long count(String applianceId) {
+            return appliances.getOrDefault(applianceId, 0L);
+        }
+
+        PartitionIndex plus(List<Operation> appended, long archiveBytes) {
+            Map<String, Long> merged = new HashMap<>(appliances);
+            for (Operation operation : appended) {
+                if (operation.getApplianceId() != null) {
+                    merged.merge(operation.getApplianceId(), 1L, Long::sum);
+                }
+            }
+            return new PartitionIndex(archiveBytes, operations + appended.size(), merged);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.octtools.appliance.repository;
+
+import com.octtools.appliance.model.Operation;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Read side of operation storage for the reactive and bulk endpoints; pages are ordered newest first, as in OperationStore
+public interface OperationReader {
+
+    Optional<Operation> findById(Long id);
+
+    Page<Operation> findByApplianceId(String applianceId, Pageable pageable);
+
+    Page<Operation> findAll(Pageable pageable);
+
+    Map<String, List<Operation>> findLatestByApplianceIds(Collection<String> applianceIds, Instant from, Instant to,
+                                                          int limitPerAppliance);
+}
@@ -1,15 +1,20 @@
 package com.octtools.appliance.repository;
 
-import com.octtools.appliance.model.Operation;
+import com.octtools.appliance.model.OperationRecord;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
+
 @Repository
-public interface OperationRepository extends JpaRepository<Operation, Long> {
+public interface OperationRepository extends JpaRepository<OperationRecord, Long> {
+    
+    Page<OperationRecord> findByApplianceIdOrderByProcessedAtDesc(String applianceId, Pageable pageable);
     
-    Page<Operation> findByApplianceIdOrderByProcessedAtDesc(String applianceId, Pageable pageable);
+    Page<OperationRecord> findAllByOrderByProcessedAtDesc(Pageable pageable);
     
-    Page<Operation> findAllByOrderByProcessedAtDesc(Pageable pageable);
+    List<OperationRecord> findByProcessedAtBeforeOrderByProcessedAtAsc(Instant cutoff, Pageable pageable);
 }
@@ -0,0 +1,33 @@
+package com.octtools.appliance.repository;
+
+import com.octtools.appliance.model.Operation;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Storage backend for recorded operations; pages are ordered newest first
+public interface OperationStore {
+
+    Operation save(Operation operation);
+
+    Optional<Operation> findById(Long id);
+
+    Page<Operation> findByApplianceId(String applianceId, Pageable pageable);
+
+    Page<Operation> findAll(Pageable pageable);
+
+    // Up to limitPerAppliance newest operations per appliance, processed in [from, to) when those are non-null.
+    // Appliances without a match are left out of the result
+    Map<String, List<Operation>> findLatestByApplianceIds(Collection<String> applianceIds, Instant from, Instant to,
+                                                          int limitPerAppliance);
+
+    // Oldest first, for retention
+    List<Operation> findProcessedBefore(Instant cutoff, int limit);
+
+    void deleteAllById(List<Long> ids);
+}
@@ -0,0 +1,112 @@
+package com.octtools.appliance.repository;
+
+import com.octtools.appliance.model.Appliance;
+import com.octtools.appliance.model.RemediationTask;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@Repository
+public class RemediationTaskRepository {
+
+    private static final String STATUS_PENDING = "PENDING";
+    private static final String STATUS_CLAIMED = "CLAIMED";
+
+    // One open task per appliance and backend: a still-stale appliance seen again by the next cycle is not queued twice
+    private static final String ENQUEUE_SQL =
+            "INSERT INTO remediation_tasks (appliance_id, backend, op_status, last_heard_from_on, status, attempts, created_at) "
+            + "SELECT ?, ?, ?, ?, '" + STATUS_PENDING + "', 0, ? "
+            + "WHERE NOT EXISTS (SELECT 1 FROM remediation_tasks WHERE appliance_id = ? AND backend IS NOT DISTINCT FROM ?)";
+
+    // One backend's pending tasks plus those whose worker let the lease run out; locked rows belong to another
+    // claimer. Tasks without a backend belong to the first configured one, whose name is the COALESCE default
+    private static final String SELECT_CLAIMABLE_SQL =
+            "SELECT id, appliance_id, backend, op_status, last_heard_from_on, attempts FROM remediation_tasks "
+            + "WHERE (status = '" + STATUS_PENDING + "' OR lease_expires_at <= ?) AND attempts < ? "
+            + "AND COALESCE(backend, ?) = ? "
+            + "ORDER BY id FETCH FIRST ? ROWS ONLY FOR UPDATE SKIP LOCKED";
+
+    private static final String MARK_CLAIMED_SQL =
+            "UPDATE remediation_tasks SET status = '" + STATUS_CLAIMED + "', owner_id = ?, lease_expires_at = ?, "
+            + "attempts = attempts + 1 WHERE id = ?";
+
+    private static final String RELEASE_SQL =
+            "UPDATE remediation_tasks SET status = '" + STATUS_PENDING + "', owner_id = NULL, lease_expires_at = NULL, "
+            + "attempts = attempts - 1 WHERE id = ? AND owner_id = ?";
+
+    private static final String COMPLETE_SQL = "DELETE FROM remediation_tasks WHERE id = ?";
+
+    private static final String PURGE_EXHAUSTED_SQL =
+            "DELETE FROM remediation_tasks WHERE status = '" + STATUS_CLAIMED + "' AND lease_expires_at <= ? AND attempts >= ?";
+
+    private static final String PURGE_UNKNOWN_BACKENDS_SQL =
+            "DELETE FROM remediation_tasks WHERE backend IS NOT NULL AND backend NOT IN (%s)";
+
+    private static final RowMapper<RemediationTask> TASK_ROW_MAPPER = (rs, rowNum) -> new RemediationTask(
+            rs.getLong("id"),
+            new Appliance(rs.getString("appliance_id"), rs.getString("op_status"), rs.getString("last_heard_from_on"),
+                    rs.getString("backend")),
+            rs.getInt("attempts") + 1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public RemediationTaskRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public int enqueue(List<Appliance> appliances, Instant now) {
+        long nowMs = now.toEpochMilli();
+        List<Object[]> rows = appliances.stream()
+                .map(a -> new Object[] {a.getId(), a.getBackend(), a.getOpStatus(), a.getLastHeardFromOn(), nowMs,
+                        a.getId(), a.getBackend()})
+                .toList();
+        return Arrays.stream(jdbcTemplate.batchUpdate(ENQUEUE_SQL, rows)).sum();
+    }
+
+    // defaultBackend is the backend that tasks queued without one belong to
+    public List<RemediationTask> claim(String ownerId, String backend, String defaultBackend, int maxTasks, int maxAttempts,
+                                       Instant now, Duration leaseDuration) {
+        long nowMs = now.toEpochMilli();
+        long leaseExpiresAtMs = now.plus(leaseDuration).toEpochMilli();
+
+        return transactionTemplate.execute(status -> {
+            List<RemediationTask> tasks = jdbcTemplate.query(SELECT_CLAIMABLE_SQL, TASK_ROW_MAPPER, nowMs, maxAttempts,
+                    defaultBackend, backend, maxTasks);
+            if (!tasks.isEmpty()) {
+                List<Object[]> updates = tasks.stream()
+                        .map(t -> new Object[] {ownerId, leaseExpiresAtMs, t.getId()})
+                        .toList();
+                jdbcTemplate.batchUpdate(MARK_CLAIMED_SQL, updates);
+            }
+            return tasks;
+        });
+    }
+
+    public void release(long taskId, String ownerId) {
+        jdbcTemplate.update(RELEASE_SQL, taskId, ownerId);
+    }
+
+    public void complete(long taskId) {
+        jdbcTemplate.update(COMPLETE_SQL, taskId);
+    }
+
+    public int purgeExhausted(int maxAttempts, Instant now) {
+        return jdbcTemplate.update(PURGE_EXHAUSTED_SQL, now.toEpochMilli(), maxAttempts);
+    }
+
+    // Deletes tasks queued for backends outside knownBackends, which no claim would ever pick up
+    public int purgeUnknownBackends(List<String> knownBackends) {
+        String placeholders = String.join(", ", Collections.nCopies(knownBackends.size(), "?"));
+        return jdbcTemplate.update(String.format(PURGE_UNKNOWN_BACKENDS_SQL, placeholders), knownBackends.toArray());
+    }
+}
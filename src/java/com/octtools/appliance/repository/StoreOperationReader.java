@@ -0,0 +1,42 @@
+package com.octtools.appliance.repository;
+
+import com.octtools.appliance.model.Operation;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Backends that do not read from the database (mapped-log) serve reactive reads straight from the store
+public class StoreOperationReader implements OperationReader {
+
+    private final OperationStore operationStore;
+
+    public StoreOperationReader(OperationStore operationStore) {
+        this.operationStore = operationStore;
+    }
+
+    @Override
+    public Optional<Operation> findById(Long id) {
+        return operationStore.findById(id);
+    }
+
+    @Override
+    public Page<Operation> findByApplianceId(String applianceId, Pageable pageable) {
+        return operationStore.findByApplianceId(applianceId, pageable);
+    }
+
+    @Override
+    public Page<Operation> findAll(Pageable pageable) {
+        return operationStore.findAll(pageable);
+    }
+
+    @Override
+    public Map<String, List<Operation>> findLatestByApplianceIds(Collection<String> applianceIds, Instant from, Instant to,
+                                                                 int limitPerAppliance) {
+        return operationStore.findLatestByApplianceIds(applianceIds, from, to, limitPerAppliance);
+    }
+}
@@ -0,0 +1,217 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.model.ActivityBucket;
+import com.octtools.appliance.model.OperationType;
+import com.octtools.appliance.model.RemediationResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.octtools.appliance.config.ConfigProperties.STATS_RETENTION_MINUTES;
+
+@Service
+@Slf4j
+public class ActivityTimeSeries {
+
+    // Results the upstream API may add later share one counter, so a bucket's size stays fixed
+    static final String OTHER_RESULT = "OTHER";
+    private static final RemediationResult[] RESULTS = RemediationResult.values();
+    private static final int RESULT_SLOTS = RESULTS.length + 1;
+
+    private final Clock clock;
+    private final int retentionMinutes;
+
+    // One-minute buckets reused in a ring, so memory is fixed by retention rather than by operation volume
+    private final Bucket[] buckets;
+
+    @Autowired
+    public ActivityTimeSeries(@Value(STATS_RETENTION_MINUTES) int retentionMinutes) {
+        this(retentionMinutes, Clock.systemUTC());
+    }
+
+    ActivityTimeSeries(int retentionMinutes, Clock clock) {
+        validateInputs(retentionMinutes);
+
+        this.clock = clock;
+        this.retentionMinutes = retentionMinutes;
+        this.buckets = new Bucket[retentionMinutes];
+        for (int i = 0; i < retentionMinutes; i++) {
+            buckets[i] = new Bucket();
+        }
+
+        log.info("Initialized ActivityTimeSeries with retentionMinutes={}", retentionMinutes);
+    }
+
+    private void validateInputs(int retentionMinutes) {
+        if (retentionMinutes <= 0) {
+            throw new IllegalArgumentException("Retention minutes must be positive, got: " + retentionMinutes);
+        }
+    }
+
+    public int getRetentionMinutes() {
+        return retentionMinutes;
+    }
+
+    @EventListener
+    public void onOperationRecorded(OperationRecordedEvent event) {
+        OperationType type = OperationType.valueOf(event.operation().getOperationType());
+        Bucket bucket = currentBucket();
+        if (type.includesDrain()) {
+            bucket.drains.increment();
+        }
+        if (type.includesRemediation()) {
+            bucket.remediations.increment();
+            bucket.remediationsByResult[resultSlot(event.operation().getRemediationResult())].increment();
+        }
+    }
+
+    private static int resultSlot(String result) {
+        for (RemediationResult known : RESULTS) {
+            if (known.name().equals(result)) {
+                return known.ordinal();
+            }
+        }
+        return RESULTS.length;
+    }
+
+    public void recordProcessed(long latencyNanos, boolean succeeded) {
+        Bucket bucket = currentBucket();
+        bucket.processed.increment();
+        bucket.latencyNanos.add(latencyNanos);
+        if (!succeeded) {
+            bucket.failures.increment();
+        }
+    }
+
+    public void recordQueueFull() {
+        currentBucket().queueFullRejections.increment();
+    }
+
+    // Newest-last series of `points` buckets, each `resolutionMinutes` wide and aligned to the epoch
+    public List<ActivityBucket> query(int resolutionMinutes, int points) {
+        if (resolutionMinutes <= 0 || points <= 0) {
+            throw new IllegalArgumentException("Resolution and points must be positive");
+        }
+
+        long nowMinute = currentMinute();
+        long oldestRetainedMinute = nowMinute - retentionMinutes + 1;
+        long windowStart = nowMinute - Math.floorMod(nowMinute, resolutionMinutes);
+
+        List<ActivityBucket> series = new ArrayList<>(points);
+        for (int i = 0; i < points && windowStart + resolutionMinutes - 1 >= oldestRetainedMinute; i++) {
+            series.add(aggregate(Math.max(windowStart, oldestRetainedMinute), windowStart + resolutionMinutes - 1, windowStart));
+            windowStart -= resolutionMinutes;
+        }
+        Collections.reverse(series);
+        return series;
+    }
+
+    private ActivityBucket aggregate(long fromMinute, long toMinute, long startMinute) {
+        long drains = 0;
+        long remediations = 0;
+        long failures = 0;
+        long queueFull = 0;
+        long processed = 0;
+        long latencyNanos = 0;
+        long[] byResult = new long[RESULT_SLOTS];
+
+        for (long minute = fromMinute; minute <= toMinute; minute++) {
+            Bucket bucket = buckets[slotFor(minute)];
+            // A slot still holding an older minute has simply had no activity since it wrapped
+            if (bucket.epochMinute != minute) {
+                continue;
+            }
+            drains += bucket.drains.sum();
+            remediations += bucket.remediations.sum();
+            failures += bucket.failures.sum();
+            queueFull += bucket.queueFullRejections.sum();
+            processed += bucket.processed.sum();
+            latencyNanos += bucket.latencyNanos.sum();
+            for (int slot = 0; slot < RESULT_SLOTS; slot++) {
+                byResult[slot] += bucket.remediationsByResult[slot].sum();
+            }
+        }
+
+        // Every result is listed, zero or not, so consumers see the same keys in every bucket
+        Map<String, Long> remediationsByResult = new LinkedHashMap<>();
+        for (RemediationResult known : RESULTS) {
+            remediationsByResult.put(known.name(), byResult[known.ordinal()]);
+        }
+        remediationsByResult.put(OTHER_RESULT, byResult[RESULTS.length]);
+
+        return ActivityBucket.builder()
+                .start(Instant.ofEpochSecond(TimeUnit.MINUTES.toSeconds(startMinute)))
+                .drains(drains)
+                .remediations(remediations)
+                .remediationsByResult(remediationsByResult)
+                .failures(failures)
+                .queueFullRejections(queueFull)
+                .processed(processed)
+                .averageLatencyMs(processed > 0 ? latencyNanos / (processed * 1_000_000.0) : 0.0)
+                .build();
+    }
+
+    private Bucket currentBucket() {
+        long minute = currentMinute();
+        Bucket bucket = buckets[slotFor(minute)];
+        if (bucket.epochMinute != minute) {
+            bucket.rollTo(minute);
+        }
+        return bucket;
+    }
+
+    private long currentMinute() {
+        return TimeUnit.MILLISECONDS.toMinutes(clock.millis());
+    }
+
+    private int slotFor(long minute) {
+        return (int) Math.floorMod(minute, (long) retentionMinutes);
+    }
+
+    private static final class Bucket {
+        private volatile long epochMinute = Long.MIN_VALUE;
+        private final LongAdder drains = new LongAdder();
+        private final LongAdder remediations = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder queueFullRejections = new LongAdder();
+        private final LongAdder processed = new LongAdder();
+        private final LongAdder latencyNanos = new LongAdder();
+        private final LongAdder[] remediationsByResult = new LongAdder[RESULT_SLOTS];
+
+        Bucket() {
+            for (int slot = 0; slot < RESULT_SLOTS; slot++) {
+                remediationsByResult[slot] = new LongAdder();
+            }
+        }
+
+        // Taken once per slot per minute; the minute is published after the reset, so no writer
+        // that has seen it can have its increment wiped
+        synchronized void rollTo(long minute) {
+            if (epochMinute >= minute) {
+                return;
+            }
+            drains.reset();
+            remediations.reset();
+            failures.reset();
+            queueFullRejections.reset();
+            processed.reset();
+            latencyNanos.reset();
+            for (LongAdder count : remediationsByResult) {
+                count.reset();
+            }
+            epochMinute = minute;
+        }
+    }
+}
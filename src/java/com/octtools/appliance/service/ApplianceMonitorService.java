@@ -1,148 +1,342 @@
 package com.octtools.appliance.service;
 
 import com.octtools.appliance.client.ApplianceApiClient;
+import com.octtools.appliance.client.ApplianceBackend;
+import com.octtools.appliance.client.ApplianceBackends;
+import com.octtools.appliance.logging.LogSampler;
 import com.octtools.appliance.model.Appliance;
 import com.octtools.appliance.model.api.AppliancePageResponse;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static com.octtools.appliance.config.ConfigProperties.API_PAGE_SIZE;
-import static com.octtools.appliance.config.ConfigProperties.PROCESSING_STALE_THRESHOLD_MINUTES;
+import static com.octtools.appliance.config.ConfigProperties.MONITORING_RESUME_MAX_ATTEMPTS;
 
 @Service
 @Slf4j
 public class ApplianceMonitorService {
     
-    private static final int MONITORING_INTERVAL_MS = 300000;
-    
-    private static final String LIVE_STATUS = "LIVE";
-    
-    private int totalAppliancesProcessed;
-    private int staleAppliancesFound;
+    private static final int STALE_LOG_LINES_PER_SECOND = 10;
+    // Ceiling for configured and runtime-tuned page sizes, so one page cannot balloon the heap
+    static final int MAX_PAGE_SIZE = 1000;
     
     private final ApplianceApiClient apiClient;
+    private final ApplianceBackends backends;
+    // Each backend is collected by its own cycle, so cycle progress and checkpoints are kept per backend
+    private final Map<String, BackendCollection> collections = new LinkedHashMap<>();
     private final RemediationProcessor remediationProcessor;
-    private final int pageSize;
-    private final Duration staleThreshold;
+    private final RemediationTaskQueue taskQueue;
+    private final LeaderElectionService leaderElection;
+    private final StalenessTimingWheel timingWheel;
+    private final CollectionBackpressure backpressure;
+    private final StalenessPolicyService stalenessPolicies;
+    private final int maxResumeAttempts;
+    // Tunable at runtime through ProcessingTuner; each page reads the current value
+    private volatile int pageSize;
+    // An outage wave makes thousands of appliances stale at once; the cycle summary carries the count
+    private final LogSampler staleLogSampler = new LogSampler(STALE_LOG_LINES_PER_SECOND);
 
     public ApplianceMonitorService(
             ApplianceApiClient apiClient,
+            ApplianceBackends backends,
             RemediationProcessor remediationProcessor,
+            RemediationTaskQueue taskQueue,
+            LeaderElectionService leaderElection,
+            StalenessTimingWheel timingWheel,
+            CollectionBackpressure backpressure,
+            StalenessPolicyService stalenessPolicies,
             @Value(API_PAGE_SIZE) int pageSize,
-            @Value(PROCESSING_STALE_THRESHOLD_MINUTES) int staleThresholdMinutes) {
+            @Value(MONITORING_RESUME_MAX_ATTEMPTS) int maxResumeAttempts) {
         
-        validateInputs(pageSize, staleThresholdMinutes);
+        validateInputs(pageSize, maxResumeAttempts);
         
         this.apiClient = apiClient;
+        this.backends = backends;
+        for (String name : backends.names()) {
+            collections.put(name, new BackendCollection(name));
+        }
         this.remediationProcessor = remediationProcessor;
+        this.taskQueue = taskQueue;
+        this.leaderElection = leaderElection;
+        this.timingWheel = timingWheel;
+        this.backpressure = backpressure;
+        this.stalenessPolicies = stalenessPolicies;
         this.pageSize = pageSize;
-        this.staleThreshold = Duration.ofMinutes(staleThresholdMinutes);
+        this.maxResumeAttempts = maxResumeAttempts;
+        timingWheel.setExpiryHandler(this::onPredictedStale);
         
-        log.info("Initialized ApplianceMonitorService with pageSize={}, staleThreshold={}min", 
-                pageSize, staleThresholdMinutes);
+        log.info("Initialized ApplianceMonitorService with backends={}, pageSize={}, staleThreshold={}min, maxResumeAttempts={}", 
+                backends.names(), pageSize, stalenessPolicies.getDefaultThresholdMinutes(), maxResumeAttempts);
+    }
+
+    private void validateInputs(int pageSize, int maxResumeAttempts) {
+        validatePageSize(pageSize);
+        if (maxResumeAttempts < 0) {
+            throw new IllegalArgumentException("Max resume attempts must not be negative, got: " + maxResumeAttempts);
+        }
     }
 
-    private void validateInputs(int pageSize, int staleThresholdMinutes) {
+    private static void validatePageSize(int pageSize) {
         if (pageSize <= 0) {
             throw new IllegalArgumentException("Page size must be positive, got: " + pageSize);
         }
+        if (pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must not exceed " + MAX_PAGE_SIZE + ", got: " + pageSize);
+        }
+    }
+
+    static void validateCollectionSettings(int pageSize, int staleThresholdMinutes) {
+        validatePageSize(pageSize);
         if (staleThresholdMinutes <= 0) {
             throw new IllegalArgumentException("Stale threshold minutes must be positive, got: " + staleThresholdMinutes);
         }
     }
 
-    @Scheduled(fixedRate = MONITORING_INTERVAL_MS)
-    public void collectAndQueueStaleAppliances() {
-        log.info("Starting appliance collection cycle");
+    // Takes effect from the next page fetched (backends with their own page size keep it); the threshold is the one
+    // staleness rules without their own fall back to. Deadlines already armed in the timing wheel keep the old
+    // threshold until the appliance is seen again
+    public void updateCollectionSettings(int pageSize, int staleThresholdMinutes) {
+        validateCollectionSettings(pageSize, staleThresholdMinutes);
+        this.pageSize = pageSize;
+        stalenessPolicies.updateDefaultThreshold(staleThresholdMinutes);
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getStaleThresholdMinutes() {
+        return stalenessPolicies.getDefaultThresholdMinutes();
+    }
+
+    // Driven by CollectionCadenceController, which runs one cycle loop per backend and schedules each backend's
+    // next cycle once this one returns. Cycles of different backends run concurrently.
+    public void collectAndQueueStaleAppliances(String backend) {
+        BackendCollection collection = collection(backend);
+        // Runs on followers too, which still process claimed tasks in queue mode
+        remediationProcessor.logSummary(backend);
+        
+        if (!leaderElection.isLeader()) {
+            log.debug("Skipping appliance collection cycle for {}: this instance is not the leader", backend);
+            timingWheel.clear();
+            collection.resumePending = false;
+            return;
+        }
+        
+        if (collection.resumePending) {
+            log.info("Resuming appliance collection cycle for {} after page {} (resume attempt {} of {})",
+                    backend, collection.pagesFetched, collection.resumeAttempts, maxResumeAttempts);
+        } else {
+            log.info("Starting appliance collection cycle for {}", backend);
+        }
         Instant startTime = Instant.now();
         
         try {
-            fetchAndQueueStaleAppliances();
+            fetchAndQueueStaleAppliances(collection);
+            collection.lastSuccessfulCycleAt = Instant.now();
             
-            Duration elapsed = Duration.between(startTime, Instant.now());
-            log.info("Collection cycle completed: {} total appliances, {} stale (took {}ms)", 
-                    totalAppliancesProcessed, staleAppliancesFound, elapsed.toMillis());
+            // A resumed cycle is timed from its original start, so the report covers one full pass over the fleet
+            Duration elapsed = Duration.between(collection.cycleStartTime, Instant.now());
+            log.info("Collection cycle for {} completed: {} total appliances, {} stale (took {}ms, held back {}ms by processing backlog, resumed {} times)", 
+                    backend, collection.totalAppliancesProcessed, collection.staleAppliancesFound, elapsed.toMillis(),
+                    collection.collectionHeldBack.toMillis(), collection.resumeAttempts);
             
             // Emit metrics for monitoring
-            log.debug("METRIC: appliances.total.count={}", totalAppliancesProcessed);
-            log.debug("METRIC: appliances.stale.count={}", staleAppliancesFound);
-            log.debug("METRIC: collection.duration.ms={}", elapsed.toMillis());
-            log.debug("METRIC: collection.success.ratio=1");
+            log.debug("METRIC: appliances.total.count={} backend={}", collection.totalAppliancesProcessed, backend);
+            log.debug("METRIC: appliances.stale.count={} backend={}", collection.staleAppliancesFound, backend);
+            log.debug("METRIC: collection.duration.ms={} backend={}", elapsed.toMillis(), backend);
+            log.debug("METRIC: collection.held_back.ms={} backend={}", collection.collectionHeldBack.toMillis(), backend);
+            log.debug("METRIC: collection.resumes.count={} backend={}", collection.resumeAttempts, backend);
+            log.debug("METRIC: collection.success.ratio=1 backend={}", backend);
             
         } catch (Exception e) {
             Duration elapsed = Duration.between(startTime, Instant.now());
-            log.error("Collection cycle failed after {}ms", elapsed.toMillis(), e);
-            log.debug("METRIC: collection.success.ratio=0");
-            log.debug("METRIC: collection.failures.count=1");
+            log.error("Collection cycle for {} failed after {}ms", backend, elapsed.toMillis(), e);
+            log.debug("METRIC: collection.success.ratio=0 backend={}", backend);
+            log.debug("METRIC: collection.failures.count=1 backend={}", backend);
+        }
+    }
+
+    // Whether the backend's last cycle failed part-way and its next cycle continues from the checkpoint
+    public boolean isResumePending(String backend) {
+        return collection(backend).resumePending;
+    }
+
+    // Whether any backend has a checkpointed cycle
+    public boolean isResumePending() {
+        return collections.values().stream().anyMatch(collection -> collection.resumePending);
+    }
+
+    // Completion time of the oldest last full-fleet cycle across backends; empty until every backend has completed one
+    public Optional<Instant> getLastSuccessfulCycleAt() {
+        Instant oldest = null;
+        for (BackendCollection collection : collections.values()) {
+            Instant completedAt = collection.lastSuccessfulCycleAt;
+            if (completedAt == null) {
+                return Optional.empty();
+            }
+            if (oldest == null || completedAt.isBefore(oldest)) {
+                oldest = completedAt;
+            }
         }
+        return Optional.ofNullable(oldest);
+    }
+
+    private BackendCollection collection(String backend) {
+        // Resolving through ApplianceBackends rejects unknown names
+        return collections.get(backends.get(backend).getName());
     }
 
-    private void fetchAndQueueStaleAppliances() {
-        totalAppliancesProcessed = 0;
-        staleAppliancesFound = 0;
-        String after = null;
-        int pageCount = 0;
+    private void fetchAndQueueStaleAppliances(BackendCollection collection) {
+        ApplianceBackend backend = backends.get(collection.backend);
+        String after;
+        if (collection.resumePending) {
+            // Pages before the checkpoint were already dispatched, so they are not fetched or evaluated again
+            after = collection.resumeCursor;
+            collection.resumePending = false;
+        } else {
+            after = null;
+            collection.totalAppliancesProcessed = 0;
+            collection.staleAppliancesFound = 0;
+            collection.collectionHeldBack = Duration.ZERO;
+            collection.pagesFetched = 0;
+            collection.resumeAttempts = 0;
+            collection.cycleStartTime = Instant.now();
+        }
         Instant now = Instant.now();
         
         do {
             try {
-                AppliancePageResponse response = apiClient.getAppliances(after, pageSize);
+                long pageStartNanos = System.nanoTime();
+                int backendPageSize = backend.getPageSize() != null ? backend.getPageSize() : pageSize;
+                AppliancePageResponse response = apiClient.getAppliances(collection.backend, after, backendPageSize);
                 
                 if (response != null && response.getData() != null) {
                     List<Appliance> pageAppliances = response.getData();
-                    totalAppliancesProcessed += pageAppliances.size();
-                    pageCount++;
+                    collection.totalAppliancesProcessed += pageAppliances.size();
+                    collection.pagesFetched++;
                     
                     // Filter and process stale appliances immediately
+                    List<Appliance> staleAppliances = new ArrayList<>();
                     for (Appliance appliance : pageAppliances) {
+                        appliance.setBackend(collection.backend);
                         if (needsRemediation(appliance, now)) {
-                            remediationProcessor.processAppliance(appliance);
-                            staleAppliancesFound++;
+                            staleAppliances.add(appliance);
+                            timingWheel.cancel(collection.backend, appliance.getId());
+                        } else if (timingWheel.isEnabled()) {
+                            trackStalenessDeadline(appliance);
                         }
                     }
+                    dispatchStaleAppliances(staleAppliances, pageStartNanos);
+                    collection.staleAppliancesFound += staleAppliances.size();
                     
                     if (response.getPageInfo() != null) {
                         after = response.getPageInfo().getEndCursor();
                         if (!response.getPageInfo().isHasNextPage()) {
                             break;
                         }
+                        holdBackWhileBacklogged(collection);
                     } else {
                         break;
                     }
                 } else {
-                    log.warn("Received null or empty response from API");
+                    log.warn("Received null or empty response from API backend {}", collection.backend);
                     break;
                 }
                 
             } catch (Exception e) {
-                log.error("Failed to fetch appliances page {} (after: {})", pageCount + 1, after, e);
+                log.error("Failed to fetch appliances page {} from {} (after: {})",
+                        collection.pagesFetched + 1, collection.backend, after, e);
+                checkpoint(collection, after);
                 throw e;
             }
             
         } while (after != null);
         
-        log.info("Processed {} appliances across {} pages", totalAppliancesProcessed, pageCount);
+        log.info("Processed {} appliances from {} across {} pages",
+                collection.totalAppliancesProcessed, collection.backend, collection.pagesFetched);
     }
 
+    private void checkpoint(BackendCollection collection, String after) {
+        if (collection.resumeAttempts >= maxResumeAttempts) {
+            log.warn("Collection cycle for {} failed after {} resume attempts, next cycle starts from the first page",
+                    collection.backend, collection.resumeAttempts);
+            return;
+        }
+        collection.resumePending = true;
+        collection.resumeCursor = after;
+        collection.resumeAttempts++;
+        log.info("Checkpointed collection cycle for {} after page {} ({} appliances, {} stale so far)",
+                collection.backend, collection.pagesFetched, collection.totalAppliancesProcessed, collection.staleAppliancesFound);
+    }
+
+    // Queue mode hands work to the shared task table instead of the local executor, so there is no local backlog
+    private void holdBackWhileBacklogged(BackendCollection collection) {
+        if (!taskQueue.isEnabled()) {
+            collection.collectionHeldBack = collection.collectionHeldBack.plus(
+                    backpressure.awaitCapacity(collection.collectionHeldBack));
+        }
+    }
+
+    // Arm a timer for when this heartbeat goes stale, so detection does not wait for the next full scan
+    private void trackStalenessDeadline(Appliance appliance) {
+        Duration threshold = stalenessPolicies.current().thresholdFor(appliance.getId(), appliance.getOpStatus());
+        if (threshold == null || appliance.getLastHeardFromOn() == null) {
+            timingWheel.cancel(appliance.getBackend(), appliance.getId());
+            return;
+        }
+        try {
+            Instant lastContact = Instant.parse(appliance.getLastHeardFromOn());
+            timingWheel.schedule(appliance, lastContact.plus(threshold));
+        } catch (Exception e) {
+            timingWheel.cancel(appliance.getBackend(), appliance.getId());
+        }
+    }
+
+    void onPredictedStale(Appliance appliance) {
+        if (!leaderElection.isLeader()) {
+            return;
+        }
+        log.debug("Appliance {} predicted stale: no fresher heartbeat seen since {}",
+                appliance.getId(), appliance.getLastHeardFromOn());
+        dispatchStaleAppliances(List.of(appliance), System.nanoTime());
+    }
+
+    private void dispatchStaleAppliances(List<Appliance> staleAppliances, long detectionStartNanos) {
+        if (taskQueue.isEnabled()) {
+            // Queue mode: workers on any instance claim these from the remediation_tasks table
+            taskQueue.enqueue(staleAppliances);
+        } else {
+            for (Appliance appliance : staleAppliances) {
+                remediationProcessor.processStaleAppliance(appliance, detectionStartNanos);
+            }
+        }
+    }
 
 
     boolean needsRemediation(Appliance appliance, Instant now) {
-        // Must be LIVE status
-        if (!LIVE_STATUS.equals(appliance.getOpStatus())) {
+        // Status and ID select the threshold; appliances no rule covers (by default anything not LIVE) are never stale
+        Duration staleThreshold = stalenessPolicies.current().thresholdFor(appliance.getId(), appliance.getOpStatus());
+        if (staleThreshold == null) {
             return false;
         }
         
         // Check if lastHeardFromOn is null or stale
         String lastHeardFromOn = appliance.getLastHeardFromOn();
         if (lastHeardFromOn == null) {
-            log.debug("Appliance {} needs remediation: lastHeardFromOn is null", appliance.getId());
+            if (staleLogSampler.tryAcquire()) {
+                log.debug("Appliance {} needs remediation: lastHeardFromOn is null", appliance.getId());
+            }
             return true;
         }
         
@@ -151,8 +345,10 @@ public class ApplianceMonitorService {
             Duration timeSinceContact = Duration.between(lastContact, now);
             
             if (timeSinceContact.compareTo(staleThreshold) > 0) {
-                log.debug("Appliance {} needs remediation: last contact {} min ago",
-                        appliance.getId(), timeSinceContact.toMinutes());
+                if (staleLogSampler.tryAcquire()) {
+                    log.debug("Appliance {} needs remediation: last contact {} min ago",
+                            appliance.getId(), timeSinceContact.toMinutes());
+                }
                 return true;
             }
             
@@ -164,4 +360,24 @@ public class ApplianceMonitorService {
         
         return false;
     }
+
+    // Progress of one backend's current cycle; only its own cycle loop writes these, the health check reads them
+    private static final class BackendCollection {
+        private final String backend;
+        private int totalAppliancesProcessed;
+        private int staleAppliancesFound;
+        private Duration collectionHeldBack = Duration.ZERO;
+        private int pagesFetched;
+        private Instant cycleStartTime;
+        private volatile Instant lastSuccessfulCycleAt;
+
+        // Checkpoint of a failed cycle: the endCursor of its last fully dispatched page (null before the first page)
+        private volatile boolean resumePending;
+        private String resumeCursor;
+        private int resumeAttempts;
+
+        private BackendCollection(String backend) {
+            this.backend = backend;
+        }
+    }
 }
@@ -0,0 +1,164 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.model.ApplianceSummary;
+import com.octtools.appliance.model.Operation;
+import com.octtools.appliance.model.OperationType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.octtools.appliance.config.ConfigProperties.SUMMARIES_LEADERBOARD_SIZE;
+
+@Service
+@Slf4j
+public class ApplianceSummaryService {
+
+    private static final Comparator<RankEntry> MOST_REMEDIATED_FIRST = Comparator
+            .comparingLong(RankEntry::remediateCount).reversed()
+            .thenComparing(RankEntry::applianceId);
+
+    private final int leaderboardSize;
+    private final ConcurrentHashMap<String, SummaryCounters> summaries = new ConcurrentHashMap<>();
+
+    // Bounded ranking updated on each remediation so top-N reads never scan the fleet
+    private final TreeSet<RankEntry> leaderboard = new TreeSet<>(MOST_REMEDIATED_FIRST);
+    private final Map<String, RankEntry> leaderboardEntries = new HashMap<>();
+
+    public ApplianceSummaryService(@Value(SUMMARIES_LEADERBOARD_SIZE) int leaderboardSize) {
+        validateInputs(leaderboardSize);
+        this.leaderboardSize = leaderboardSize;
+        log.info("Initialized ApplianceSummaryService with leaderboardSize={}", leaderboardSize);
+    }
+
+    private void validateInputs(int leaderboardSize) {
+        if (leaderboardSize <= 0) {
+            throw new IllegalArgumentException("Leaderboard size must be positive, got: " + leaderboardSize);
+        }
+    }
+
+    public int getLeaderboardSize() {
+        return leaderboardSize;
+    }
+
+    @EventListener
+    public void onOperationRecorded(OperationRecordedEvent event) {
+        record(event.operation());
+    }
+
+    void record(Operation operation) {
+        SummaryCounters counters = summaries.computeIfAbsent(operation.getApplianceId(), id -> new SummaryCounters());
+        Instant processedAt = operation.getProcessedAt();
+        OperationType type = OperationType.valueOf(operation.getOperationType());
+
+        // A remediation cycle row counts as both steps
+        if (type.includesDrain()) {
+            counters.drainCount.increment();
+            counters.lastDrainAt.accumulateAndGet(processedAt, ApplianceSummaryService::latest);
+        }
+        if (type.includesRemediation()) {
+            counters.remediateCount.increment();
+            // Time and result are swapped in as one value so readers never see a mismatched pair
+            LastRemediation candidate = new LastRemediation(processedAt, operation.getRemediationResult());
+            counters.lastRemediation.accumulateAndGet(candidate, LastRemediation::latest);
+            updateLeaderboard(operation.getApplianceId(), counters.remediateCount.sum());
+        }
+    }
+
+    public Optional<ApplianceSummary> getSummary(String applianceId) {
+        SummaryCounters counters = summaries.get(applianceId);
+        if (counters == null) {
+            return Optional.empty();
+        }
+        LastRemediation lastRemediation = counters.lastRemediation.get();
+        return Optional.of(ApplianceSummary.builder()
+                .applianceId(applianceId)
+                .drainCount(counters.drainCount.sum())
+                .remediateCount(counters.remediateCount.sum())
+                .lastDrainAt(counters.lastDrainAt.get())
+                .lastRemediateAt(lastRemediation != null ? lastRemediation.at() : null)
+                .lastRemediationResult(lastRemediation != null ? lastRemediation.result() : null)
+                .build());
+    }
+
+    public List<ApplianceSummary> getMostRemediated(int limit) {
+        List<String> applianceIds = new ArrayList<>(Math.min(limit, leaderboardSize));
+        synchronized (leaderboard) {
+            for (RankEntry entry : leaderboard) {
+                if (applianceIds.size() >= limit) {
+                    break;
+                }
+                applianceIds.add(entry.applianceId());
+            }
+        }
+        List<ApplianceSummary> result = new ArrayList<>(applianceIds.size());
+        for (String applianceId : applianceIds) {
+            getSummary(applianceId).ifPresent(result::add);
+        }
+        return result;
+    }
+
+    private void updateLeaderboard(String applianceId, long remediateCount) {
+        synchronized (leaderboard) {
+            RankEntry previous = leaderboardEntries.get(applianceId);
+            if (previous != null) {
+                if (previous.remediateCount() >= remediateCount) {
+                    return;
+                }
+                leaderboard.remove(previous);
+            } else if (leaderboard.size() >= leaderboardSize
+                    && MOST_REMEDIATED_FIRST.compare(new RankEntry(applianceId, remediateCount), leaderboard.last()) > 0) {
+                return;
+            }
+
+            RankEntry entry = new RankEntry(applianceId, remediateCount);
+            leaderboard.add(entry);
+            leaderboardEntries.put(applianceId, entry);
+
+            // Counts only grow, so an evicted appliance re-enters as soon as it overtakes the tail
+            if (leaderboard.size() > leaderboardSize) {
+                RankEntry evicted = leaderboard.pollLast();
+                leaderboardEntries.remove(evicted.applianceId());
+            }
+        }
+    }
+
+    private static Instant latest(Instant current, Instant candidate) {
+        if (current == null) {
+            return candidate;
+        }
+        return candidate != null && candidate.isAfter(current) ? candidate : current;
+    }
+
+    private static final class SummaryCounters {
+        private final LongAdder drainCount = new LongAdder();
+        private final LongAdder remediateCount = new LongAdder();
+        private final AtomicReference<Instant> lastDrainAt = new AtomicReference<>();
+        private final AtomicReference<LastRemediation> lastRemediation = new AtomicReference<>();
+    }
+
+    private record LastRemediation(Instant at, String result) {
+
+        static LastRemediation latest(LastRemediation current, LastRemediation candidate) {
+            if (current == null || current.at() == null) {
+                return candidate;
+            }
+            return candidate.at() != null && candidate.at().isAfter(current.at()) ? candidate : current;
+        }
+    }
+
+    private record RankEntry(String applianceId, long remediateCount) {
+    }
+}
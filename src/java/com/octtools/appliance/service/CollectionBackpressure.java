@@ -0,0 +1,86 @@
+package com.octtools.appliance.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+import static com.octtools.appliance.config.ConfigProperties.BACKPRESSURE_HIGH_WATER_MARK;
+import static com.octtools.appliance.config.ConfigProperties.BACKPRESSURE_LOW_WATER_MARK;
+import static com.octtools.appliance.config.ConfigProperties.BACKPRESSURE_MAX_WAIT_SECONDS;
+import static com.octtools.appliance.config.ConfigProperties.BACKPRESSURE_POLL_INTERVAL_MS;
+
+// Holds collection between pages while the processing backlog is above the high-water mark, until it drains
+// to the low-water mark, so stale appliances are not found only to be rejected by a full executor queue
+@Service
+@Slf4j
+public class CollectionBackpressure {
+
+    private final RemediationProcessor remediationProcessor;
+    private final double highWaterMark;
+    private final double lowWaterMark;
+    private final Duration maxWaitPerCycle;
+    private final long pollIntervalMs;
+
+    public CollectionBackpressure(
+            RemediationProcessor remediationProcessor,
+            @Value(BACKPRESSURE_HIGH_WATER_MARK) double highWaterMark,
+            @Value(BACKPRESSURE_LOW_WATER_MARK) double lowWaterMark,
+            @Value(BACKPRESSURE_MAX_WAIT_SECONDS) int maxWaitSeconds,
+            @Value(BACKPRESSURE_POLL_INTERVAL_MS) long pollIntervalMs) {
+
+        validateInputs(highWaterMark, lowWaterMark, maxWaitSeconds, pollIntervalMs);
+
+        this.remediationProcessor = remediationProcessor;
+        this.highWaterMark = highWaterMark;
+        this.lowWaterMark = lowWaterMark;
+        this.maxWaitPerCycle = Duration.ofSeconds(maxWaitSeconds);
+        this.pollIntervalMs = pollIntervalMs;
+
+        log.info("Initialized CollectionBackpressure with highWaterMark={}, lowWaterMark={}, maxWaitPerCycle={}s, pollInterval={}ms",
+                highWaterMark, lowWaterMark, maxWaitSeconds, pollIntervalMs);
+    }
+
+    private void validateInputs(double highWaterMark, double lowWaterMark, int maxWaitSeconds, long pollIntervalMs) {
+        if (highWaterMark <= 0 || highWaterMark > 1) {
+            throw new IllegalArgumentException("High-water mark must be in (0, 1], got: " + highWaterMark);
+        }
+        if (lowWaterMark < 0 || lowWaterMark >= highWaterMark) {
+            throw new IllegalArgumentException("Low-water mark must be in [0, high-water mark), got: " + lowWaterMark);
+        }
+        if (maxWaitSeconds < 0) {
+            throw new IllegalArgumentException("Max wait seconds must not be negative, got: " + maxWaitSeconds);
+        }
+        if (pollIntervalMs <= 0) {
+            throw new IllegalArgumentException("Poll interval must be positive, got: " + pollIntervalMs);
+        }
+    }
+
+    // Called between pages; returns how long this call held collection back. heldBackThisCycle counts earlier
+    // waits in the same cycle, so a backlog that never drains delays the cycle by at most the max wait.
+    public Duration awaitCapacity(Duration heldBackThisCycle) {
+        if (remediationProcessor.queueUtilization() < highWaterMark) {
+            return Duration.ZERO;
+        }
+
+        Duration budget = maxWaitPerCycle.minus(heldBackThisCycle);
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + Math.max(0, budget.toNanos());
+        try {
+            while (remediationProcessor.queueUtilization() > lowWaterMark && System.nanoTime() < deadlineNanos) {
+                Thread.sleep(pollIntervalMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        Duration waited = Duration.ofNanos(System.nanoTime() - startNanos);
+        if (remediationProcessor.queueUtilization() > lowWaterMark) {
+            log.warn("Processing backlog still at {}% after holding collection back {}ms this cycle, resuming anyway",
+                    Math.round(remediationProcessor.queueUtilization() * 100), heldBackThisCycle.plus(waited).toMillis());
+        }
+        log.debug("METRIC: collection.backpressure.wait.ms={}", waited.toMillis());
+        return waited;
+    }
+}
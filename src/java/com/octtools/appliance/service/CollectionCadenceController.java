@@ -0,0 +1,206 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.client.ApplianceBackends;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+import static com.octtools.appliance.config.ConfigProperties.MONITORING_MAX_DETECTION_LATENCY_MINUTES;
+import static com.octtools.appliance.config.ConfigProperties.MONITORING_MAX_INTERVAL_SECONDS;
+import static com.octtools.appliance.config.ConfigProperties.MONITORING_MIN_INTERVAL_SECONDS;
+import static com.octtools.appliance.config.ConfigProperties.MONITORING_RESUME_DELAY_SECONDS;
+import static com.octtools.appliance.config.ConfigProperties.PROCESSING_STALE_THRESHOLD_MINUTES;
+
+@Service
+@Slf4j
+public class CollectionCadenceController {
+
+    // Executor queue utilization where we start stretching the interval, and where we wait the maximum
+    private static final double BACKOFF_START_UTILIZATION = 0.5;
+    private static final double FULL_BACKOFF_UTILIZATION = 0.9;
+    // Key of the startup warmup in nextCycles; backend loops are keyed by backend name
+    private static final String WARMUP = "";
+
+    private final ApplianceMonitorService monitorService;
+    private final ApplianceBackends backends;
+    private final RemediationProcessor remediationProcessor;
+    private final TaskScheduler taskScheduler;
+    private final StartupWarmup startupWarmup;
+    private final Duration maxDetectionLatency;
+    private volatile Duration scanBudget;
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final Duration resumeDelay;
+
+    private volatile boolean stopped;
+    // Pending warmup or next cycle of each backend's loop
+    private final Map<String, ScheduledFuture<?>> nextCycles = new ConcurrentHashMap<>();
+
+    public CollectionCadenceController(
+            ApplianceMonitorService monitorService,
+            ApplianceBackends backends,
+            RemediationProcessor remediationProcessor,
+            TaskScheduler taskScheduler,
+            StartupWarmup startupWarmup,
+            @Value(PROCESSING_STALE_THRESHOLD_MINUTES) int staleThresholdMinutes,
+            @Value(MONITORING_MAX_DETECTION_LATENCY_MINUTES) int maxDetectionLatencyMinutes,
+            @Value(MONITORING_MIN_INTERVAL_SECONDS) int minIntervalSeconds,
+            @Value(MONITORING_MAX_INTERVAL_SECONDS) int maxIntervalSeconds,
+            @Value(MONITORING_RESUME_DELAY_SECONDS) int resumeDelaySeconds) {
+
+        validateInputs(staleThresholdMinutes, maxDetectionLatencyMinutes, minIntervalSeconds, maxIntervalSeconds, resumeDelaySeconds);
+
+        this.monitorService = monitorService;
+        this.backends = backends;
+        this.remediationProcessor = remediationProcessor;
+        this.taskScheduler = taskScheduler;
+        this.startupWarmup = startupWarmup;
+        // Worst-case detection latency = stale threshold + delay between cycles + cycle duration. Budgeted against the
+        // global threshold; appliance classes with their own staleness rule are detected earlier or later by the difference
+        this.maxDetectionLatency = Duration.ofMinutes(maxDetectionLatencyMinutes);
+        this.scanBudget = Duration.ofMinutes(maxDetectionLatencyMinutes - staleThresholdMinutes);
+        this.minInterval = Duration.ofSeconds(minIntervalSeconds);
+        this.maxInterval = Duration.ofSeconds(maxIntervalSeconds);
+        this.resumeDelay = Duration.ofSeconds(resumeDelaySeconds);
+
+        log.info("Initialized CollectionCadenceController with maxDetectionLatency={}min, minInterval={}s, maxInterval={}s, resumeDelay={}s",
+                maxDetectionLatencyMinutes, minIntervalSeconds, maxIntervalSeconds, resumeDelaySeconds);
+    }
+
+    private void validateInputs(int staleThresholdMinutes, int maxDetectionLatencyMinutes,
+                                int minIntervalSeconds, int maxIntervalSeconds, int resumeDelaySeconds) {
+        validateStaleThreshold(staleThresholdMinutes, maxDetectionLatencyMinutes);
+        if (minIntervalSeconds <= 0) {
+            throw new IllegalArgumentException("Min interval must be positive, got: " + minIntervalSeconds);
+        }
+        if (maxIntervalSeconds < minIntervalSeconds) {
+            throw new IllegalArgumentException("Max interval must not be shorter than min interval, got: " + maxIntervalSeconds);
+        }
+        if (resumeDelaySeconds < 0) {
+            throw new IllegalArgumentException("Resume delay must not be negative, got: " + resumeDelaySeconds);
+        }
+    }
+
+    private static void validateStaleThreshold(int staleThresholdMinutes, long maxDetectionLatencyMinutes) {
+        if (maxDetectionLatencyMinutes <= staleThresholdMinutes) {
+            throw new IllegalArgumentException("Max detection latency must exceed the stale threshold, got: "
+                    + maxDetectionLatencyMinutes + "min");
+        }
+    }
+
+    public void validateStaleThreshold(int staleThresholdMinutes) {
+        validateStaleThreshold(staleThresholdMinutes, maxDetectionLatency.toMinutes());
+    }
+
+    // A longer stale threshold leaves less of the detection latency budget for scanning, so cycles run closer together
+    public void updateStaleThreshold(int staleThresholdMinutes) {
+        validateStaleThreshold(staleThresholdMinutes);
+        this.scanBudget = maxDetectionLatency.minusMinutes(staleThresholdMinutes);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        schedule(WARMUP, this::warmUpAndStartCycles, Duration.ZERO);
+    }
+
+    // Warm up on the scheduler thread so readiness is not delayed, then start every backend's cycle loop straight after
+    void warmUpAndStartCycles() {
+        try {
+            startupWarmup.run();
+        } catch (Exception e) {
+            log.warn("Startup warmup failed, running first collection cycles cold", e);
+        }
+        nextCycles.remove(WARMUP);
+        for (String backend : backends.names()) {
+            scheduleNextCycle(backend, Duration.ZERO);
+        }
+    }
+
+    // Each backend's cycle schedules that backend's next one when it finishes, so its cycles never overlap; a slow
+    // or failing backend only delays its own loop
+    void runCycle(String backend) {
+        if (stopped) {
+            return;
+        }
+
+        Instant startTime = Instant.now();
+        Duration delay = maxInterval;
+        try {
+            monitorService.collectAndQueueStaleAppliances(backend);
+            Duration cycleDuration = Duration.between(startTime, Instant.now());
+            if (monitorService.isResumePending(backend)) {
+                // A failed cycle picks up from its checkpoint soon rather than waiting out a full interval
+                delay = resumeDelay;
+                log.info("Collection cycle for {} interrupted, resuming from checkpoint in {}s", backend, delay.toSeconds());
+            } else {
+                delay = computeNextDelay(cycleDuration, remediationProcessor.queueUtilization());
+                log.info("Next collection cycle for {} in {}s (last cycle took {}ms)",
+                        backend, delay.toSeconds(), cycleDuration.toMillis());
+            }
+            log.debug("METRIC: collection.next_delay.ms={} backend={}", delay.toMillis(), backend);
+        } catch (Exception e) {
+            log.error("Collection cycle for {} failed unexpectedly, next cycle in {}s", backend, delay.toSeconds(), e);
+        } finally {
+            scheduleNextCycle(backend, delay);
+        }
+    }
+
+    Duration computeNextDelay(Duration lastCycleDuration, double queueUtilization) {
+        // Latest start that still keeps the next read of every page inside the detection latency budget
+        Duration target = scanBudget.minus(lastCycleDuration);
+        if (target.compareTo(minInterval) < 0) {
+            target = minInterval;
+        }
+        if (target.compareTo(maxInterval) > 0) {
+            target = maxInterval;
+        }
+
+        if (queueUtilization <= BACKOFF_START_UTILIZATION) {
+            return target;
+        }
+        if (queueUtilization >= FULL_BACKOFF_UTILIZATION) {
+            return maxInterval;
+        }
+
+        // Stretch linearly toward the max interval as the executor backlog builds up
+        double backoff = (queueUtilization - BACKOFF_START_UTILIZATION) / (FULL_BACKOFF_UTILIZATION - BACKOFF_START_UTILIZATION);
+        long extraMillis = Math.round((maxInterval.toMillis() - target.toMillis()) * backoff);
+        return target.plusMillis(extraMillis);
+    }
+
+    private void scheduleNextCycle(String backend, Duration delay) {
+        schedule(backend, () -> runCycle(backend), delay);
+    }
+
+    private void schedule(String loop, Runnable cycle, Duration delay) {
+        if (stopped) {
+            return;
+        }
+        try {
+            ScheduledFuture<?> scheduled = taskScheduler.schedule(cycle, Instant.now().plus(delay));
+            if (scheduled != null) {
+                nextCycles.put(loop, scheduled);
+            }
+        } catch (TaskRejectedException e) {
+            // The scheduler stops with the context, possibly before our @PreDestroy runs
+            log.info("Task scheduler is shutting down, no further collection cycles will be scheduled");
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        nextCycles.values().forEach(scheduled -> scheduled.cancel(false));
+    }
+}
@@ -0,0 +1,130 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.repository.LeaderLeaseRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static com.octtools.appliance.config.ConfigProperties.INSTANCE_ID;
+import static com.octtools.appliance.config.ConfigProperties.LEADER_ELECTION_ENABLED;
+import static com.octtools.appliance.config.ConfigProperties.LEADER_ELECTION_LEASE_DURATION_SECONDS;
+import static com.octtools.appliance.config.ConfigProperties.LEADER_ELECTION_LEASE_NAME;
+import static com.octtools.appliance.config.ConfigProperties.LEADER_ELECTION_RENEW_INTERVAL_SECONDS;
+
+@Service
+@Slf4j
+public class LeaderElectionService {
+
+    private final LeaderLeaseRepository leaseRepository;
+    private final boolean enabled;
+    private final String leaseName;
+    private final String instanceId;
+    private final Duration leaseDuration;
+
+    private volatile boolean leader;
+    private volatile Instant leaseValidUntil = Instant.EPOCH;
+
+    public LeaderElectionService(
+            LeaderLeaseRepository leaseRepository,
+            @Value(LEADER_ELECTION_ENABLED) boolean enabled,
+            @Value(LEADER_ELECTION_LEASE_NAME) String leaseName,
+            @Value(INSTANCE_ID) String instanceId,
+            @Value(LEADER_ELECTION_LEASE_DURATION_SECONDS) int leaseDurationSeconds,
+            @Value(LEADER_ELECTION_RENEW_INTERVAL_SECONDS) int renewIntervalSeconds) {
+
+        validateInputs(leaseName, instanceId, leaseDurationSeconds, renewIntervalSeconds);
+
+        this.leaseRepository = leaseRepository;
+        this.enabled = enabled;
+        this.leaseName = leaseName;
+        this.instanceId = instanceId;
+        this.leaseDuration = Duration.ofSeconds(leaseDurationSeconds);
+
+        log.info("Initialized LeaderElectionService with enabled={}, instanceId={}, leaseDuration={}s, renewInterval={}s",
+                enabled, instanceId, leaseDurationSeconds, renewIntervalSeconds);
+    }
+
+    private void validateInputs(String leaseName, String instanceId, int leaseDurationSeconds, int renewIntervalSeconds) {
+        if (leaseName == null || leaseName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Lease name cannot be null or empty");
+        }
+        if (instanceId == null || instanceId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Instance id cannot be null or empty");
+        }
+        if (renewIntervalSeconds <= 0) {
+            throw new IllegalArgumentException("Renew interval must be positive, got: " + renewIntervalSeconds);
+        }
+        if (leaseDurationSeconds <= renewIntervalSeconds) {
+            throw new IllegalArgumentException("Lease duration must be longer than the renew interval, got: " + leaseDurationSeconds);
+        }
+    }
+
+    // Acquire before the first collection cycle so the leader does not sit out a whole interval after startup
+    @PostConstruct
+    void acquireOnStartup() {
+        renewLease();
+    }
+
+    @Scheduled(fixedDelayString = LEADER_ELECTION_RENEW_INTERVAL_SECONDS, timeUnit = TimeUnit.SECONDS)
+    public void renewLease() {
+        if (enabled) {
+            refresh(Instant.now());
+        }
+    }
+
+    void refresh(Instant now) {
+        boolean acquired;
+        try {
+            acquired = leaseRepository.tryAcquire(leaseName, instanceId, now, leaseDuration);
+        } catch (Exception e) {
+            // Keep the local lease until it runs out; isLeader() stops us once it has expired
+            log.warn("Failed to renew leader lease '{}': {}", leaseName, e.getMessage());
+            log.debug("METRIC: leader.renew.failures.count=1");
+            return;
+        }
+
+        if (acquired) {
+            // Measured from before the round trip, so the local view expires no later than the row
+            leaseValidUntil = now.plus(leaseDuration);
+            if (!leader) {
+                log.info("Acquired leader lease '{}' as {}", leaseName, instanceId);
+                log.debug("METRIC: leader.acquired.count=1");
+            }
+            leader = true;
+        } else if (leader) {
+            log.warn("Lost leader lease '{}', standing by", leaseName);
+            log.debug("METRIC: leader.lost.count=1");
+            leader = false;
+        }
+    }
+
+    public boolean isLeader() {
+        return !enabled || isLeader(Instant.now());
+    }
+
+    boolean isLeader(Instant now) {
+        return leader && now.isBefore(leaseValidUntil);
+    }
+
+    @PreDestroy
+    public void release() {
+        if (!enabled || !leader) {
+            return;
+        }
+        leader = false;
+        try {
+            // Expire the row so a standby can take over on its next renew instead of waiting out the lease
+            leaseRepository.release(leaseName, instanceId);
+            log.info("Released leader lease '{}'", leaseName);
+        } catch (Exception e) {
+            log.warn("Failed to release leader lease '{}': {}", leaseName, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.octtools.appliance.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.octtools.appliance.model.Operation;
+import com.octtools.appliance.repository.OperationReader;
+import com.octtools.appliance.repository.OperationStore;
+import com.octtools.appliance.repository.StoreOperationReader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.octtools.appliance.config.ConfigProperties.CACHE_MAX_OPERATION_ENTRIES;
+import static com.octtools.appliance.config.ConfigProperties.CACHE_MAX_PAGE_ENTRIES;
+import static com.octtools.appliance.config.ConfigProperties.CACHE_REFRESH_INTERVAL_MS;
+import static com.octtools.appliance.config.ConfigProperties.CACHE_TTL_SECONDS;
+
+@Service
+@Slf4j
+public class OperationQueryCache {
+
+    private final OperationReader storeReader;
+    private final Cache<Long, Operation> operationsById;
+    private final Cache<PageKey, CachedPage> pages;
+    private final long refreshIntervalNanos;
+
+    // Bumped on every recorded operation; pages loaded under an older generation are out of date
+    private final AtomicLong writeGeneration = new AtomicLong();
+
+    public OperationQueryCache(
+            OperationStore operationStore,
+            MeterRegistry meterRegistry,
+            @Value(CACHE_MAX_OPERATION_ENTRIES) long maxOperationEntries,
+            @Value(CACHE_MAX_PAGE_ENTRIES) long maxPageEntries,
+            @Value(CACHE_TTL_SECONDS) long ttlSeconds,
+            @Value(CACHE_REFRESH_INTERVAL_MS) long refreshIntervalMs) {
+
+        validateInputs(maxOperationEntries, maxPageEntries, ttlSeconds, refreshIntervalMs);
+
+        this.storeReader = new StoreOperationReader(operationStore);
+        this.refreshIntervalNanos = Duration.ofMillis(refreshIntervalMs).toNanos();
+        this.operationsById = Caffeine.newBuilder()
+                .maximumSize(maxOperationEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxPageEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        // Exposes cache.gets{result=hit|miss}, cache.size and cache.evictions per cache for hit ratio
+        CaffeineCacheMetrics.monitor(meterRegistry, operationsById, "operations.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "operations.pages");
+
+        log.info("Initialized OperationQueryCache with maxOperationEntries={}, maxPageEntries={}, ttl={}s, refreshInterval={}ms",
+                maxOperationEntries, maxPageEntries, ttlSeconds, refreshIntervalMs);
+    }
+
+    private void validateInputs(long maxOperationEntries, long maxPageEntries, long ttlSeconds, long refreshIntervalMs) {
+        if (maxOperationEntries <= 0 || maxPageEntries <= 0) {
+            throw new IllegalArgumentException("Cache sizes must be positive");
+        }
+        if (ttlSeconds <= 0) {
+            throw new IllegalArgumentException("Cache TTL must be positive, got: " + ttlSeconds);
+        }
+        if (refreshIntervalMs < 0) {
+            throw new IllegalArgumentException("Refresh interval cannot be negative, got: " + refreshIntervalMs);
+        }
+    }
+
+    public Optional<Operation> findById(Long id) {
+        return findById(id, storeReader);
+    }
+
+    // Same cache for the reactive endpoints, which load misses through their own reader
+    public Optional<Operation> findById(Long id, OperationReader reader) {
+        // Operations are never updated once recorded, so an id lookup only needs size/TTL eviction
+        Operation cached = operationsById.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Operation> loaded = reader.findById(id);
+        loaded.ifPresent(operation -> operationsById.put(id, operation));
+        return loaded;
+    }
+
+    public Page<Operation> findPage(String applianceId, int page, int size) {
+        return findPage(applianceId, page, size, storeReader);
+    }
+
+    public Page<Operation> findPage(String applianceId, int page, int size, OperationReader reader) {
+        PageKey key = new PageKey(applianceId, page, size);
+        long generation = writeGeneration.get();
+        long now = System.nanoTime();
+
+        CachedPage cached = pages.getIfPresent(key);
+        if (cached != null && cached.isFresh(generation, now, refreshIntervalNanos)) {
+            return cached.page();
+        }
+
+        PageRequest pageable = PageRequest.of(page, size);
+        Page<Operation> loaded = applianceId != null
+                ? reader.findByApplianceId(applianceId, pageable)
+                : reader.findAll(pageable);
+        pages.put(key, new CachedPage(loaded, generation, now));
+        return loaded;
+    }
+
+    @EventListener
+    public void onOperationRecorded(OperationRecordedEvent event) {
+        writeGeneration.incrementAndGet();
+    }
+
+    // Archived rows leave the live table; cached pages would keep listing them until reloaded
+    @EventListener
+    public void onOperationsArchived(OperationsArchivedEvent event) {
+        writeGeneration.incrementAndGet();
+        pages.invalidateAll();
+    }
+
+    private record PageKey(String applianceId, int page, int size) {
+    }
+
+    private record CachedPage(Page<Operation> page, long generation, long loadedAtNanos) {
+
+        // Under a steady write stream a page is reloaded at most once per refresh interval instead of on every read
+        boolean isFresh(long currentGeneration, long nowNanos, long refreshIntervalNanos) {
+            return generation == currentGeneration || nowNanos - loadedAtNanos < refreshIntervalNanos;
+        }
+    }
+}
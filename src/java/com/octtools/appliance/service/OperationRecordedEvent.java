@@ -0,0 +1,7 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.model.Operation;
+
+// Published synchronously on the processing thread after an operation has been saved
+public record OperationRecordedEvent(Operation operation) {
+}
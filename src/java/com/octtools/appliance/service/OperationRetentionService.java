@@ -0,0 +1,136 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.model.Operation;
+import com.octtools.appliance.repository.OperationArchiveRepository;
+import com.octtools.appliance.repository.OperationStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.octtools.appliance.config.ConfigProperties.RETENTION_BATCH_SIZE;
+import static com.octtools.appliance.config.ConfigProperties.RETENTION_ENABLED;
+import static com.octtools.appliance.config.ConfigProperties.RETENTION_INTERVAL_SECONDS;
+import static com.octtools.appliance.config.ConfigProperties.RETENTION_MAX_AGE_HOURS;
+import static com.octtools.appliance.config.ConfigProperties.RETENTION_MAX_BATCHES_PER_RUN;
+
+@Service
+@Slf4j
+public class OperationRetentionService {
+
+    private final OperationStore operationStore;
+    private final OperationArchiveRepository archiveRepository;
+    private final OperationQueryCache operationQueryCache;
+    private final LeaderElectionService leaderElection;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final Duration maxAge;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public OperationRetentionService(
+            OperationStore operationStore,
+            OperationArchiveRepository archiveRepository,
+            OperationQueryCache operationQueryCache,
+            LeaderElectionService leaderElection,
+            ApplicationEventPublisher eventPublisher,
+            @Value(RETENTION_ENABLED) boolean enabled,
+            @Value(RETENTION_MAX_AGE_HOURS) int maxAgeHours,
+            @Value(RETENTION_BATCH_SIZE) int batchSize,
+            @Value(RETENTION_MAX_BATCHES_PER_RUN) int maxBatchesPerRun) {
+
+        validateInputs(maxAgeHours, batchSize, maxBatchesPerRun);
+
+        this.operationStore = operationStore;
+        this.archiveRepository = archiveRepository;
+        this.operationQueryCache = operationQueryCache;
+        this.leaderElection = leaderElection;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.maxAge = Duration.ofHours(maxAgeHours);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+
+        log.info("Initialized OperationRetentionService with enabled={}, maxAge={}h, batchSize={}, maxBatchesPerRun={}",
+                enabled, maxAgeHours, batchSize, maxBatchesPerRun);
+    }
+
+    private void validateInputs(int maxAgeHours, int batchSize, int maxBatchesPerRun) {
+        if (maxAgeHours <= 0) {
+            throw new IllegalArgumentException("Max age hours must be positive, got: " + maxAgeHours);
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive, got: " + batchSize);
+        }
+        if (maxBatchesPerRun <= 0) {
+            throw new IllegalArgumentException("Max batches per run must be positive, got: " + maxBatchesPerRun);
+        }
+    }
+
+    @Scheduled(fixedDelayString = RETENTION_INTERVAL_SECONDS, initialDelayString = RETENTION_INTERVAL_SECONDS, timeUnit = TimeUnit.SECONDS)
+    public void archiveExpiredOperations() {
+        // With a shared database only one instance may move rows, or partitions would receive duplicates
+        if (!enabled || !leaderElection.isLeader()) {
+            return;
+        }
+
+        try {
+            archiveBefore(Instant.now().minus(maxAge));
+        } catch (Exception e) {
+            log.error("Operation archival failed: {}", e.getMessage(), e);
+        }
+    }
+
+    int archiveBefore(Instant cutoff) {
+        int archived = 0;
+
+        // Bounded per run so a large backlog is drained over several runs instead of one long pause
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<Operation> expired = operationStore.findProcessedBefore(cutoff, batchSize);
+            if (expired.isEmpty()) {
+                break;
+            }
+
+            // Archive first: a failure between the two steps can duplicate an operation in the archive, never lose it
+            archiveRepository.append(expired);
+            operationStore.deleteAllById(expired.stream().map(Operation::getId).toList());
+            archived += expired.size();
+
+            if (expired.size() < batchSize) {
+                break;
+            }
+        }
+
+        if (archived > 0) {
+            log.info("Archived {} operations processed before {}", archived, cutoff);
+            log.debug("METRIC: operations.archived.count={}", archived);
+            eventPublisher.publishEvent(new OperationsArchivedEvent(archived));
+        }
+        return archived;
+    }
+
+    // Live operations are always newer than archived ones, so the archive simply continues the live ordering
+    public Page<Operation> findPageIncludingArchive(String applianceId, int page, int size) {
+        Page<Operation> livePage = operationQueryCache.findPage(applianceId, page, size);
+        long liveTotal = livePage.getTotalElements();
+        long archivedTotal = archiveRepository.count(applianceId);
+        long offset = (long) page * size;
+
+        List<Operation> content = new ArrayList<>(livePage.getContent());
+        if (content.size() < size && offset + content.size() >= liveTotal) {
+            long archiveOffset = Math.max(0, offset - liveTotal);
+            content.addAll(archiveRepository.find(applianceId, archiveOffset, size - content.size()));
+        }
+        return new PageImpl<>(content, PageRequest.of(page, size), liveTotal + archivedTotal);
+    }
+}
@@ -0,0 +1,4 @@
+package com.octtools.appliance.service;
+
+public record OperationsArchivedEvent(int archivedCount) {
+}
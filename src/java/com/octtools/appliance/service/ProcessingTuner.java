@@ -0,0 +1,75 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.model.ProcessingSettings;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import static com.octtools.appliance.logging.AuditLog.AUDIT;
+
+// Changes processing throughput settings on a running instance, so scaling during an outage wave does not need a
+// restart that loses the in-memory queue. Changes are not persisted; a restart returns to the configured values.
+@Service
+@Slf4j
+public class ProcessingTuner {
+
+    private final RemediationProcessor remediationProcessor;
+    private final ApplianceMonitorService monitorService;
+    private final CollectionCadenceController cadenceController;
+
+    public ProcessingTuner(
+            RemediationProcessor remediationProcessor,
+            ApplianceMonitorService monitorService,
+            CollectionCadenceController cadenceController) {
+        this.remediationProcessor = remediationProcessor;
+        this.monitorService = monitorService;
+        this.cadenceController = cadenceController;
+    }
+
+    public synchronized ProcessingSettings current() {
+        return ProcessingSettings.builder()
+                .threadPoolSize(remediationProcessor.getThreadPoolSize())
+                .maxThreadPoolSize(remediationProcessor.getMaxThreadPoolSize())
+                .queueCapacity(remediationProcessor.getQueueCapacity())
+                .pageSize(monitorService.getPageSize())
+                .staleThresholdMinutes(monitorService.getStaleThresholdMinutes())
+                .build();
+    }
+
+    // All-or-nothing: the merged settings are validated as a whole before any component is touched, so an invalid
+    // change leaves everything as it was
+    public synchronized ProcessingSettings apply(ProcessingSettings change, String actor) {
+        ProcessingSettings before = current();
+        ProcessingSettings after = merge(before, change);
+        try {
+            RemediationProcessor.validatePoolSizes(
+                    after.getThreadPoolSize(), after.getMaxThreadPoolSize(), after.getQueueCapacity());
+            ApplianceMonitorService.validateCollectionSettings(after.getPageSize(), after.getStaleThresholdMinutes());
+            cadenceController.validateStaleThreshold(after.getStaleThresholdMinutes());
+        } catch (IllegalArgumentException e) {
+            AUDIT.warn("AUDIT: processing settings change by {} rejected: {} (requested {})", actor, e.getMessage(), change);
+            throw e;
+        }
+
+        remediationProcessor.resize(after.getThreadPoolSize(), after.getMaxThreadPoolSize(), after.getQueueCapacity());
+        monitorService.updateCollectionSettings(after.getPageSize(), after.getStaleThresholdMinutes());
+        cadenceController.updateStaleThreshold(after.getStaleThresholdMinutes());
+
+        AUDIT.info("AUDIT: processing settings changed by {}: {} -> {}", actor, before, after);
+        log.debug("METRIC: processing.settings.changes.count=1");
+        return current();
+    }
+
+    private ProcessingSettings merge(ProcessingSettings current, ProcessingSettings change) {
+        return current.toBuilder()
+                .threadPoolSize(valueOr(change.getThreadPoolSize(), current.getThreadPoolSize()))
+                .maxThreadPoolSize(valueOr(change.getMaxThreadPoolSize(), current.getMaxThreadPoolSize()))
+                .queueCapacity(valueOr(change.getQueueCapacity(), current.getQueueCapacity()))
+                .pageSize(valueOr(change.getPageSize(), current.getPageSize()))
+                .staleThresholdMinutes(valueOr(change.getStaleThresholdMinutes(), current.getStaleThresholdMinutes()))
+                .build();
+    }
+
+    private static Integer valueOr(Integer value, Integer fallback) {
+        return value != null ? value : fallback;
+    }
+}
@@ -0,0 +1,79 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.model.Operation;
+import com.octtools.appliance.repository.OperationReader;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+
+import static com.octtools.appliance.config.ConfigProperties.READS_MAX_QUEUED;
+import static com.octtools.appliance.config.ConfigProperties.READS_POOL_SIZE;
+
+// Operation reads for the reactive endpoints. Queries still block on JDBC, but on a bounded scheduler sized to the
+// read pool rather than on request threads, so a burst of dashboard or export reads queues here instead of tying
+// up the servlet container. Reads share the query cache with the servlet endpoints.
+@Service
+@Slf4j
+public class ReactiveOperationQueries {
+
+    private static final String SCHEDULER_NAME = "operation-reads";
+
+    private final OperationQueryCache operationQueryCache;
+    private final OperationRetentionService retentionService;
+    private final OperationReader operationReader;
+    private final Scheduler readScheduler;
+
+    public ReactiveOperationQueries(
+            OperationQueryCache operationQueryCache,
+            OperationRetentionService retentionService,
+            OperationReader operationReader,
+            @Value(READS_POOL_SIZE) int poolSize,
+            @Value(READS_MAX_QUEUED) int maxQueued) {
+
+        validateInputs(poolSize, maxQueued);
+
+        this.operationQueryCache = operationQueryCache;
+        this.retentionService = retentionService;
+        this.operationReader = operationReader;
+        // One thread per read connection, so no scheduled read waits on the pool; beyond maxQueued reads are rejected
+        this.readScheduler = Schedulers.newBoundedElastic(poolSize, maxQueued, SCHEDULER_NAME);
+
+        log.info("Initialized ReactiveOperationQueries with poolSize={}, maxQueued={}", poolSize, maxQueued);
+    }
+
+    private void validateInputs(int poolSize, int maxQueued) {
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("Read pool size must be positive, got: " + poolSize);
+        }
+        if (maxQueued <= 0) {
+            throw new IllegalArgumentException("Max queued reads must be positive, got: " + maxQueued);
+        }
+    }
+
+    public Mono<Optional<Operation>> findById(Long id) {
+        return Mono.fromCallable(() -> operationQueryCache.findById(id, operationReader))
+                .subscribeOn(readScheduler);
+    }
+
+    public Mono<Page<Operation>> findPage(String applianceId, int page, int size) {
+        return Mono.fromCallable(() -> operationQueryCache.findPage(applianceId, page, size, operationReader))
+                .subscribeOn(readScheduler);
+    }
+
+    public Mono<Page<Operation>> findPageIncludingArchive(String applianceId, int page, int size) {
+        return Mono.fromCallable(() -> retentionService.findPageIncludingArchive(applianceId, page, size))
+                .subscribeOn(readScheduler);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        readScheduler.dispose();
+    }
+}
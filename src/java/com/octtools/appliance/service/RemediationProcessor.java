@@ -1,96 +1,301 @@
 package com.octtools.appliance.service;
 
 import com.octtools.appliance.client.ApplianceApiClient;
+import com.octtools.appliance.client.ApplianceBackend;
+import com.octtools.appliance.client.ApplianceBackends;
+import com.octtools.appliance.logging.LogSampler;
 import com.octtools.appliance.model.Appliance;
 import com.octtools.appliance.model.Operation;
+import com.octtools.appliance.model.OperationType;
 import com.octtools.appliance.model.api.DrainResponse;
 import com.octtools.appliance.model.api.RemediateResponse;
-import com.octtools.appliance.repository.OperationRepository;
+import com.octtools.appliance.repository.OperationStore;
+import com.octtools.appliance.tracing.RemediationTrace;
+import com.octtools.appliance.tracing.RemediationTracer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.ExecutorService;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
+import static com.octtools.appliance.config.ConfigProperties.PROCESSING_MAX_THREAD_POOL_SIZE;
+import static com.octtools.appliance.config.ConfigProperties.PROCESSING_QUEUE_CAPACITY;
+import static com.octtools.appliance.config.ConfigProperties.PROCESSING_RECORD_MODE;
 import static com.octtools.appliance.config.ConfigProperties.PROCESSING_THREAD_POOL_SIZE;
 
 @Service
 @Slf4j
 public class RemediationProcessor {
     
-    private static final int PROCESSING_QUEUE_SIZE = 2500;
-    private static final String OPERATION_TYPE_DRAIN = "DRAIN";
-    private static final String OPERATION_TYPE_REMEDIATE = "REMEDIATE";
+    public static final String OPERATION_SAVE_METER = "operations.save";
+    
+    // Threads above the core size only start once the queue is full, and stop after idling this long
+    private static final long EXTRA_THREAD_KEEP_ALIVE_SECONDS = 60;
+    private static final String RECORD_MODE_PER_STEP = "per-step";
+    private static final String RECORD_MODE_COMBINED = "combined";
+    private static final int SUCCESS_LOG_LINES_PER_SECOND = 10;
+    // Ceilings for configured and runtime-tuned sizes, so a bad change cannot exhaust threads or heap
+    static final int MAX_THREAD_POOL_SIZE = 1000;
+    static final int MAX_QUEUE_CAPACITY = 100_000;
     
     private final ApplianceApiClient apiClient;
-    private final OperationRepository operationRepository;
-    private final ExecutorService processingExecutor;
+    private final ApplianceBackends backends;
+    private final OperationStore operationStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ActivityTimeSeries activityTimeSeries;
+    private final RemediationTracer tracer;
+    private final Timer saveTimer;
+    private final ThreadPoolExecutor processingExecutor;
+    private final ResizableBlockingQueue<Runnable> processingQueue;
+    private final boolean combinedRecords;
+    
+    // Per-appliance success lines are sampled; these totals are logged once per collection cycle instead. Kept per
+    // backend, since each backend's cycle logs and resets its own and would otherwise swallow the others'
+    private final LogSampler successLogSampler = new LogSampler(SUCCESS_LOG_LINES_PER_SECOND);
+    private final Map<String, Summary> summaries;
 
     public RemediationProcessor(
             ApplianceApiClient apiClient,
-            OperationRepository operationRepository,
-            @Value(PROCESSING_THREAD_POOL_SIZE) int threadPoolSize) {
+            ApplianceBackends backends,
+            OperationStore operationStore,
+            ApplicationEventPublisher eventPublisher,
+            ActivityTimeSeries activityTimeSeries,
+            RemediationTracer tracer,
+            MeterRegistry meterRegistry,
+            @Value(PROCESSING_THREAD_POOL_SIZE) int threadPoolSize,
+            @Value(PROCESSING_MAX_THREAD_POOL_SIZE) int maxThreadPoolSize,
+            @Value(PROCESSING_QUEUE_CAPACITY) int queueCapacity,
+            @Value(PROCESSING_RECORD_MODE) String recordMode) {
         
-        validateInputs(threadPoolSize);
+        validatePoolSizes(threadPoolSize, maxThreadPoolSize, queueCapacity);
+        validateRecordMode(recordMode);
         
         this.apiClient = apiClient;
-        this.operationRepository = operationRepository;
+        this.backends = backends;
+        Map<String, Summary> summaries = new HashMap<>();
+        backends.names().forEach(name -> summaries.put(name, new Summary()));
+        this.summaries = Map.copyOf(summaries);
+        this.operationStore = operationStore;
+        this.eventPublisher = eventPublisher;
+        this.activityTimeSeries = activityTimeSeries;
+        this.tracer = tracer;
+        this.saveTimer = meterRegistry.timer(OPERATION_SAVE_METER);
+        this.combinedRecords = RECORD_MODE_COMBINED.equals(recordMode);
+        this.processingQueue = new ResizableBlockingQueue<>(queueCapacity);
         this.processingExecutor = new ThreadPoolExecutor(
             threadPoolSize, 
-            threadPoolSize, 
-            0L, 
-            TimeUnit.MILLISECONDS,
-            new ArrayBlockingQueue<>(PROCESSING_QUEUE_SIZE),
+            maxThreadPoolSize, 
+            EXTRA_THREAD_KEEP_ALIVE_SECONDS, 
+            TimeUnit.SECONDS,
+            processingQueue,
             new ThreadPoolExecutor.AbortPolicy()
         );
         
-        log.info("Initialized RemediationProcessor with threadPoolSize={}", threadPoolSize);
+        log.info("Initialized RemediationProcessor with threadPoolSize={}, maxThreadPoolSize={}, queueCapacity={}, recordMode={}",
+                threadPoolSize, maxThreadPoolSize, queueCapacity, recordMode);
     }
 
-    private void validateInputs(int threadPoolSize) {
+    static void validatePoolSizes(int threadPoolSize, int maxThreadPoolSize, int queueCapacity) {
         if (threadPoolSize <= 0) {
             throw new IllegalArgumentException("Thread pool size must be positive, got: " + threadPoolSize);
         }
+        if (maxThreadPoolSize < threadPoolSize) {
+            throw new IllegalArgumentException("Max thread pool size must not be below the thread pool size, got: " + maxThreadPoolSize);
+        }
+        if (maxThreadPoolSize > MAX_THREAD_POOL_SIZE) {
+            throw new IllegalArgumentException("Max thread pool size must not exceed " + MAX_THREAD_POOL_SIZE + ", got: " + maxThreadPoolSize);
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive, got: " + queueCapacity);
+        }
+        if (queueCapacity > MAX_QUEUE_CAPACITY) {
+            throw new IllegalArgumentException("Queue capacity must not exceed " + MAX_QUEUE_CAPACITY + ", got: " + queueCapacity);
+        }
+    }
+
+    private void validateRecordMode(String recordMode) {
+        if (!RECORD_MODE_PER_STEP.equals(recordMode) && !RECORD_MODE_COMBINED.equals(recordMode)) {
+            throw new IllegalArgumentException("Record mode must be '" + RECORD_MODE_PER_STEP + "' or '" + RECORD_MODE_COMBINED + "', got: " + recordMode);
+        }
     }
 
     public void processAppliance(Appliance appliance) {
+        processAppliance(appliance, () -> { });
+    }
+
+    // For appliances found stale by a scan that started at detectionStartNanos, so the trace covers detection too
+    public void processStaleAppliance(Appliance appliance, long detectionStartNanos) {
+        submit(appliance, tracer.startDetected(appliance.getId(), detectionStartNanos), () -> { });
+    }
+
+    // onComplete runs on the worker thread once processing has finished, whether it succeeded or not
+    public boolean processAppliance(Appliance appliance, Runnable onComplete) {
+        return submit(appliance, tracer.start(appliance.getId()), onComplete);
+    }
+
+    private boolean submit(Appliance appliance, RemediationTrace trace, Runnable onComplete) {
+        ApplianceBackend backend;
         try {
-            processingExecutor.submit(() -> processApplianceInternal(appliance));
+            backend = backends.get(appliance.getBackend());
+        } catch (IllegalArgumentException e) {
+            // Queued by an instance configured with a backend this one does not know
+            log.error("Skipping appliance {}: {}", appliance.getId(), e.getMessage());
+            tracer.finish(trace, RemediationTracer.OUTCOME_REJECTED);
+            return false;
+        }
+        // Bulkhead: a backend already holding its share of the executor is turned away like a full queue
+        if (!backend.tryAcquireProcessingSlot()) {
+            log.warn("Backend {} at its in-flight limit of {}, skipping appliance {} - will retry next cycle",
+                    backend.getName(), backend.getMaxInFlight(), appliance.getId());
+            log.debug("METRIC: appliance.processing.bulkhead_full.count=1 backend={}", backend.getName());
+            summaries.get(backend.getName()).rejected.increment();
+            tracer.finish(trace, RemediationTracer.OUTCOME_REJECTED);
+            return false;
+        }
+        try {
+            trace.markQueued();
+            processingExecutor.submit(() -> {
+                trace.markDequeued();
+                trace.attach();
+                boolean succeeded = false;
+                try {
+                    succeeded = processApplianceInternal(appliance.getId(), backend.getName());
+                } finally {
+                    backend.releaseProcessingSlot();
+                    trace.detach();
+                    tracer.finish(trace, succeeded ? RemediationTracer.OUTCOME_SUCCESS : RemediationTracer.OUTCOME_FAILURE);
+                    onComplete.run();
+                }
+            });
+            return true;
         } catch (RejectedExecutionException e) {
+            backend.releaseProcessingSlot();
             log.warn("Executor queue full, skipping appliance {} - will retry next cycle", appliance.getId());
             log.debug("METRIC: appliance.processing.queue_full.count=1");
+            activityTimeSeries.recordQueueFull();
+            summaries.get(backend.getName()).rejected.increment();
+            tracer.finish(trace, RemediationTracer.OUTCOME_REJECTED);
+            return false;
+        }
+    }
+
+    // Share of the executor queue in use; 0 while threads are keeping up, 1 when submissions start being rejected
+    public double queueUtilization() {
+        int queued = processingQueue.size();
+        return Math.min(1.0, (double) queued / processingQueue.getCapacity());
+    }
+
+    // Threads that could start a new appliance now, without it waiting in the executor queue
+    public int availableCapacity() {
+        int busy = processingExecutor.getActiveCount() + processingQueue.size();
+        return Math.max(0, processingExecutor.getCorePoolSize() - busy);
+    }
+
+    // Applied to the running executor: extra threads start as work arrives, surplus ones stop once idle, and
+    // queued work survives a smaller queue capacity
+    public synchronized void resize(int threadPoolSize, int maxThreadPoolSize, int queueCapacity) {
+        validatePoolSizes(threadPoolSize, maxThreadPoolSize, queueCapacity);
+        // The core size may never exceed the max size, so grow the max first and shrink the core first
+        if (maxThreadPoolSize >= processingExecutor.getMaximumPoolSize()) {
+            processingExecutor.setMaximumPoolSize(maxThreadPoolSize);
+            processingExecutor.setCorePoolSize(threadPoolSize);
+        } else {
+            processingExecutor.setCorePoolSize(threadPoolSize);
+            processingExecutor.setMaximumPoolSize(maxThreadPoolSize);
         }
+        processingQueue.setCapacity(queueCapacity);
+    }
+
+    public int getQueueDepth() {
+        return processingQueue.size();
+    }
+
+    public int getQueueCapacity() {
+        return processingQueue.getCapacity();
+    }
+
+    public int getActiveThreads() {
+        return processingExecutor.getActiveCount();
+    }
+
+    public int getThreadPoolSize() {
+        return processingExecutor.getCorePoolSize();
+    }
+
+    public int getMaxThreadPoolSize() {
+        return processingExecutor.getMaximumPoolSize();
     }
 
-    private void processApplianceInternal(Appliance appliance) {
-        String applianceId = appliance.getId();
-        log.debug("Processing appliance: {}", applianceId);
+    private boolean processApplianceInternal(String applianceId, String backend) {
+        long startNanos = System.nanoTime();
         
         try {
             // Step 1: Drain the appliance (with retry in API client)
-            DrainResponse drainResponse = apiClient.drainAppliance(applianceId);
-            recordDrainOperation(applianceId, drainResponse);
+            DrainResponse drainResponse = apiClient.drainAppliance(backend, applianceId);
+            if (!combinedRecords) {
+                recordDrainOperation(applianceId, backend, drainResponse);
+            }
             
             // Step 2: Remediate the appliance (with retry in API client)
-            RemediateResponse remediateResponse = apiClient.remediateAppliance(applianceId);
-            recordRemediateOperation(applianceId, remediateResponse);
-            
-            log.info("Successfully processed appliance {}: drain={}, remediation={}", 
-                    applianceId, drainResponse.getDrainId(), remediateResponse.getRemediationId());
+            RemediateResponse remediateResponse = remediateDrainedAppliance(applianceId, backend, drainResponse);
+            if (combinedRecords) {
+                recordRemediationCycleOperation(applianceId, backend, drainResponse, remediateResponse);
+            } else {
+                recordRemediateOperation(applianceId, backend, remediateResponse);
+            }
             
+            if (successLogSampler.tryAcquire()) {
+                log.info("Successfully processed appliance {}: drain={}, remediation={}", 
+                        applianceId, drainResponse.getDrainId(), remediateResponse.getRemediationId());
+            }
             log.debug("METRIC: appliance.processing.success.ratio=1");
+            
+            long latencyNanos = System.nanoTime() - startNanos;
+            summaries.get(backend).recordProcessed(latencyNanos, true);
+            activityTimeSeries.recordProcessed(latencyNanos, true);
+            return true;
         } catch (Exception e) {
             log.error("Failed to process appliance {}: {}", applianceId, e.getMessage());
             log.debug("METRIC: appliance.processing.success.ratio=0");
+            long latencyNanos = System.nanoTime() - startNanos;
+            summaries.get(backend).recordProcessed(latencyNanos, false);
+            activityTimeSeries.recordProcessed(latencyNanos, false);
+            return false;
         }
     }
 
+    // Called once per collection cycle of the backend; covers its appliances that finished since the previous call
+    public void logSummary(String backend) {
+        String name = backends.get(backend).getName();
+        Summary summary = summaries.get(name);
+        long succeeded = summary.succeeded.sumThenReset();
+        long failed = summary.failed.sumThenReset();
+        long rejected = summary.rejected.sumThenReset();
+        long latencyNanos = summary.latencyNanos.sumThenReset();
+        long processed = succeeded + failed;
+        if (processed == 0 && rejected == 0) {
+            return;
+        }
+        
+        long averageLatencyMs = processed > 0 ? TimeUnit.NANOSECONDS.toMillis(latencyNanos / processed) : 0;
+        log.info("Remediation summary for {}: {} succeeded, {} failed, {} rejected (queue full), average {}ms per appliance",
+                name, succeeded, failed, rejected, averageLatencyMs);
+        
+        log.debug("METRIC: appliance.processing.success.count={} backend={}", succeeded, name);
+        log.debug("METRIC: appliance.processing.failure.count={} backend={}", failed, name);
+        log.debug("METRIC: appliance.processing.latency.avg.ms={} backend={}", averageLatencyMs, name);
+    }
+
     @PreDestroy
     public void shutdown() {
         log.info("Shutting down RemediationProcessor");
@@ -108,25 +313,75 @@ public class RemediationProcessor {
         }
     }
     
-    private void recordDrainOperation(String applianceId, DrainResponse drainResponse) {
+    private RemediateResponse remediateDrainedAppliance(String applianceId, String backend, DrainResponse drainResponse) {
+        try {
+            return apiClient.remediateAppliance(backend, applianceId);
+        } catch (RuntimeException e) {
+            // The drain still happened; in combined mode it has not been recorded yet
+            if (combinedRecords) {
+                recordDrainOperation(applianceId, backend, drainResponse);
+            }
+            throw e;
+        }
+    }
+    
+    private void recordDrainOperation(String applianceId, String backend, DrainResponse drainResponse) {
         Operation drainOperation = Operation.builder()
             .applianceId(applianceId)
-            .operationType(OPERATION_TYPE_DRAIN)
+            .backend(backend)
+            .operationType(OperationType.DRAIN.name())
             .processedAt(Instant.now())
             .drainId(drainResponse.getDrainId())
             .estimatedTimeToDrain(drainResponse.getEstimatedTimeToDrain())
             .build();
-        operationRepository.save(drainOperation);
+        recordOperation(drainOperation);
     }
     
-    private void recordRemediateOperation(String applianceId, RemediateResponse remediateResponse) {
+    private void recordRemediateOperation(String applianceId, String backend, RemediateResponse remediateResponse) {
         Operation remediateOperation = Operation.builder()
             .applianceId(applianceId)
-            .operationType(OPERATION_TYPE_REMEDIATE)
+            .backend(backend)
+            .operationType(OperationType.REMEDIATE.name())
+            .processedAt(Instant.now())
+            .remediationId(remediateResponse.getRemediationId())
+            .remediationResult(remediateResponse.getRemediationResult())
+            .build();
+        recordOperation(remediateOperation);
+    }
+    
+    // One row carrying both steps instead of two mostly-empty ones
+    private void recordRemediationCycleOperation(String applianceId, String backend, DrainResponse drainResponse,
+                                                 RemediateResponse remediateResponse) {
+        Operation cycleOperation = Operation.builder()
+            .applianceId(applianceId)
+            .backend(backend)
+            .operationType(OperationType.REMEDIATION_CYCLE.name())
             .processedAt(Instant.now())
+            .drainId(drainResponse.getDrainId())
+            .estimatedTimeToDrain(drainResponse.getEstimatedTimeToDrain())
             .remediationId(remediateResponse.getRemediationId())
             .remediationResult(remediateResponse.getRemediationResult())
             .build();
-        operationRepository.save(remediateOperation);
+        recordOperation(cycleOperation);
+    }
+
+    private void recordOperation(Operation operation) {
+        long saveStartNanos = System.nanoTime();
+        operationStore.save(operation);
+        saveTimer.record(System.nanoTime() - saveStartNanos, TimeUnit.NANOSECONDS);
+        RemediationTrace.recordSpan(RemediationTrace.DB_SAVE, saveStartNanos);
+        eventPublisher.publishEvent(new OperationRecordedEvent(operation));
+    }
+
+    private static final class Summary {
+        private final LongAdder succeeded = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder latencyNanos = new LongAdder();
+
+        void recordProcessed(long nanos, boolean success) {
+            (success ? succeeded : failed).increment();
+            latencyNanos.add(nanos);
+        }
     }
 }
@@ -0,0 +1,174 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.client.ApplianceBackend;
+import com.octtools.appliance.client.ApplianceBackends;
+import com.octtools.appliance.model.Appliance;
+import com.octtools.appliance.model.RemediationTask;
+import com.octtools.appliance.repository.RemediationTaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.octtools.appliance.config.ConfigProperties.INSTANCE_ID;
+import static com.octtools.appliance.config.ConfigProperties.PROCESSING_MODE;
+import static com.octtools.appliance.config.ConfigProperties.TASK_QUEUE_BATCH_SIZE;
+import static com.octtools.appliance.config.ConfigProperties.TASK_QUEUE_LEASE_SECONDS;
+import static com.octtools.appliance.config.ConfigProperties.TASK_QUEUE_MAX_ATTEMPTS;
+import static com.octtools.appliance.config.ConfigProperties.TASK_QUEUE_POLL_INTERVAL_MS;
+
+@Service
+@Slf4j
+public class RemediationTaskQueue {
+
+    private static final String MODE_LOCAL = "local";
+    private static final String MODE_QUEUE = "queue";
+
+    private final RemediationTaskRepository taskRepository;
+    private final RemediationProcessor remediationProcessor;
+    private final ApplianceBackends backends;
+    private final boolean enabled;
+    private final String workerId;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration leaseDuration;
+    // Backend whose tasks are claimed first; rotates every poll so no backend can keep the others' tasks unclaimed
+    private int firstBackend;
+
+    public RemediationTaskQueue(
+            RemediationTaskRepository taskRepository,
+            RemediationProcessor remediationProcessor,
+            ApplianceBackends backends,
+            @Value(PROCESSING_MODE) String mode,
+            @Value(INSTANCE_ID) String workerId,
+            @Value(TASK_QUEUE_BATCH_SIZE) int batchSize,
+            @Value(TASK_QUEUE_MAX_ATTEMPTS) int maxAttempts,
+            @Value(TASK_QUEUE_LEASE_SECONDS) int leaseSeconds) {
+
+        validateInputs(mode, workerId, batchSize, maxAttempts, leaseSeconds);
+
+        this.taskRepository = taskRepository;
+        this.remediationProcessor = remediationProcessor;
+        this.backends = backends;
+        this.enabled = MODE_QUEUE.equals(mode);
+        this.workerId = workerId;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.leaseDuration = Duration.ofSeconds(leaseSeconds);
+
+        log.info("Initialized RemediationTaskQueue with mode={}, workerId={}, batchSize={}, maxAttempts={}, lease={}s",
+                mode, workerId, batchSize, maxAttempts, leaseSeconds);
+    }
+
+    private void validateInputs(String mode, String workerId, int batchSize, int maxAttempts, int leaseSeconds) {
+        if (!MODE_LOCAL.equals(mode) && !MODE_QUEUE.equals(mode)) {
+            throw new IllegalArgumentException("Processing mode must be '" + MODE_LOCAL + "' or '" + MODE_QUEUE + "', got: " + mode);
+        }
+        if (workerId == null || workerId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Worker id cannot be null or empty");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive, got: " + batchSize);
+        }
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Max attempts must be positive, got: " + maxAttempts);
+        }
+        if (leaseSeconds <= 0) {
+            throw new IllegalArgumentException("Lease seconds must be positive, got: " + leaseSeconds);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void enqueue(List<Appliance> staleAppliances) {
+        if (staleAppliances.isEmpty()) {
+            return;
+        }
+        int queued = taskRepository.enqueue(staleAppliances, Instant.now());
+        log.debug("Queued {} of {} stale appliances as remediation tasks", queued, staleAppliances.size());
+        log.debug("METRIC: task_queue.enqueued.count={}", queued);
+    }
+
+    @Scheduled(fixedDelayString = TASK_QUEUE_POLL_INTERVAL_MS, timeUnit = TimeUnit.MILLISECONDS)
+    public void pollAndProcess() {
+        if (!enabled) {
+            return;
+        }
+        
+        try {
+            claimAndProcess(Instant.now());
+        } catch (Exception e) {
+            log.warn("Failed to claim remediation tasks: {}", e.getMessage());
+            log.debug("METRIC: task_queue.claim.failures.count=1");
+        }
+    }
+
+    int claimAndProcess(Instant now) {
+        // Only claim what local threads can start right away; queued claims would sit on leases other workers could use
+        int capacity = Math.min(batchSize, remediationProcessor.availableCapacity());
+        if (capacity <= 0) {
+            return 0;
+        }
+
+        // Claimed per backend up to its free bulkhead slots, so tasks of a backend at its limit stay in the table for
+        // later polls instead of being claimed and released on every poll ahead of other backends' tasks
+        List<ApplianceBackend> all = backends.all();
+        String defaultBackend = backends.get(null).getName();
+        List<RemediationTask> tasks = new ArrayList<>();
+        for (int i = 0; i < all.size() && tasks.size() < capacity; i++) {
+            ApplianceBackend backend = all.get((firstBackend + i) % all.size());
+            int slots = Math.min(capacity - tasks.size(), backend.freeProcessingSlots());
+            if (slots > 0) {
+                tasks.addAll(taskRepository.claim(workerId, backend.getName(), defaultBackend, slots, maxAttempts, now, leaseDuration));
+            }
+        }
+        firstBackend = (firstBackend + 1) % all.size();
+
+        for (RemediationTask task : tasks) {
+            long taskId = task.getId();
+            boolean accepted = remediationProcessor.processAppliance(task.getAppliance(), () -> taskRepository.complete(taskId));
+            if (!accepted) {
+                taskRepository.release(taskId, workerId);
+            }
+        }
+
+        if (!tasks.isEmpty()) {
+            log.debug("Claimed {} remediation tasks", tasks.size());
+            log.debug("METRIC: task_queue.claimed.count={}", tasks.size());
+        }
+        return tasks.size();
+    }
+
+    @Scheduled(fixedDelayString = TASK_QUEUE_LEASE_SECONDS, timeUnit = TimeUnit.SECONDS)
+    public void purgeExhaustedTasks() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            int purged = taskRepository.purgeExhausted(maxAttempts, Instant.now());
+            if (purged > 0) {
+                log.warn("Dropped {} remediation tasks whose leases expired {} times; next cycle will requeue them if still stale",
+                        purged, maxAttempts);
+                log.debug("METRIC: task_queue.exhausted.count={}", purged);
+            }
+            // Tasks of a backend this instance was not configured with would otherwise sit in the table for good
+            int unknown = taskRepository.purgeUnknownBackends(backends.names());
+            if (unknown > 0) {
+                log.warn("Dropped {} remediation tasks for backends not configured on this instance (known: {})",
+                        unknown, backends.names());
+                log.debug("METRIC: task_queue.unknown_backend.count={}", unknown);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to purge exhausted remediation tasks: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.octtools.appliance.service;
+
+import java.util.concurrent.LinkedBlockingQueue;
+
+// Executor work queue whose bound can change at runtime. ThreadPoolExecutor only adds work through offer(), so
+// bounding offer() bounds the queue. Shrinking below the current size keeps queued work and rejects new work until
+// the queue drains under the new capacity.
+class ResizableBlockingQueue<E> extends LinkedBlockingQueue<E> {
+
+    private volatile int capacity;
+
+    ResizableBlockingQueue(int capacity) {
+        setCapacity(capacity);
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    void setCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive, got: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    // Synchronized so concurrent submitters cannot both pass the size check and overshoot the bound
+    @Override
+    public synchronized boolean offer(E e) {
+        if (size() >= capacity) {
+            return false;
+        }
+        return super.offer(e);
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Math.max(0, capacity - size());
+    }
+}
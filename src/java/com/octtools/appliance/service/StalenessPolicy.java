@@ -0,0 +1,178 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.model.StalenessRule;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Staleness rules compiled into a decision table: one hash lookup on the status selects that status's rule chain,
+// which is walked in configuration order and ends at the first rule matching the appliance ID. LIVE appliances no
+// rule matches fall back to the global threshold; other statuses are never stale unless a rule covers them.
+// Immutable, so a reload swaps in a new policy while cycles keep evaluating the old one.
+public final class StalenessPolicy {
+
+    static final String DEFAULT_STATUS = "LIVE";
+    // Patterns are globs rather than regexes so a rule cannot backtrack catastrophically on the collection thread;
+    // with the length cap, one match costs at most pattern length x ID length steps
+    static final int MAX_ID_PATTERN_LENGTH = 64;
+    private static final char ANY_RUN = '*';
+    private static final char ANY_CHAR = '?';
+
+    private final Map<String, CompiledRule[]> chains;
+    // Most of the fleet is LIVE, so its chain skips the hash lookup, as do other statuses when no rule names one
+    private final CompiledRule[] liveChain;
+    private final boolean otherStatusRules;
+    private final List<StalenessRule> rules;
+    private final Duration defaultThreshold;
+
+    private StalenessPolicy(Map<String, CompiledRule[]> chains, List<StalenessRule> rules, Duration defaultThreshold) {
+        this.chains = chains;
+        this.liveChain = chains.get(DEFAULT_STATUS);
+        this.otherStatusRules = chains.size() > 1;
+        this.rules = rules;
+        this.defaultThreshold = defaultThreshold;
+    }
+
+    public static StalenessPolicy compile(List<StalenessRule> rules, Duration defaultThreshold) {
+        if (defaultThreshold == null || defaultThreshold.isNegative() || defaultThreshold.isZero()) {
+            throw new IllegalArgumentException("Default stale threshold must be positive, got: " + defaultThreshold);
+        }
+        if (rules == null) {
+            throw new IllegalArgumentException("Staleness rules cannot be null");
+        }
+        Map<String, List<CompiledRule>> byStatus = new LinkedHashMap<>();
+        for (int i = 0; i < rules.size(); i++) {
+            CompiledRule rule = compileRule(i, rules.get(i), defaultThreshold);
+            List<CompiledRule> chain = byStatus.computeIfAbsent(rule.status, status -> new ArrayList<>());
+            // Rules after a catch-all for the same status can never match
+            if (chain.isEmpty() || !chain.get(chain.size() - 1).matchesAnyId()) {
+                chain.add(rule);
+            }
+        }
+        List<CompiledRule> liveChain = byStatus.computeIfAbsent(DEFAULT_STATUS, status -> new ArrayList<>());
+        if (liveChain.isEmpty() || !liveChain.get(liveChain.size() - 1).matchesAnyId()) {
+            liveChain.add(new CompiledRule(DEFAULT_STATUS, null, null, defaultThreshold));
+        }
+
+        Map<String, CompiledRule[]> chains = new HashMap<>();
+        byStatus.forEach((status, chain) -> chains.put(status, chain.toArray(new CompiledRule[0])));
+        return new StalenessPolicy(chains, List.copyOf(rules), defaultThreshold);
+    }
+
+    private static CompiledRule compileRule(int index, StalenessRule rule, Duration defaultThreshold) {
+        if (rule == null) {
+            throw new IllegalArgumentException("Staleness rule " + index + " is empty");
+        }
+        String status = rule.getStatus() != null ? rule.getStatus() : DEFAULT_STATUS;
+        if (status.isBlank()) {
+            throw new IllegalArgumentException("Status of staleness rule " + index + " must not be blank");
+        }
+        if (rule.getIdPrefix() != null && rule.getIdPrefix().isEmpty()) {
+            throw new IllegalArgumentException("ID prefix of staleness rule " + index + " must not be empty");
+        }
+        Duration threshold = defaultThreshold;
+        if (rule.getThresholdMinutes() != null) {
+            if (rule.getThresholdMinutes() <= 0) {
+                throw new IllegalArgumentException("Threshold minutes of staleness rule " + index
+                        + " must be positive, got: " + rule.getThresholdMinutes());
+            }
+            threshold = Duration.ofMinutes(rule.getThresholdMinutes());
+        }
+        String idPattern = rule.getIdPattern();
+        if (idPattern != null && (idPattern.isEmpty() || idPattern.length() > MAX_ID_PATTERN_LENGTH)) {
+            throw new IllegalArgumentException("ID pattern of staleness rule " + index + " must be 1 to "
+                    + MAX_ID_PATTERN_LENGTH + " characters, got: " + idPattern.length());
+        }
+        return new CompiledRule(status, rule.getIdPrefix(), idPattern, threshold);
+    }
+
+    // Threshold after which an appliance with this ID and status is stale, or null if it is never stale. Allocates nothing.
+    public Duration thresholdFor(String applianceId, String status) {
+        CompiledRule[] chain;
+        if (DEFAULT_STATUS.equals(status)) {
+            chain = liveChain;
+        } else if (otherStatusRules && status != null) {
+            chain = chains.get(status);
+        } else {
+            return null;
+        }
+        if (chain == null) {
+            return null;
+        }
+        for (CompiledRule rule : chain) {
+            if (rule.matches(applianceId)) {
+                return rule.threshold;
+            }
+        }
+        return null;
+    }
+
+    public List<StalenessRule> getRules() {
+        return rules;
+    }
+
+    public Duration getDefaultThreshold() {
+        return defaultThreshold;
+    }
+
+    private static final class CompiledRule {
+        private final String status;
+        private final String idPrefix;
+        private final String idPattern;
+        private final Duration threshold;
+
+        private CompiledRule(String status, String idPrefix, String idPattern, Duration threshold) {
+            this.status = status;
+            this.idPrefix = idPrefix;
+            this.idPattern = idPattern;
+            this.threshold = threshold;
+        }
+
+        private boolean matchesAnyId() {
+            return idPrefix == null && idPattern == null;
+        }
+
+        private boolean matches(String applianceId) {
+            if (matchesAnyId()) {
+                return true;
+            }
+            if (applianceId == null) {
+                return false;
+            }
+            if (idPrefix != null && !applianceId.startsWith(idPrefix)) {
+                return false;
+            }
+            return idPattern == null || globMatches(idPattern, applianceId);
+        }
+    }
+
+    // Whole-ID glob match: '*' matches any run of characters, '?' any single one. Backtracks only to the last '*'.
+    static boolean globMatches(String pattern, String text) {
+        int p = 0;
+        int t = 0;
+        int starP = -1;
+        int starT = -1;
+        while (t < text.length()) {
+            if (p < pattern.length() && (pattern.charAt(p) == ANY_CHAR || pattern.charAt(p) == text.charAt(t))) {
+                p++;
+                t++;
+            } else if (p < pattern.length() && pattern.charAt(p) == ANY_RUN) {
+                starP = p++;
+                starT = t;
+            } else if (starP >= 0) {
+                p = starP + 1;
+                t = ++starT;
+            } else {
+                return false;
+            }
+        }
+        while (p < pattern.length() && pattern.charAt(p) == ANY_RUN) {
+            p++;
+        }
+        return p == pattern.length();
+    }
+}
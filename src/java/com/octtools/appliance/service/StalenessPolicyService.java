@@ -0,0 +1,72 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.model.StalenessRule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.octtools.appliance.config.ConfigProperties.PROCESSING_STALE_THRESHOLD_MINUTES;
+import static com.octtools.appliance.logging.AuditLog.AUDIT;
+
+// Holds the compiled staleness policy. Rules are loaded from appliance.processing.staleness-rules at startup and can
+// be replaced at runtime; a change compiles a new policy first, so an invalid one leaves the current policy in place.
+// Changes are not persisted; a restart returns to the configured rules.
+@Service
+@Slf4j
+public class StalenessPolicyService {
+
+    private static final String RULES_PROPERTY = "appliance.processing.staleness-rules";
+
+    private volatile StalenessPolicy policy;
+
+    @Autowired
+    public StalenessPolicyService(
+            Environment environment,
+            @Value(PROCESSING_STALE_THRESHOLD_MINUTES) int staleThresholdMinutes) {
+        this(Binder.get(environment)
+                .bind(RULES_PROPERTY, Bindable.listOf(StalenessRule.class))
+                .orElse(List.of()), staleThresholdMinutes);
+    }
+
+    StalenessPolicyService(List<StalenessRule> rules, int staleThresholdMinutes) {
+        this.policy = StalenessPolicy.compile(rules, Duration.ofMinutes(staleThresholdMinutes));
+        log.info("Initialized StalenessPolicyService with {} rules, defaultThreshold={}min", rules.size(), staleThresholdMinutes);
+    }
+
+    // Read once per staleness check; the policy is immutable, so no locking on the hot path
+    public StalenessPolicy current() {
+        return policy;
+    }
+
+    public int getDefaultThresholdMinutes() {
+        return (int) policy.getDefaultThreshold().toMinutes();
+    }
+
+    // Rules without their own threshold follow the new default
+    public synchronized void updateDefaultThreshold(int staleThresholdMinutes) {
+        policy = StalenessPolicy.compile(policy.getRules(), Duration.ofMinutes(staleThresholdMinutes));
+    }
+
+    public synchronized StalenessPolicy replaceRules(List<StalenessRule> rules, String actor) {
+        StalenessPolicy before = policy;
+        StalenessPolicy after;
+        try {
+            after = StalenessPolicy.compile(rules, before.getDefaultThreshold());
+        } catch (IllegalArgumentException e) {
+            AUDIT.warn("AUDIT: staleness rules change by {} rejected: {} (requested {})", actor, e.getMessage(), rules);
+            throw e;
+        }
+        policy = after;
+
+        AUDIT.info("AUDIT: staleness rules changed by {}: {} -> {}", actor, before.getRules(), after.getRules());
+        log.debug("METRIC: staleness.rules.changes.count=1");
+        return after;
+    }
+}
@@ -0,0 +1,175 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.model.Appliance;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static com.octtools.appliance.config.ConfigProperties.TIMING_WHEEL_ENABLED;
+import static com.octtools.appliance.config.ConfigProperties.TIMING_WHEEL_TICK_MILLIS;
+import static com.octtools.appliance.config.ConfigProperties.TIMING_WHEEL_WHEEL_SIZE;
+
+@Service
+@Slf4j
+public class StalenessTimingWheel {
+
+    private final boolean enabled;
+    private final long tickMillis;
+    private final List<Set<Entry>> buckets;
+    private final Map<Key, Entry> entries = new HashMap<>();
+    private final Instant origin;
+
+    private long currentTick;
+    private volatile Consumer<Appliance> expiryHandler = appliance -> { };
+
+    @Autowired
+    public StalenessTimingWheel(
+            @Value(TIMING_WHEEL_ENABLED) boolean enabled,
+            @Value(TIMING_WHEEL_TICK_MILLIS) long tickMillis,
+            @Value(TIMING_WHEEL_WHEEL_SIZE) int wheelSize) {
+        this(enabled, tickMillis, wheelSize, Instant.now());
+    }
+
+    StalenessTimingWheel(boolean enabled, long tickMillis, int wheelSize, Instant origin) {
+        validateInputs(tickMillis, wheelSize);
+
+        this.enabled = enabled;
+        this.tickMillis = tickMillis;
+        this.origin = origin;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new LinkedHashSet<>());
+        }
+
+        log.info("Initialized StalenessTimingWheel with enabled={}, tick={}ms, wheelSize={}", enabled, tickMillis, wheelSize);
+    }
+
+    private void validateInputs(long tickMillis, int wheelSize) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick millis must be positive, got: " + tickMillis);
+        }
+        if (wheelSize <= 0) {
+            throw new IllegalArgumentException("Wheel size must be positive, got: " + wheelSize);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setExpiryHandler(Consumer<Appliance> expiryHandler) {
+        this.expiryHandler = expiryHandler;
+    }
+
+    // Re-scheduling an appliance replaces its previous deadline, so a fresher heartbeat moves the timer.
+    // Appliances are tracked per backend, since two backends may report the same id
+    public synchronized void schedule(Appliance appliance, Instant deadline) {
+        Key key = new Key(appliance.getBackend(), appliance.getId());
+        removeEntry(key);
+
+        long deadlineTick = Math.max(ceilTick(deadline), currentTick);
+        long ticksAway = deadlineTick - currentTick;
+        Entry entry = new Entry(appliance, ticksAway / buckets.size());
+        entry.bucket = bucketFor(deadlineTick);
+        entry.bucket.add(entry);
+        entries.put(key, entry);
+    }
+
+    public synchronized void cancel(String backend, String applianceId) {
+        removeEntry(new Key(backend, applianceId));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        buckets.forEach(Set::clear);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Scheduled(fixedRateString = TIMING_WHEEL_TICK_MILLIS, timeUnit = TimeUnit.MILLISECONDS)
+    public void tick() {
+        if (enabled) {
+            advance(Instant.now());
+        }
+    }
+
+    void advance(Instant now) {
+        List<Appliance> expired = new ArrayList<>();
+        synchronized (this) {
+            long targetTick = Duration.between(origin, now).toMillis() / tickMillis;
+            while (currentTick <= targetTick) {
+                Set<Entry> bucket = bucketFor(currentTick);
+                var iterator = bucket.iterator();
+                while (iterator.hasNext()) {
+                    Entry entry = iterator.next();
+                    if (entry.remainingRounds > 0) {
+                        entry.remainingRounds--;
+                    } else {
+                        iterator.remove();
+                        entries.remove(new Key(entry.appliance.getBackend(), entry.appliance.getId()));
+                        expired.add(entry.appliance);
+                    }
+                }
+                currentTick++;
+            }
+        }
+
+        // Fire outside the lock so dispatching never blocks the collector feeding the wheel
+        for (Appliance appliance : expired) {
+            try {
+                expiryHandler.accept(appliance);
+            } catch (Exception e) {
+                log.error("Staleness timer handler failed for appliance {}: {}", appliance.getId(), e.getMessage());
+            }
+        }
+        if (!expired.isEmpty()) {
+            log.debug("METRIC: timing_wheel.expired.count={}", expired.size());
+        }
+    }
+
+    private void removeEntry(Key key) {
+        Entry existing = entries.remove(key);
+        if (existing != null) {
+            existing.bucket.remove(existing);
+        }
+    }
+
+    private long ceilTick(Instant instant) {
+        long millis = Duration.between(origin, instant).toMillis();
+        return Math.floorDiv(millis + tickMillis - 1, tickMillis);
+    }
+
+    private Set<Entry> bucketFor(long tick) {
+        return buckets.get((int) Math.floorMod(tick, (long) buckets.size()));
+    }
+
+    private record Key(String backend, String applianceId) {
+    }
+
+    // Identity equality: each schedule() call creates a distinct entry
+    private static final class Entry {
+        private final Appliance appliance;
+        private long remainingRounds;
+        private Set<Entry> bucket;
+
+        private Entry(Appliance appliance, long remainingRounds) {
+            this.appliance = appliance;
+            this.remainingRounds = remainingRounds;
+        }
+    }
+}
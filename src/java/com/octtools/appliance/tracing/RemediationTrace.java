@@ -0,0 +1,116 @@
+package com.octtools.appliance.tracing;
+
+import com.octtools.appliance.model.RemediationTraceSummary;
+import com.octtools.appliance.model.TraceSpan;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Spans for one stale appliance, from detection until processing finishes. The worker thread attaches the trace
+// while it processes the appliance, so the API client and store can add spans without it being passed around.
+public class RemediationTrace {
+
+    public static final String DETECTION = "detection";
+    public static final String QUEUE = "queue";
+    public static final String DB_SAVE = "db.save";
+    public static final String OUTCOME_OK = "ok";
+    public static final String OUTCOME_ERROR = "error";
+
+    private static final String HTTP_SUFFIX = ".http";
+    private static final String RETRY_BACKOFF_SUFFIX = ".retry_backoff";
+
+    private static final ThreadLocal<RemediationTrace> CURRENT = new ThreadLocal<>();
+
+    private final String applianceId;
+    private final long startNanos;
+    private final Instant startedAt;
+    private final boolean recording;
+    private final List<Span> spans = new ArrayList<>();
+    // End of the last failed attempt per operation; the gap until the next attempt is retry backoff
+    private final Map<String, Long> failedAttemptEndNanos = new HashMap<>();
+    private long queuedAtNanos;
+
+    RemediationTrace(String applianceId, long startNanos, boolean recording) {
+        this.applianceId = applianceId;
+        this.startNanos = startNanos;
+        this.startedAt = Instant.now().minusNanos(System.nanoTime() - startNanos);
+        this.recording = recording;
+    }
+
+    // Span for one HTTP attempt of a traced operation ("drain", "remediate") on the current thread, if any
+    public static void recordAttempt(String operation, long attemptStartNanos, String outcome) {
+        RemediationTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.addAttempt(operation, attemptStartNanos, System.nanoTime(), outcome);
+        }
+    }
+
+    public static void recordSpan(String phase, long spanStartNanos) {
+        RemediationTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.addSpan(phase, spanStartNanos, System.nanoTime(), null);
+        }
+    }
+
+    public String getApplianceId() {
+        return applianceId;
+    }
+
+    public void attach() {
+        CURRENT.set(this);
+    }
+
+    public void detach() {
+        CURRENT.remove();
+    }
+
+    public void markQueued() {
+        queuedAtNanos = System.nanoTime();
+    }
+
+    public void markDequeued() {
+        if (queuedAtNanos != 0) {
+            addSpan(QUEUE, queuedAtNanos, System.nanoTime(), null);
+        }
+    }
+
+    synchronized void addAttempt(String operation, long attemptStartNanos, long endNanos, String outcome) {
+        Long failedEnd = failedAttemptEndNanos.remove(operation);
+        if (failedEnd != null) {
+            addSpan(operation + RETRY_BACKOFF_SUFFIX, failedEnd, attemptStartNanos, null);
+        }
+        addSpan(operation + HTTP_SUFFIX, attemptStartNanos, endNanos, outcome);
+        if (!OUTCOME_OK.equals(outcome)) {
+            failedAttemptEndNanos.put(operation, endNanos);
+        }
+    }
+
+    synchronized void addSpan(String phase, long spanStartNanos, long endNanos, String outcome) {
+        if (recording) {
+            spans.add(new Span(phase, spanStartNanos, endNanos, outcome));
+        }
+    }
+
+    boolean isRecording() {
+        return recording;
+    }
+
+    synchronized RemediationTraceSummary toSummary(long endNanos, String outcome) {
+        List<TraceSpan> traceSpans = new ArrayList<>(spans.size());
+        for (Span span : spans) {
+            traceSpans.add(new TraceSpan(span.phase, toMillis(span.startNanos - startNanos),
+                    toMillis(span.endNanos - span.startNanos), span.outcome));
+        }
+        return new RemediationTraceSummary(applianceId, startedAt, toMillis(endNanos - startNanos), outcome, traceSpans);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private record Span(String phase, long startNanos, long endNanos, String outcome) {
+    }
+}
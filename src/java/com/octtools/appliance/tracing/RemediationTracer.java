@@ -0,0 +1,118 @@
+package com.octtools.appliance.tracing;
+
+import com.octtools.appliance.model.PhaseLatency;
+import com.octtools.appliance.model.RemediationTraceSummary;
+import com.octtools.appliance.model.TraceSpan;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.octtools.appliance.config.ConfigProperties.TRACING_BUFFER_SIZE;
+import static com.octtools.appliance.config.ConfigProperties.TRACING_ENABLED;
+
+// Keeps the most recent finished traces in a ring buffer; queries sort or aggregate a copy of it
+@Component
+@Slf4j
+public class RemediationTracer {
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_FAILURE = "failure";
+    public static final String OUTCOME_REJECTED = "rejected";
+
+    private final boolean enabled;
+    private final RemediationTraceSummary[] buffer;
+    private long finishedCount;
+
+    public RemediationTracer(
+            @Value(TRACING_ENABLED) boolean enabled,
+            @Value(TRACING_BUFFER_SIZE) int bufferSize) {
+
+        validateInputs(bufferSize);
+
+        this.enabled = enabled;
+        this.buffer = new RemediationTraceSummary[bufferSize];
+
+        log.info("Initialized RemediationTracer with enabled={}, bufferSize={}", enabled, bufferSize);
+    }
+
+    private void validateInputs(int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Trace buffer size must be positive, got: " + bufferSize);
+        }
+    }
+
+    public int getBufferSize() {
+        return buffer.length;
+    }
+
+    // Trace for an appliance found stale by a scan that started at detectionStartNanos
+    public RemediationTrace startDetected(String applianceId, long detectionStartNanos) {
+        RemediationTrace trace = new RemediationTrace(applianceId, detectionStartNanos, enabled);
+        trace.addSpan(RemediationTrace.DETECTION, detectionStartNanos, System.nanoTime(), null);
+        return trace;
+    }
+
+    // Trace for an appliance handed over without detection timing, e.g. claimed from the task queue
+    public RemediationTrace start(String applianceId) {
+        return new RemediationTrace(applianceId, System.nanoTime(), enabled);
+    }
+
+    public void finish(RemediationTrace trace, String outcome) {
+        if (!trace.isRecording()) {
+            return;
+        }
+        RemediationTraceSummary summary = trace.toSummary(System.nanoTime(), outcome);
+        synchronized (buffer) {
+            buffer[(int) (finishedCount % buffer.length)] = summary;
+            finishedCount++;
+        }
+    }
+
+    public List<RemediationTraceSummary> slowest(int limit) {
+        List<RemediationTraceSummary> traces = snapshot();
+        traces.sort(Comparator.comparingDouble(RemediationTraceSummary::getTotalMs).reversed());
+        return traces.subList(0, Math.min(limit, traces.size()));
+    }
+
+    // Time per phase across the buffered traces, largest share first
+    public List<PhaseLatency> phaseBreakdown() {
+        Map<String, double[]> totals = new TreeMap<>();
+        double tracedMs = 0;
+        for (RemediationTraceSummary trace : snapshot()) {
+            for (TraceSpan span : trace.getSpans()) {
+                double[] phase = totals.computeIfAbsent(span.getPhase(), p -> new double[2]);
+                phase[0]++;
+                phase[1] += span.getDurationMs();
+                tracedMs += span.getDurationMs();
+            }
+        }
+
+        List<PhaseLatency> phases = new ArrayList<>(totals.size());
+        for (Map.Entry<String, double[]> entry : totals.entrySet()) {
+            long count = (long) entry.getValue()[0];
+            double totalMs = entry.getValue()[1];
+            phases.add(new PhaseLatency(entry.getKey(), count, totalMs, totalMs / count,
+                    tracedMs > 0 ? totalMs / tracedMs : 0));
+        }
+        phases.sort(Comparator.comparingDouble(PhaseLatency::getTotalMs).reversed());
+        return phases;
+    }
+
+    private List<RemediationTraceSummary> snapshot() {
+        List<RemediationTraceSummary> traces = new ArrayList<>(buffer.length);
+        synchronized (buffer) {
+            for (RemediationTraceSummary trace : buffer) {
+                if (trace != null) {
+                    traces.add(trace);
+                }
+            }
+        }
+        return traces;
+    }
+}
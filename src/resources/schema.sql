@@ -0,0 +1,22 @@
+CREATE TABLE IF NOT EXISTS leader_lease (
+    lease_name VARCHAR(64) PRIMARY KEY,
+    owner_id VARCHAR(128) NOT NULL,
+    acquired_at BIGINT NOT NULL,
+    expires_at BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS remediation_tasks (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    appliance_id VARCHAR(255) NOT NULL,
+    backend VARCHAR(64),
+    op_status VARCHAR(32),
+    last_heard_from_on VARCHAR(64),
+    status VARCHAR(16) NOT NULL,
+    owner_id VARCHAR(128),
+    attempts INT NOT NULL,
+    created_at BIGINT NOT NULL,
+    lease_expires_at BIGINT
+);
+
+CREATE INDEX IF NOT EXISTS idx_remediation_tasks_appliance ON remediation_tasks (appliance_id);
+CREATE INDEX IF NOT EXISTS idx_remediation_tasks_status ON remediation_tasks (status, id);
@@ -0,0 +1,50 @@
+#!/bin/bash
+
+# Fast-startup launcher for the OctTools Appliance Monitoring Service
+# Builds an AppCDS archive from a training run, then starts the service with it and the fast-startup profile.
+# Extra arguments are passed to the application, e.g. ./startup-cds.sh --server.port=8081
+
+set -e
+
+JAR="$(pwd)/target/appliance-monitor-1.0.0.jar"
+CDS_DIR="$(pwd)/target/cds"
+ARCHIVE="$CDS_DIR/application.jsa"
+CLASS_PATH="$CDS_DIR/application.jar:$CDS_DIR/lib/*"
+MAIN_CLASS="com.octtools.appliance.ApplianceMonitorApplication"
+PROFILE="--spring.profiles.active=fast-startup"
+
+if [ ! -f "$JAR" ]; then
+    echo "Building $JAR..."
+    mvn -q -DskipTests package
+fi
+
+# CDS only archives classes loaded from jar files on the class path, so unpack the Spring Boot jar
+# into lib/ plus an application jar rather than running the nested fat jar
+extract_jar() {
+    rm -rf "$CDS_DIR"
+    mkdir -p "$CDS_DIR/unpacked"
+    (cd "$CDS_DIR/unpacked" && jar -xf "$JAR")
+    mv "$CDS_DIR/unpacked/BOOT-INF/lib" "$CDS_DIR/lib"
+    jar -cf "$CDS_DIR/application.jar" -C "$CDS_DIR/unpacked/BOOT-INF/classes" .
+    rm -rf "$CDS_DIR/unpacked"
+}
+
+# Training run: refresh the context (loading every class startup needs) and exit. It runs inside
+# $CDS_DIR so its log file and data directories stay out of the working directory
+train_archive() {
+    echo "Creating AppCDS archive $ARCHIVE..."
+    (cd "$CDS_DIR" && java -XX:ArchiveClassesAtExit="$ARCHIVE" -Xlog:cds=error \
+        -Dspring.context.exit=onRefresh -cp "$CLASS_PATH" "$MAIN_CLASS" \
+        "$PROFILE" --server.port=0 > training.log 2>&1) || {
+        echo "Training run failed, see $CDS_DIR/training.log"
+        exit 1
+    }
+}
+
+if [ ! -f "$ARCHIVE" ] || [ "$JAR" -nt "$ARCHIVE" ]; then
+    extract_jar
+    train_archive
+fi
+
+# The archive is only used when the class path matches the training run
+exec java -XX:SharedArchiveFile="$ARCHIVE" -Xlog:cds=error -cp "$CLASS_PATH" "$MAIN_CLASS" "$PROFILE" "$@"
@@ -5,6 +5,7 @@ import com.octtools.appliance.model.api.DrainRequest;
 import com.octtools.appliance.model.api.DrainResponse;
 import com.octtools.appliance.model.api.RemediateRequest;
 import com.octtools.appliance.model.api.RemediateResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,9 +17,12 @@ import org.springframework.web.util.UriBuilder;
 import reactor.core.publisher.Mono;
 
 import java.net.URI;
+import java.util.List;
 import java.util.function.Function;
 
 import static com.octtools.appliance.support.TestConstants.TEST_APPLIANCE_ID;
+import static com.octtools.appliance.support.TestConstants.TEST_BACKEND;
+import static com.octtools.appliance.support.TestConstants.TEST_BACKEND_2;
 import static com.octtools.appliance.support.TestConstants.TEST_EMAIL;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -47,23 +51,52 @@ class ApplianceApiClientTest {
     @Mock
     private WebClient.ResponseSpec responseSpec;
 
+    private final RetryBudget retryBudget = new RetryBudget(new SimpleMeterRegistry(), 0.2, 10, 10);
+    private final PageFetchHedging pageFetchHedging = new PageFetchHedging(new SimpleMeterRegistry(), false, 0.95, 200, 20, 50, 0.1);
+    private ApplianceBackends backends;
     private ApplianceApiClient client;
 
     @BeforeEach
     void setUp() {
-        client = new ApplianceApiClient(webClient, 30, TEST_EMAIL);
+        backends = new ApplianceBackends(List.of(ApplianceBackend.builder().name(TEST_BACKEND).webClient(webClient).build()));
+        client = new ApplianceApiClient(backends, retryBudget, pageFetchHedging, 30, TEST_EMAIL);
     }
 
     @Test
     void constructor_validatesInputs() {
         assertThrows(IllegalArgumentException.class, 
-            () -> new ApplianceApiClient(null, 30, TEST_EMAIL));
+            () -> new ApplianceApiClient(null, retryBudget, pageFetchHedging, 30, TEST_EMAIL));
             
         assertThrows(IllegalArgumentException.class,
-            () -> new ApplianceApiClient(webClient, 0, TEST_EMAIL));
+            () -> new ApplianceApiClient(backends, retryBudget, pageFetchHedging, 0, TEST_EMAIL));
             
         assertThrows(IllegalArgumentException.class,
-            () -> new ApplianceApiClient(webClient, 30, null));
+            () -> new ApplianceApiClient(backends, retryBudget, pageFetchHedging, 30, null));
+            
+        assertThrows(IllegalArgumentException.class,
+            () -> new ApplianceApiClient(backends, null, pageFetchHedging, 30, TEST_EMAIL));
+            
+        assertThrows(IllegalArgumentException.class,
+            () -> new ApplianceApiClient(backends, retryBudget, null, 30, TEST_EMAIL));
+    }
+
+    @Test
+    void drainAppliance_usesTheNamedBackendsClient() {
+        WebClient otherWebClient = mock(WebClient.class);
+        client = new ApplianceApiClient(new ApplianceBackends(List.of(
+                ApplianceBackend.builder().name(TEST_BACKEND).webClient(webClient).build(),
+                ApplianceBackend.builder().name(TEST_BACKEND_2).webClient(otherWebClient).build())),
+            retryBudget, pageFetchHedging, 30, TEST_EMAIL);
+        when(otherWebClient.post()).thenReturn(postRequestUriSpec);
+        when(postRequestUriSpec.uri(anyString(), anyString())).thenReturn(requestBodySpec);
+        when(requestBodySpec.bodyValue(any())).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(DrainResponse.class)).thenReturn(Mono.just(new DrainResponse()));
+
+        client.drainAppliance(TEST_BACKEND_2, TEST_APPLIANCE_ID);
+
+        verify(webClient, never()).post();
+        assertThrows(IllegalArgumentException.class, () -> client.drainAppliance("ap-south", TEST_APPLIANCE_ID));
     }
 
     @Test
@@ -81,7 +114,7 @@ class ApplianceApiClientTest {
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
         when(responseSpec.bodyToMono(DrainResponse.class)).thenReturn(Mono.just(expectedResponse));
         
-        DrainResponse result = client.drainAppliance(TEST_APPLIANCE_ID);
+        DrainResponse result = client.drainAppliance(TEST_BACKEND, TEST_APPLIANCE_ID);
         
         // Verify correct endpoint was called
         verify(postRequestUriSpec).uri("/api/1.0/appliances/{id}/drain", TEST_APPLIANCE_ID);
@@ -108,7 +141,7 @@ class ApplianceApiClientTest {
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
         when(responseSpec.bodyToMono(RemediateResponse.class)).thenReturn(Mono.just(expectedResponse));
         
-        RemediateResponse result = client.remediateAppliance(TEST_APPLIANCE_ID);
+        RemediateResponse result = client.remediateAppliance(TEST_BACKEND, TEST_APPLIANCE_ID);
         
         // Verify correct endpoint was called
         verify(postRequestUriSpec).uri("/api/1.0/appliances/{id}/remediate", TEST_APPLIANCE_ID);
@@ -134,7 +167,7 @@ class ApplianceApiClientTest {
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
         when(responseSpec.bodyToMono(AppliancePageResponse.class)).thenReturn(Mono.just(expectedResponse));
         
-        client.getAppliances("cursor-123", 25);
+        client.getAppliances(TEST_BACKEND, "cursor-123", 25);
         
         ArgumentCaptor<Function<UriBuilder, URI>> uriBuilderCaptor = ArgumentCaptor.forClass(Function.class);
         verify(getRequestUriSpec).uri(uriBuilderCaptor.capture());
@@ -162,7 +195,7 @@ class ApplianceApiClientTest {
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
         when(responseSpec.bodyToMono(AppliancePageResponse.class)).thenReturn(Mono.just(expectedResponse));
         
-        client.getAppliances(null, 25);
+        client.getAppliances(TEST_BACKEND, null, 25);
         
         ArgumentCaptor<Function<UriBuilder, URI>> uriBuilderCaptor = ArgumentCaptor.forClass(Function.class);
         verify(getRequestUriSpec).uri(uriBuilderCaptor.capture());
@@ -0,0 +1,53 @@
+package com.octtools.appliance.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.octtools.appliance.support.TestConstants.TEST_BACKEND;
+import static com.octtools.appliance.support.TestConstants.TEST_BACKEND_2;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplianceBackendsTest {
+
+    @Test
+    void constructor_validatesInputs() {
+        assertThrows(IllegalArgumentException.class, () -> new ApplianceBackends(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> new ApplianceBackends(List.of(backend(TEST_BACKEND), backend(TEST_BACKEND))));
+        assertThrows(IllegalArgumentException.class, () -> ApplianceBackend.builder().name(" ").build());
+        assertThrows(IllegalArgumentException.class, () -> ApplianceBackend.builder().name(TEST_BACKEND).pageSize(0).build());
+        assertThrows(IllegalArgumentException.class, () -> ApplianceBackend.builder().name(TEST_BACKEND).maxInFlight(-1).build());
+    }
+
+    @Test
+    void get_resolvesByNameWithFirstBackendForUntagged() {
+        ApplianceBackends backends = new ApplianceBackends(List.of(backend(TEST_BACKEND), backend(TEST_BACKEND_2)));
+
+        assertEquals(List.of(TEST_BACKEND, TEST_BACKEND_2), backends.names());
+        assertEquals(TEST_BACKEND_2, backends.get(TEST_BACKEND_2).getName());
+        assertEquals(TEST_BACKEND, backends.get(null).getName());
+        assertThrows(IllegalArgumentException.class, () -> backends.get("ap-south"));
+    }
+
+    @Test
+    void processingSlots_boundInFlightWork() {
+        ApplianceBackend bounded = ApplianceBackend.builder().name(TEST_BACKEND).maxInFlight(2).build();
+
+        assertTrue(bounded.tryAcquireProcessingSlot());
+        assertTrue(bounded.tryAcquireProcessingSlot());
+        assertFalse(bounded.tryAcquireProcessingSlot());
+        assertEquals(2, bounded.getInFlight());
+
+        bounded.releaseProcessingSlot();
+        assertTrue(bounded.tryAcquireProcessingSlot());
+
+        ApplianceBackend unbounded = backend(TEST_BACKEND_2);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(unbounded.tryAcquireProcessingSlot());
+        }
+    }
+
+    private static ApplianceBackend backend(String name) {
+        return ApplianceBackend.builder().name(name).build();
+    }
+}
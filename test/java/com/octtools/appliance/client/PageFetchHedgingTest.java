@@ -0,0 +1,157 @@
+package com.octtools.appliance.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageFetchHedgingTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void constructor_validatesInputs() {
+        assertThrows(IllegalArgumentException.class, () -> hedging(true, 1.0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> hedging(true, 0.95, 1.5));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PageFetchHedging(meterRegistry, true, 0.95, 10, 20, 0, 0.5));
+    }
+
+    @Test
+    void hedge_disabled_subscribesOnce() {
+        PageFetchHedging hedging = hedging(false, 0.95, 1.0);
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        String result = hedging.hedge(() -> Mono.fromCallable(() -> "page-" + subscriptions.incrementAndGet())).block();
+
+        assertEquals("page-1", result);
+        assertEquals(1, subscriptions.get());
+    }
+
+    @Test
+    void hedgeDelay_emptyUntilMinSamples_thenTracksPercentile() {
+        PageFetchHedging hedging = hedging(true, 0.9, 1.0);
+        assertEquals(Optional.empty(), hedging.hedgeDelay());
+
+        for (int ms = 1; ms <= 10; ms++) {
+            hedging.recordLatency(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+
+        assertEquals(Optional.of(Duration.ofMillis(9)), hedging.hedgeDelay());
+    }
+
+    @Test
+    void hedge_slowPrimary_secondRequestWins() {
+        PageFetchHedging hedging = hedging(true, 0.9, 1.0);
+        recordFastSamples(hedging);
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        long start = System.nanoTime();
+        String result = hedging.hedge(() -> {
+            int attempt = subscriptions.incrementAndGet();
+            return attempt == 1
+                    ? Mono.just("primary").delayElement(Duration.ofSeconds(5))
+                    : Mono.just("hedge");
+        }).block();
+
+        assertEquals("hedge", result);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+        assertEquals(1, meterRegistry.counter("api.page.hedges", "result", "won").count());
+    }
+
+    @Test
+    void hedge_cancelledHedge_recordsNoLatency() {
+        PageFetchHedging hedging = new PageFetchHedging(meterRegistry, true, 0.9, 20, 10, 0, 1.0);
+        recordFastSamples(hedging);
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        String result = hedging.hedge(() -> subscriptions.incrementAndGet() == 1
+                ? Mono.just("primary").delayElement(Duration.ofMillis(200))
+                : Mono.just("hedge").delayElement(Duration.ofSeconds(5))).block();
+
+        assertEquals("primary", result);
+        assertEquals(2, subscriptions.get());
+        // Only the primary's 200ms is added; a recorded hedge would have put its ~195ms at the 90th percentile
+        assertEquals(Optional.of(Duration.ofMillis(5)), hedging.hedgeDelay());
+    }
+
+    @Test
+    void hedge_fastPrimary_noSecondRequest() {
+        PageFetchHedging hedging = hedging(true, 0.9, 1.0);
+        recordFastSamples(hedging);
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        String result = hedging.hedge(() -> {
+            subscriptions.incrementAndGet();
+            return Mono.just("primary");
+        }).block();
+
+        assertEquals("primary", result);
+        assertEquals(1, subscriptions.get());
+    }
+
+    @Test
+    void hedge_failedHedge_defersToPrimary() {
+        PageFetchHedging hedging = hedging(true, 0.9, 1.0);
+        recordFastSamples(hedging);
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        String result = hedging.hedge(() -> subscriptions.incrementAndGet() == 1
+                ? Mono.just("primary").delayElement(Duration.ofMillis(200))
+                : Mono.<String>error(new IllegalStateException("503"))).block();
+
+        assertEquals("primary", result);
+        assertEquals(2, subscriptions.get());
+    }
+
+    @Test
+    void hedge_budgetSpent_waitsForPrimary() {
+        // Half a token per page request, so the first slow page has not earned a hedge yet
+        PageFetchHedging hedging = hedging(true, 0.9, 0.5);
+        recordFastSamples(hedging);
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        String first = hedging.hedge(() -> {
+            subscriptions.incrementAndGet();
+            return Mono.just("primary").delayElement(Duration.ofMillis(100));
+        }).block();
+
+        assertEquals("primary", first);
+        assertEquals(1, subscriptions.get());
+        assertEquals(1, meterRegistry.counter("api.page.hedges", "result", "denied").count());
+    }
+
+    @Test
+    void hedge_noRequestPermit_waitsForPrimary() {
+        PageFetchHedging hedging = hedging(true, 0.9, 1.0);
+        recordFastSamples(hedging);
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        String result = hedging.hedge(() -> {
+            subscriptions.incrementAndGet();
+            return Mono.just("primary").delayElement(Duration.ofMillis(100));
+        }, () -> false).block();
+
+        assertEquals("primary", result);
+        assertEquals(1, subscriptions.get());
+        assertEquals(1, meterRegistry.counter("api.page.hedges", "result", "denied").count());
+        assertEquals(0, meterRegistry.counter("api.page.hedges", "result", "sent").count());
+    }
+
+    private void recordFastSamples(PageFetchHedging hedging) {
+        for (int i = 0; i < 10; i++) {
+            hedging.recordLatency(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+    }
+
+    private PageFetchHedging hedging(boolean enabled, double percentile, double budgetRatio) {
+        return new PageFetchHedging(meterRegistry, enabled, percentile, 10, 10, 0, budgetRatio);
+    }
+}
@@ -0,0 +1,64 @@
+package com.octtools.appliance.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestRateLimiterTest {
+
+    private final AtomicLong nanoTime = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    @Test
+    void constructor_validatesInputs() {
+        assertThrows(IllegalArgumentException.class, () -> new RequestRateLimiter(-1));
+    }
+
+    @Test
+    void reserve_spacesRequestsEvenly() {
+        RequestRateLimiter limiter = new RequestRateLimiter(4, nanoTime::get);
+
+        assertEquals(0, limiter.reserve());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(250), limiter.reserve());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), limiter.reserve());
+
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(150), limiter.reserve());
+    }
+
+    @Test
+    void reserve_idlePeriodDoesNotAllowBurst() {
+        RequestRateLimiter limiter = new RequestRateLimiter(4, nanoTime::get);
+        limiter.reserve();
+
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        assertEquals(0, limiter.reserve());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(250), limiter.reserve());
+    }
+
+    @Test
+    void tryAcquire_onlyTakesStartedSlot() {
+        RequestRateLimiter limiter = new RequestRateLimiter(4, nanoTime::get);
+        limiter.reserve();
+
+        assertFalse(limiter.tryAcquire());
+
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(250));
+        assertTrue(limiter.tryAcquire());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(250), limiter.reserve());
+    }
+
+    @Test
+    void zeroRate_neverWaits() {
+        RequestRateLimiter limiter = new RequestRateLimiter(0, nanoTime::get);
+
+        assertFalse(limiter.isEnabled());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, limiter.reserve());
+            assertTrue(limiter.tryAcquire());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.octtools.appliance.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.retry.context.RetryContextSupport;
+import org.springframework.retry.support.RetrySynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryBudgetTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong nanoTime = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    @AfterEach
+    void tearDown() {
+        RetrySynchronizationManager.clear();
+    }
+
+    @Test
+    void constructor_validatesInputs() {
+        assertThrows(IllegalArgumentException.class, () -> new RetryBudget(meterRegistry, -0.1, 10, 10));
+        assertThrows(IllegalArgumentException.class, () -> new RetryBudget(meterRegistry, 0.2, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new RetryBudget(meterRegistry, 0.2, 10, -1));
+    }
+
+    @Test
+    void tryAcquireRetry_allowsRatioOfRecentRequests() {
+        RetryBudget budget = budget(0.2, 0);
+
+        for (int i = 0; i < 50; i++) {
+            budget.recordRequest();
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(budget.tryAcquireRetry());
+        }
+        assertFalse(budget.tryAcquireRetry());
+        assertEquals(1.0, budget.usage());
+        assertEquals(10, meterRegistry.counter("api.retry.budget.retries", "result", "allowed").count());
+        assertEquals(1, meterRegistry.counter("api.retry.budget.retries", "result", "denied").count());
+        assertEquals(1.0, meterRegistry.get("api.retry.budget.usage").gauge().value());
+    }
+
+    @Test
+    void tryAcquireRetry_minimumAllowsRetriesAtLowTraffic() {
+        RetryBudget budget = budget(0.2, 3);
+
+        budget.recordRequest();
+
+        assertTrue(budget.tryAcquireRetry());
+        assertTrue(budget.tryAcquireRetry());
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+    }
+
+    @Test
+    void tryAcquireRetry_windowSlidesPastOldRetries() {
+        RetryBudget budget = budget(0.2, 2);
+        assertTrue(budget.tryAcquireRetry());
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(9));
+        assertFalse(budget.tryAcquireRetry());
+
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertTrue(budget.tryAcquireRetry());
+        assertEquals(0.5, budget.usage());
+    }
+
+    @Test
+    void beforeAttempt_firstAttemptCountsAsRequest() {
+        RetryBudget budget = budget(0.2, 0);
+
+        budget.beforeAttempt("drain");
+
+        assertEquals(1, meterRegistry.counter("api.retry.budget.requests").count());
+    }
+
+    @Test
+    void beforeAttempt_retryOverBudget_failsFastWithLastFailure() {
+        RetryBudget budget = budget(0.2, 0);
+        RetryContextSupport context = new RetryContextSupport(null);
+        RuntimeException upstreamFailure = new RuntimeException("503");
+        context.registerThrowable(upstreamFailure);
+        RetrySynchronizationManager.register(context);
+
+        RetryBudgetExhaustedException e = assertThrows(RetryBudgetExhaustedException.class,
+                () -> budget.beforeAttempt("drain"));
+
+        assertSame(upstreamFailure, e.getCause());
+        assertEquals(0, meterRegistry.counter("api.retry.budget.requests").count());
+    }
+
+    private RetryBudget budget(double ratio, int minRetriesPerWindow) {
+        return new RetryBudget(meterRegistry, ratio, 10, minRetriesPerWindow, nanoTime::get);
+    }
+}
@@ -0,0 +1,118 @@
+package com.octtools.appliance.config;
+
+import com.octtools.appliance.client.ApplianceBackends;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.util.List;
+
+import static com.octtools.appliance.support.TestConstants.TEST_APPLIANCE_ID;
+import static com.octtools.appliance.support.TestConstants.TEST_BACKEND;
+import static com.octtools.appliance.support.TestConstants.TEST_BACKEND_2;
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebClientConfigTest {
+
+    private final WebClientConfig config = new WebClientConfig();
+
+    @Test
+    void connectionProvider_appliesMaxConnections() {
+        ConnectionProvider provider = config.connectionProvider("appliance-api", 100, 500, 2000, 30, 300, 15, false);
+        try {
+            assertEquals(100, provider.maxConnections());
+        } finally {
+            provider.dispose();
+        }
+    }
+
+    @Test
+    void connectionProvider_validatesInputs() {
+        assertThrows(IllegalArgumentException.class,
+            () -> config.connectionProvider("appliance-api", 0, 500, 2000, 30, 300, 15, false));
+        assertThrows(IllegalArgumentException.class,
+            () -> config.connectionProvider("appliance-api", 100, 0, 2000, 30, 300, 15, false));
+        assertThrows(IllegalArgumentException.class,
+            () -> config.connectionProvider("appliance-api", 100, 500, 0, 30, 300, 15, false));
+        assertThrows(IllegalArgumentException.class,
+            () -> config.connectionProvider("appliance-api", 100, 500, 2000, 30, 10, 15, false));
+    }
+
+    @Test
+    void applianceBackends_noneConfigured_usesSingleApiBackend() {
+        try (ApplianceBackends backends = applianceBackends(new MockEnvironment())) {
+            assertEquals(List.of(ApplianceBackends.DEFAULT_BACKEND), backends.names());
+            assertNull(backends.get(null).getPageSize());
+        }
+    }
+
+    @Test
+    void applianceBackends_bindsConfiguredBackends() {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("appliance.backends[0].name", TEST_BACKEND)
+            .withProperty("appliance.backends[0].base-url", "http://us-east.appliances")
+            .withProperty("appliance.backends[1].name", TEST_BACKEND_2)
+            .withProperty("appliance.backends[1].page-size", "250")
+            .withProperty("appliance.backends[1].max-requests-per-second", "20")
+            .withProperty("appliance.backends[1].max-in-flight", "50");
+
+        try (ApplianceBackends backends = applianceBackends(environment)) {
+            assertEquals(List.of(TEST_BACKEND, TEST_BACKEND_2), backends.names());
+            assertNull(backends.get(TEST_BACKEND).getPageSize());
+            assertEquals(250, backends.get(TEST_BACKEND_2).getPageSize());
+            assertEquals(50, backends.get(TEST_BACKEND_2).getMaxInFlight());
+        }
+    }
+
+    @Test
+    void applianceBackends_unnamedEntry_failsStartup() {
+        MockEnvironment environment = new MockEnvironment().withProperty("appliance.backends[0].page-size", "250");
+
+        assertThrows(IllegalArgumentException.class, () -> applianceBackends(environment));
+    }
+
+    private ApplianceBackends applianceBackends(MockEnvironment environment) {
+        return config.applianceBackends(environment, new SimpleMeterRegistry(), "http://appliances", "Basic token",
+            100, 500, 2000, 30, 300, 15, false, false);
+    }
+
+    @Test
+    void toUriTag_collapsesApplianceIds() {
+        assertEquals("/api/1.0/appliances/{id}/drain",
+            WebClientConfig.toUriTag("/api/1.0/appliances/" + TEST_APPLIANCE_ID + "/drain"));
+        assertEquals("/api/1.0/appliances/{id}/remediate",
+            WebClientConfig.toUriTag("/api/1.0/appliances/" + TEST_APPLIANCE_ID + "/remediate"));
+        assertEquals("/api/1.0/appliances",
+            WebClientConfig.toUriTag("/api/1.0/appliances?first=100&after=abc"));
+    }
+
+    @Test
+    void recordApiRequests_tagsOutcomeByStatus() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        for (HttpStatus status : new HttpStatus[]{HttpStatus.OK, HttpStatus.NOT_FOUND, HttpStatus.SERVICE_UNAVAILABLE}) {
+            WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(status).build()))
+                .filter(WebClientConfig.recordApiRequests(registry, TEST_BACKEND))
+                .build()
+                .get().uri("http://appliances/api/1.0/appliances")
+                .exchangeToMono(ClientResponse::releaseBody)
+                .block();
+        }
+        WebClient failing = WebClient.builder()
+            .exchangeFunction(request -> Mono.error(new IOException("connection reset")))
+            .filter(WebClientConfig.recordApiRequests(registry, TEST_BACKEND))
+            .build();
+        assertThrows(Exception.class, () -> failing.get().uri("http://appliances/api/1.0/appliances").retrieve().toBodilessEntity().block());
+
+        for (String outcome : new String[]{WebClientConfig.OUTCOME_SUCCESS, WebClientConfig.OUTCOME_CLIENT_ERROR,
+                WebClientConfig.OUTCOME_SERVER_ERROR, WebClientConfig.OUTCOME_IO_ERROR}) {
+            assertEquals(1, registry.get(WebClientConfig.API_REQUESTS_METER).tag("backend", TEST_BACKEND).tag("outcome", outcome).timer().count(), outcome);
+        }
+    }
+}
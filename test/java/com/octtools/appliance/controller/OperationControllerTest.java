@@ -0,0 +1,120 @@
+package com.octtools.appliance.controller;
+
+import com.octtools.appliance.model.Operation;
+import com.octtools.appliance.model.OperationQuery;
+import com.octtools.appliance.repository.OperationReader;
+import com.octtools.appliance.service.OperationQueryCache;
+import com.octtools.appliance.service.OperationRetentionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static com.octtools.appliance.support.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OperationControllerTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Mock
+    private OperationQueryCache operationQueryCache;
+
+    @Mock
+    private OperationRetentionService retentionService;
+
+    @Mock
+    private OperationReader operationReader;
+
+    private OperationController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new OperationController(operationQueryCache, retentionService, operationReader);
+    }
+
+    @Test
+    void queryOperations_rejectsMissingOrEmptyApplianceIds() {
+        assertBadRequest(OperationQuery.builder().build());
+        assertBadRequest(OperationQuery.builder().applianceIds(List.of()).build());
+    }
+
+    @Test
+    void queryOperations_rejectsMoreThanMaxApplianceIds() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i <= 1000; i++) {
+            ids.add("appliance-" + i);
+        }
+        assertBadRequest(OperationQuery.builder().applianceIds(ids).build());
+    }
+
+    @Test
+    void queryOperations_rejectsBlankApplianceIds() {
+        assertBadRequest(OperationQuery.builder().applianceIds(List.of(TEST_APPLIANCE_ID, "  ")).build());
+        assertBadRequest(OperationQuery.builder().applianceIds(Arrays.asList(TEST_APPLIANCE_ID, null)).build());
+    }
+
+    @Test
+    void queryOperations_rejectsNonPositiveLimit() {
+        assertBadRequest(OperationQuery.builder().applianceIds(List.of(TEST_APPLIANCE_ID)).limitPerAppliance(0).build());
+        assertBadRequest(OperationQuery.builder().applianceIds(List.of(TEST_APPLIANCE_ID)).limitPerAppliance(-1).build());
+    }
+
+    @Test
+    void queryOperations_rejectsFromNotBeforeTo() {
+        assertBadRequest(OperationQuery.builder().applianceIds(List.of(TEST_APPLIANCE_ID)).from(T0).to(T0).build());
+        assertBadRequest(OperationQuery.builder().applianceIds(List.of(TEST_APPLIANCE_ID))
+            .from(T0.plusSeconds(1)).to(T0).build());
+    }
+
+    @Test
+    void queryOperations_trimsAndDeduplicatesIdsInRequestOrder() {
+        Operation operation = Operation.builder().id(1L).applianceId(TEST_APPLIANCE_ID_2).build();
+        when(operationReader.findLatestByApplianceIds(any(), isNull(), isNull(), anyInt()))
+            .thenReturn(Map.of(TEST_APPLIANCE_ID_2, List.of(operation)));
+
+        ResponseEntity<Map<String, List<Operation>>> response = controller.queryOperations(OperationQuery.builder()
+            .applianceIds(List.of(" " + TEST_APPLIANCE_ID_2, TEST_APPLIANCE_ID, TEST_APPLIANCE_ID_2 + " "))
+            .build());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(TEST_APPLIANCE_ID_2, TEST_APPLIANCE_ID), new ArrayList<>(response.getBody().keySet()));
+        assertEquals(List.of(operation), response.getBody().get(TEST_APPLIANCE_ID_2));
+        assertEquals(List.of(), response.getBody().get(TEST_APPLIANCE_ID));
+        verify(operationReader).findLatestByApplianceIds(
+            eq(new LinkedHashSet<>(List.of(TEST_APPLIANCE_ID_2, TEST_APPLIANCE_ID))), isNull(), isNull(), eq(20));
+    }
+
+    @Test
+    void queryOperations_capsLimitAtMaxPageSize() {
+        when(operationReader.findLatestByApplianceIds(any(), eq(T0), eq(T0.plusSeconds(60)), anyInt()))
+            .thenReturn(Collections.emptyMap());
+
+        controller.queryOperations(OperationQuery.builder()
+            .applianceIds(List.of(TEST_APPLIANCE_ID)).from(T0).to(T0.plusSeconds(60)).limitPerAppliance(500).build());
+
+        verify(operationReader).findLatestByApplianceIds(any(), eq(T0), eq(T0.plusSeconds(60)), eq(100));
+    }
+
+    private void assertBadRequest(OperationQuery query) {
+        assertEquals(HttpStatus.BAD_REQUEST, controller.queryOperations(query).getStatusCode());
+        verifyNoInteractions(operationReader);
+    }
+}
@@ -0,0 +1,208 @@
+package com.octtools.appliance.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.octtools.appliance.model.Operation;
+import com.octtools.appliance.repository.OperationStore;
+import com.octtools.appliance.service.CollectionCadenceController;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.domain.PageRequest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static com.octtools.appliance.support.TestConstants.DRAIN_OPERATION_TYPE;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Run with: mvn test -Pbenchmark -Dtest=OperationReadBenchmarkTest [-Dbenchmark.readers=128 -Dbenchmark.duration-seconds=15]
+// or -Dtest=OperationReadBenchmarkTest#compareBulkQueryWithPerApplianceCalls for the bulk query alone
+// Concurrent readers hit the servlet and the reactive operations endpoints in turn while writer threads keep the
+// write pool busy. refresh-interval-ms=0 means every write makes cached pages stale, so most reads go to H2.
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "appliance.retention.archive-dir=target/benchmark-archive",
+        "appliance.cache.refresh-interval-ms=0",
+        "server.tomcat.threads.max=20"
+})
+@Slf4j
+class OperationReadBenchmarkTest {
+
+    private static final int OPERATIONS = Integer.getInteger("benchmark.operations", 20_000);
+    private static final int APPLIANCES = Integer.getInteger("benchmark.appliances", 2_000);
+    private static final int READERS = Integer.getInteger("benchmark.readers", 64);
+    private static final int WRITERS = Integer.getInteger("benchmark.writers", 8);
+    private static final int DURATION_SECONDS = Integer.getInteger("benchmark.duration-seconds", 10);
+    private static final int BULK_APPLIANCES = Integer.getInteger("benchmark.bulk-appliances", 200);
+    private static final int BULK_ROUNDS = 5;
+
+    @MockBean
+    private CollectionCadenceController cadenceController;
+
+    @Autowired
+    private OperationStore operationStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    @Test
+    void measureConcurrentReadThroughput() throws Exception {
+        seedOperations();
+        log.info("BENCHMARK: operations={} appliances={} readers={} writers={} duration={}s",
+                OPERATIONS, APPLIANCES, READERS, WRITERS, DURATION_SECONDS);
+
+        // Short warmup of both paths before measuring
+        run("/api/v1/operations", 2);
+        run("/api/v1/reactive/operations", 2);
+
+        log.info("BENCHMARK: path                                  reads/s   p50 (ms)   p99 (ms)   errors   writes/s");
+        Result servlet = run("/api/v1/operations", DURATION_SECONDS);
+        Result reactive = run("/api/v1/reactive/operations", DURATION_SECONDS);
+        servlet.log("servlet   /api/v1/operations");
+        reactive.log("reactive  /api/v1/reactive/operations");
+
+        assertTrue(servlet.reads() > 0 && reactive.reads() > 0, "No successful reads");
+    }
+
+    // The latest operations of many appliances: one GET per appliance versus a single bulk query. The first round
+    // reads through cold page caches; later rounds let the GETs hit the cache
+    @Test
+    void compareBulkQueryWithPerApplianceCalls() throws Exception {
+        seedOperations();
+        List<String> applianceIds = IntStream.range(0, BULK_APPLIANCES).mapToObj(i -> "appliance-" + i).toList();
+        HttpRequest bulkRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/operations/query"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(
+                        Map.of("applianceIds", applianceIds, "limitPerAppliance", 20))))
+                .build();
+
+        log.info("BENCHMARK: round   {} x GET /operations (ms)   POST /operations/query (ms)", BULK_APPLIANCES);
+        for (int round = 1; round <= BULK_ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (String applianceId : applianceIds) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(
+                        "http://localhost:" + port + "/api/v1/operations?applianceId=" + applianceId + "&size=20")).build();
+                assertEquals(200, httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+            }
+            double perApplianceMs = (System.nanoTime() - start) / 1_000_000.0;
+
+            start = System.nanoTime();
+            assertEquals(200, httpClient.send(bulkRequest, HttpResponse.BodyHandlers.discarding()).statusCode());
+            double bulkMs = (System.nanoTime() - start) / 1_000_000.0;
+            log.info("BENCHMARK: {}", String.format("%5d %26.1f %29.1f", round, perApplianceMs, bulkMs));
+        }
+    }
+
+    private void seedOperations() {
+        if (operationStore.findAll(PageRequest.of(0, 1)).getTotalElements() >= OPERATIONS) {
+            return;
+        }
+        for (int i = 0; i < OPERATIONS; i++) {
+            operationStore.save(operation(i));
+        }
+    }
+
+    private Result run(String path, int seconds) throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong writes = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        List<List<Long>> latencies = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(READERS + WRITERS);
+
+        for (int w = 0; w < WRITERS; w++) {
+            pool.submit(() -> {
+                while (running.get()) {
+                    operationStore.save(operation(ThreadLocalRandom.current().nextInt(OPERATIONS)));
+                    writes.incrementAndGet();
+                }
+            });
+        }
+        for (int r = 0; r < READERS; r++) {
+            List<Long> readerLatencies = new ArrayList<>();
+            latencies.add(readerLatencies);
+            pool.submit(() -> {
+                while (running.get()) {
+                    String applianceId = "appliance-" + ThreadLocalRandom.current().nextInt(APPLIANCES);
+                    HttpRequest request = HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + port + path + "?applianceId=" + applianceId + "&size=20"))
+                            .timeout(Duration.ofSeconds(30))
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() == 200) {
+                            readerLatencies.add(System.nanoTime() - start);
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+        running.set(false);
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES), "Benchmark threads did not stop");
+
+        List<Long> all = new ArrayList<>();
+        latencies.forEach(all::addAll);
+        Collections.sort(all);
+        return new Result(all, errors.get(), writes.get(), seconds);
+    }
+
+    private Operation operation(int i) {
+        return Operation.builder()
+                .applianceId("appliance-" + (i % APPLIANCES))
+                .operationType(DRAIN_OPERATION_TYPE)
+                .processedAt(Instant.now())
+                .drainId("drain-" + i)
+                .build();
+    }
+
+    private record Result(List<Long> sortedLatencies, long errors, long writes, int seconds) {
+
+        long reads() {
+            return sortedLatencies.size();
+        }
+
+        void log(String label) {
+            OperationReadBenchmarkTest.log.info("BENCHMARK: {}", String.format("%-36s %8d %10.1f %10.1f %8d %10d",
+                    label, reads() / seconds, percentileMs(0.50), percentileMs(0.99), errors, writes / seconds));
+        }
+
+        double percentileMs(double percentile) {
+            if (sortedLatencies.isEmpty()) {
+                return 0;
+            }
+            int index = Math.min(sortedLatencies.size() - 1, (int) Math.ceil(percentile * sortedLatencies.size()) - 1);
+            return sortedLatencies.get(index) / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.octtools.appliance.health;
+
+import com.octtools.appliance.config.WebClientConfig;
+import com.octtools.appliance.service.ApplianceMonitorService;
+import com.octtools.appliance.service.LeaderElectionService;
+import com.octtools.appliance.service.RemediationProcessor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PipelineHealthContributorTest {
+
+    @Mock
+    private RemediationProcessor remediationProcessor;
+
+    @Mock
+    private ApplianceMonitorService monitorService;
+
+    @Mock
+    private LeaderElectionService leaderElection;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PipelineHealthContributor contributor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(remediationProcessor.getQueueCapacity()).thenReturn(2500);
+        lenient().when(remediationProcessor.getThreadPoolSize()).thenReturn(100);
+        lenient().when(leaderElection.isLeader()).thenReturn(true);
+        lenient().when(monitorService.getLastSuccessfulCycleAt()).thenReturn(Optional.of(Instant.now()));
+        // queue 0.8, cycle age 900s, 20 API requests per window, 25% errors, 3x latency, 250ms writes
+        contributor = new PipelineHealthContributor(remediationProcessor, monitorService, leaderElection, meterRegistry,
+            0.8, 900, 20, 0.25, 3.0, 250);
+    }
+
+    @Test
+    void constructor_validatesInputs() {
+        assertThrows(IllegalArgumentException.class, () -> new PipelineHealthContributor(
+            remediationProcessor, monitorService, leaderElection, meterRegistry, 0, 900, 20, 0.25, 3.0, 250));
+        assertThrows(IllegalArgumentException.class, () -> new PipelineHealthContributor(
+            remediationProcessor, monitorService, leaderElection, meterRegistry, 0.8, 0, 20, 0.25, 3.0, 250));
+        assertThrows(IllegalArgumentException.class, () -> new PipelineHealthContributor(
+            remediationProcessor, monitorService, leaderElection, meterRegistry, 0.8, 900, 20, 0.25, 1.0, 250));
+    }
+
+    @Test
+    void health_isUnknownUntilFirstRefreshAndCachedBetweenRefreshes() {
+        assertEquals(Status.UNKNOWN, health("executor").getStatus());
+
+        contributor.refresh();
+        assertEquals(Status.UP, health("executor").getStatus());
+
+        // Probes read the last result without touching the pipeline
+        health("executor");
+        health("executor");
+        verify(remediationProcessor, times(1)).getQueueDepth();
+    }
+
+    @Test
+    void executor_degradedWhenQueueNearlyFull() {
+        when(remediationProcessor.getQueueDepth()).thenReturn(2100);
+        when(remediationProcessor.getActiveThreads()).thenReturn(100);
+
+        contributor.refresh();
+
+        Health executor = health("executor");
+        assertEquals(PipelineHealthContributor.DEGRADED, executor.getStatus());
+        assertEquals(2100, executor.getDetails().get("queueDepth"));
+        assertEquals(0.84, executor.getDetails().get("queueUtilization"));
+        assertEquals(100, executor.getDetails().get("activeThreads"));
+    }
+
+    @Test
+    void collection_downWhenLastSuccessfulCycleTooOld() {
+        when(monitorService.getLastSuccessfulCycleAt()).thenReturn(Optional.of(Instant.now().minus(Duration.ofHours(1))));
+
+        contributor.refresh();
+
+        Health collection = health("collection");
+        assertEquals(Status.DOWN, collection.getStatus());
+        assertTrue((long) collection.getDetails().get("secondsSinceLastSuccess") >= 3600);
+    }
+
+    @Test
+    void collection_upOnFollowers() {
+        when(leaderElection.isLeader()).thenReturn(false);
+
+        contributor.refresh();
+
+        assertEquals(Status.UP, health("collection").getStatus());
+        verify(monitorService, never()).getLastSuccessfulCycleAt();
+    }
+
+    @Test
+    void api_degradedOnErrorRateWithinWindow() {
+        recordApiRequests(WebClientConfig.OUTCOME_SUCCESS, 30, 100);
+        recordApiRequests(WebClientConfig.OUTCOME_SERVER_ERROR, 10, 100);
+        recordApiRequests(WebClientConfig.OUTCOME_IO_ERROR, 5, 100);
+        // Client errors count as requests but not as errors
+        recordApiRequests(WebClientConfig.OUTCOME_CLIENT_ERROR, 5, 100);
+        contributor.refresh();
+
+        Health api = health("api");
+        assertEquals(PipelineHealthContributor.DEGRADED, api.getStatus());
+        assertEquals(50L, api.getDetails().get("requests"));
+        assertEquals(0.3, api.getDetails().get("errorRate"));
+
+        // Next window has only successes
+        recordApiRequests(WebClientConfig.OUTCOME_SUCCESS, 30, 100);
+        contributor.refresh();
+        assertEquals(Status.UP, health("api").getStatus());
+        assertEquals(0.0, health("api").getDetails().get("errorRate"));
+    }
+
+    @Test
+    void api_degradedWhenLatencyTriplesOverBaseline() {
+        recordApiRequests(WebClientConfig.OUTCOME_SUCCESS, 50, 100);
+        contributor.refresh();
+        assertEquals(Status.UP, health("api").getStatus());
+        assertEquals(100.0, health("api").getDetails().get("baselineLatencyMs"));
+
+        recordApiRequests(WebClientConfig.OUTCOME_SUCCESS, 50, 350);
+        contributor.refresh();
+
+        Health api = health("api");
+        assertEquals(PipelineHealthContributor.DEGRADED, api.getStatus());
+        assertEquals(350.0, api.getDetails().get("meanLatencyMs"));
+        // A slow window moves the baseline only slightly
+        assertEquals(102.5, api.getDetails().get("baselineLatencyMs"));
+    }
+
+    @Test
+    void api_upBelowMinimumRequests() {
+        recordApiRequests(WebClientConfig.OUTCOME_IO_ERROR, 5, 100);
+
+        contributor.refresh();
+
+        assertEquals(Status.UP, health("api").getStatus());
+        assertEquals(1.0, health("api").getDetails().get("errorRate"));
+    }
+
+    @Test
+    void database_degradedWhenWritesSlow() {
+        meterRegistry.timer(RemediationProcessor.OPERATION_SAVE_METER).record(400, TimeUnit.MILLISECONDS);
+        meterRegistry.timer(RemediationProcessor.OPERATION_SAVE_METER).record(200, TimeUnit.MILLISECONDS);
+        contributor.refresh();
+
+        Health database = health("database");
+        assertEquals(PipelineHealthContributor.DEGRADED, database.getStatus());
+        assertEquals(2L, database.getDetails().get("writes"));
+        assertEquals(300.0, database.getDetails().get("meanWriteLatencyMs"));
+
+        meterRegistry.timer(RemediationProcessor.OPERATION_SAVE_METER).record(5, TimeUnit.MILLISECONDS);
+        contributor.refresh();
+        assertEquals(Status.UP, health("database").getStatus());
+    }
+
+    private Health health(String name) {
+        return ((HealthIndicator) contributor.getContributor(name)).health();
+    }
+
+    private void recordApiRequests(String outcome, int count, long latencyMs) {
+        for (int i = 0; i < count; i++) {
+            meterRegistry.timer(WebClientConfig.API_REQUESTS_METER, "outcome", outcome).record(latencyMs, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.octtools.appliance.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogSamplerTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @Test
+    void constructor_validatesInputs() {
+        assertThrows(IllegalArgumentException.class, () -> new LogSampler(0));
+    }
+
+    @Test
+    void tryAcquire_allowsConfiguredLinesPerSecond() {
+        LogSampler sampler = new LogSampler(3, nanoTime::get);
+
+        assertTrue(sampler.tryAcquire());
+        assertTrue(sampler.tryAcquire());
+        assertTrue(sampler.tryAcquire());
+        assertFalse(sampler.tryAcquire());
+    }
+
+    @Test
+    void tryAcquire_resetsInNextWindow() {
+        LogSampler sampler = new LogSampler(1, nanoTime::get);
+        assertTrue(sampler.tryAcquire());
+        assertFalse(sampler.tryAcquire());
+
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertTrue(sampler.tryAcquire());
+        assertFalse(sampler.tryAcquire());
+    }
+}
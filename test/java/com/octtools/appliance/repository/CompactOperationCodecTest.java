@@ -0,0 +1,98 @@
+package com.octtools.appliance.repository;
+
+import com.octtools.appliance.model.Operation;
+import com.octtools.appliance.model.OperationRecord;
+import com.octtools.appliance.model.OperationType;
+import com.octtools.appliance.model.RemediationResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static com.octtools.appliance.support.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactOperationCodecTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-01T10:00:00Z");
+    private static final String REMEDIATION_UUID = "3f2b8c1e-9a4d-4e7f-b6a1-0c5d8e2f7a90";
+
+    @Test
+    void toRecord_storesUpstreamValuesTyped() {
+        Operation cycle = cycle(DRAIN_ID, ESTIMATED_TIME, REMEDIATION_UUID, REMEDIATION_RESULT);
+
+        OperationRecord record = CompactOperationCodec.toRecord(cycle);
+
+        assertEquals(OperationType.REMEDIATION_CYCLE.getCode(), record.getTypeCode());
+        assertEquals(UUID.fromString(DRAIN_ID), record.getDrainId());
+        assertNull(record.getDrainIdText());
+        assertEquals(29_172_345L, record.getDrainTimeMillis());
+        assertNull(record.getDrainTimeText());
+        assertEquals(UUID.fromString(REMEDIATION_UUID), record.getRemediationId());
+        assertEquals(RemediationResult.SUCCESS.getCode(), record.getResultCode());
+        assertNull(record.getResultText());
+        assertEquals(cycle, CompactOperationCodec.toOperation(record));
+    }
+
+    @Test
+    void toRecord_keepsValuesThatWouldNotRoundTripAsText() {
+        String upperCaseUuid = DRAIN_ID.toUpperCase();
+        Operation cycle = cycle(upperCaseUuid, "300", REMEDIATION_ID, "PARTIAL");
+
+        OperationRecord record = CompactOperationCodec.toRecord(cycle);
+
+        assertNull(record.getDrainId());
+        assertEquals(upperCaseUuid, record.getDrainIdText());
+        assertNull(record.getDrainTimeMillis());
+        assertEquals("300", record.getDrainTimeText());
+        assertEquals(REMEDIATION_ID, record.getRemediationIdText());
+        assertEquals(CompactOperationCodec.RESULT_OTHER, record.getResultCode());
+        assertEquals(cycle, CompactOperationCodec.toOperation(record));
+    }
+
+    @Test
+    void toRecord_nonCanonicalDurationIsKeptAsText() {
+        // Parses, but Duration would print it back as PT1H30M
+        Operation drain = cycle(DRAIN_ID, "PT90M", null, null);
+
+        OperationRecord record = CompactOperationCodec.toRecord(drain);
+
+        assertEquals("PT90M", record.getDrainTimeText());
+        assertEquals(drain, CompactOperationCodec.toOperation(record));
+    }
+
+    @Test
+    void toRecord_absentValuesStayNull() {
+        Operation drain = Operation.builder()
+            .id(OPERATION_ID)
+            .applianceId(TEST_APPLIANCE_ID)
+            .operationType(DRAIN_OPERATION_TYPE)
+            .processedAt(T0)
+            .build();
+
+        OperationRecord record = CompactOperationCodec.toRecord(drain);
+
+        assertEquals(CompactOperationCodec.RESULT_NONE, record.getResultCode());
+        assertEquals(drain, CompactOperationCodec.toOperation(record));
+    }
+
+    @Test
+    void toRecord_rejectsUnknownOperationType() {
+        Operation unknown = Operation.builder().operationType("REBOOT").build();
+
+        assertThrows(IllegalArgumentException.class, () -> CompactOperationCodec.toRecord(unknown));
+    }
+
+    private Operation cycle(String drainId, String drainTime, String remediationId, String result) {
+        return Operation.builder()
+            .id(OPERATION_ID)
+            .applianceId(TEST_APPLIANCE_ID)
+            .operationType(CYCLE_OPERATION_TYPE)
+            .processedAt(T0)
+            .drainId(drainId)
+            .estimatedTimeToDrain(drainTime)
+            .remediationId(remediationId)
+            .remediationResult(result)
+            .build();
+    }
+}
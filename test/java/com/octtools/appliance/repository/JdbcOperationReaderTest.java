@@ -0,0 +1,158 @@
+package com.octtools.appliance.repository;
+
+import com.octtools.appliance.model.Operation;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.octtools.appliance.support.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Writes commit through JPA so the reader's separate pool can see them
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JdbcOperationReaderTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-01T10:00:00Z");
+
+    @Autowired
+    private OperationRepository operationRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JpaOperationStore store;
+    private JdbcOperationReader reader;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = new JpaOperationStore(operationRepository);
+        operationRepository.deleteAll();
+
+        HikariConfig config = new HikariConfig();
+        try (Connection connection = dataSource.getConnection()) {
+            config.setJdbcUrl(connection.getMetaData().getURL());
+            config.setUsername(connection.getMetaData().getUserName());
+        }
+        config.setReadOnly(true);
+        config.setMaximumPoolSize(2);
+        reader = new JdbcOperationReader(new HikariDataSource(config));
+    }
+
+    @AfterEach
+    void tearDown() {
+        reader.close();
+        operationRepository.deleteAll();
+    }
+
+    @Test
+    void reads_matchJpaStore() {
+        Operation drain = store.save(Operation.builder()
+            .applianceId(TEST_APPLIANCE_ID)
+            .backend(TEST_BACKEND)
+            .operationType(DRAIN_OPERATION_TYPE)
+            .processedAt(T0)
+            .drainId(DRAIN_ID)
+            .estimatedTimeToDrain(ESTIMATED_TIME)
+            .build());
+        Operation remediate = store.save(Operation.builder()
+            .applianceId(TEST_APPLIANCE_ID)
+            .operationType(REMEDIATE_OPERATION_TYPE)
+            .processedAt(T0.plusSeconds(1))
+            .remediationId(REMEDIATION_ID)
+            .remediationResult(REMEDIATION_RESULT)
+            .build());
+        // Values that do not fit the typed columns are kept in the text columns
+        Operation untyped = store.save(Operation.builder()
+            .applianceId("other-appliance")
+            .operationType(DRAIN_OPERATION_TYPE)
+            .processedAt(T0.plusSeconds(2))
+            .drainId("not-a-uuid")
+            .estimatedTimeToDrain("soon")
+            .build());
+
+        assertEquals(drain, reader.findById(drain.getId()).orElseThrow());
+        assertTrue(reader.findById(-1L).isEmpty());
+
+        Page<Operation> all = reader.findAll(PageRequest.of(0, 2));
+        assertEquals(List.of(untyped, remediate), all.getContent());
+        assertEquals(3, all.getTotalElements());
+
+        Page<Operation> byAppliance = reader.findByApplianceId(TEST_APPLIANCE_ID, PageRequest.of(0, 10));
+        assertEquals(store.findByApplianceId(TEST_APPLIANCE_ID, PageRequest.of(0, 10)).getContent(), byAppliance.getContent());
+        assertEquals(2, byAppliance.getTotalElements());
+    }
+
+    @Test
+    void findLatestByApplianceIds_limitsEachApplianceWithinRange() {
+        Operation[] saved = new Operation[5];
+        for (int i = 0; i < saved.length; i++) {
+            saved[i] = store.save(Operation.builder()
+                .applianceId(i % 2 == 0 ? TEST_APPLIANCE_ID : TEST_APPLIANCE_ID_2)
+                .operationType(DRAIN_OPERATION_TYPE)
+                .processedAt(T0.plusSeconds(i))
+                .drainId(DRAIN_ID)
+                .build());
+        }
+
+        Map<String, List<Operation>> latest = reader.findLatestByApplianceIds(
+            List.of(TEST_APPLIANCE_ID, TEST_APPLIANCE_ID_2, "unknown"), null, null, 2);
+        assertEquals(List.of(saved[4], saved[2]), latest.get(TEST_APPLIANCE_ID));
+        assertEquals(List.of(saved[3], saved[1]), latest.get(TEST_APPLIANCE_ID_2));
+        assertFalse(latest.containsKey("unknown"));
+
+        Map<String, List<Operation>> ranged = reader.findLatestByApplianceIds(
+            List.of(TEST_APPLIANCE_ID, TEST_APPLIANCE_ID_2), T0.plusSeconds(1), T0.plusSeconds(4), 10);
+        assertEquals(List.of(saved[2]), ranged.get(TEST_APPLIANCE_ID));
+        assertEquals(List.of(saved[3], saved[1]), ranged.get(TEST_APPLIANCE_ID_2));
+    }
+
+    @Test
+    void findLatestByApplianceIds_ranksPerApplianceAcrossBatches() {
+        List<String> applianceIds = new ArrayList<>();
+        for (int i = 0; i <= JdbcOperationReader.IN_LIST_BATCH_SIZE; i++) {
+            applianceIds.add("appliance-" + i);
+        }
+        String last = applianceIds.get(applianceIds.size() - 1);
+        List<Operation> saved = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            saved.add(store.save(Operation.builder()
+                .applianceId(i % 2 == 0 ? applianceIds.get(0) : last)
+                .operationType(DRAIN_OPERATION_TYPE)
+                .processedAt(T0.plusSeconds(i))
+                .drainId(DRAIN_ID)
+                .build()));
+        }
+        store.save(Operation.builder()
+            .applianceId(applianceIds.get(0))
+            .operationType(DRAIN_OPERATION_TYPE)
+            .processedAt(T0.plusSeconds(4))
+            .drainId(DRAIN_ID)
+            .build());
+
+        Map<String, List<Operation>> latest = reader.findLatestByApplianceIds(applianceIds, null, null, 2);
+        assertEquals(2, latest.size());
+        assertEquals(2, latest.get(applianceIds.get(0)).size());
+        assertEquals(List.of(saved.get(3), saved.get(1)), latest.get(last));
+
+        Map<String, List<Operation>> ranged = reader.findLatestByApplianceIds(
+            applianceIds, T0.plusSeconds(1), T0.plusSeconds(4), 10);
+        assertEquals(List.of(saved.get(2)), ranged.get(applianceIds.get(0)));
+        assertEquals(List.of(saved.get(3), saved.get(1)), ranged.get(last));
+    }
+}
@@ -0,0 +1,62 @@
+package com.octtools.appliance.repository;
+
+import com.octtools.appliance.model.Operation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.util.List;
+
+import static com.octtools.appliance.support.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class JpaOperationStoreTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-01T10:00:00Z");
+
+    @Autowired
+    private OperationRepository operationRepository;
+
+    private JpaOperationStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new JpaOperationStore(operationRepository);
+    }
+
+    @Test
+    void save_roundTripsThroughCompactRow() {
+        Operation drain = store.save(Operation.builder()
+            .applianceId(TEST_APPLIANCE_ID)
+            .operationType(DRAIN_OPERATION_TYPE)
+            .processedAt(T0)
+            .drainId(DRAIN_ID)
+            .estimatedTimeToDrain(ESTIMATED_TIME)
+            .build());
+        Operation remediate = store.save(Operation.builder()
+            .applianceId(TEST_APPLIANCE_ID)
+            .operationType(REMEDIATE_OPERATION_TYPE)
+            .processedAt(T0.plusSeconds(1))
+            .remediationId(REMEDIATION_ID)
+            .remediationResult(REMEDIATION_RESULT)
+            .build());
+
+        assertNotNull(drain.getId());
+        assertEquals(drain, store.findById(drain.getId()).orElseThrow());
+
+        Page<Operation> page = store.findByApplianceId(TEST_APPLIANCE_ID, PageRequest.of(0, 10));
+        assertEquals(List.of(remediate, drain), page.getContent());
+        assertEquals(List.of(drain), store.findProcessedBefore(T0.plusSeconds(1), 10));
+    }
+
+    @Test
+    void findLatestByApplianceIds_isServedByJdbcReader() {
+        assertThrows(UnsupportedOperationException.class,
+            () -> store.findLatestByApplianceIds(List.of(TEST_APPLIANCE_ID), null, null, 1));
+    }
+}
@@ -0,0 +1,232 @@
+package com.octtools.appliance.repository;
+
+import com.octtools.appliance.model.Operation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static com.octtools.appliance.support.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedLogOperationStoreTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-01T10:00:00Z");
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path logDir;
+
+    private MappedLogOperationStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new MappedLogOperationStore(logDir, SEGMENT_SIZE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void constructor_validatesInputs() {
+        assertThrows(IllegalArgumentException.class, () -> new MappedLogOperationStore(logDir, 8));
+    }
+
+    @Test
+    void save_assignsSequentialIdsAndRoundTripsAllFields() {
+        Operation drain = store.save(drain(TEST_APPLIANCE_ID, T0));
+        Operation remediate = store.save(remediate(TEST_APPLIANCE_ID, T0.plusSeconds(1)));
+
+        assertEquals(1L, drain.getId());
+        assertEquals(2L, remediate.getId());
+        assertEquals(drain, store.findById(1L).orElseThrow());
+        assertEquals(remediate, store.findById(2L).orElseThrow());
+        assertTrue(store.findById(3L).isEmpty());
+    }
+
+    @Test
+    void findAll_pagesNewestFirst() {
+        for (int i = 0; i < 5; i++) {
+            store.save(drain(i % 2 == 0 ? TEST_APPLIANCE_ID : TEST_APPLIANCE_ID_2, T0.plusSeconds(i)));
+        }
+
+        Page<Operation> page = store.findAll(PageRequest.of(1, 2));
+
+        assertEquals(List.of(3L, 2L), ids(page));
+        assertEquals(5, page.getTotalElements());
+
+        Page<Operation> appliancePage = store.findByApplianceId(TEST_APPLIANCE_ID, PageRequest.of(0, 2));
+        assertEquals(List.of(5L, 3L), ids(appliancePage));
+        assertEquals(3, appliancePage.getTotalElements());
+        assertEquals(0, store.findByApplianceId("unknown", PageRequest.of(0, 2)).getTotalElements());
+    }
+
+    @Test
+    void findLatestByApplianceIds_groupsNewestFirstWithinRangeAndLimit() {
+        for (int i = 0; i < 6; i++) {
+            store.save(drain(i % 2 == 0 ? TEST_APPLIANCE_ID : TEST_APPLIANCE_ID_2, T0.plusSeconds(i)));
+        }
+        store.deleteAllById(List.of(5L));
+
+        Map<String, List<Operation>> latest = store.findLatestByApplianceIds(
+            List.of(TEST_APPLIANCE_ID, "unknown", TEST_APPLIANCE_ID_2), null, null, 2);
+        assertEquals(List.of(TEST_APPLIANCE_ID, TEST_APPLIANCE_ID_2), List.copyOf(latest.keySet()));
+        assertEquals(List.of(3L, 1L), latest.get(TEST_APPLIANCE_ID).stream().map(Operation::getId).toList());
+        assertEquals(List.of(6L, 4L), latest.get(TEST_APPLIANCE_ID_2).stream().map(Operation::getId).toList());
+
+        Map<String, List<Operation>> ranged = store.findLatestByApplianceIds(
+            List.of(TEST_APPLIANCE_ID, TEST_APPLIANCE_ID_2), T0.plusSeconds(1), T0.plusSeconds(5), 10);
+        assertEquals(List.of(3L), ranged.get(TEST_APPLIANCE_ID).stream().map(Operation::getId).toList());
+        assertEquals(List.of(4L, 2L), ranged.get(TEST_APPLIANCE_ID_2).stream().map(Operation::getId).toList());
+    }
+
+    @Test
+    void findProcessedBefore_returnsOldestFirstUpToCutoff() {
+        for (int i = 0; i < 5; i++) {
+            store.save(drain(TEST_APPLIANCE_ID, T0.plusSeconds(i)));
+        }
+
+        List<Operation> expired = store.findProcessedBefore(T0.plusSeconds(3), 10);
+        assertEquals(List.of(1L, 2L, 3L), expired.stream().map(Operation::getId).toList());
+        assertEquals(2, store.findProcessedBefore(T0.plusSeconds(3), 2).size());
+    }
+
+    @Test
+    void deleteAllById_removesFromAllIndexes() {
+        store.save(drain(TEST_APPLIANCE_ID, T0));
+        store.save(drain(TEST_APPLIANCE_ID_2, T0));
+        store.save(drain(TEST_APPLIANCE_ID, T0));
+
+        store.deleteAllById(List.of(1L, 2L, 99L));
+
+        assertTrue(store.findById(1L).isEmpty());
+        assertEquals(List.of(3L), ids(store.findAll(PageRequest.of(0, 10))));
+        assertEquals(1, store.findAll(PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(1, store.findByApplianceId(TEST_APPLIANCE_ID, PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(0, store.findByApplianceId(TEST_APPLIANCE_ID_2, PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void reopen_recoversOperationsDeletesAndNextId() {
+        store.save(drain(TEST_APPLIANCE_ID, T0));
+        store.save(remediate(TEST_APPLIANCE_ID, T0));
+        store.deleteAllById(List.of(1L));
+        store.close();
+
+        store = new MappedLogOperationStore(logDir, SEGMENT_SIZE);
+
+        assertTrue(store.findById(1L).isEmpty());
+        assertEquals(REMEDIATION_RESULT, store.findById(2L).orElseThrow().getRemediationResult());
+        assertEquals(3L, store.save(drain(TEST_APPLIANCE_ID, T0)).getId());
+        assertEquals(2, store.findByApplianceId(TEST_APPLIANCE_ID, PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void save_rollsSegmentsAndDeletingOldestRemovesDeadSegments() throws IOException {
+        for (int i = 0; i < 200; i++) {
+            store.save(drain(TEST_APPLIANCE_ID, T0.plusSeconds(i)));
+        }
+        long segmentsBefore = segmentCount();
+        assertTrue(segmentsBefore > 2, "200 records should span several 4KB segments");
+
+        store.deleteAllById(store.findProcessedBefore(T0.plusSeconds(150), 200).stream().map(Operation::getId).toList());
+
+        assertTrue(segmentCount() < segmentsBefore);
+        assertEquals(50, store.findAll(PageRequest.of(0, 10)).getTotalElements());
+        store.close();
+
+        store = new MappedLogOperationStore(logDir, SEGMENT_SIZE);
+        assertEquals(50, store.findAll(PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(151L, store.findProcessedBefore(T0.plusSeconds(1000), 1).get(0).getId());
+    }
+
+    @Test
+    void reopen_afterDeletingEverything_neverReusesIds() throws IOException {
+        // 300 tombstones overflow a 4KB segment, so the active segment ends up holding nothing but deletes
+        for (int i = 0; i < 300; i++) {
+            store.save(drain(TEST_APPLIANCE_ID, T0.plusSeconds(i)));
+        }
+        store.deleteAllById(store.findProcessedBefore(T0.plusSeconds(1000), 300).stream().map(Operation::getId).toList());
+        assertEquals(1, segmentCount());
+        store.close();
+
+        store = new MappedLogOperationStore(logDir, SEGMENT_SIZE);
+
+        assertEquals(0, store.findAll(PageRequest.of(0, 10)).getTotalElements());
+        assertTrue(store.save(drain(TEST_APPLIANCE_ID, T0)).getId() > 300L);
+    }
+
+    @Test
+    void reopen_stopsAtCorruptedTailRecord() throws IOException {
+        store.save(drain(TEST_APPLIANCE_ID, T0));
+        store.save(drain(TEST_APPLIANCE_ID, T0));
+        store.close();
+
+        // Flip a body byte of the second record, as a torn write would leave it
+        Path segment = firstSegment();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            channel.read(header, 0);
+            int secondRecord = 8 + header.flip().getInt();
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) 0xFF}), secondRecord + 20);
+        }
+
+        store = new MappedLogOperationStore(logDir, SEGMENT_SIZE);
+
+        assertTrue(store.findById(1L).isPresent());
+        assertTrue(store.findById(2L).isEmpty());
+        assertEquals(2L, store.save(drain(TEST_APPLIANCE_ID, T0)).getId());
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(logDir)) {
+            return files.count();
+        }
+    }
+
+    private Path firstSegment() throws IOException {
+        try (Stream<Path> files = Files.list(logDir)) {
+            return files.sorted().findFirst().orElseThrow();
+        }
+    }
+
+    private List<Long> ids(Page<Operation> page) {
+        return page.getContent().stream().map(Operation::getId).toList();
+    }
+
+    private Operation drain(String applianceId, Instant at) {
+        return Operation.builder()
+            .applianceId(applianceId)
+            .backend(TEST_BACKEND)
+            .operationType(DRAIN_OPERATION_TYPE)
+            .processedAt(at)
+            .drainId(DRAIN_ID)
+            .estimatedTimeToDrain(ESTIMATED_TIME)
+            .build();
+    }
+
+    private Operation remediate(String applianceId, Instant at) {
+        return Operation.builder()
+            .applianceId(applianceId)
+            .operationType(REMEDIATE_OPERATION_TYPE)
+            .processedAt(at)
+            .remediationId(REMEDIATION_ID)
+            .remediationResult(REMEDIATION_RESULT)
+            .build();
+    }
+}
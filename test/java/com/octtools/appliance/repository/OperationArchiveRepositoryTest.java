@@ -0,0 +1,120 @@
+package com.octtools.appliance.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.octtools.appliance.model.Operation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static com.octtools.appliance.support.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OperationArchiveRepositoryTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-01T10:15:00Z");
+
+    @TempDir
+    Path archiveDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private OperationArchiveRepository archive;
+
+    @BeforeEach
+    void setUp() {
+        archive = new OperationArchiveRepository(objectMapper, archiveDir.toString());
+    }
+
+    @Test
+    void constructor_validatesInputs() {
+        assertThrows(IllegalArgumentException.class, () -> new OperationArchiveRepository(objectMapper, " "));
+    }
+
+    @Test
+    void append_writesHourPartitionsReadableAcrossAppends() {
+        archive.append(List.of(operation(1L, TEST_APPLIANCE_ID, T0), operation(2L, TEST_APPLIANCE_ID_2, T0.plusSeconds(3600))));
+        archive.append(List.of(operation(3L, TEST_APPLIANCE_ID, T0.plusSeconds(60))));
+
+        assertTrue(Files.exists(archiveDir.resolve("operations-2024-01-01T10.jsonl.gz")));
+        assertTrue(Files.exists(archiveDir.resolve("operations-2024-01-01T11.jsonl.gz")));
+        assertEquals(3, archive.count());
+        assertEquals(2, archive.count(TEST_APPLIANCE_ID));
+
+        List<Operation> newestFirst = archive.find(null, 0, 10);
+        assertEquals(List.of(2L, 3L, 1L), newestFirst.stream().map(Operation::getId).toList());
+        assertEquals(DRAIN_ID, newestFirst.get(0).getDrainId());
+        assertEquals(T0.plusSeconds(3600), newestFirst.get(0).getProcessedAt());
+    }
+
+    @Test
+    void find_appliesOffsetLimitAndApplianceFilter() {
+        archive.append(List.of(
+            operation(1L, TEST_APPLIANCE_ID, T0),
+            operation(2L, TEST_APPLIANCE_ID, T0.plusSeconds(10)),
+            operation(3L, TEST_APPLIANCE_ID_2, T0.plusSeconds(20)),
+            operation(4L, TEST_APPLIANCE_ID, T0.plusSeconds(7200))));
+
+        assertEquals(List.of(2L, 1L), archive.find(TEST_APPLIANCE_ID, 1, 5).stream().map(Operation::getId).toList());
+        assertEquals(List.of(3L), archive.find(null, 1, 1).stream().map(Operation::getId).toList());
+        assertTrue(archive.find(null, 4, 5).isEmpty());
+    }
+
+    @Test
+    void constructor_reloadsExistingPartitions() {
+        archive.append(List.of(operation(1L, TEST_APPLIANCE_ID, T0)));
+
+        OperationArchiveRepository reopened = new OperationArchiveRepository(objectMapper, archiveDir.toString());
+
+        assertEquals(1, reopened.count());
+        assertEquals(1L, reopened.find(null, 0, 1).get(0).getId());
+    }
+
+    @Test
+    void append_writesIndexSoCountsNeedNoArchiveReads() throws Exception {
+        archive.append(List.of(operation(1L, TEST_APPLIANCE_ID, T0), operation(2L, TEST_APPLIANCE_ID_2, T0.plusSeconds(60))));
+        archive.append(List.of(operation(3L, TEST_APPLIANCE_ID, T0.plusSeconds(120))));
+        assertTrue(Files.exists(archiveDir.resolve("operations-2024-01-01T10.index.json")));
+
+        // Counts come from the index alone: an unreadable partition with a matching index still counts
+        Path partition = archiveDir.resolve("operations-2024-01-01T10.jsonl.gz");
+        long size = Files.size(partition);
+        Files.write(partition, new byte[(int) size]);
+        OperationArchiveRepository reopened = new OperationArchiveRepository(objectMapper, archiveDir.toString());
+
+        assertEquals(3, reopened.count());
+        assertEquals(2, reopened.count(TEST_APPLIANCE_ID));
+        assertEquals(0, reopened.count("unknown-appliance"));
+        assertTrue(reopened.find("unknown-appliance", 0, 5).isEmpty());
+    }
+
+    @Test
+    void constructor_rebuildsMissingOrStaleIndex() throws Exception {
+        archive.append(List.of(operation(1L, TEST_APPLIANCE_ID, T0)));
+        Path index = archiveDir.resolve("operations-2024-01-01T10.index.json");
+        Files.delete(index);
+
+        assertEquals(1, new OperationArchiveRepository(objectMapper, archiveDir.toString()).count(TEST_APPLIANCE_ID));
+        assertTrue(Files.exists(index));
+
+        // An index that covers less than the partition, as after a crash between the two writes, is rebuilt too
+        byte[] indexBefore = Files.readAllBytes(index);
+        archive.append(List.of(operation(2L, TEST_APPLIANCE_ID, T0.plusSeconds(60))));
+        Files.write(index, indexBefore);
+
+        assertEquals(2, new OperationArchiveRepository(objectMapper, archiveDir.toString()).count(TEST_APPLIANCE_ID));
+    }
+
+    private Operation operation(Long id, String applianceId, Instant processedAt) {
+        return Operation.builder()
+            .id(id)
+            .applianceId(applianceId)
+            .operationType(DRAIN_OPERATION_TYPE)
+            .processedAt(processedAt)
+            .drainId(DRAIN_ID)
+            .build();
+    }
+}
@@ -0,0 +1,106 @@
+package com.octtools.appliance.repository;
+
+import com.octtools.appliance.model.Operation;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static com.octtools.appliance.support.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Run with: mvn test -Pbenchmark
+@Tag("benchmark")
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Slf4j
+class OperationStoreBenchmarkTest {
+
+    private static final int OPERATIONS = 20_000;
+    private static final int APPLIANCES = 1_000;
+    private static final int QUERIES = 2_000;
+    private static final int WARMUP_OPERATIONS = 5_000;
+
+    @Autowired
+    private OperationRepository operationRepository;
+
+    @TempDir
+    Path logDir;
+
+    @Test
+    void compareInsertRateAndQueryLatency() {
+        operationRepository.deleteAll();
+        Result jpa = run("jpa", new JpaOperationStore(operationRepository));
+
+        Result mappedLog;
+        try (MappedLogOperationStore store = new MappedLogOperationStore(logDir, 64 * 1024 * 1024)) {
+            mappedLog = run("mapped-log", store);
+        }
+
+        log.info("BENCHMARK: backend     inserts/s   findAll p0 (us)   byAppliance p0 (us)   findById (us)");
+        log.info("BENCHMARK: {}", jpa);
+        log.info("BENCHMARK: {}", mappedLog);
+    }
+
+    private Result run(String name, OperationStore store) {
+        // Warm up JIT and connection pool on a throwaway prefix, then measure from a known count
+        insert(store, WARMUP_OPERATIONS);
+        runQueries(store, QUERIES / 4);
+
+        long start = System.nanoTime();
+        insert(store, OPERATIONS);
+        double insertsPerSecond = OPERATIONS / ((System.nanoTime() - start) / 1e9);
+
+        long[] latencies = runQueries(store, QUERIES);
+        assertEquals(OPERATIONS + WARMUP_OPERATIONS, store.findAll(PageRequest.of(0, 1)).getTotalElements());
+        return new Result(name, insertsPerSecond, latencies[0] / 1e3 / QUERIES, latencies[1] / 1e3 / QUERIES, latencies[2] / 1e3 / QUERIES);
+    }
+
+    private void insert(OperationStore store, int count) {
+        for (int i = 0; i < count; i++) {
+            store.save(Operation.builder()
+                .applianceId("appliance-" + (i % APPLIANCES))
+                .operationType(i % 2 == 0 ? DRAIN_OPERATION_TYPE : REMEDIATE_OPERATION_TYPE)
+                .processedAt(Instant.now())
+                .drainId(DRAIN_ID)
+                .estimatedTimeToDrain(ESTIMATED_TIME)
+                .build());
+        }
+    }
+
+    private long[] runQueries(OperationStore store, int queries) {
+        long findAllNanos = 0;
+        long byApplianceNanos = 0;
+        long byIdNanos = 0;
+        for (int i = 0; i < queries; i++) {
+            long start = System.nanoTime();
+            assertEquals(20, store.findAll(PageRequest.of(0, 20)).getNumberOfElements());
+            findAllNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            assertFalse(store.findByApplianceId("appliance-" + (i % APPLIANCES), PageRequest.of(0, 20)).isEmpty());
+            byApplianceNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            store.findById((long) (i * 7 % WARMUP_OPERATIONS) + 1);
+            byIdNanos += System.nanoTime() - start;
+        }
+        return new long[] {findAllNanos, byApplianceNanos, byIdNanos};
+    }
+
+    private record Result(String backend, double insertsPerSecond, double findAllMicros, double byApplianceMicros, double byIdMicros) {
+
+        @Override
+        public String toString() {
+            return String.format("%-10s %10.0f %17.1f %21.1f %15.1f", backend, insertsPerSecond, findAllMicros, byApplianceMicros, byIdMicros);
+        }
+    }
+}
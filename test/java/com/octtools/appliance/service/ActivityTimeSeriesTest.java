@@ -0,0 +1,143 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.model.ActivityBucket;
+import com.octtools.appliance.model.Operation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.octtools.appliance.support.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActivityTimeSeriesTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-01T10:00:00Z");
+
+    private MutableClock clock;
+    private ActivityTimeSeries timeSeries;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(T0);
+        timeSeries = new ActivityTimeSeries(60, clock);
+    }
+
+    @Test
+    void constructor_validatesInputs() {
+        assertThrows(IllegalArgumentException.class, () -> new ActivityTimeSeries(0));
+    }
+
+    @Test
+    void query_countsActivityInCurrentBucket() {
+        timeSeries.onOperationRecorded(new OperationRecordedEvent(operation(DRAIN_OPERATION_TYPE)));
+        timeSeries.onOperationRecorded(new OperationRecordedEvent(operation(REMEDIATE_OPERATION_TYPE, REMEDIATION_RESULT)));
+        timeSeries.recordProcessed(TimeUnit.MILLISECONDS.toNanos(100), true);
+        timeSeries.recordProcessed(TimeUnit.MILLISECONDS.toNanos(300), false);
+        timeSeries.recordQueueFull();
+
+        List<ActivityBucket> series = timeSeries.query(1, 1);
+
+        assertEquals(1, series.size());
+        ActivityBucket bucket = series.get(0);
+        assertEquals(T0, bucket.getStart());
+        assertEquals(1, bucket.getDrains());
+        assertEquals(1, bucket.getRemediations());
+        assertEquals(2, bucket.getProcessed());
+        assertEquals(1, bucket.getFailures());
+        assertEquals(1, bucket.getQueueFullRejections());
+        assertEquals(200.0, bucket.getAverageLatencyMs(), 0.001);
+    }
+
+    @Test
+    void query_countsRemediationsByResult() {
+        timeSeries.onOperationRecorded(new OperationRecordedEvent(operation(REMEDIATE_OPERATION_TYPE, "SUCCESS")));
+        clock.set(T0.plus(Duration.ofMinutes(1)));
+        timeSeries.onOperationRecorded(new OperationRecordedEvent(operation(REMEDIATE_OPERATION_TYPE, "FAILURE")));
+        timeSeries.onOperationRecorded(new OperationRecordedEvent(operation(REMEDIATE_OPERATION_TYPE, "PARTIAL")));
+        timeSeries.onOperationRecorded(new OperationRecordedEvent(operation(DRAIN_OPERATION_TYPE)));
+
+        List<ActivityBucket> series = timeSeries.query(5, 1);
+
+        assertEquals(3, series.get(0).getRemediations());
+        assertEquals(Map.of("SUCCESS", 1L, "FAILURE", 1L, ActivityTimeSeries.OTHER_RESULT, 1L),
+            series.get(0).getRemediationsByResult());
+    }
+
+    @Test
+    void query_aggregatesMinuteBucketsToCoarserResolution() {
+        for (int minute = 0; minute < 10; minute++) {
+            clock.set(T0.plus(Duration.ofMinutes(minute)));
+            timeSeries.recordQueueFull();
+        }
+
+        List<ActivityBucket> series = timeSeries.query(5, 2);
+
+        assertEquals(2, series.size());
+        assertEquals(T0, series.get(0).getStart());
+        assertEquals(5, series.get(0).getQueueFullRejections());
+        assertEquals(T0.plus(Duration.ofMinutes(5)), series.get(1).getStart());
+        assertEquals(5, series.get(1).getQueueFullRejections());
+    }
+
+    @Test
+    void query_dropsActivityOlderThanRetention() {
+        timeSeries.recordQueueFull();
+
+        // Same ring slot one full retention later: the old count must not leak into the new minute
+        clock.set(T0.plus(Duration.ofMinutes(60)));
+        timeSeries.recordProcessed(0, true);
+
+        List<ActivityBucket> series = timeSeries.query(1, 120);
+        assertEquals(60, series.size());
+        assertEquals(0, series.stream().mapToLong(ActivityBucket::getQueueFullRejections).sum());
+        assertEquals(1, series.get(59).getProcessed());
+    }
+
+    private Operation operation(String type) {
+        return operation(type, null);
+    }
+
+    private Operation operation(String type, String result) {
+        return Operation.builder()
+            .applianceId(TEST_APPLIANCE_ID)
+            .operationType(type)
+            .remediationResult(result)
+            .processedAt(T0)
+            .build();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void set(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
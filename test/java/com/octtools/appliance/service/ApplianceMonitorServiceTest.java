@@ -1,7 +1,10 @@
 package com.octtools.appliance.service;
 
 import com.octtools.appliance.client.ApplianceApiClient;
+import com.octtools.appliance.client.ApplianceBackend;
+import com.octtools.appliance.client.ApplianceBackends;
 import com.octtools.appliance.model.Appliance;
+import com.octtools.appliance.model.StalenessRule;
 import com.octtools.appliance.model.api.AppliancePageResponse;
 import com.octtools.appliance.model.api.PageInfo;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -28,11 +32,30 @@ class ApplianceMonitorServiceTest {
     @Mock
     private RemediationProcessor remediationProcessor;
     
+    @Mock
+    private RemediationTaskQueue taskQueue;
+    
+    @Mock
+    private LeaderElectionService leaderElection;
+    
+    @Mock
+    private StalenessTimingWheel timingWheel;
+    
+    @Mock
+    private CollectionBackpressure backpressure;
+    
+    private ApplianceBackends backends;
+    
+    private StalenessPolicyService stalenessPolicies;
+    
     private ApplianceMonitorService service;
     
     @BeforeEach
     void setUp() {
-        service = new ApplianceMonitorService(apiClient, remediationProcessor, 10, 10); // pageSize=10, threshold=10min
+        lenient().when(leaderElection.isLeader()).thenReturn(true);
+        backends = new ApplianceBackends(List.of(ApplianceBackend.builder().name(TEST_BACKEND).build()));
+        stalenessPolicies = new StalenessPolicyService(List.of(), 10); // threshold=10min
+        service = new ApplianceMonitorService(apiClient, backends, remediationProcessor, taskQueue, leaderElection, timingWheel, backpressure, stalenessPolicies, 10, 2); // pageSize=10, maxResumeAttempts=2
     }
     
     @Test
@@ -101,6 +124,21 @@ class ApplianceMonitorServiceTest {
         assertTrue(result, "LIVE appliance with invalid timestamp should need remediation");
     }
     
+    @Test
+    void needsRemediation_followsStalenessRules() {
+        stalenessPolicies.replaceRules(List.of(
+            StalenessRule.builder().idPrefix("lab-").thresholdMinutes(60).build(),
+            StalenessRule.builder().status(OFFLINE_STATUS).thresholdMinutes(30).build()), "operator");
+        Instant now = Instant.now();
+        String fifteenMinutesAgo = DateTimeFormatter.ISO_INSTANT.format(now.minusSeconds(15 * 60));
+        String fortyMinutesAgo = DateTimeFormatter.ISO_INSTANT.format(now.minusSeconds(40 * 60));
+
+        assertFalse(service.needsRemediation(new Appliance("lab-1", LIVE_STATUS, fifteenMinutesAgo), now));
+        assertTrue(service.needsRemediation(new Appliance(TEST_APPLIANCE_ID, LIVE_STATUS, fifteenMinutesAgo), now));
+        assertFalse(service.needsRemediation(new Appliance(TEST_APPLIANCE_ID, OFFLINE_STATUS, fifteenMinutesAgo), now));
+        assertTrue(service.needsRemediation(new Appliance(TEST_APPLIANCE_ID, OFFLINE_STATUS, fortyMinutesAgo), now));
+    }
+    
     @Test
     void collectAndQueueStaleAppliances_callsApiClient() {
         AppliancePageResponse response = new AppliancePageResponse(
@@ -108,12 +146,29 @@ class ApplianceMonitorServiceTest {
             new PageInfo(1, false, null)
         );
         
-        when(apiClient.getAppliances(null, 10)).thenReturn(response);
+        when(apiClient.getAppliances(TEST_BACKEND, null, 10)).thenReturn(response);
         
-        service.collectAndQueueStaleAppliances();
+        service.collectAndQueueStaleAppliances(TEST_BACKEND);
         
-        verify(apiClient).getAppliances(null, 10);
-        verify(remediationProcessor).processAppliance(any());
+        verify(apiClient).getAppliances(TEST_BACKEND, null, 10);
+        verify(remediationProcessor).processStaleAppliance(any(), anyLong());
+    }
+
+    @Test
+    void updateCollectionSettings_appliesToNextCycle() {
+        service.updateCollectionSettings(50, 20);
+        when(apiClient.getAppliances(TEST_BACKEND, null, 50)).thenReturn(new AppliancePageResponse(
+            List.of(new Appliance(TEST_APPLIANCE_ID, LIVE_STATUS, DateTimeFormatter.ISO_INSTANT.format(Instant.now().minusSeconds(15 * 60)))),
+            new PageInfo(1, false, null)));
+
+        service.collectAndQueueStaleAppliances(TEST_BACKEND);
+
+        // 15 minutes without contact is no longer stale under a 20 minute threshold
+        verify(apiClient).getAppliances(TEST_BACKEND, null, 50);
+        verify(remediationProcessor, never()).processStaleAppliance(any(), anyLong());
+        assertEquals(50, service.getPageSize());
+        assertEquals(20, service.getStaleThresholdMinutes());
+        assertThrows(IllegalArgumentException.class, () -> service.updateCollectionSettings(0, 20));
     }
 
     @Test
@@ -130,13 +185,208 @@ class ApplianceMonitorServiceTest {
             new PageInfo(2, false, null)
         );
         
-        when(apiClient.getAppliances(null, 10)).thenReturn(page1);
-        when(apiClient.getAppliances("cursor-page2", 10)).thenReturn(page2);
+        when(apiClient.getAppliances(TEST_BACKEND, null, 10)).thenReturn(page1);
+        when(apiClient.getAppliances(TEST_BACKEND, "cursor-page2", 10)).thenReturn(page2);
+        
+        service.collectAndQueueStaleAppliances(TEST_BACKEND);
+        
+        verify(apiClient).getAppliances(TEST_BACKEND, null, 10);
+        verify(apiClient).getAppliances(TEST_BACKEND, "cursor-page2", 10);
+        verify(remediationProcessor, times(2)).processStaleAppliance(any(), anyLong());
+    }
+
+    @Test
+    void collectAndQueueStaleAppliances_waitsForBacklogBetweenPagesOnly() {
+        AppliancePageResponse page1 = new AppliancePageResponse(
+            List.of(new Appliance("app1", LIVE_STATUS, null)),
+            new PageInfo(2, true, "cursor-page2")
+        );
+        AppliancePageResponse page2 = new AppliancePageResponse(
+            List.of(new Appliance("app2", LIVE_STATUS, null)),
+            new PageInfo(2, false, null)
+        );
+        
+        when(apiClient.getAppliances(TEST_BACKEND, null, 10)).thenReturn(page1);
+        when(apiClient.getAppliances(TEST_BACKEND, "cursor-page2", 10)).thenReturn(page2);
+        when(backpressure.awaitCapacity(Duration.ZERO)).thenReturn(Duration.ofMillis(250));
+        
+        service.collectAndQueueStaleAppliances(TEST_BACKEND);
+        
+        // One gap between two pages; nothing to wait for after the last page
+        verify(backpressure, times(1)).awaitCapacity(any());
+    }
+
+    @Test
+    void collectAndQueueStaleAppliances_queueModeSkipsBackpressure() {
+        AppliancePageResponse page1 = new AppliancePageResponse(
+            List.of(new Appliance("app1", LIVE_STATUS, null)),
+            new PageInfo(2, true, "cursor-page2")
+        );
+        AppliancePageResponse page2 = new AppliancePageResponse(
+            List.of(new Appliance("app2", LIVE_STATUS, null)),
+            new PageInfo(2, false, null)
+        );
+        
+        when(taskQueue.isEnabled()).thenReturn(true);
+        when(apiClient.getAppliances(TEST_BACKEND, null, 10)).thenReturn(page1);
+        when(apiClient.getAppliances(TEST_BACKEND, "cursor-page2", 10)).thenReturn(page2);
+        
+        service.collectAndQueueStaleAppliances(TEST_BACKEND);
+        
+        verifyNoInteractions(backpressure);
+    }
+
+    @Test
+    void collectAndQueueStaleAppliances_failedPage_resumesFromCheckpoint() {
+        AppliancePageResponse page1 = new AppliancePageResponse(
+            List.of(new Appliance("app1", LIVE_STATUS, null)),
+            new PageInfo(2, true, "cursor-page2")
+        );
+        AppliancePageResponse page2 = new AppliancePageResponse(
+            List.of(new Appliance("app2", LIVE_STATUS, null)),
+            new PageInfo(2, false, null)
+        );
+        
+        when(apiClient.getAppliances(TEST_BACKEND, null, 10)).thenReturn(page1);
+        when(apiClient.getAppliances(TEST_BACKEND, "cursor-page2", 10))
+            .thenThrow(new IllegalStateException("upstream down"))
+            .thenReturn(page2);
+        
+        service.collectAndQueueStaleAppliances(TEST_BACKEND);
+        assertTrue(service.isResumePending(TEST_BACKEND));
+        
+        service.collectAndQueueStaleAppliances(TEST_BACKEND);
+        assertFalse(service.isResumePending(TEST_BACKEND));
+        
+        // The first page was dispatched once and never fetched again
+        verify(apiClient, times(1)).getAppliances(TEST_BACKEND, null, 10);
+        verify(apiClient, times(2)).getAppliances(TEST_BACKEND, "cursor-page2", 10);
+        verify(remediationProcessor, times(2)).processStaleAppliance(any(), anyLong());
+    }
+
+    @Test
+    void collectAndQueueStaleAppliances_resumeAttemptsExhausted_restartsFromFirstPage() {
+        when(apiClient.getAppliances(TEST_BACKEND, null, 10)).thenThrow(new IllegalStateException("upstream down"));
+        
+        service.collectAndQueueStaleAppliances(TEST_BACKEND);
+        service.collectAndQueueStaleAppliances(TEST_BACKEND);
+        assertTrue(service.isResumePending(TEST_BACKEND));
+        
+        service.collectAndQueueStaleAppliances(TEST_BACKEND);
+        assertFalse(service.isResumePending(TEST_BACKEND));
+    }
+
+    @Test
+    void collectAndQueueStaleAppliances_notLeader_dropsCheckpoint() {
+        when(apiClient.getAppliances(TEST_BACKEND, null, 10)).thenThrow(new IllegalStateException("upstream down"));
+        service.collectAndQueueStaleAppliances(TEST_BACKEND);
+        assertTrue(service.isResumePending(TEST_BACKEND));
+        
+        when(leaderElection.isLeader()).thenReturn(false);
+        service.collectAndQueueStaleAppliances(TEST_BACKEND);
+        
+        assertFalse(service.isResumePending(TEST_BACKEND));
+    }
+
+    @Test
+    void collectAndQueueStaleAppliances_keepsCycleStatePerBackend() {
+        backends = new ApplianceBackends(List.of(
+            ApplianceBackend.builder().name(TEST_BACKEND).build(),
+            ApplianceBackend.builder().name(TEST_BACKEND_2).pageSize(25).build()));
+        service = new ApplianceMonitorService(apiClient, backends, remediationProcessor, taskQueue, leaderElection, timingWheel, backpressure, stalenessPolicies, 10, 2);
+        Appliance stale = new Appliance(TEST_APPLIANCE_ID, LIVE_STATUS, null);
+        when(apiClient.getAppliances(TEST_BACKEND, null, 10)).thenThrow(new IllegalStateException("upstream down"));
+        when(apiClient.getAppliances(TEST_BACKEND_2, null, 25)).thenReturn(new AppliancePageResponse(
+            List.of(stale), new PageInfo(1, false, null)));
+
+        service.collectAndQueueStaleAppliances(TEST_BACKEND);
+        service.collectAndQueueStaleAppliances(TEST_BACKEND_2);
+
+        assertTrue(service.isResumePending(TEST_BACKEND));
+        assertFalse(service.isResumePending(TEST_BACKEND_2));
+        assertTrue(service.isResumePending());
+        // Fleet-wide freshness waits for every backend
+        assertTrue(service.getLastSuccessfulCycleAt().isEmpty());
+        assertEquals(TEST_BACKEND_2, stale.getBackend());
+        verify(remediationProcessor).processStaleAppliance(eq(stale), anyLong());
+        assertThrows(IllegalArgumentException.class, () -> service.collectAndQueueStaleAppliances("ap-south"));
+    }
+
+    @Test
+    void collectAndQueueStaleAppliances_skipsWhenNotLeader() {
+        when(leaderElection.isLeader()).thenReturn(false);
+        
+        service.collectAndQueueStaleAppliances(TEST_BACKEND);
+        
+        verifyNoInteractions(apiClient);
+        verify(remediationProcessor, never()).processStaleAppliance(any(), anyLong());
+    }
+
+    @Test
+    void collectAndQueueStaleAppliances_logsRemediationSummaryEvenWhenNotLeader() {
+        when(leaderElection.isLeader()).thenReturn(false);
+        
+        service.collectAndQueueStaleAppliances(TEST_BACKEND);
+        
+        verify(remediationProcessor).logSummary(TEST_BACKEND);
+    }
+
+    @Test
+    void collectAndQueueStaleAppliances_queueModeEnqueuesInsteadOfProcessing() {
+        Appliance stale = new Appliance("app1", LIVE_STATUS, null);
+        Appliance healthy = new Appliance("app2", OFFLINE_STATUS, null);
+        AppliancePageResponse response = new AppliancePageResponse(List.of(stale, healthy), new PageInfo(2, false, null));
+        
+        when(taskQueue.isEnabled()).thenReturn(true);
+        when(apiClient.getAppliances(TEST_BACKEND, null, 10)).thenReturn(response);
+        
+        service.collectAndQueueStaleAppliances(TEST_BACKEND);
+        
+        verify(taskQueue).enqueue(List.of(stale));
+        verify(remediationProcessor, never()).processStaleAppliance(any(), anyLong());
+    }
+
+    @Test
+    void collectAndQueueStaleAppliances_timingWheelTracksHealthyLiveAppliances() {
+        Instant lastContact = Instant.now().minusSeconds(60);
+        Appliance healthy = new Appliance("app1", LIVE_STATUS, DateTimeFormatter.ISO_INSTANT.format(lastContact));
+        Appliance stale = new Appliance("app2", LIVE_STATUS, null);
+        AppliancePageResponse response = new AppliancePageResponse(List.of(healthy, stale), new PageInfo(2, false, null));
+        
+        when(timingWheel.isEnabled()).thenReturn(true);
+        when(apiClient.getAppliances(TEST_BACKEND, null, 10)).thenReturn(response);
+        
+        service.collectAndQueueStaleAppliances(TEST_BACKEND);
+        
+        verify(timingWheel).schedule(healthy, lastContact.plusSeconds(10 * 60));
+        verify(timingWheel).cancel(TEST_BACKEND, "app2");
+        verify(remediationProcessor).processStaleAppliance(eq(stale), anyLong());
+    }
+
+    @Test
+    void collectAndQueueStaleAppliances_timingWheelUsesRuleThreshold() {
+        stalenessPolicies.replaceRules(List.of(StalenessRule.builder().idPrefix("lab-").thresholdMinutes(60).build()), "operator");
+        Instant lastContact = Instant.now().minusSeconds(15 * 60);
+        Appliance lab = new Appliance("lab-1", LIVE_STATUS, DateTimeFormatter.ISO_INSTANT.format(lastContact));
+        Appliance offline = new Appliance("app2", OFFLINE_STATUS, DateTimeFormatter.ISO_INSTANT.format(lastContact));
+        
+        when(timingWheel.isEnabled()).thenReturn(true);
+        when(apiClient.getAppliances(TEST_BACKEND, null, 10))
+            .thenReturn(new AppliancePageResponse(List.of(lab, offline), new PageInfo(2, false, null)));
+        
+        service.collectAndQueueStaleAppliances(TEST_BACKEND);
+        
+        verify(timingWheel).schedule(lab, lastContact.plusSeconds(60 * 60));
+        verify(timingWheel).cancel(TEST_BACKEND, "app2");
+        verify(remediationProcessor, never()).processStaleAppliance(any(), anyLong());
+    }
+
+    @Test
+    void onPredictedStale_dispatchesAppliance() {
+        Appliance appliance = new Appliance(TEST_APPLIANCE_ID, LIVE_STATUS, TIMESTAMP_2);
         
-        service.collectAndQueueStaleAppliances();
+        service.onPredictedStale(appliance);
         
-        verify(apiClient).getAppliances(null, 10);
-        verify(apiClient).getAppliances("cursor-page2", 10);
-        verify(remediationProcessor, times(2)).processAppliance(any());
+        verify(remediationProcessor).processStaleAppliance(eq(appliance), anyLong());
     }
 }
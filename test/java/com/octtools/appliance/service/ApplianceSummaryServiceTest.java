@@ -0,0 +1,131 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.model.ApplianceSummary;
+import com.octtools.appliance.model.Operation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.octtools.appliance.support.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplianceSummaryServiceTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+
+    private ApplianceSummaryService summaryService;
+
+    @BeforeEach
+    void setUp() {
+        summaryService = new ApplianceSummaryService(2);
+    }
+
+    @Test
+    void constructor_validatesInputs() {
+        assertThrows(IllegalArgumentException.class, () -> new ApplianceSummaryService(0));
+    }
+
+    @Test
+    void getSummary_unknownApplianceIsEmpty() {
+        assertTrue(summaryService.getSummary(TEST_APPLIANCE_ID).isEmpty());
+    }
+
+    @Test
+    void record_tracksCountsAndLatestResults() {
+        summaryService.record(drain(TEST_APPLIANCE_ID, T0));
+        summaryService.record(remediate(TEST_APPLIANCE_ID, T0.plusSeconds(10), REMEDIATION_RESULT));
+        summaryService.record(drain(TEST_APPLIANCE_ID, T0.plusSeconds(60)));
+        // An out-of-order arrival must not overwrite the newer remediation
+        summaryService.record(remediate(TEST_APPLIANCE_ID, T0.plusSeconds(5), "FAILED"));
+
+        ApplianceSummary summary = summaryService.getSummary(TEST_APPLIANCE_ID).orElseThrow();
+        assertEquals(2, summary.getDrainCount());
+        assertEquals(2, summary.getRemediateCount());
+        assertEquals(T0.plusSeconds(60), summary.getLastDrainAt());
+        assertEquals(T0.plusSeconds(10), summary.getLastRemediateAt());
+        assertEquals(REMEDIATION_RESULT, summary.getLastRemediationResult());
+    }
+
+    @Test
+    void record_remediationCycleCountsBothSteps() {
+        summaryService.record(Operation.builder()
+            .applianceId(TEST_APPLIANCE_ID)
+            .operationType(CYCLE_OPERATION_TYPE)
+            .processedAt(T0)
+            .drainId(DRAIN_ID)
+            .remediationId(REMEDIATION_ID)
+            .remediationResult(REMEDIATION_RESULT)
+            .build());
+
+        ApplianceSummary summary = summaryService.getSummary(TEST_APPLIANCE_ID).orElseThrow();
+        assertEquals(1, summary.getDrainCount());
+        assertEquals(1, summary.getRemediateCount());
+        assertEquals(T0, summary.getLastDrainAt());
+        assertEquals(REMEDIATION_RESULT, summary.getLastRemediationResult());
+    }
+
+    @Test
+    void onOperationRecorded_updatesSummary() {
+        summaryService.onOperationRecorded(new OperationRecordedEvent(drain(TEST_APPLIANCE_ID, T0)));
+
+        assertEquals(1, summaryService.getSummary(TEST_APPLIANCE_ID).orElseThrow().getDrainCount());
+    }
+
+    @Test
+    void getMostRemediated_ranksByRemediateCountWithinLeaderboard() {
+        summaryService.record(remediate("appliance-100", T0, REMEDIATION_RESULT));
+        summaryService.record(remediate(TEST_APPLIANCE_ID, T0, REMEDIATION_RESULT));
+        summaryService.record(remediate(TEST_APPLIANCE_ID, T0, REMEDIATION_RESULT));
+        summaryService.record(remediate(TEST_APPLIANCE_ID_2, T0, REMEDIATION_RESULT));
+
+        // Leaderboard holds two entries; appliance-456 is behind appliance-100 on the id tie-break
+        List<ApplianceSummary> top = summaryService.getMostRemediated(10);
+        assertEquals(List.of(TEST_APPLIANCE_ID, "appliance-100"), top.stream().map(ApplianceSummary::getApplianceId).toList());
+
+        // Overtaking the tail brings an evicted appliance back onto the board
+        summaryService.record(remediate(TEST_APPLIANCE_ID_2, T0, REMEDIATION_RESULT));
+        summaryService.record(remediate(TEST_APPLIANCE_ID_2, T0, REMEDIATION_RESULT));
+        top = summaryService.getMostRemediated(10);
+        assertEquals(List.of(TEST_APPLIANCE_ID_2, TEST_APPLIANCE_ID), top.stream().map(ApplianceSummary::getApplianceId).toList());
+        assertEquals(3, top.get(0).getRemediateCount());
+
+        assertEquals(1, summaryService.getMostRemediated(1).size());
+    }
+
+    @Test
+    void record_concurrentUpdatesAreNotLost() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 1000; i++) {
+            executor.submit(() -> summaryService.record(remediate(TEST_APPLIANCE_ID, T0, REMEDIATION_RESULT)));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1000, summaryService.getSummary(TEST_APPLIANCE_ID).orElseThrow().getRemediateCount());
+        assertEquals(1000, summaryService.getMostRemediated(1).get(0).getRemediateCount());
+    }
+
+    private Operation drain(String applianceId, Instant at) {
+        return Operation.builder()
+            .applianceId(applianceId)
+            .operationType(DRAIN_OPERATION_TYPE)
+            .processedAt(at)
+            .drainId(DRAIN_ID)
+            .build();
+    }
+
+    private Operation remediate(String applianceId, Instant at, String result) {
+        return Operation.builder()
+            .applianceId(applianceId)
+            .operationType(REMEDIATE_OPERATION_TYPE)
+            .processedAt(at)
+            .remediationId(REMEDIATION_ID)
+            .remediationResult(result)
+            .build();
+    }
+}
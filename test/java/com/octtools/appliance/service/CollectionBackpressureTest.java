@@ -0,0 +1,68 @@
+package com.octtools.appliance.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CollectionBackpressureTest {
+
+    @Mock
+    private RemediationProcessor remediationProcessor;
+
+    @Test
+    void constructor_validatesInputs() {
+        assertThrows(IllegalArgumentException.class, () -> new CollectionBackpressure(remediationProcessor, 0, 0, 60, 100));
+        assertThrows(IllegalArgumentException.class, () -> new CollectionBackpressure(remediationProcessor, 1.5, 0.5, 60, 100));
+        assertThrows(IllegalArgumentException.class, () -> new CollectionBackpressure(remediationProcessor, 0.8, 0.8, 60, 100));
+        assertThrows(IllegalArgumentException.class, () -> new CollectionBackpressure(remediationProcessor, 0.8, 0.5, -1, 100));
+        assertThrows(IllegalArgumentException.class, () -> new CollectionBackpressure(remediationProcessor, 0.8, 0.5, 60, 0));
+    }
+
+    @Test
+    void awaitCapacity_belowHighWaterMark_doesNotWait() {
+        when(remediationProcessor.queueUtilization()).thenReturn(0.79);
+        CollectionBackpressure backpressure = new CollectionBackpressure(remediationProcessor, 0.8, 0.5, 60, 1);
+
+        assertEquals(Duration.ZERO, backpressure.awaitCapacity(Duration.ZERO));
+        verify(remediationProcessor, times(1)).queueUtilization();
+    }
+
+    @Test
+    void awaitCapacity_aboveHighWaterMark_waitsUntilLowWaterMark() {
+        when(remediationProcessor.queueUtilization()).thenReturn(0.9, 0.9, 0.7, 0.6, 0.5);
+        CollectionBackpressure backpressure = new CollectionBackpressure(remediationProcessor, 0.8, 0.5, 60, 1);
+
+        Duration waited = backpressure.awaitCapacity(Duration.ZERO);
+
+        // Keeps waiting while the backlog is between the marks, resumes once it reaches the low-water mark
+        assertTrue(waited.toMillis() >= 3, "waited " + waited.toMillis() + "ms");
+        verify(remediationProcessor, atLeast(5)).queueUtilization();
+    }
+
+    @Test
+    void awaitCapacity_cycleBudgetSpent_resumesWithoutWaiting() {
+        when(remediationProcessor.queueUtilization()).thenReturn(1.0);
+        CollectionBackpressure backpressure = new CollectionBackpressure(remediationProcessor, 0.8, 0.5, 1, 1);
+
+        Duration waited = backpressure.awaitCapacity(Duration.ofSeconds(1));
+
+        assertTrue(waited.toMillis() < 100, "waited " + waited.toMillis() + "ms");
+    }
+
+    @Test
+    void awaitCapacity_backlogNeverDrains_boundedByMaxWait() {
+        when(remediationProcessor.queueUtilization()).thenReturn(1.0);
+        CollectionBackpressure backpressure = new CollectionBackpressure(remediationProcessor, 0.8, 0.5, 1, 10);
+
+        Duration waited = backpressure.awaitCapacity(Duration.ZERO);
+
+        assertTrue(waited.toMillis() >= 1000 && waited.toMillis() < 2000, "waited " + waited.toMillis() + "ms");
+    }
+}
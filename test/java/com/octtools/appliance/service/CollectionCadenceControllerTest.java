@@ -0,0 +1,147 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.client.ApplianceBackend;
+import com.octtools.appliance.client.ApplianceBackends;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static com.octtools.appliance.support.TestConstants.TEST_BACKEND;
+import static com.octtools.appliance.support.TestConstants.TEST_BACKEND_2;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CollectionCadenceControllerTest {
+
+    @Mock
+    private ApplianceMonitorService monitorService;
+
+    @Mock
+    private RemediationProcessor remediationProcessor;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private StartupWarmup startupWarmup;
+
+    private final ApplianceBackends backends = new ApplianceBackends(List.of(ApplianceBackend.builder().name(TEST_BACKEND).build()));
+
+    private CollectionCadenceController controller;
+
+    @BeforeEach
+    void setUp() {
+        // threshold=10min, max latency=12min => 2 minute scan budget, interval clamped to [30s, 300s]
+        controller = new CollectionCadenceController(monitorService, backends, remediationProcessor, taskScheduler, startupWarmup, 10, 12, 30, 300, 15);
+    }
+
+    @Test
+    void constructor_validatesInputs() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new CollectionCadenceController(monitorService, backends, remediationProcessor, taskScheduler, startupWarmup, 10, 10, 30, 300, 15));
+        assertThrows(IllegalArgumentException.class,
+            () -> new CollectionCadenceController(monitorService, backends, remediationProcessor, taskScheduler, startupWarmup, 10, 12, 30, 20, 15));
+    }
+
+    @Test
+    void computeNextDelay_idleExecutor_usesRemainingLatencyBudget() {
+        assertEquals(Duration.ofSeconds(90), controller.computeNextDelay(Duration.ofSeconds(30), 0.0));
+    }
+
+    @Test
+    void updateStaleThreshold_resizesLatencyBudget() {
+        controller.updateStaleThreshold(8);
+        assertEquals(Duration.ofSeconds(210), controller.computeNextDelay(Duration.ofSeconds(30), 0.0));
+
+        assertThrows(IllegalArgumentException.class, () -> controller.updateStaleThreshold(12));
+        assertEquals(Duration.ofSeconds(210), controller.computeNextDelay(Duration.ofSeconds(30), 0.0));
+    }
+
+    @Test
+    void computeNextDelay_slowCycle_clampsToMinInterval() {
+        assertEquals(Duration.ofSeconds(30), controller.computeNextDelay(Duration.ofMinutes(5), 0.0));
+    }
+
+    @Test
+    void computeNextDelay_saturatedExecutor_backsOffToMaxInterval() {
+        assertEquals(Duration.ofSeconds(300), controller.computeNextDelay(Duration.ofSeconds(30), 0.95));
+    }
+
+    @Test
+    void computeNextDelay_partialBacklog_stretchesProportionally() {
+        // Halfway between the backoff start (0.5) and full backoff (0.9): halfway between 90s and 300s
+        assertEquals(Duration.ofSeconds(195), controller.computeNextDelay(Duration.ofSeconds(30), 0.7));
+    }
+
+    @Test
+    void runCycle_schedulesNextCycleOnlyAfterCollectionReturns() {
+        controller.runCycle(TEST_BACKEND);
+
+        var inOrder = inOrder(monitorService, taskScheduler);
+        inOrder.verify(monitorService).collectAndQueueStaleAppliances(TEST_BACKEND);
+        inOrder.verify(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void runCycle_interruptedCycle_resumesAfterResumeDelay() {
+        when(monitorService.isResumePending(TEST_BACKEND)).thenReturn(true);
+
+        Instant before = Instant.now();
+        controller.runCycle(TEST_BACKEND);
+
+        ArgumentCaptor<Instant> startAt = ArgumentCaptor.forClass(Instant.class);
+        verify(taskScheduler).schedule(any(Runnable.class), startAt.capture());
+        Duration delay = Duration.between(before, startAt.getValue());
+        assertTrue(delay.compareTo(Duration.ofSeconds(15)) >= 0 && delay.compareTo(Duration.ofSeconds(16)) < 0,
+                "resume scheduled in " + delay);
+        verify(remediationProcessor, never()).queueUtilization();
+    }
+
+    @Test
+    void warmUpAndStartCycles_warmsUpThenStartsALoopPerBackend() {
+        ApplianceBackends twoBackends = new ApplianceBackends(List.of(
+            ApplianceBackend.builder().name(TEST_BACKEND).build(),
+            ApplianceBackend.builder().name(TEST_BACKEND_2).build()));
+        controller = new CollectionCadenceController(monitorService, twoBackends, remediationProcessor, taskScheduler, startupWarmup, 10, 12, 30, 300, 15);
+
+        controller.warmUpAndStartCycles();
+
+        ArgumentCaptor<Runnable> cycles = ArgumentCaptor.forClass(Runnable.class);
+        var inOrder = inOrder(startupWarmup, taskScheduler);
+        inOrder.verify(startupWarmup).run();
+        inOrder.verify(taskScheduler, times(2)).schedule(cycles.capture(), any(Instant.class));
+        verifyNoInteractions(monitorService);
+
+        cycles.getAllValues().forEach(Runnable::run);
+        verify(monitorService).collectAndQueueStaleAppliances(TEST_BACKEND);
+        verify(monitorService).collectAndQueueStaleAppliances(TEST_BACKEND_2);
+    }
+
+    @Test
+    void warmUpAndStartCycles_warmupFailure_stillStartsCycles() {
+        doThrow(new IllegalStateException("boom")).when(startupWarmup).run();
+
+        controller.warmUpAndStartCycles();
+
+        verify(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void runCycle_afterStop_doesNothing() {
+        controller.stop();
+
+        controller.runCycle(TEST_BACKEND);
+
+        verifyNoInteractions(monitorService, taskScheduler);
+    }
+}
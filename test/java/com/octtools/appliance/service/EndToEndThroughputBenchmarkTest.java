@@ -0,0 +1,112 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.client.ApplianceBackends;
+import com.octtools.appliance.support.StubApplianceApi;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Run with: mvn test -Pbenchmark [-Dbenchmark.fleet-size=1000000 -Dbenchmark.stale-fraction=0.002 ...]
+@Tag("benchmark")
+@SpringBootTest(properties = "appliance.retention.archive-dir=target/benchmark-archive")
+@Slf4j
+class EndToEndThroughputBenchmarkTest {
+
+    private static final int CYCLES = Integer.getInteger("benchmark.cycles", 3);
+    private static final long STALL_TIMEOUT_MS = 10_000;
+
+    private static StubApplianceApi stub;
+
+    // Cycles are driven by the test, not the cadence controller
+    @MockBean
+    private CollectionCadenceController cadenceController;
+
+    @Autowired
+    private ApplianceMonitorService monitorService;
+
+    @DynamicPropertySource
+    static void stubApi(DynamicPropertyRegistry registry) throws IOException {
+        stub = new StubApplianceApi(StubApplianceApi.Settings.builder()
+                .fleetSize(Integer.getInteger("benchmark.fleet-size", 50_000))
+                .staleFraction(Double.parseDouble(System.getProperty("benchmark.stale-fraction", "0.02")))
+                .latencyMedianMs(Long.getLong("benchmark.latency-median-ms", 5))
+                .latencyP99Ms(Long.getLong("benchmark.latency-p99-ms", 50))
+                .serverErrorRate(Double.parseDouble(System.getProperty("benchmark.server-error-rate", "0")))
+                .notFoundRate(Double.parseDouble(System.getProperty("benchmark.not-found-rate", "0")))
+                .timeoutRate(Double.parseDouble(System.getProperty("benchmark.timeout-rate", "0")))
+                .maxRequestsPerSecond(Integer.getInteger("benchmark.max-requests-per-second", 0))
+                .build());
+        registry.add("appliance.api.base-url", stub::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() throws IOException {
+        stub.close();
+    }
+
+    @Test
+    void measureCollectionAndRemediationThroughput() throws InterruptedException {
+        int expected = stub.staleCount();
+        log.info("BENCHMARK: fleet={} stale={} cycles={}", stub.getSettings().getFleetSize(), expected, CYCLES);
+        log.info("BENCHMARK: cycle   scan (ms)   cycle (ms)   remediated   remediations/s   p50 (ms)   p99 (ms)");
+
+        // First cycle warms up the JIT and connection pool and is reported but not counted
+        for (int cycle = 0; cycle <= CYCLES; cycle++) {
+            stub.resetStats();
+            long start = System.nanoTime();
+            monitorService.collectAndQueueStaleAppliances(ApplianceBackends.DEFAULT_BACKEND);
+            long scanNanos = System.nanoTime() - start;
+            awaitRemediations(expected);
+
+            List<Long> completions = new ArrayList<>();
+            for (long completedAt : stub.remediatedAtNanos().values()) {
+                completions.add(completedAt - start);
+            }
+            Collections.sort(completions);
+            assertFalse(completions.isEmpty(), "No appliance was remediated");
+
+            long cycleNanos = completions.get(completions.size() - 1);
+            log.info("BENCHMARK: {}", String.format("%-7s %9.0f %12.0f %12d %16.0f %10.0f %10.0f",
+                    cycle == 0 ? "warmup" : String.valueOf(cycle),
+                    scanNanos / 1e6, cycleNanos / 1e6, completions.size(),
+                    completions.size() / (cycleNanos / 1e9),
+                    percentile(completions, 0.50) / 1e6, percentile(completions, 0.99) / 1e6));
+        }
+    }
+
+    // Wait until every stale appliance is remediated, or progress stalls (e.g. rejected by a full executor queue)
+    private void awaitRemediations(int expected) throws InterruptedException {
+        int lastCount = -1;
+        long lastProgress = System.nanoTime();
+        while (stub.remediatedAtNanos().size() < expected) {
+            int count = stub.remediatedAtNanos().size();
+            if (count != lastCount) {
+                lastCount = count;
+                lastProgress = System.nanoTime();
+            } else if (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastProgress) > STALL_TIMEOUT_MS) {
+                log.warn("BENCHMARK: remediations stalled at {} of {}", count, expected);
+                return;
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static long percentile(List<Long> sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index));
+    }
+}
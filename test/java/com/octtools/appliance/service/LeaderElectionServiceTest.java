@@ -0,0 +1,114 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.repository.LeaderLeaseRepository;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderElectionServiceTest {
+
+    private static final int LEASE_SECONDS = 30;
+    private static final int RENEW_SECONDS = 10;
+
+    private LeaderLeaseRepository leaseRepository;
+    private LeaderElectionService instanceA;
+    private LeaderElectionService instanceB;
+
+    @BeforeEach
+    void setUp() {
+        // Both instances share one in-process H2 database, as two monitors would share a datasource
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:leader-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+
+        leaseRepository = new LeaderLeaseRepository(new JdbcTemplate(dataSource));
+        instanceA = newInstance("instance-a");
+        instanceB = newInstance("instance-b");
+    }
+
+    private LeaderElectionService newInstance(String instanceId) {
+        return new LeaderElectionService(leaseRepository, true, "appliance-collector", instanceId, LEASE_SECONDS, RENEW_SECONDS);
+    }
+
+    @Test
+    void constructor_validatesInputs() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new LeaderElectionService(leaseRepository, true, "lease", "", LEASE_SECONDS, RENEW_SECONDS));
+        assertThrows(IllegalArgumentException.class,
+            () -> new LeaderElectionService(leaseRepository, true, "lease", "instance", RENEW_SECONDS, RENEW_SECONDS));
+    }
+
+    @Test
+    void onlyOneInstanceHoldsTheLease() {
+        Instant now = Instant.now();
+
+        instanceA.refresh(now);
+        instanceB.refresh(now);
+
+        assertTrue(instanceA.isLeader(now));
+        assertFalse(instanceB.isLeader(now));
+    }
+
+    @Test
+    void leaderKeepsLeaseWhileRenewing() {
+        Instant start = Instant.now();
+        instanceA.refresh(start);
+
+        for (int tick = 1; tick <= 5; tick++) {
+            Instant now = start.plusSeconds((long) tick * RENEW_SECONDS);
+            instanceA.refresh(now);
+            instanceB.refresh(now);
+
+            assertTrue(instanceA.isLeader(now));
+            assertFalse(instanceB.isLeader(now));
+        }
+    }
+
+    @Test
+    void standbyTakesOverWithinOneLeasePeriodWhenLeaderStopsRenewing() {
+        Instant start = Instant.now();
+        instanceA.refresh(start);
+        instanceB.refresh(start);
+
+        // Leader dies: no more renewals from A
+        Instant beforeExpiry = start.plusSeconds(LEASE_SECONDS - 1);
+        instanceB.refresh(beforeExpiry);
+        assertFalse(instanceB.isLeader(beforeExpiry));
+
+        Instant afterExpiry = start.plusSeconds(LEASE_SECONDS);
+        instanceB.refresh(afterExpiry);
+        assertTrue(instanceB.isLeader(afterExpiry));
+        assertFalse(instanceA.isLeader(afterExpiry), "Stale leader must stop acting once its lease runs out");
+
+        // Old leader comes back and must not reclaim the live lease
+        instanceA.refresh(afterExpiry.plusSeconds(1));
+        assertFalse(instanceA.isLeader(afterExpiry.plusSeconds(1)));
+    }
+
+    @Test
+    void releasedLeaseIsTakenOverImmediately() {
+        Instant now = Instant.now();
+        instanceA.refresh(now);
+
+        instanceA.release();
+        instanceB.refresh(now.plusSeconds(1));
+
+        assertTrue(instanceB.isLeader(now.plusSeconds(1)));
+    }
+
+    @Test
+    void disabledElectionAlwaysReportsLeader() {
+        LeaderElectionService disabled =
+            new LeaderElectionService(leaseRepository, false, "appliance-collector", "solo", LEASE_SECONDS, RENEW_SECONDS);
+
+        assertTrue(disabled.isLeader());
+    }
+}
@@ -0,0 +1,125 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.model.Operation;
+import com.octtools.appliance.repository.OperationReader;
+import com.octtools.appliance.repository.OperationStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.octtools.appliance.support.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OperationQueryCacheTest {
+
+    @Mock
+    private OperationStore operationStore;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OperationQueryCache cache;
+
+    private final Operation drainOperation = Operation.builder()
+        .id(OPERATION_ID)
+        .applianceId(TEST_APPLIANCE_ID)
+        .operationType(DRAIN_OPERATION_TYPE)
+        .drainId(DRAIN_ID)
+        .build();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // refreshInterval=0: any recorded operation makes cached pages stale immediately
+        cache = new OperationQueryCache(operationStore, meterRegistry, 100, 100, 60, 0);
+    }
+
+    @Test
+    void constructor_validatesInputs() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new OperationQueryCache(operationStore, meterRegistry, 0, 100, 60, 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> new OperationQueryCache(operationStore, meterRegistry, 100, 100, 0, 0));
+    }
+
+    @Test
+    void findById_repeatedLookupsHitCache() {
+        when(operationStore.findById(OPERATION_ID)).thenReturn(Optional.of(drainOperation));
+
+        assertEquals(Optional.of(drainOperation), cache.findById(OPERATION_ID));
+        assertEquals(Optional.of(drainOperation), cache.findById(OPERATION_ID));
+
+        verify(operationStore, times(1)).findById(OPERATION_ID);
+    }
+
+    @Test
+    void findPage_withReader_loadsThroughReaderAndSharesCache() {
+        OperationReader reader = mock(OperationReader.class);
+        Page<Operation> page = new PageImpl<>(List.of(drainOperation), PageRequest.of(0, 20), 1);
+        when(reader.findAll(PageRequest.of(0, 20))).thenReturn(page);
+
+        assertEquals(page, cache.findPage(null, 0, 20, reader));
+        assertEquals(page, cache.findPage(null, 0, 20));
+
+        verify(reader, times(1)).findAll(PageRequest.of(0, 20));
+        verifyNoInteractions(operationStore);
+    }
+
+    @Test
+    void findById_missingOperationIsNotCached() {
+        when(operationStore.findById(OPERATION_ID)).thenReturn(Optional.empty());
+
+        cache.findById(OPERATION_ID);
+        cache.findById(OPERATION_ID);
+
+        verify(operationStore, times(2)).findById(OPERATION_ID);
+    }
+
+    @Test
+    void findPage_repeatedReadsHitCacheUntilAnOperationIsRecorded() {
+        Page<Operation> page = new PageImpl<>(List.of(drainOperation));
+        when(operationStore.findAll(PageRequest.of(0, 20))).thenReturn(page);
+
+        assertSame(page, cache.findPage(null, 0, 20));
+        assertSame(page, cache.findPage(null, 0, 20));
+        verify(operationStore, times(1)).findAll(PageRequest.of(0, 20));
+
+        cache.onOperationRecorded(new OperationRecordedEvent(drainOperation));
+        cache.findPage(null, 0, 20);
+
+        verify(operationStore, times(2)).findAll(PageRequest.of(0, 20));
+    }
+
+    @Test
+    void findPage_writesWithinRefreshIntervalServeCachedPage() {
+        OperationQueryCache coalescing = new OperationQueryCache(operationStore, meterRegistry, 100, 100, 60, 60_000);
+        Page<Operation> page = new PageImpl<>(List.of(drainOperation));
+        when(operationStore.findByApplianceId(TEST_APPLIANCE_ID, PageRequest.of(0, 20))).thenReturn(page);
+
+        coalescing.findPage(TEST_APPLIANCE_ID, 0, 20);
+        coalescing.onOperationRecorded(new OperationRecordedEvent(drainOperation));
+        coalescing.findPage(TEST_APPLIANCE_ID, 0, 20);
+
+        verify(operationStore, times(1)).findByApplianceId(TEST_APPLIANCE_ID, PageRequest.of(0, 20));
+    }
+
+    @Test
+    void findPage_recordsHitAndMissMetrics() {
+        when(operationStore.findAll(PageRequest.of(0, 20))).thenReturn(Page.empty());
+
+        cache.findPage(null, 0, 20);
+        cache.findPage(null, 0, 20);
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "operations.pages").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "operations.pages").tag("result", "miss").functionCounter().count());
+    }
+}
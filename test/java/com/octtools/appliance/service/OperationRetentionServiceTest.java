@@ -0,0 +1,138 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.model.Operation;
+import com.octtools.appliance.repository.OperationArchiveRepository;
+import com.octtools.appliance.repository.OperationStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.util.List;
+
+import static com.octtools.appliance.support.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OperationRetentionServiceTest {
+
+    private static final Instant CUTOFF = Instant.parse("2024-01-02T00:00:00Z");
+    private static final Instant T0 = Instant.parse("2024-01-01T10:00:00Z");
+
+    @Mock
+    private OperationStore operationStore;
+
+    @Mock
+    private OperationArchiveRepository archiveRepository;
+
+    @Mock
+    private OperationQueryCache operationQueryCache;
+
+    @Mock
+    private LeaderElectionService leaderElection;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private OperationRetentionService retentionService;
+
+    @BeforeEach
+    void setUp() {
+        retentionService = new OperationRetentionService(operationStore, archiveRepository, operationQueryCache,
+            leaderElection, eventPublisher, true, 24, 2, 3);
+    }
+
+    @Test
+    void constructor_validatesInputs() {
+        assertThrows(IllegalArgumentException.class, () -> new OperationRetentionService(operationStore,
+            archiveRepository, operationQueryCache, leaderElection, eventPublisher, true, 0, 2, 3));
+        assertThrows(IllegalArgumentException.class, () -> new OperationRetentionService(operationStore,
+            archiveRepository, operationQueryCache, leaderElection, eventPublisher, true, 24, 0, 3));
+    }
+
+    @Test
+    void archiveBefore_movesBatchesUntilExhausted() {
+        when(operationStore.findProcessedBefore(CUTOFF, 2))
+            .thenReturn(List.of(operation(1L), operation(2L)))
+            .thenReturn(List.of(operation(3L)));
+
+        assertEquals(3, retentionService.archiveBefore(CUTOFF));
+
+        verify(archiveRepository, times(2)).append(any());
+        verify(operationStore).deleteAllById(List.of(1L, 2L));
+        verify(operationStore).deleteAllById(List.of(3L));
+        verify(eventPublisher).publishEvent(new OperationsArchivedEvent(3));
+    }
+
+    @Test
+    void archiveBefore_stopsAtMaxBatchesPerRun() {
+        when(operationStore.findProcessedBefore(CUTOFF, 2))
+            .thenReturn(List.of(operation(1L), operation(2L)));
+
+        assertEquals(6, retentionService.archiveBefore(CUTOFF));
+
+        verify(archiveRepository, times(3)).append(any());
+    }
+
+    @Test
+    void archiveBefore_nothingExpired_publishesNothing() {
+        when(operationStore.findProcessedBefore(CUTOFF, 2))
+            .thenReturn(List.of());
+
+        assertEquals(0, retentionService.archiveBefore(CUTOFF));
+
+        verifyNoInteractions(archiveRepository, eventPublisher);
+    }
+
+    @Test
+    void archiveExpiredOperations_skipsWhenNotLeader() {
+        when(leaderElection.isLeader()).thenReturn(false);
+
+        retentionService.archiveExpiredOperations();
+
+        verifyNoInteractions(operationStore, archiveRepository);
+    }
+
+    @Test
+    void findPageIncludingArchive_continuesIntoArchiveAfterLiveOperations() {
+        // 3 live operations, page size 2: page 1 holds the last live operation followed by the newest archived one
+        Page<Operation> livePage = new PageImpl<>(List.of(operation(3L)), PageRequest.of(1, 2), 3);
+        when(operationQueryCache.findPage(null, 1, 2)).thenReturn(livePage);
+        when(archiveRepository.count(null)).thenReturn(5L);
+        when(archiveRepository.find(null, 0, 1)).thenReturn(List.of(operation(10L)));
+
+        Page<Operation> page = retentionService.findPageIncludingArchive(null, 1, 2);
+
+        assertEquals(List.of(3L, 10L), page.getContent().stream().map(Operation::getId).toList());
+        assertEquals(8, page.getTotalElements());
+    }
+
+    @Test
+    void findPageIncludingArchive_pageBeyondLiveReadsArchiveOffset() {
+        Page<Operation> emptyLivePage = new PageImpl<>(List.of(), PageRequest.of(3, 2), 3);
+        when(operationQueryCache.findPage(TEST_APPLIANCE_ID, 3, 2)).thenReturn(emptyLivePage);
+        when(archiveRepository.count(TEST_APPLIANCE_ID)).thenReturn(5L);
+        when(archiveRepository.find(TEST_APPLIANCE_ID, 3, 2)).thenReturn(List.of(operation(11L), operation(12L)));
+
+        Page<Operation> page = retentionService.findPageIncludingArchive(TEST_APPLIANCE_ID, 3, 2);
+
+        assertEquals(List.of(11L, 12L), page.getContent().stream().map(Operation::getId).toList());
+    }
+
+    private Operation operation(Long id) {
+        return Operation.builder()
+            .id(id)
+            .applianceId(TEST_APPLIANCE_ID)
+            .operationType(DRAIN_OPERATION_TYPE)
+            .processedAt(T0)
+            .build();
+    }
+}
@@ -0,0 +1,89 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.model.ProcessingSettings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProcessingTunerTest {
+
+    private static final String ACTOR = "operator";
+
+    @Mock
+    private RemediationProcessor remediationProcessor;
+
+    @Mock
+    private ApplianceMonitorService monitorService;
+
+    @Mock
+    private CollectionCadenceController cadenceController;
+
+    private ProcessingTuner tuner;
+
+    @BeforeEach
+    void setUp() {
+        tuner = new ProcessingTuner(remediationProcessor, monitorService, cadenceController);
+        lenient().when(remediationProcessor.getThreadPoolSize()).thenReturn(100);
+        lenient().when(remediationProcessor.getMaxThreadPoolSize()).thenReturn(100);
+        lenient().when(remediationProcessor.getQueueCapacity()).thenReturn(2500);
+        lenient().when(monitorService.getPageSize()).thenReturn(100);
+        lenient().when(monitorService.getStaleThresholdMinutes()).thenReturn(10);
+    }
+
+    @Test
+    void current_readsLiveSettings() {
+        assertEquals(new ProcessingSettings(100, 100, 2500, 100, 10), tuner.current());
+    }
+
+    @Test
+    void apply_keepsUnsetFieldsAndAppliesTheMergedSettings() {
+        tuner.apply(ProcessingSettings.builder().threadPoolSize(200).maxThreadPoolSize(300).build(), ACTOR);
+
+        verify(remediationProcessor).resize(200, 300, 2500);
+        verify(monitorService).updateCollectionSettings(100, 10);
+        verify(cadenceController).updateStaleThreshold(10);
+    }
+
+    @Test
+    void apply_invalidPoolSizes_changesNothing() {
+        ProcessingSettings change = ProcessingSettings.builder().threadPoolSize(200).pageSize(500).build();
+
+        assertThrows(IllegalArgumentException.class, () -> tuner.apply(change, ACTOR));
+
+        verify(remediationProcessor, never()).resize(anyInt(), anyInt(), anyInt());
+        verify(monitorService, never()).updateCollectionSettings(anyInt(), anyInt());
+        verify(cadenceController, never()).updateStaleThreshold(anyInt());
+    }
+
+    @Test
+    void apply_beyondUpperBounds_changesNothing() {
+        assertThrows(IllegalArgumentException.class, () -> tuner.apply(
+            ProcessingSettings.builder().threadPoolSize(1_000_000).maxThreadPoolSize(1_000_000).build(), ACTOR));
+        assertThrows(IllegalArgumentException.class, () -> tuner.apply(
+            ProcessingSettings.builder().queueCapacity(Integer.MAX_VALUE).build(), ACTOR));
+        assertThrows(IllegalArgumentException.class, () -> tuner.apply(
+            ProcessingSettings.builder().pageSize(1_000_000).build(), ACTOR));
+
+        verify(remediationProcessor, never()).resize(anyInt(), anyInt(), anyInt());
+        verify(monitorService, never()).updateCollectionSettings(anyInt(), anyInt());
+    }
+
+    @Test
+    void apply_staleThresholdBeyondDetectionLatency_changesNothing() {
+        doThrow(new IllegalArgumentException("Max detection latency must exceed the stale threshold"))
+            .when(cadenceController).validateStaleThreshold(12);
+        ProcessingSettings change = ProcessingSettings.builder().queueCapacity(5000).staleThresholdMinutes(12).build();
+
+        assertThrows(IllegalArgumentException.class, () -> tuner.apply(change, ACTOR));
+
+        verify(remediationProcessor, never()).resize(anyInt(), anyInt(), anyInt());
+        verify(monitorService, never()).updateCollectionSettings(anyInt(), anyInt());
+    }
+}
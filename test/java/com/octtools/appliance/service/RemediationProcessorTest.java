@@ -1,19 +1,29 @@
 package com.octtools.appliance.service;
 
 import com.octtools.appliance.client.ApplianceApiClient;
+import com.octtools.appliance.client.ApplianceBackend;
+import com.octtools.appliance.client.ApplianceBackends;
+import com.octtools.appliance.model.ActivityBucket;
 import com.octtools.appliance.model.Appliance;
 import com.octtools.appliance.model.Operation;
 import com.octtools.appliance.model.api.DrainResponse;
 import com.octtools.appliance.model.api.RemediateResponse;
-import com.octtools.appliance.repository.OperationRepository;
+import com.octtools.appliance.model.RemediationTraceSummary;
+import com.octtools.appliance.model.TraceSpan;
+import com.octtools.appliance.repository.OperationStore;
+import com.octtools.appliance.tracing.RemediationTracer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static com.octtools.appliance.support.TestConstants.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,38 +37,56 @@ class RemediationProcessorTest {
     private ApplianceApiClient apiClient;
     
     @Mock
-    private OperationRepository operationRepository;
+    private OperationStore operationStore;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    private ActivityTimeSeries activityTimeSeries;
+    
+    private RemediationTracer tracer;
+    
+    private ApplianceBackends backends;
     
     private RemediationProcessor processor;
     
     @BeforeEach
     void setUp() {
-        processor = new RemediationProcessor(apiClient, operationRepository, 2);
+        backends = new ApplianceBackends(List.of(ApplianceBackend.builder().name(TEST_BACKEND).build()));
+        activityTimeSeries = new ActivityTimeSeries(60);
+        tracer = new RemediationTracer(true, 100);
+        processor = new RemediationProcessor(apiClient, backends, operationStore, eventPublisher, activityTimeSeries, tracer, new SimpleMeterRegistry(), 2, 2, 10, "per-step");
     }
     
     @Test
     void constructor_validatesInputs() {
         assertThrows(IllegalArgumentException.class, 
-            () -> new RemediationProcessor(apiClient, operationRepository, 0));
+            () -> new RemediationProcessor(apiClient, backends, operationStore, eventPublisher, activityTimeSeries, tracer, new SimpleMeterRegistry(), 0, 2, 10, "per-step"));
+        assertThrows(IllegalArgumentException.class, 
+            () -> new RemediationProcessor(apiClient, backends, operationStore, eventPublisher, activityTimeSeries, tracer, new SimpleMeterRegistry(), 2, 2, 10, "batched"));
+        assertThrows(IllegalArgumentException.class, 
+            () -> new RemediationProcessor(apiClient, backends, operationStore, eventPublisher, activityTimeSeries, tracer, new SimpleMeterRegistry(), 2, 1, 10, "per-step"));
+        assertThrows(IllegalArgumentException.class, 
+            () -> new RemediationProcessor(apiClient, backends, operationStore, eventPublisher, activityTimeSeries, tracer, new SimpleMeterRegistry(), 2, 2, 0, "per-step"));
     }
 
     @Test
     void processAppliance_successfullyProcessesAppliance() throws InterruptedException {
         Appliance appliance = new Appliance(TEST_APPLIANCE_ID, LIVE_STATUS, null);
-        when(apiClient.drainAppliance(anyString())).thenReturn(new DrainResponse(DRAIN_ID, ESTIMATED_TIME));
-        when(apiClient.remediateAppliance(anyString())).thenReturn(new RemediateResponse(REMEDIATION_ID, REMEDIATION_RESULT));
+        when(apiClient.drainAppliance(anyString(), anyString())).thenReturn(new DrainResponse(DRAIN_ID, ESTIMATED_TIME));
+        when(apiClient.remediateAppliance(anyString(), anyString())).thenReturn(new RemediateResponse(REMEDIATION_ID, REMEDIATION_RESULT));
         
         processor.processAppliance(appliance);
         
         // Allow async processing to complete
         Thread.sleep(200);
         
-        verify(apiClient).drainAppliance(TEST_APPLIANCE_ID);
-        verify(apiClient).remediateAppliance(TEST_APPLIANCE_ID);
+        verify(apiClient).drainAppliance(TEST_BACKEND, TEST_APPLIANCE_ID);
+        verify(apiClient).remediateAppliance(TEST_BACKEND, TEST_APPLIANCE_ID);
         
         // Verify correct Operation objects are saved
         ArgumentCaptor<Operation> operationCaptor = ArgumentCaptor.forClass(Operation.class);
-        verify(operationRepository, times(2)).save(operationCaptor.capture());
+        verify(operationStore, times(2)).save(operationCaptor.capture());
         
         List<Operation> savedOperations = operationCaptor.getAllValues();
         
@@ -75,44 +103,201 @@ class RemediationProcessorTest {
         assertEquals(REMEDIATE_OPERATION_TYPE, remediateOp.getOperationType());
         assertEquals(REMEDIATION_ID, remediateOp.getRemediationId());
         assertEquals(REMEDIATION_RESULT, remediateOp.getRemediationResult());
+        
+        // Each saved operation is announced to read-side listeners
+        verify(eventPublisher, times(2)).publishEvent(any(OperationRecordedEvent.class));
     }
 
     @Test
     void processAppliance_drainFailsAfterRetries_noRemediateCall() throws InterruptedException {
         Appliance appliance = new Appliance(TEST_APPLIANCE_ID, LIVE_STATUS, null);
-        when(apiClient.drainAppliance(anyString())).thenThrow(new RuntimeException("Drain failed after retries"));
+        when(apiClient.drainAppliance(anyString(), anyString())).thenThrow(new RuntimeException("Drain failed after retries"));
         
         processor.processAppliance(appliance);
         
         // Allow async processing to complete
         Thread.sleep(200);
         
-        verify(apiClient).drainAppliance(TEST_APPLIANCE_ID);
-        verify(apiClient, never()).remediateAppliance(anyString());
-        verify(operationRepository, never()).save(any());
+        verify(apiClient).drainAppliance(TEST_BACKEND, TEST_APPLIANCE_ID);
+        verify(apiClient, never()).remediateAppliance(anyString(), anyString());
+        verify(operationStore, never()).save(any());
     }
 
     @Test
     void processAppliance_drainSucceedsRemediateFails_onlyDrainOperationSaved() throws InterruptedException {
         Appliance appliance = new Appliance(TEST_APPLIANCE_ID, LIVE_STATUS, null);
-        when(apiClient.drainAppliance(anyString())).thenReturn(new DrainResponse(DRAIN_ID, ESTIMATED_TIME));
-        when(apiClient.remediateAppliance(anyString())).thenThrow(new RuntimeException("Remediate failed after retries"));
+        when(apiClient.drainAppliance(anyString(), anyString())).thenReturn(new DrainResponse(DRAIN_ID, ESTIMATED_TIME));
+        when(apiClient.remediateAppliance(anyString(), anyString())).thenThrow(new RuntimeException("Remediate failed after retries"));
         
         processor.processAppliance(appliance);
         
         // Allow async processing to complete
         Thread.sleep(200);
         
-        verify(apiClient).drainAppliance(TEST_APPLIANCE_ID);
-        verify(apiClient).remediateAppliance(TEST_APPLIANCE_ID);
+        verify(apiClient).drainAppliance(TEST_BACKEND, TEST_APPLIANCE_ID);
+        verify(apiClient).remediateAppliance(TEST_BACKEND, TEST_APPLIANCE_ID);
         
         // Only drain operation should be saved
         ArgumentCaptor<Operation> operationCaptor = ArgumentCaptor.forClass(Operation.class);
-        verify(operationRepository, times(1)).save(operationCaptor.capture());
+        verify(operationStore, times(1)).save(operationCaptor.capture());
         
         Operation drainOp = operationCaptor.getValue();
         assertEquals(TEST_APPLIANCE_ID, drainOp.getApplianceId());
         assertEquals(DRAIN_OPERATION_TYPE, drainOp.getOperationType());
         assertEquals(DRAIN_ID, drainOp.getDrainId());
     }
+
+    @Test
+    void processAppliance_combinedRecordMode_savesSingleCycleOperation() throws InterruptedException {
+        RemediationProcessor combinedProcessor = new RemediationProcessor(apiClient, backends, operationStore, eventPublisher, activityTimeSeries, tracer, new SimpleMeterRegistry(), 2, 2, 10, "combined");
+        Appliance appliance = new Appliance(TEST_APPLIANCE_ID, LIVE_STATUS, null);
+        when(apiClient.drainAppliance(anyString(), anyString())).thenReturn(new DrainResponse(DRAIN_ID, ESTIMATED_TIME));
+        when(apiClient.remediateAppliance(anyString(), anyString())).thenReturn(new RemediateResponse(REMEDIATION_ID, REMEDIATION_RESULT));
+        CountDownLatch completed = new CountDownLatch(1);
+        
+        combinedProcessor.processAppliance(appliance, completed::countDown);
+        assertTrue(completed.await(1, TimeUnit.SECONDS));
+        
+        ArgumentCaptor<Operation> operationCaptor = ArgumentCaptor.forClass(Operation.class);
+        verify(operationStore, times(1)).save(operationCaptor.capture());
+        
+        Operation cycleOp = operationCaptor.getValue();
+        assertEquals(CYCLE_OPERATION_TYPE, cycleOp.getOperationType());
+        assertEquals(TEST_BACKEND, cycleOp.getBackend());
+        assertEquals(DRAIN_ID, cycleOp.getDrainId());
+        assertEquals(ESTIMATED_TIME, cycleOp.getEstimatedTimeToDrain());
+        assertEquals(REMEDIATION_ID, cycleOp.getRemediationId());
+        assertEquals(REMEDIATION_RESULT, cycleOp.getRemediationResult());
+    }
+
+    @Test
+    void processAppliance_combinedRecordModeRemediateFails_savesDrainOperation() throws InterruptedException {
+        RemediationProcessor combinedProcessor = new RemediationProcessor(apiClient, backends, operationStore, eventPublisher, activityTimeSeries, tracer, new SimpleMeterRegistry(), 2, 2, 10, "combined");
+        Appliance appliance = new Appliance(TEST_APPLIANCE_ID, LIVE_STATUS, null);
+        when(apiClient.drainAppliance(anyString(), anyString())).thenReturn(new DrainResponse(DRAIN_ID, ESTIMATED_TIME));
+        when(apiClient.remediateAppliance(anyString(), anyString())).thenThrow(new RuntimeException("Remediate failed after retries"));
+        CountDownLatch completed = new CountDownLatch(1);
+        
+        combinedProcessor.processAppliance(appliance, completed::countDown);
+        assertTrue(completed.await(1, TimeUnit.SECONDS));
+        
+        ArgumentCaptor<Operation> operationCaptor = ArgumentCaptor.forClass(Operation.class);
+        verify(operationStore, times(1)).save(operationCaptor.capture());
+        assertEquals(DRAIN_OPERATION_TYPE, operationCaptor.getValue().getOperationType());
+    }
+
+    @Test
+    void processAppliance_runsCompletionCallbackAfterProcessing() throws InterruptedException {
+        Appliance appliance = new Appliance(TEST_APPLIANCE_ID, LIVE_STATUS, null);
+        when(apiClient.drainAppliance(anyString(), anyString())).thenThrow(new RuntimeException("Drain failed after retries"));
+        CountDownLatch completed = new CountDownLatch(1);
+        
+        assertTrue(processor.processAppliance(appliance, completed::countDown));
+        
+        assertTrue(completed.await(1, TimeUnit.SECONDS), "Completion callback should run even when processing fails");
+        
+        // Outcome is recorded in the activity time series before the callback runs
+        ActivityBucket currentMinute = activityTimeSeries.query(1, 1).get(0);
+        assertEquals(1, currentMinute.getProcessed());
+        assertEquals(1, currentMinute.getFailures());
+    }
+
+    @Test
+    void processStaleAppliance_recordsTraceWithDetectionQueueAndSaveSpans() throws InterruptedException {
+        Appliance appliance = new Appliance(TEST_APPLIANCE_ID, LIVE_STATUS, null);
+        when(apiClient.drainAppliance(anyString(), anyString())).thenReturn(new DrainResponse(DRAIN_ID, ESTIMATED_TIME));
+        when(apiClient.remediateAppliance(anyString(), anyString())).thenReturn(new RemediateResponse(REMEDIATION_ID, REMEDIATION_RESULT));
+        
+        processor.processStaleAppliance(appliance, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(50));
+        
+        // The trace is finished before the completion callback, so wait for it to appear
+        List<RemediationTraceSummary> traces = List.of();
+        for (int i = 0; i < 100 && traces.isEmpty(); i++) {
+            Thread.sleep(10);
+            traces = tracer.slowest(10);
+        }
+        
+        assertEquals(1, traces.size());
+        RemediationTraceSummary trace = traces.get(0);
+        assertEquals(TEST_APPLIANCE_ID, trace.getApplianceId());
+        assertEquals(RemediationTracer.OUTCOME_SUCCESS, trace.getOutcome());
+        assertTrue(trace.getTotalMs() >= 50);
+        List<String> phases = trace.getSpans().stream().map(TraceSpan::getPhase).toList();
+        assertEquals(List.of("detection", "queue", "db.save", "db.save"), phases);
+        assertTrue(trace.getSpans().get(0).getDurationMs() >= 50);
+    }
+
+    @Test
+    void availableCapacity_reflectsIdleThreads() {
+        assertEquals(2, processor.availableCapacity());
+    }
+
+    @Test
+    void processAppliance_backendAtInFlightLimit_rejectsOnlyThatBackend() throws InterruptedException {
+        backends = new ApplianceBackends(List.of(
+            ApplianceBackend.builder().name(TEST_BACKEND).maxInFlight(2).build(),
+            ApplianceBackend.builder().name(TEST_BACKEND_2).build()));
+        processor = new RemediationProcessor(apiClient, backends, operationStore, eventPublisher, activityTimeSeries, tracer, new SimpleMeterRegistry(), 2, 2, 10, "per-step");
+        CountDownLatch release = new CountDownLatch(1);
+        when(apiClient.drainAppliance(anyString(), anyString())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            throw new RuntimeException("Drain failed after retries");
+        });
+        Appliance limited = new Appliance(TEST_APPLIANCE_ID, LIVE_STATUS, null, TEST_BACKEND);
+        Appliance other = new Appliance(TEST_APPLIANCE_ID_2, LIVE_STATUS, null, TEST_BACKEND_2);
+        CountDownLatch completed = new CountDownLatch(4);
+
+        assertTrue(processor.processAppliance(limited, completed::countDown));
+        assertTrue(processor.processAppliance(limited, completed::countDown));
+        assertFalse(processor.processAppliance(limited, completed::countDown));
+        assertTrue(processor.processAppliance(other, completed::countDown));
+        assertEquals(2, backends.get(TEST_BACKEND).getInFlight());
+
+        release.countDown();
+        assertTrue(processor.processAppliance(other, completed::countDown));
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(0, backends.get(TEST_BACKEND).getInFlight());
+        verify(apiClient, times(2)).drainAppliance(TEST_BACKEND, TEST_APPLIANCE_ID);
+        verify(apiClient, times(2)).drainAppliance(TEST_BACKEND_2, TEST_APPLIANCE_ID_2);
+    }
+
+    @Test
+    void resize_appliesToRunningExecutorWithoutDroppingQueuedWork() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        when(apiClient.drainAppliance(anyString(), anyString())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            throw new RuntimeException("Drain failed after retries");
+        });
+        Appliance appliance = new Appliance(TEST_APPLIANCE_ID, LIVE_STATUS, null);
+        CountDownLatch completed = new CountDownLatch(16);
+
+        // 2 busy threads and 10 queued fill the executor
+        for (int i = 0; i < 12; i++) {
+            assertTrue(processor.processAppliance(appliance, completed::countDown));
+        }
+        assertFalse(processor.processAppliance(appliance, completed::countDown));
+        assertEquals(1.0, processor.queueUtilization());
+
+        processor.resize(2, 4, 12);
+        assertEquals(4, processor.getMaxThreadPoolSize());
+        assertEquals(12, processor.getQueueCapacity());
+        assertTrue(processor.processAppliance(appliance, completed::countDown));
+        assertTrue(processor.processAppliance(appliance, completed::countDown));
+        // With the queue full again, threads above the core size take the overflow
+        assertTrue(processor.processAppliance(appliance, completed::countDown));
+        assertTrue(processor.processAppliance(appliance, completed::countDown));
+        assertFalse(processor.processAppliance(appliance, completed::countDown));
+
+        // Shrinking keeps everything already queued
+        processor.resize(1, 1, 5);
+        assertEquals(12, processor.getQueueDepth());
+        assertEquals(1.0, processor.queueUtilization());
+        assertFalse(processor.processAppliance(appliance, completed::countDown));
+        assertThrows(IllegalArgumentException.class, () -> processor.resize(2, 1, 5));
+
+        release.countDown();
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(0, processor.getQueueDepth());
+        assertTrue(processor.processAppliance(appliance, () -> { }));
+    }
 }
@@ -0,0 +1,208 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.client.ApplianceBackend;
+import com.octtools.appliance.client.ApplianceBackends;
+import com.octtools.appliance.model.Appliance;
+import com.octtools.appliance.repository.RemediationTaskRepository;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static com.octtools.appliance.support.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RemediationTaskQueueTest {
+
+    private static final int LEASE_SECONDS = 120;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock
+    private RemediationProcessor processorA;
+
+    @Mock
+    private RemediationProcessor processorB;
+
+    private ApplianceBackend limitedBackend;
+    private ApplianceBackends backends;
+    private JdbcTemplate jdbcTemplate;
+    private RemediationTaskQueue workerA;
+    private RemediationTaskQueue workerB;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:tasks-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        limitedBackend = ApplianceBackend.builder().name(TEST_BACKEND).maxInFlight(2).build();
+        backends = new ApplianceBackends(List.of(limitedBackend, ApplianceBackend.builder().name(TEST_BACKEND_2).build()));
+        RemediationTaskRepository repository = new RemediationTaskRepository(jdbcTemplate, new DataSourceTransactionManager(dataSource));
+        workerA = new RemediationTaskQueue(repository, processorA, backends, "queue", "worker-a", 50, MAX_ATTEMPTS, LEASE_SECONDS);
+        workerB = new RemediationTaskQueue(repository, processorB, backends, "queue", "worker-b", 50, MAX_ATTEMPTS, LEASE_SECONDS);
+    }
+
+    private int openTasks() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM remediation_tasks", Integer.class);
+    }
+
+    @Test
+    void constructor_validatesInputs() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new RemediationTaskQueue(null, processorA, backends, "cluster", "worker", 50, MAX_ATTEMPTS, LEASE_SECONDS));
+        assertThrows(IllegalArgumentException.class,
+            () -> new RemediationTaskQueue(null, processorA, backends, "queue", "worker", 0, MAX_ATTEMPTS, LEASE_SECONDS));
+    }
+
+    @Test
+    void enqueue_skipsAppliancesAlreadyQueued() {
+        workerA.enqueue(List.of(new Appliance(TEST_APPLIANCE_ID, LIVE_STATUS, null)));
+        workerA.enqueue(List.of(new Appliance(TEST_APPLIANCE_ID, LIVE_STATUS, null),
+            new Appliance(TEST_APPLIANCE_ID_2, LIVE_STATUS, TIMESTAMP_2)));
+
+        assertEquals(2, openTasks());
+    }
+
+    @Test
+    void enqueue_dedupsPerBackend() {
+        workerA.enqueue(List.of(new Appliance(TEST_APPLIANCE_ID, LIVE_STATUS, null, TEST_BACKEND)));
+        workerA.enqueue(List.of(new Appliance(TEST_APPLIANCE_ID, LIVE_STATUS, null, TEST_BACKEND),
+            new Appliance(TEST_APPLIANCE_ID, LIVE_STATUS, null, TEST_BACKEND_2)));
+        when(processorA.availableCapacity()).thenReturn(2);
+        when(processorA.processAppliance(any(), any())).thenReturn(true);
+
+        workerA.claimAndProcess(Instant.now());
+
+        ArgumentCaptor<Appliance> claimed = ArgumentCaptor.forClass(Appliance.class);
+        verify(processorA, times(2)).processAppliance(claimed.capture(), any());
+        assertEquals(List.of(TEST_BACKEND, TEST_BACKEND_2), claimed.getAllValues().stream().map(Appliance::getBackend).toList());
+    }
+
+    @Test
+    void claimAndProcess_workersClaimDisjointTasksUpToCapacity() {
+        workerA.enqueue(List.of(
+            new Appliance("app1", LIVE_STATUS, null),
+            new Appliance("app2", LIVE_STATUS, null),
+            new Appliance("app3", LIVE_STATUS, null)));
+        when(processorA.availableCapacity()).thenReturn(2);
+        when(processorB.availableCapacity()).thenReturn(2);
+        when(processorA.processAppliance(any(), any())).thenReturn(true);
+        when(processorB.processAppliance(any(), any())).thenReturn(true);
+
+        Instant now = Instant.now();
+        assertEquals(2, workerA.claimAndProcess(now));
+        assertEquals(1, workerB.claimAndProcess(now));
+
+        ArgumentCaptor<Appliance> claimedByA = ArgumentCaptor.forClass(Appliance.class);
+        ArgumentCaptor<Appliance> claimedByB = ArgumentCaptor.forClass(Appliance.class);
+        verify(processorA, times(2)).processAppliance(claimedByA.capture(), any());
+        verify(processorB).processAppliance(claimedByB.capture(), any());
+        assertEquals(List.of("app1", "app2"), claimedByA.getAllValues().stream().map(Appliance::getId).toList());
+        assertEquals("app3", claimedByB.getValue().getId());
+    }
+
+    @Test
+    void claimAndProcess_completionDeletesTask() {
+        workerA.enqueue(List.of(new Appliance(TEST_APPLIANCE_ID, LIVE_STATUS, null)));
+        when(processorA.availableCapacity()).thenReturn(1);
+        when(processorA.processAppliance(any(), any())).thenAnswer(invocation -> {
+            invocation.getArgument(1, Runnable.class).run();
+            return true;
+        });
+
+        workerA.claimAndProcess(Instant.now());
+
+        assertEquals(0, openTasks());
+    }
+
+    @Test
+    void claimAndProcess_expiredLeaseIsReclaimedByAnotherWorker() {
+        workerA.enqueue(List.of(new Appliance(TEST_APPLIANCE_ID, LIVE_STATUS, null)));
+        when(processorA.availableCapacity()).thenReturn(1);
+        when(processorB.availableCapacity()).thenReturn(1);
+        when(processorA.processAppliance(any(), any())).thenReturn(true);
+        when(processorB.processAppliance(any(), any())).thenReturn(true);
+
+        // Worker A claims and then dies without completing
+        Instant now = Instant.now();
+        workerA.claimAndProcess(now);
+        assertEquals(0, workerB.claimAndProcess(now.plusSeconds(LEASE_SECONDS - 1)));
+
+        assertEquals(1, workerB.claimAndProcess(now.plusSeconds(LEASE_SECONDS)));
+    }
+
+    @Test
+    void claimAndProcess_rejectedSubmissionReleasesClaim() {
+        workerA.enqueue(List.of(new Appliance(TEST_APPLIANCE_ID, LIVE_STATUS, null)));
+        when(processorA.availableCapacity()).thenReturn(1);
+        when(processorB.availableCapacity()).thenReturn(1);
+        when(processorA.processAppliance(any(), any())).thenReturn(false);
+        when(processorB.processAppliance(any(), any())).thenReturn(true);
+
+        Instant now = Instant.now();
+        workerA.claimAndProcess(now);
+
+        assertEquals(1, workerB.claimAndProcess(now));
+    }
+
+    @Test
+    void claimAndProcess_backendAtItsLimitDoesNotHoldBackOthers() {
+        workerA.enqueue(List.of(
+            new Appliance("app1", LIVE_STATUS, null, TEST_BACKEND),
+            new Appliance("app2", LIVE_STATUS, null, TEST_BACKEND),
+            new Appliance("app3", LIVE_STATUS, null, TEST_BACKEND_2)));
+        limitedBackend.tryAcquireProcessingSlot();
+        limitedBackend.tryAcquireProcessingSlot();
+        when(processorA.availableCapacity()).thenReturn(2);
+        when(processorA.processAppliance(any(), any())).thenReturn(true);
+
+        assertEquals(1, workerA.claimAndProcess(Instant.now()));
+
+        ArgumentCaptor<Appliance> claimed = ArgumentCaptor.forClass(Appliance.class);
+        verify(processorA).processAppliance(claimed.capture(), any());
+        assertEquals("app3", claimed.getValue().getId());
+        assertEquals(2, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM remediation_tasks WHERE status = 'PENDING' AND attempts = 0", Integer.class));
+    }
+
+    @Test
+    void purgeExhaustedTasks_dropsTasksOfUnknownBackends() {
+        workerA.enqueue(List.of(
+            new Appliance("app1", LIVE_STATUS, null, "retired-region"),
+            new Appliance("app2", LIVE_STATUS, null, TEST_BACKEND_2),
+            new Appliance("app3", LIVE_STATUS, null)));
+        when(processorA.availableCapacity()).thenReturn(10);
+        when(processorA.processAppliance(any(), any())).thenReturn(true);
+
+        assertEquals(2, workerA.claimAndProcess(Instant.now()));
+        workerA.purgeExhaustedTasks();
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM remediation_tasks WHERE appliance_id = 'app1'", Integer.class));
+        assertEquals(2, openTasks());
+    }
+
+    @Test
+    void claimAndProcess_noCapacityClaimsNothing() {
+        workerA.enqueue(List.of(new Appliance(TEST_APPLIANCE_ID, LIVE_STATUS, null)));
+        when(processorA.availableCapacity()).thenReturn(0);
+
+        assertEquals(0, workerA.claimAndProcess(Instant.now()));
+        verify(processorA, never()).processAppliance(any(), any());
+    }
+}
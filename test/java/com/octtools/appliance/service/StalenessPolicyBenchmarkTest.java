@@ -0,0 +1,125 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.model.Appliance;
+import com.octtools.appliance.model.StalenessRule;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static com.octtools.appliance.support.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Run with: mvn test -Pbenchmark
+@Tag("benchmark")
+@Slf4j
+class StalenessPolicyBenchmarkTest {
+
+    private static final int APPLIANCES = 200_000;
+    private static final int ROUNDS = 10;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final Duration THRESHOLD = Duration.ofMinutes(10);
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void compareWithHardCodedCheck() {
+        Instant now = Instant.now();
+        List<Appliance> fleet = fleet(now);
+        StalenessPolicy noRules = StalenessPolicy.compile(List.of(), THRESHOLD);
+        StalenessPolicy classRules = StalenessPolicy.compile(classRules(), THRESHOLD);
+
+        // The removed check: LIVE only, one global threshold
+        Predicate<Appliance> hardCodedDecision = appliance -> LIVE_STATUS.equals(appliance.getOpStatus());
+        Predicate<Appliance> noRulesDecision = appliance -> noRules.thresholdFor(appliance.getId(), appliance.getOpStatus()) != null;
+        Predicate<Appliance> classRulesDecision = appliance -> classRules.thresholdFor(appliance.getId(), appliance.getOpStatus()) != null;
+
+        Predicate<Appliance> hardCodedCheck = appliance -> LIVE_STATUS.equals(appliance.getOpStatus())
+                && isStale(appliance, THRESHOLD, now);
+        Predicate<Appliance> noRulesCheck = appliance -> isStale(appliance, noRules.thresholdFor(appliance.getId(), appliance.getOpStatus()), now);
+        Predicate<Appliance> classRulesCheck = appliance -> isStale(appliance, classRules.thresholdFor(appliance.getId(), appliance.getOpStatus()), now);
+
+        // Without rules the policy must reach the same verdict as the hard-coded check for every appliance
+        for (Appliance appliance : fleet) {
+            assertEquals(hardCodedCheck.test(appliance), noRulesCheck.test(appliance), appliance.getId());
+        }
+
+        log.info("BENCHMARK: appliances={} rounds={} classRules={}", APPLIANCES, ROUNDS, classRules().size());
+        log.info("BENCHMARK: evaluator                   decision (ns/op)   decision (bytes/op)   full check (ns/op)");
+        report("hard-coded", fleet, hardCodedDecision, hardCodedCheck);
+        report("policy, no rules", fleet, noRulesDecision, noRulesCheck);
+        report("policy, class rules", fleet, classRulesDecision, classRulesCheck);
+    }
+
+    private void report(String name, List<Appliance> fleet, Predicate<Appliance> decision, Predicate<Appliance> check) {
+        run(fleet, decision, WARMUP_ROUNDS);
+        run(fleet, check, WARMUP_ROUNDS);
+
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        run(fleet, decision, ROUNDS);
+        long decisionNanos = System.nanoTime() - start;
+        long decisionBytes = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        start = System.nanoTime();
+        run(fleet, check, ROUNDS);
+        long checkNanos = System.nanoTime() - start;
+
+        double evaluations = (double) fleet.size() * ROUNDS;
+        log.info("BENCHMARK: {}", String.format("%-24s %19.1f %21.2f %20.1f", name,
+                decisionNanos / evaluations, decisionBytes / evaluations, checkNanos / evaluations));
+    }
+
+    private static int run(List<Appliance> fleet, Predicate<Appliance> predicate, int rounds) {
+        int matches = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (Appliance appliance : fleet) {
+                if (predicate.test(appliance)) {
+                    matches++;
+                }
+            }
+        }
+        assertTrue(matches > 0);
+        return matches;
+    }
+
+    // Mirrors ApplianceMonitorService.needsRemediation without the logging
+    private static boolean isStale(Appliance appliance, Duration threshold, Instant now) {
+        if (threshold == null) {
+            return false;
+        }
+        if (appliance.getLastHeardFromOn() == null) {
+            return true;
+        }
+        return Duration.between(Instant.parse(appliance.getLastHeardFromOn()), now).compareTo(threshold) > 0;
+    }
+
+    private static List<StalenessRule> classRules() {
+        return List.of(
+                StalenessRule.builder().idPrefix("lab-").thresholdMinutes(60).build(),
+                StalenessRule.builder().idPrefix("store-").idPattern("store-*-pos").thresholdMinutes(5).build(),
+                StalenessRule.builder().idPrefix("edge-").thresholdMinutes(20).build(),
+                StalenessRule.builder().idPrefix("dc-").thresholdMinutes(3).build(),
+                StalenessRule.builder().status("DEGRADED").thresholdMinutes(30).build(),
+                StalenessRule.builder().status(OFFLINE_STATUS).idPrefix("dc-").thresholdMinutes(120).build());
+    }
+
+    private static List<Appliance> fleet(Instant now) {
+        String[] prefixes = {"appliance-", "lab-", "store-", "edge-", "dc-"};
+        String[] statuses = {LIVE_STATUS, LIVE_STATUS, LIVE_STATUS, OFFLINE_STATUS, "DEGRADED"};
+        List<Appliance> fleet = new ArrayList<>(APPLIANCES);
+        for (int i = 0; i < APPLIANCES; i++) {
+            String id = prefixes[i % prefixes.length] + i + (i % 7 == 0 ? "-pos" : "");
+            String lastHeardFromOn = i % 50 == 0 ? null : now.minusSeconds(i % 7_200).toString();
+            fleet.add(new Appliance(id, statuses[(i / prefixes.length) % statuses.length], lastHeardFromOn));
+        }
+        return fleet;
+    }
+}
@@ -0,0 +1,80 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.model.StalenessRule;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.octtools.appliance.support.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StalenessPolicyServiceTest {
+
+    private static final String ACTOR = "operator";
+
+    @Test
+    void constructor_bindsConfiguredRules() {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("appliance.processing.staleness-rules[0].id-prefix", "lab-")
+            .withProperty("appliance.processing.staleness-rules[0].threshold-minutes", "60")
+            .withProperty("appliance.processing.staleness-rules[1].status", OFFLINE_STATUS)
+            .withProperty("appliance.processing.staleness-rules[1].id-pattern", "edge-*")
+            .withProperty("appliance.processing.staleness-rules[1].threshold-minutes", "30");
+
+        StalenessPolicyService service = new StalenessPolicyService(environment, 10);
+
+        assertEquals(2, service.current().getRules().size());
+        assertEquals(Duration.ofMinutes(60), service.current().thresholdFor("lab-1", LIVE_STATUS));
+        assertEquals(Duration.ofMinutes(30), service.current().thresholdFor("edge-7", OFFLINE_STATUS));
+        assertEquals(Duration.ofMinutes(10), service.current().thresholdFor(TEST_APPLIANCE_ID, LIVE_STATUS));
+    }
+
+    @Test
+    void constructor_invalidConfiguredRule_failsStartup() {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("appliance.processing.staleness-rules[0].id-pattern", "");
+
+        assertThrows(IllegalArgumentException.class, () -> new StalenessPolicyService(environment, 10));
+    }
+
+    @Test
+    void updateDefaultThreshold_recompilesRulesWithoutTheirOwn() {
+        StalenessPolicyService service = new StalenessPolicyService(List.of(
+            StalenessRule.builder().status(OFFLINE_STATUS).build(),
+            StalenessRule.builder().idPrefix("lab-").thresholdMinutes(60).build()), 10);
+
+        service.updateDefaultThreshold(20);
+
+        assertEquals(20, service.getDefaultThresholdMinutes());
+        assertEquals(Duration.ofMinutes(20), service.current().thresholdFor(TEST_APPLIANCE_ID, OFFLINE_STATUS));
+        assertEquals(Duration.ofMinutes(20), service.current().thresholdFor(TEST_APPLIANCE_ID, LIVE_STATUS));
+        assertEquals(Duration.ofMinutes(60), service.current().thresholdFor("lab-1", LIVE_STATUS));
+    }
+
+    @Test
+    void replaceRules_swapsPolicy() {
+        StalenessPolicyService service = new StalenessPolicyService(List.of(), 10);
+        StalenessPolicy before = service.current();
+
+        service.replaceRules(List.of(StalenessRule.builder().idPrefix("lab-").thresholdMinutes(60).build()), ACTOR);
+
+        // Evaluations already holding the old policy are unaffected
+        assertEquals(Duration.ofMinutes(10), before.thresholdFor("lab-1", LIVE_STATUS));
+        assertEquals(Duration.ofMinutes(60), service.current().thresholdFor("lab-1", LIVE_STATUS));
+    }
+
+    @Test
+    void replaceRules_invalidRules_keepCurrentPolicy() {
+        StalenessPolicyService service = new StalenessPolicyService(
+            List.of(StalenessRule.builder().idPrefix("lab-").thresholdMinutes(60).build()), 10);
+        StalenessPolicy before = service.current();
+
+        assertThrows(IllegalArgumentException.class, () -> service.replaceRules(List.of(
+            StalenessRule.builder().idPrefix("edge-").thresholdMinutes(5).build(),
+            StalenessRule.builder().idPattern("").build()), ACTOR));
+
+        assertSame(before, service.current());
+    }
+}
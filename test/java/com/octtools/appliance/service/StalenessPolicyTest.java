@@ -0,0 +1,100 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.model.StalenessRule;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.octtools.appliance.support.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StalenessPolicyTest {
+
+    private static final Duration DEFAULT_THRESHOLD = Duration.ofMinutes(10);
+
+    @Test
+    void compile_noRules_onlyLiveAppliancesUseDefault() {
+        StalenessPolicy policy = StalenessPolicy.compile(List.of(), DEFAULT_THRESHOLD);
+
+        assertEquals(DEFAULT_THRESHOLD, policy.thresholdFor(TEST_APPLIANCE_ID, LIVE_STATUS));
+        assertEquals(DEFAULT_THRESHOLD, policy.thresholdFor(null, LIVE_STATUS));
+        assertNull(policy.thresholdFor(TEST_APPLIANCE_ID, OFFLINE_STATUS));
+        assertNull(policy.thresholdFor(TEST_APPLIANCE_ID, null));
+    }
+
+    @Test
+    void thresholdFor_firstMatchingRuleWins() {
+        StalenessPolicy policy = StalenessPolicy.compile(List.of(
+            StalenessRule.builder().idPrefix("lab-").idPattern("lab-*-core").thresholdMinutes(5).build(),
+            StalenessRule.builder().idPrefix("lab-").thresholdMinutes(60).build(),
+            StalenessRule.builder().idPattern("*-edge").thresholdMinutes(20).build()), DEFAULT_THRESHOLD);
+
+        assertEquals(Duration.ofMinutes(5), policy.thresholdFor("lab-42-core", LIVE_STATUS));
+        assertEquals(Duration.ofMinutes(60), policy.thresholdFor("lab-42-edge", LIVE_STATUS));
+        assertEquals(Duration.ofMinutes(20), policy.thresholdFor("store-7-edge", LIVE_STATUS));
+        assertEquals(DEFAULT_THRESHOLD, policy.thresholdFor(TEST_APPLIANCE_ID, LIVE_STATUS));
+        assertEquals(DEFAULT_THRESHOLD, policy.thresholdFor(null, LIVE_STATUS));
+    }
+
+    @Test
+    void thresholdFor_statusRulesOnlyCoverTheirStatus() {
+        StalenessPolicy policy = StalenessPolicy.compile(List.of(
+            StalenessRule.builder().status(OFFLINE_STATUS).idPrefix("lab-").build(),
+            StalenessRule.builder().status(LIVE_STATUS).idPrefix("lab-").thresholdMinutes(60).build()), DEFAULT_THRESHOLD);
+
+        // A rule without its own threshold follows the default
+        assertEquals(DEFAULT_THRESHOLD, policy.thresholdFor("lab-1", OFFLINE_STATUS));
+        assertNull(policy.thresholdFor(TEST_APPLIANCE_ID, OFFLINE_STATUS));
+        assertEquals(Duration.ofMinutes(60), policy.thresholdFor("lab-1", LIVE_STATUS));
+    }
+
+    @Test
+    void compile_catchAllRuleReplacesDefault() {
+        StalenessPolicy policy = StalenessPolicy.compile(List.of(
+            StalenessRule.builder().thresholdMinutes(15).build(),
+            StalenessRule.builder().idPrefix("lab-").thresholdMinutes(60).build()), DEFAULT_THRESHOLD);
+
+        assertEquals(Duration.ofMinutes(15), policy.thresholdFor("lab-1", LIVE_STATUS));
+        assertEquals(Duration.ofMinutes(15), policy.thresholdFor(TEST_APPLIANCE_ID, LIVE_STATUS));
+        assertEquals(2, policy.getRules().size());
+    }
+
+    @Test
+    void compile_rejectsInvalidRules() {
+        assertThrows(IllegalArgumentException.class, () -> StalenessPolicy.compile(List.of(), Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> StalenessPolicy.compile(null, DEFAULT_THRESHOLD));
+        assertThrows(IllegalArgumentException.class, () -> StalenessPolicy.compile(
+            List.of(StalenessRule.builder().idPrefix("lab-").thresholdMinutes(0).build()), DEFAULT_THRESHOLD));
+        assertThrows(IllegalArgumentException.class, () -> StalenessPolicy.compile(
+            List.of(StalenessRule.builder().idPattern("").build()), DEFAULT_THRESHOLD));
+        assertThrows(IllegalArgumentException.class, () -> StalenessPolicy.compile(
+            List.of(StalenessRule.builder().idPattern("*".repeat(StalenessPolicy.MAX_ID_PATTERN_LENGTH + 1)).build()), DEFAULT_THRESHOLD));
+        assertThrows(IllegalArgumentException.class, () -> StalenessPolicy.compile(
+            List.of(StalenessRule.builder().status(" ").build()), DEFAULT_THRESHOLD));
+        assertThrows(IllegalArgumentException.class, () -> StalenessPolicy.compile(
+            List.of(StalenessRule.builder().idPrefix("").build()), DEFAULT_THRESHOLD));
+    }
+
+    @Test
+    void globMatches_wildcardsMatchWholeId() {
+        assertTrue(StalenessPolicy.globMatches("lab-*-core", "lab-42-core"));
+        assertTrue(StalenessPolicy.globMatches("lab-*-core", "lab--core"));
+        assertTrue(StalenessPolicy.globMatches("lab-?", "lab-7"));
+        assertTrue(StalenessPolicy.globMatches("*", ""));
+        assertTrue(StalenessPolicy.globMatches("a*b*c", "a-b-b-c"));
+        assertFalse(StalenessPolicy.globMatches("lab-*-core", "lab-42-core-2"));
+        assertFalse(StalenessPolicy.globMatches("lab-?", "lab-42"));
+        assertFalse(StalenessPolicy.globMatches("lab-", "lab-1"));
+        // Regex syntax is literal
+        assertFalse(StalenessPolicy.globMatches("lab-[0-9]+", "lab-1"));
+    }
+
+    @Test
+    void globMatches_adversarialPatternStaysBounded() {
+        String pattern = "*a".repeat(StalenessPolicy.MAX_ID_PATTERN_LENGTH / 2);
+        String id = "a".repeat(10_000) + "b";
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> assertFalse(StalenessPolicy.globMatches(pattern, id)));
+    }
+}
@@ -0,0 +1,108 @@
+package com.octtools.appliance.service;
+
+import com.octtools.appliance.model.Appliance;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.octtools.appliance.support.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StalenessTimingWheelTest {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 8;
+
+    private final Instant origin = Instant.parse("2026-01-01T00:00:00Z");
+    private final List<String> fired = new ArrayList<>();
+    private StalenessTimingWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new StalenessTimingWheel(true, TICK_MILLIS, WHEEL_SIZE, origin);
+        wheel.setExpiryHandler(appliance -> fired.add(appliance.getId()));
+    }
+
+    private Appliance appliance(String id) {
+        return new Appliance(id, LIVE_STATUS, TIMESTAMP_2, TEST_BACKEND);
+    }
+
+    @Test
+    void constructor_validatesInputs() {
+        assertThrows(IllegalArgumentException.class, () -> new StalenessTimingWheel(true, 0, WHEEL_SIZE, origin));
+        assertThrows(IllegalArgumentException.class, () -> new StalenessTimingWheel(true, TICK_MILLIS, 0, origin));
+    }
+
+    @Test
+    void advance_firesOnlyOnceDeadlinePasses() {
+        wheel.schedule(appliance(TEST_APPLIANCE_ID), origin.plusMillis(3500));
+
+        wheel.advance(origin.plusSeconds(3));
+        assertTrue(fired.isEmpty());
+
+        wheel.advance(origin.plusSeconds(4));
+        assertEquals(List.of(TEST_APPLIANCE_ID), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_deadlineBeyondOneRevolutionWaitsForItsRound() {
+        // 20 ticks away on an 8-slot wheel: the bucket is passed twice before it fires
+        wheel.schedule(appliance(TEST_APPLIANCE_ID), origin.plusSeconds(20));
+
+        wheel.advance(origin.plusSeconds(19));
+        assertTrue(fired.isEmpty());
+
+        wheel.advance(origin.plusSeconds(20));
+        assertEquals(List.of(TEST_APPLIANCE_ID), fired);
+    }
+
+    @Test
+    void schedule_fresherHeartbeatMovesDeadline() {
+        wheel.schedule(appliance(TEST_APPLIANCE_ID), origin.plusSeconds(5));
+        wheel.schedule(appliance(TEST_APPLIANCE_ID), origin.plusSeconds(30));
+
+        wheel.advance(origin.plusSeconds(29));
+        assertTrue(fired.isEmpty());
+        assertEquals(1, wheel.size());
+
+        wheel.advance(origin.plusSeconds(30));
+        assertEquals(List.of(TEST_APPLIANCE_ID), fired);
+    }
+
+    @Test
+    void cancel_preventsExpiry() {
+        wheel.schedule(appliance(TEST_APPLIANCE_ID), origin.plusSeconds(2));
+        wheel.schedule(appliance(TEST_APPLIANCE_ID_2), origin.plusSeconds(2));
+
+        wheel.cancel(TEST_BACKEND, TEST_APPLIANCE_ID);
+        wheel.advance(origin.plusSeconds(5));
+
+        assertEquals(List.of(TEST_APPLIANCE_ID_2), fired);
+    }
+
+    @Test
+    void schedule_sameIdOnTwoBackends_tracksBoth() {
+        wheel.schedule(appliance(TEST_APPLIANCE_ID), origin.plusSeconds(2));
+        wheel.schedule(new Appliance(TEST_APPLIANCE_ID, LIVE_STATUS, TIMESTAMP_2, TEST_BACKEND_2), origin.plusSeconds(3));
+        assertEquals(2, wheel.size());
+
+        wheel.cancel(TEST_BACKEND_2, TEST_APPLIANCE_ID);
+        wheel.advance(origin.plusSeconds(5));
+
+        assertEquals(List.of(TEST_APPLIANCE_ID), fired);
+    }
+
+    @Test
+    void schedule_pastDeadlineFiresOnNextTick() {
+        wheel.advance(origin.plusSeconds(10));
+
+        wheel.schedule(appliance(TEST_APPLIANCE_ID), origin.plusSeconds(1));
+        wheel.advance(origin.plusSeconds(11));
+
+        assertEquals(List.of(TEST_APPLIANCE_ID), fired);
+    }
+}
@@ -0,0 +1,43 @@
+package com.octtools.appliance.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StartupWarmupTest {
+
+    @Mock
+    private ApplianceMonitorService monitorService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void constructor_validatesInputs() {
+        assertThrows(IllegalArgumentException.class, () -> new StartupWarmup(monitorService, objectMapper, true, 0));
+    }
+
+    @Test
+    void run_disabled_doesNothing() {
+        new StartupWarmup(monitorService, objectMapper, false, 5).run();
+
+        verifyNoInteractions(monitorService);
+    }
+
+    @Test
+    void run_checksEverySyntheticAppliance() {
+        StartupWarmup warmup = new StartupWarmup(monitorService, objectMapper, true, 5);
+
+        warmup.run();
+
+        verify(monitorService, times(500)).needsRemediation(any(), any(Instant.class));
+    }
+}
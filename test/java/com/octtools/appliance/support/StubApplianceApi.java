@@ -0,0 +1,300 @@
+package com.octtools.appliance.support;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.octtools.appliance.model.Appliance;
+import com.octtools.appliance.model.api.AppliancePageResponse;
+import com.octtools.appliance.model.api.DrainResponse;
+import com.octtools.appliance.model.api.PageInfo;
+import com.octtools.appliance.model.api.RemediateResponse;
+import lombok.Builder;
+import lombok.Getter;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+
+import javax.net.ServerSocketFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// In-process stand-in for the appliance API. The fleet is generated on demand from the appliance index, so
+// millions of appliances cost no memory; whether an appliance is stale is a deterministic function of its index.
+public class StubApplianceApi implements AutoCloseable {
+
+    private static final Pattern ACTION_PATH = Pattern.compile("/api/1\\.0/appliances/([^/]+)/(drain|remediate)");
+    private static final String APPLIANCES_PATH = "/api/1.0/appliances";
+    private static final Duration STALE_AGE = Duration.ofDays(1);
+    private static final Duration FRESH_AGE = Duration.ofMinutes(1);
+    private static final double Z_99 = 2.326;
+
+    @Getter
+    @Builder
+    public static class Settings {
+        @Builder.Default
+        private final int fleetSize = 10_000;
+        @Builder.Default
+        private final double staleFraction = 0.02;
+        // Log-normal latency given by its median and 99th percentile; 0 disables the delay
+        @Builder.Default
+        private final long latencyMedianMs = 0;
+        @Builder.Default
+        private final long latencyP99Ms = 0;
+        @Builder.Default
+        private final double serverErrorRate = 0;
+        @Builder.Default
+        private final double notFoundRate = 0;
+        // Requests that never get a response, so the client hits its timeout
+        @Builder.Default
+        private final double timeoutRate = 0;
+        // Requests above this rate in any one second get 429; 0 disables the limit
+        @Builder.Default
+        private final int maxRequestsPerSecond = 0;
+    }
+
+    @Getter
+    private final Settings settings;
+    private final MockWebServer server = new MockWebServer();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Long> remediatedAtNanos = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder injectedFailures = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private long rateWindowSecond;
+    private int rateWindowCount;
+
+    public StubApplianceApi(Settings settings) throws IOException {
+        this.settings = settings;
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return handle(request);
+            }
+        });
+        server.setServerSocketFactory(new NoDelayServerSocketFactory());
+        server.start();
+    }
+
+    public String baseUrl() {
+        String url = server.url("/").toString();
+        return url.substring(0, url.length() - 1);
+    }
+
+    public static String applianceId(int index) {
+        return String.format("appliance-%09d", index);
+    }
+
+    public boolean isStale(int index) {
+        long h = (index + 1L) * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 31;
+        h *= 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 29;
+        return (h >>> 11) * 0x1.0p-53 < settings.staleFraction;
+    }
+
+    public int staleCount() {
+        int stale = 0;
+        for (int i = 0; i < settings.fleetSize; i++) {
+            if (isStale(i)) {
+                stale++;
+            }
+        }
+        return stale;
+    }
+
+    // System.nanoTime() of the first successful remediation per appliance since the last reset
+    public Map<String, Long> remediatedAtNanos() {
+        return remediatedAtNanos;
+    }
+
+    public long requestCount() {
+        return requests.sum();
+    }
+
+    public long injectedFailureCount() {
+        return injectedFailures.sum();
+    }
+
+    public long rateLimitedCount() {
+        return rateLimited.sum();
+    }
+
+    public void resetStats() {
+        remediatedAtNanos.clear();
+        requests.reset();
+        injectedFailures.reset();
+        rateLimited.reset();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+
+    private MockResponse handle(RecordedRequest request) {
+        requests.increment();
+        discardRecordedRequest();
+        HttpUrl url = request.getRequestUrl();
+        if (url == null) {
+            return new MockResponse().setResponseCode(400);
+        }
+
+        if (isRateLimited()) {
+            rateLimited.increment();
+            return new MockResponse().setResponseCode(429);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < settings.timeoutRate) {
+            injectedFailures.increment();
+            return new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE);
+        }
+        if (random.nextDouble() < settings.serverErrorRate) {
+            injectedFailures.increment();
+            return delayed(new MockResponse().setResponseCode(503));
+        }
+
+        if ("GET".equals(request.getMethod()) && APPLIANCES_PATH.equals(url.encodedPath())) {
+            return delayed(json(appliancesPage(url)));
+        }
+
+        Matcher action = ACTION_PATH.matcher(url.encodedPath());
+        if ("POST".equals(request.getMethod()) && action.matches()) {
+            if (random.nextDouble() < settings.notFoundRate) {
+                injectedFailures.increment();
+                return delayed(new MockResponse().setResponseCode(404));
+            }
+            if ("drain".equals(action.group(2))) {
+                return delayed(json(new DrainResponse(UUID.randomUUID().toString(), "PT8H6M12.345S")));
+            }
+            // Delay is applied before the response is written, so the timestamp is taken at completion
+            MockResponse response = delayed(json(new RemediateResponse(UUID.randomUUID().toString(), "SUCCESS")));
+            remediatedAtNanos.putIfAbsent(action.group(1), System.nanoTime() + response.getHeadersDelay(TimeUnit.NANOSECONDS));
+            return response;
+        }
+
+        return new MockResponse().setResponseCode(404);
+    }
+
+    // MockWebServer queues every request for takeRequest(); drop one per request so long runs don't grow the heap
+    private void discardRecordedRequest() {
+        try {
+            server.takeRequest(0, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private AppliancePageResponse appliancesPage(HttpUrl url) {
+        int first = Integer.parseInt(url.queryParameter("first") != null ? url.queryParameter("first") : "100");
+        String after = url.queryParameter("after");
+        int start = after == null ? 0 : Integer.parseInt(new String(Base64.getDecoder().decode(after), StandardCharsets.UTF_8)) + 1;
+        int end = Math.min(settings.fleetSize, start + first);
+
+        Instant now = Instant.now();
+        List<Appliance> data = new ArrayList<>(Math.max(0, end - start));
+        for (int i = start; i < end; i++) {
+            Instant lastHeard = now.minus(isStale(i) ? STALE_AGE : FRESH_AGE);
+            data.add(new Appliance(applianceId(i), "LIVE", lastHeard.toString()));
+        }
+
+        String endCursor = end > start
+                ? Base64.getEncoder().encodeToString(String.valueOf(end - 1).getBytes(StandardCharsets.UTF_8))
+                : after;
+        return new AppliancePageResponse(data, new PageInfo(settings.fleetSize, end < settings.fleetSize, endCursor));
+    }
+
+    private synchronized boolean isRateLimited() {
+        if (settings.maxRequestsPerSecond <= 0) {
+            return false;
+        }
+        long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        if (second != rateWindowSecond) {
+            rateWindowSecond = second;
+            rateWindowCount = 0;
+        }
+        return ++rateWindowCount > settings.maxRequestsPerSecond;
+    }
+
+    private MockResponse delayed(MockResponse response) {
+        if (settings.latencyMedianMs <= 0) {
+            return response;
+        }
+        double mu = Math.log(settings.latencyMedianMs);
+        double sigma = Math.max(0, (Math.log(Math.max(settings.latencyP99Ms, settings.latencyMedianMs)) - mu) / Z_99);
+        long delayMs = Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+        return response.setHeadersDelay(delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private MockResponse json(Object body) {
+        try {
+            return new MockResponse()
+                    .setHeader("Content-Type", "application/json")
+                    .setBody(objectMapper.writeValueAsString(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize stub response", e);
+        }
+    }
+
+    // MockWebServer writes headers and body separately; without TCP_NODELAY the client's delayed ACK
+    // adds tens of milliseconds to every response
+    private static class NoDelayServerSocketFactory extends ServerSocketFactory {
+
+        // What new ServerSocket(port) uses
+        private static final int DEFAULT_BACKLOG = 50;
+
+        @Override
+        public ServerSocket createServerSocket() throws IOException {
+            return new ServerSocket() {
+                @Override
+                public Socket accept() throws IOException {
+                    Socket socket = super.accept();
+                    socket.setTcpNoDelay(true);
+                    return socket;
+                }
+            };
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port) throws IOException {
+            return createServerSocket(port, DEFAULT_BACKLOG, null);
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog) throws IOException {
+            return createServerSocket(port, backlog, null);
+        }
+
+        // A null address binds the wildcard address, as the matching ServerSocket constructor does
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog, InetAddress address) throws IOException {
+            ServerSocket socket = createServerSocket();
+            try {
+                socket.bind(new InetSocketAddress(address, port), backlog);
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+            return socket;
+        }
+    }
+}
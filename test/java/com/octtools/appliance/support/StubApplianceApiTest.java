@@ -0,0 +1,157 @@
+package com.octtools.appliance.support;
+
+import com.octtools.appliance.client.ApplianceApiClient;
+import com.octtools.appliance.client.ApplianceBackend;
+import com.octtools.appliance.client.ApplianceBackends;
+import com.octtools.appliance.client.PageFetchHedging;
+import com.octtools.appliance.client.RetryBudget;
+import com.octtools.appliance.model.Appliance;
+import com.octtools.appliance.model.api.AppliancePageResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.octtools.appliance.support.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StubApplianceApiTest {
+
+    private StubApplianceApi stub;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        stub.close();
+    }
+
+    @Test
+    void getAppliances_pagesThroughWholeFleet() throws Exception {
+        stub = new StubApplianceApi(StubApplianceApi.Settings.builder().fleetSize(250).staleFraction(0.1).build());
+        ApplianceApiClient client = client(5);
+
+        Set<String> ids = new HashSet<>();
+        int stale = 0;
+        String after = null;
+        AppliancePageResponse page;
+        do {
+            page = client.getAppliances(TEST_BACKEND, after, 100);
+            for (Appliance appliance : page.getData()) {
+                ids.add(appliance.getId());
+                assertEquals(LIVE_STATUS, appliance.getOpStatus());
+                if (Duration.between(Instant.parse(appliance.getLastHeardFromOn()), Instant.now()).toMinutes() > 10) {
+                    stale++;
+                }
+            }
+            after = page.getPageInfo().getEndCursor();
+        } while (page.getPageInfo().isHasNextPage());
+
+        assertEquals(250, ids.size());
+        assertEquals(250, page.getPageInfo().getTotalCount());
+        assertEquals(stub.staleCount(), stale);
+    }
+
+    @Test
+    void staleCount_tracksStaleFraction() throws Exception {
+        stub = new StubApplianceApi(StubApplianceApi.Settings.builder().fleetSize(100_000).staleFraction(0.05).build());
+
+        assertEquals(5_000, stub.staleCount(), 250);
+    }
+
+    @Test
+    void remediate_recordsCompletionOncePerAppliance() throws Exception {
+        stub = new StubApplianceApi(StubApplianceApi.Settings.builder().build());
+        ApplianceApiClient client = client(5);
+
+        assertNotNull(client.drainAppliance(TEST_BACKEND, TEST_APPLIANCE_ID).getDrainId());
+        assertEquals(REMEDIATION_RESULT, client.remediateAppliance(TEST_BACKEND, TEST_APPLIANCE_ID).getRemediationResult());
+        client.remediateAppliance(TEST_BACKEND, TEST_APPLIANCE_ID);
+
+        assertEquals(Set.of(TEST_APPLIANCE_ID), stub.remediatedAtNanos().keySet());
+        assertEquals(3, stub.requestCount());
+    }
+
+    @Test
+    void injectsServerErrorsAndNotFound() throws Exception {
+        stub = new StubApplianceApi(StubApplianceApi.Settings.builder().serverErrorRate(1.0).build());
+        assertThrows(WebClientResponseException.ServiceUnavailable.class, () -> client(5).getAppliances(TEST_BACKEND, null, 10));
+        stub.close();
+
+        stub = new StubApplianceApi(StubApplianceApi.Settings.builder().notFoundRate(1.0).build());
+        assertThrows(WebClientResponseException.NotFound.class, () -> client(5).drainAppliance(TEST_BACKEND, TEST_APPLIANCE_ID));
+        assertEquals(1, stub.injectedFailureCount());
+    }
+
+    @Test
+    void injectsTimeouts() throws Exception {
+        stub = new StubApplianceApi(StubApplianceApi.Settings.builder().timeoutRate(1.0).build());
+
+        assertThrows(RuntimeException.class, () -> client(1).getAppliances(TEST_BACKEND, null, 10));
+    }
+
+    @Test
+    void rejectsRequestsAboveRateLimit() throws Exception {
+        stub = new StubApplianceApi(StubApplianceApi.Settings.builder().maxRequestsPerSecond(1).build());
+        ApplianceApiClient client = client(5);
+
+        // Keep sending until two requests land in the same one-second window
+        int rejected = 0;
+        for (int i = 0; i < 100 && rejected == 0; i++) {
+            try {
+                client.getAppliances(TEST_BACKEND, null, 10);
+            } catch (WebClientResponseException.TooManyRequests e) {
+                rejected++;
+            }
+        }
+
+        assertEquals(1, rejected);
+        assertEquals(1, stub.rateLimitedCount());
+    }
+
+    @Test
+    void appliesConfiguredLatency() throws Exception {
+        stub = new StubApplianceApi(StubApplianceApi.Settings.builder().latencyMedianMs(50).latencyP99Ms(50).build());
+        ApplianceApiClient client = client(5);
+
+        long start = System.nanoTime();
+        client.getAppliances(TEST_BACKEND, null, 10);
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 45);
+    }
+
+    @Test
+    void backendRateLimit_keepsRequestsUnderUpstreamLimit() throws Exception {
+        stub = new StubApplianceApi(StubApplianceApi.Settings.builder().maxRequestsPerSecond(5).build());
+        ApplianceApiClient client = client(5, 4);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            client.getAppliances(TEST_BACKEND, null, 10);
+        }
+
+        assertEquals(0, stub.rateLimitedCount());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 2000);
+    }
+
+    private ApplianceApiClient client(int timeoutSeconds) {
+        return client(timeoutSeconds, 0);
+    }
+
+    private ApplianceApiClient client(int timeoutSeconds, double maxRequestsPerSecond) {
+        ApplianceBackend backend = ApplianceBackend.builder()
+                .name(TEST_BACKEND)
+                .webClient(WebClient.create(stub.baseUrl()))
+                .maxRequestsPerSecond(maxRequestsPerSecond)
+                .build();
+        return new ApplianceApiClient(new ApplianceBackends(List.of(backend)),
+                new RetryBudget(new SimpleMeterRegistry(), 0.2, 10, 10),
+                new PageFetchHedging(new SimpleMeterRegistry(), false, 0.95, 200, 20, 50, 0.1),
+                timeoutSeconds, TEST_EMAIL);
+    }
+}
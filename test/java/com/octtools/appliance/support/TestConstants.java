@@ -11,6 +11,10 @@ public final class TestConstants {
     public static final String TIMESTAMP_1 = "2023-04-19T10:55:21.658540-07:00";
     public static final String TIMESTAMP_2 = "2023-01-01T10:00:00Z";
     
+    // Appliance API Backends
+    public static final String TEST_BACKEND = "us-east";
+    public static final String TEST_BACKEND_2 = "eu-west";
+    
     // Email Addresses
     public static final String TEST_EMAIL = "test@example.com";
     public static final String ENGINEER_EMAIL = "engineer@company.com";
@@ -32,6 +36,7 @@ public final class TestConstants {
     public static final Long OPERATION_ID = 9999L;
     public static final String DRAIN_OPERATION_TYPE = "DRAIN";
     public static final String REMEDIATE_OPERATION_TYPE = "REMEDIATE";
+    public static final String CYCLE_OPERATION_TYPE = "REMEDIATION_CYCLE";
     
     private TestConstants() {
         // Utility class - prevent instantiation
@@ -0,0 +1,112 @@
+package com.octtools.appliance.tracing;
+
+import com.octtools.appliance.model.PhaseLatency;
+import com.octtools.appliance.model.RemediationTraceSummary;
+import com.octtools.appliance.model.TraceSpan;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.octtools.appliance.support.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RemediationTracerTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final RemediationTracer tracer = new RemediationTracer(true, 3);
+
+    @Test
+    void constructor_validatesInputs() {
+        assertThrows(IllegalArgumentException.class, () -> new RemediationTracer(true, 0));
+    }
+
+    @Test
+    void recordAttempt_addsRetryBackoffBetweenFailedAndNextAttempt() {
+        RemediationTrace trace = tracer.start(TEST_APPLIANCE_ID);
+        long t0 = System.nanoTime();
+        trace.addAttempt("drain", t0, t0 + 10 * MS, "503");
+        trace.addAttempt("drain", t0 + 510 * MS, t0 + 520 * MS, RemediationTrace.OUTCOME_OK);
+        trace.addAttempt("remediate", t0 + 520 * MS, t0 + 530 * MS, RemediationTrace.OUTCOME_OK);
+        tracer.finish(trace, RemediationTracer.OUTCOME_SUCCESS);
+
+        List<TraceSpan> spans = tracer.slowest(1).get(0).getSpans();
+
+        assertEquals(List.of("drain.http", "drain.retry_backoff", "drain.http", "remediate.http"),
+                spans.stream().map(TraceSpan::getPhase).toList());
+        assertEquals("503", spans.get(0).getOutcome());
+        assertEquals(500, spans.get(1).getDurationMs(), 0.001);
+    }
+
+    @Test
+    void recordAttempt_withoutAttachedTrace_isIgnored() {
+        RemediationTrace.recordAttempt("drain", System.nanoTime(), RemediationTrace.OUTCOME_OK);
+
+        assertTrue(tracer.slowest(10).isEmpty());
+    }
+
+    @Test
+    void recordSpan_addsToAttachedTrace() {
+        RemediationTrace trace = tracer.start(TEST_APPLIANCE_ID);
+        trace.attach();
+        try {
+            RemediationTrace.recordSpan(RemediationTrace.DB_SAVE, System.nanoTime());
+        } finally {
+            trace.detach();
+        }
+        tracer.finish(trace, RemediationTracer.OUTCOME_SUCCESS);
+
+        assertEquals(RemediationTrace.DB_SAVE, tracer.slowest(1).get(0).getSpans().get(0).getPhase());
+    }
+
+    @Test
+    void slowest_keepsMostRecentTracesSortedByDuration() {
+        long now = System.nanoTime();
+        finish("appliance-1", now - 10 * MS);
+        finish("appliance-2", now - 40 * MS);
+        finish("appliance-3", now - 20 * MS);
+        finish("appliance-4", now - 30 * MS);
+
+        List<RemediationTraceSummary> slowest = tracer.slowest(10);
+
+        // appliance-1 was evicted from the three-entry buffer
+        assertEquals(List.of("appliance-2", "appliance-4", "appliance-3"),
+                slowest.stream().map(RemediationTraceSummary::getApplianceId).toList());
+        assertEquals(2, tracer.slowest(2).size());
+    }
+
+    @Test
+    void phaseBreakdown_sumsTimePerPhase() {
+        RemediationTrace trace = tracer.start(TEST_APPLIANCE_ID);
+        long t0 = System.nanoTime();
+        trace.addSpan(RemediationTrace.QUEUE, t0, t0 + 30 * MS, null);
+        trace.addSpan(RemediationTrace.DB_SAVE, t0 + 30 * MS, t0 + 40 * MS, null);
+        trace.addSpan(RemediationTrace.DB_SAVE, t0 + 40 * MS, t0 + 50 * MS, null);
+        tracer.finish(trace, RemediationTracer.OUTCOME_SUCCESS);
+
+        List<PhaseLatency> phases = tracer.phaseBreakdown();
+
+        assertEquals(2, phases.size());
+        assertEquals(RemediationTrace.QUEUE, phases.get(0).getPhase());
+        assertEquals(0.6, phases.get(0).getShareOfTotal(), 0.001);
+        PhaseLatency save = phases.get(1);
+        assertEquals(2, save.getSpans());
+        assertEquals(20, save.getTotalMs(), 0.001);
+        assertEquals(10, save.getAverageMs(), 0.001);
+    }
+
+    @Test
+    void finish_disabledTracer_keepsNothing() {
+        RemediationTracer disabled = new RemediationTracer(false, 3);
+        RemediationTrace trace = disabled.startDetected(TEST_APPLIANCE_ID, System.nanoTime());
+
+        disabled.finish(trace, RemediationTracer.OUTCOME_SUCCESS);
+
+        assertTrue(disabled.slowest(10).isEmpty());
+    }
+
+    private void finish(String applianceId, long detectionStartNanos) {
+        tracer.finish(tracer.startDetected(applianceId, detectionStartNanos), RemediationTracer.OUTCOME_SUCCESS);
+    }
+}